@@ -0,0 +1,116 @@
+package com.project.cms.bench;
+
+import com.project.cms.dao.contact.BatchInsertResult;
+import com.project.cms.dao.contact.ContactDao;
+import com.project.cms.model.Contact;
+import com.project.cms.util.DbConnection;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Embedded H2 database standing in for MySQL during the benchmarks.
+ * <p>
+ * {@link DbConnection} reads its URL from system properties when the class
+ * is loaded, so every benchmark that touches the database forks its JVM with
+ * {@link #URL_ARG}, {@link #USER_ARG} and {@link #PASSWORD_ARG}.
+ * H2 runs in MySQL compatibility mode; it does not reproduce the Turkish
+ * collation or the network round trip, so absolute numbers are lower than
+ * against a real server, but regressions in the Java code still show.
+ */
+public final class BenchmarkDatabase {
+
+    /** JVM argument pointing {@link DbConnection} at an in-memory H2 database. */
+    public static final String URL_ARG =
+            "-Dcms.db.url=jdbc:h2:mem:cms;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    /** JVM argument with the H2 default user. */
+    public static final String USER_ARG = "-Dcms.db.user=sa";
+
+    /** JVM argument with the (empty) H2 default password. */
+    public static final String PASSWORD_ARG = "-Dcms.db.password=";
+
+    private static final String[] FIRST_NAMES = {
+            "Ahmet", "Mehmet", "Ayşe", "Emre", "Zeynep", "Burak", "Gizem", "Onur",
+            "Didem", "Barış", "Elif", "Tolga", "Selim", "Tuğçe", "Kaan", "Ceren"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Yılmaz", "Kara", "Demir", "Aydın", "Arslan", "Çelik", "Öztürk", "Şahin",
+            "Polat", "Güneş", "Uçar", "Avcı", "Koç", "Yıldırım", "Özdemir", "Dinç"
+    };
+
+    private static final String[] CITIES = {
+            "İstanbul", "Ankara", "İzmir", "Adana", "Antalya", "Trabzon", "Gaziantep", "Kayseri",
+            "Mersin", "Hatay", "Eskişehir", "Kocaeli", "Samsun", "Denizli", "Malatya", "Erzurum"
+    };
+
+    private BenchmarkDatabase() {}
+
+    /**
+     * Drops and recreates the contacts table, then inserts {@code rows}
+     * generated contacts through the DAO batch path.
+     *
+     * @param dao  the DAO used for seeding
+     * @param rows number of contacts to insert
+     */
+    public static void reset(ContactDao dao, int rows) {
+        runScript("/h2-schema.sql");
+
+        List<Contact> contacts = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            contacts.add(contact(i));
+        }
+
+        BatchInsertResult result = dao.addContactsBatch(contacts, ContactDao.DEFAULT_BATCH_SIZE, false);
+        if (result.hasFailures()) {
+            throw new IllegalStateException("Seeding failed: " + result.getFailures().values().iterator().next());
+        }
+    }
+
+    /**
+     * Builds a valid, deterministic contact; different {@code i} give different
+     * phones and e-mails, names and cities repeat every 16 rows.
+     *
+     * @param i sequence number of the contact
+     * @return the contact (without ID)
+     */
+    public static Contact contact(int i) {
+        Contact c = new Contact();
+        c.setFirstName(FIRST_NAMES[i % FIRST_NAMES.length]);
+        c.setLastName(LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length]);
+        c.setNickname("nick_" + i);
+        c.setCity(CITIES[(i * 7) % CITIES.length]);
+        c.setPhonePrimary(String.format("+90555%07d", i));
+        c.setEmail("contact" + i + "@example.com");
+        c.setLinkedinUrl(i % 3 == 0 ? "https://linkedin.com/in/contact" + i : null);
+        c.setBirthDate(LocalDate.of(1960 + i % 45, 1 + i % 12, 1 + i % 28));
+        return c;
+    }
+
+    private static void runScript(String resource) {
+        String script;
+        try (InputStream in = BenchmarkDatabase.class.getResourceAsStream(resource)) {
+            if (in == null) throw new IllegalStateException("Missing resource " + resource);
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + resource, e);
+        }
+
+        try (Connection conn = DbConnection.getConnection();
+             Statement st = conn.createStatement()) {
+            for (String sql : script.split(";")) {
+                String trimmed = sql.replaceAll("(?m)^--.*$", "").trim();
+                if (!trimmed.isEmpty()) st.execute(trimmed);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot create benchmark schema", e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.project.cms.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of the benchmark jar.
+ * <p>
+ * Delegates to the JMH command line, but writes the results as JSON to
+ * {@code jmh-result.json} unless {@code -rf}/{@code -rff} are given, so every
+ * run leaves a machine-readable file that can be compared with the one of a
+ * previous release (e.g. with a JMH result visualizer or a diff script).
+ * All other JMH options (benchmark regex, {@code -p rows=10000}, ...) are passed through.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    /**
+     * @param args JMH command line options
+     * @throws Exception if JMH fails
+     */
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf")) {
+            options.add("-rf");
+            options.add("json");
+        }
+        if (!options.contains("-rff")) {
+            options.add("-rff");
+            options.add("jmh-result.json");
+        }
+        org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+    }
+}
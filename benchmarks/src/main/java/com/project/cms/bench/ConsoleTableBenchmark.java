@@ -0,0 +1,66 @@
+package com.project.cms.bench;
+
+import com.project.cms.util.ConsoleTable;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rendering a large contact table with {@link ConsoleTable#printTable}.
+ * Output goes to a discarding stream, so the number is formatting and
+ * encoding cost without the terminal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsoleTableBenchmark {
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private final List<String> headers = List.of(
+            "ID", "First Name", "Last Name", "Nickname", "City", "Phone", "Email", "Birth Date");
+    private List<List<String>> table;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() {
+        table = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            var c = BenchmarkDatabase.contact(i);
+            table.add(List.of(
+                    String.valueOf(i + 1), c.getFirstName(), c.getLastName(), c.getNickname(),
+                    c.getCity(), c.getPhonePrimary(), c.getEmail(), String.valueOf(c.getBirthDate())));
+        }
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream(), false));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public void printTable() {
+        ConsoleTable.printTable(headers, table);
+    }
+}
@@ -0,0 +1,119 @@
+package com.project.cms.bench;
+
+import com.project.cms.dao.contact.ContactDao;
+import com.project.cms.dao.contact.ContactDaoImpl;
+import com.project.cms.model.Contact;
+import com.project.cms.model.ContactPage;
+import com.project.cms.model.SearchCriteria;
+import com.project.cms.util.DbConnection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CRUD, search, sort and pagination through {@link ContactDaoImpl}
+ * against an embedded database (see {@link BenchmarkDatabase}).
+ * <p>
+ * The first search starts the background load of the search index, so the
+ * warm-up iterations cover the SQL fallback and the measurement the index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {BenchmarkDatabase.URL_ARG, BenchmarkDatabase.USER_ARG, BenchmarkDatabase.PASSWORD_ARG})
+public class ContactDaoBenchmark {
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private ContactDao dao;
+    private SearchCriteria citySearch;
+    private SearchCriteria twoFieldSearch;
+    private Contact template;
+    private int[] versions;
+
+    @Setup
+    public void setUp() {
+        dao = new ContactDaoImpl();
+        BenchmarkDatabase.reset(dao, rows);
+
+        citySearch = new SearchCriteria();
+        citySearch.add("city", "zmi");
+
+        twoFieldSearch = new SearchCriteria();
+        twoFieldSearch.add("first_name", "Ay");
+        twoFieldSearch.add("last_name", "Yıl");
+
+        template = BenchmarkDatabase.contact(rows + 1);
+        versions = new int[rows + 1];
+    }
+
+    @TearDown
+    public void tearDown() {
+        DbConnection.shutdown();
+    }
+
+    private int randomId() {
+        return 1 + ThreadLocalRandom.current().nextInt(rows);
+    }
+
+    @Benchmark
+    public Contact findById() {
+        return dao.findById(randomId());
+    }
+
+    @Benchmark
+    public boolean insertThenDelete() {
+        int id = dao.addContact(template);
+        return dao.deleteContactById(id);
+    }
+
+    @Benchmark
+    public boolean update() {
+        Contact c = BenchmarkDatabase.contact(0);
+        c.setContactId(randomId());
+        c.setVersion(versions[c.getContactId()]);
+        boolean ok = dao.updateContact(c);
+        if (ok) versions[c.getContactId()]++;
+        return ok;
+    }
+
+    @Benchmark
+    public List<Contact> searchSingleField() {
+        return dao.search(citySearch);
+    }
+
+    @Benchmark
+    public List<Contact> searchTwoFields() {
+        return dao.search(twoFieldSearch);
+    }
+
+    @Benchmark
+    public ContactPage searchFirstPage() {
+        return dao.searchPage(citySearch, null, 20);
+    }
+
+    @Benchmark
+    public List<Contact> findAllSorted() {
+        return dao.findAllSorted("last_name", true);
+    }
+
+    @Benchmark
+    public ContactPage findFirstPageSorted() {
+        return dao.findPage("last_name", true, null, 20);
+    }
+}
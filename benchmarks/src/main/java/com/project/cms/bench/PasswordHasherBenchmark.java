@@ -0,0 +1,76 @@
+package com.project.cms.bench;
+
+import com.project.cms.util.PasswordHasher;
+import com.project.cms.util.Pbkdf2HashEngine;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of hashing a new password and of checking a login attempt, for a
+ * few PBKDF2 cost factors and for the legacy single SHA-256 format, plus
+ * the login throughput of the machine with all cores verifying.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHasherBenchmark {
+
+    private static final String PASSWORD = "Str0ng!Passw0rd";
+
+    /** "hash:salt" of {@link #PASSWORD} in the original format. */
+    private static final String LEGACY_STORED = "bvfEgYYfbwsoMtbz+Ue53D13QlhtwpFWVznvEi6Vovo=:AAECAwQFBgcICQoLDA0ODw==";
+
+    @Param({"10000", "100000", "310000"})
+    private int iterations;
+
+    private String stored;
+
+    @Setup
+    public void setUp() {
+        PasswordHasher.setEngine(new Pbkdf2HashEngine(iterations));
+        stored = PasswordHasher.hashPassword(PASSWORD);
+    }
+
+    @Benchmark
+    public String hashPassword() {
+        return PasswordHasher.hashPassword(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verifyCorrectPassword() {
+        return PasswordHasher.verifyPassword(PASSWORD, stored);
+    }
+
+    @Benchmark
+    public boolean verifyWrongPassword() {
+        return PasswordHasher.verifyPassword("wrong-password", stored);
+    }
+
+    @Benchmark
+    public boolean verifyLegacyPassword() {
+        return PasswordHasher.verifyPassword(PASSWORD, LEGACY_STORED);
+    }
+
+    /** Logins per second the machine sustains with every core verifying. */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(Threads.MAX)
+    public boolean loginThroughput() {
+        return PasswordHasher.verifyPassword(PASSWORD, stored);
+    }
+}
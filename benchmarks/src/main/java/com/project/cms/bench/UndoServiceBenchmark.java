@@ -0,0 +1,72 @@
+package com.project.cms.bench;
+
+import com.project.cms.dao.contact.ContactDao;
+import com.project.cms.dao.contact.ContactDaoImpl;
+import com.project.cms.model.Contact;
+import com.project.cms.model.RoleType;
+import com.project.cms.model.User;
+import com.project.cms.service.ContactServiceImpl;
+import com.project.cms.service.UndoServiceImpl;
+import com.project.cms.service.UserServiceImpl;
+import com.project.cms.util.DbConnection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A contact update that records an undo action, followed by undoing it,
+ * through the real services on the embedded database. Each invocation
+ * leaves the table as it found it, so the undo stack does not grow.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {BenchmarkDatabase.URL_ARG, BenchmarkDatabase.USER_ARG, BenchmarkDatabase.PASSWORD_ARG})
+public class UndoServiceBenchmark {
+
+    private ContactServiceImpl contactService;
+    private UndoServiceImpl undoService;
+    private User senior;
+    private Contact edited;
+
+    @Setup
+    public void setUp() throws Exception {
+        ContactDao dao = new ContactDaoImpl();
+        BenchmarkDatabase.reset(dao, 100);
+
+        UserServiceImpl userService = new UserServiceImpl(null);
+        contactService = new ContactServiceImpl(null, userService);
+        undoService = new UndoServiceImpl(contactService, userService);
+        contactService.setUndoService(undoService);
+
+        senior = new User();
+        senior.setUserId(1);
+        senior.setRole(RoleType.SENIOR_DEVELOPER);
+
+        edited = contactService.getContactById(1);
+        edited.setCity("Bursa");
+    }
+
+    @TearDown
+    public void tearDown() {
+        DbConnection.shutdown();
+    }
+
+    @Benchmark
+    public void updateAndUndo() throws Exception {
+        contactService.updateContact(edited, senior);
+        undoService.undo(senior);
+        edited.setVersion(edited.getVersion() + 1);     // the undo was an update too
+    }
+}
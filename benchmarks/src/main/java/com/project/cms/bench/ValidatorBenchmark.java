@@ -0,0 +1,58 @@
+package com.project.cms.bench;
+
+import com.project.cms.exception.AppExceptions.ValidationException;
+import com.project.cms.model.Contact;
+import com.project.cms.util.Validator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Validator#validateContact(Contact)} on a valid contact and on one
+ * rejected at the last check (so the exception path is included).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+
+    private Contact valid;
+    private Contact invalidEmail;
+
+    @Setup
+    public void setUp() {
+        valid = BenchmarkDatabase.contact(42);
+        invalidEmail = BenchmarkDatabase.contact(43);
+        invalidEmail.setEmail("not-an-email");
+    }
+
+    @Benchmark
+    public boolean validContact() {
+        return validate(valid);
+    }
+
+    @Benchmark
+    public boolean invalidContact() {
+        return validate(invalidEmail);
+    }
+
+    private static boolean validate(Contact c) {
+        try {
+            Validator.validateContact(c);
+            return true;
+        } catch (ValidationException e) {
+            return false;
+        }
+    }
+}
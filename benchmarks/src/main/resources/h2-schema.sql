@@ -0,0 +1,28 @@
+-- contacts table of Group18.sql in H2 syntax (MODE=MySQL), used by the benchmarks
+DROP TABLE IF EXISTS contacts;
+
+CREATE TABLE contacts (
+    contact_id INT AUTO_INCREMENT PRIMARY KEY,
+    first_name VARCHAR(50) NOT NULL,
+    middle_name VARCHAR(50),
+    last_name VARCHAR(50) NOT NULL,
+    nickname VARCHAR(50) NOT NULL,
+    city VARCHAR(50) NOT NULL,
+    phone_primary VARCHAR(20) NOT NULL,
+    phone_secondary VARCHAR(20),
+    email VARCHAR(100) NOT NULL,
+    linkedin_url VARCHAR(255),
+    birth_date DATE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NULL DEFAULT NULL,
+    version INT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_contacts_first_name ON contacts (first_name, contact_id);
+CREATE INDEX idx_contacts_last_name ON contacts (last_name, contact_id);
+CREATE INDEX idx_contacts_nickname ON contacts (nickname, contact_id);
+CREATE INDEX idx_contacts_city ON contacts (city, contact_id);
+CREATE INDEX idx_contacts_phone_primary ON contacts (phone_primary, contact_id);
+CREATE INDEX idx_contacts_email ON contacts (email, contact_id);
+CREATE INDEX idx_contacts_birth_date ON contacts (birth_date, contact_id);
+CREATE INDEX idx_contacts_created_at ON contacts (created_at, contact_id);
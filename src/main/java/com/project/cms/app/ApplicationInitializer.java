@@ -1,9 +1,10 @@
 package com.project.cms.app;
 
+import com.project.cms.dao.DaoFactory;
 import com.project.cms.dao.contact.ContactDao;
-import com.project.cms.dao.contact.ContactDaoImpl;
 import com.project.cms.service.ContactService;
 import com.project.cms.service.ContactServiceImpl;
+import com.project.cms.service.ContactStatisticsStore;
 import com.project.cms.service.StatisticsService;
 import com.project.cms.service.UndoService;
 import com.project.cms.service.UndoServiceImpl;
@@ -12,6 +13,8 @@ import com.project.cms.service.UserServiceImpl;
 import com.project.cms.ui.animation.AsciiAnimator;
 import com.project.cms.ui.input.ConsolePrinter;
 import com.project.cms.ui.menu.MainMenu;
+import com.project.cms.util.DbConnection;
+import com.project.cms.util.PasswordHasher;
 
 /**
  * Initializes and starts the entire CMS application.
@@ -31,19 +34,22 @@ public class ApplicationInitializer {
      * <p>
      * Responsibilities:
      * <ul>
-     *     <li>Creates DAO instances required by services.</li>
+     *     <li>Creates DAO instances required by services, for the backend chosen in {@link DaoFactory}.</li>
      *     <li>Initializes UserService, ContactService, UndoService, and StatisticsService.</li>
      *     <li>Links UndoService back into UserService and ContactService.</li>
+     *     <li>Starts the statistics store that keeps the dashboard aggregates up to date.</li>
+     *     <li>Calibrates the password hashing cost in the background (see {@link PasswordHasher#calibrateAsync()}).</li>
      *     <li>Displays welcome animation and launches the main menu UI.</li>
-     *     <li>Always plays the goodbye animation on exit.</li>
+     *     <li>Always plays the goodbye animation on exit and closes the storage (log files, connection pool).</li>
      * </ul>
      * </p>
      */
 
     public static void start() {
+        ContactStatisticsStore statisticsStore = null;
         try {
-            // DAO needed for the StatisticsService
-            ContactDao contactDao = new ContactDaoImpl();
+            // DAO needed for the StatisticsService (MySQL, or in-memory with -Dcms.storage=memory)
+            ContactDao contactDao = DaoFactory.contactDao();
 
             // Services
             UserService userService = new UserServiceImpl(null);
@@ -56,8 +62,15 @@ public class ApplicationInitializer {
             ((UserServiceImpl) userService).setUndoService(undoService);
             ((ContactServiceImpl) contactService).setUndoService(undoService);
 
-            // 4) Statistics normal bağımsız
-            StatisticsService statisticsService = new StatisticsService(contactDao);
+            // 4) Statistics: aggregates fed by ContactService, rebuilt from the DB in the background
+            statisticsStore = new ContactStatisticsStore(contactDao);
+            statisticsStore.start();
+            ((ContactServiceImpl) contactService).setStatisticsStore(statisticsStore);
+            StatisticsService statisticsService = new StatisticsService(contactDao, statisticsStore);
+            // Password hashing cost for this machine, measured during the welcome
+            // screen; a login arriving earlier waits for it
+            PasswordHasher.calibrateAsync();
+
             // Welcome animation
             AsciiAnimator.showWelcome();
 
@@ -77,6 +90,9 @@ public class ApplicationInitializer {
         } finally {
             // Goodbye animation always runs
             AsciiAnimator.showGoodbye();
+            if (statisticsStore != null) statisticsStore.shutdown();
+            DaoFactory.shutdown();
+            DbConnection.shutdown();
         }
     }
 }
@@ -0,0 +1,103 @@
+package com.project.cms.dao;
+
+import com.project.cms.dao.contact.CachingContactDao;
+import com.project.cms.dao.contact.ContactDao;
+import com.project.cms.dao.contact.ContactDaoImpl;
+import com.project.cms.dao.contact.InMemoryContactDao;
+import com.project.cms.dao.user.InMemoryUserDao;
+import com.project.cms.dao.user.UserDao;
+import com.project.cms.dao.user.UserDaoImpl;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Chooses the storage backend of the DAOs.
+ * <p>
+ * By default the DAOs talk to MySQL. With the system property
+ * {@code cms.storage=memory} the embedded {@link InMemoryContactDao} and
+ * {@link InMemoryUserDao} are used instead, so the application runs without a
+ * database server. The contact DAO is shared in both modes: the in-memory
+ * stores so that every service looks at the same data, and the cached MySQL
+ * DAO so that a write through one service invalidates the entries every
+ * other service reads. The in-memory stores are persisted only when
+ * {@code cms.storage.dir} names a directory for their log files;
+ * {@code cms.storage.fsync=true} additionally forces every change to the disk.
+ */
+public final class DaoFactory {
+
+    private static final boolean IN_MEMORY = "memory".equalsIgnoreCase(System.getProperty("cms.storage", "mysql"));
+
+    private static CachingContactDao mysqlContacts;
+    private static InMemoryContactDao memoryContacts;
+    private static InMemoryUserDao memoryUsers;
+
+    private DaoFactory() {}
+
+    /**
+     * @return true if the embedded in-memory storage is selected
+     */
+    public static boolean isInMemory() {
+        return IN_MEMORY;
+    }
+
+    /**
+     * @return the contact DAO of the selected backend
+     */
+    public static synchronized ContactDao contactDao() {
+        if (!IN_MEMORY) {
+            if (mysqlContacts == null) mysqlContacts = new CachingContactDao(new ContactDaoImpl());
+            return mysqlContacts;
+        }
+
+        if (memoryContacts == null) {
+            try {
+                Path dir = storageDir();
+                memoryContacts = dir == null ? new InMemoryContactDao()
+                        : new InMemoryContactDao(dir.resolve("contacts.log"), fsync());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open the contact log", e);
+            }
+        }
+        return memoryContacts;
+    }
+
+    /**
+     * @return the user DAO of the selected backend
+     */
+    public static synchronized UserDao userDao() {
+        if (!IN_MEMORY) return new UserDaoImpl();
+
+        if (memoryUsers == null) {
+            try {
+                Path dir = storageDir();
+                memoryUsers = dir == null ? new InMemoryUserDao()
+                        : new InMemoryUserDao(dir.resolve("users.log"), fsync());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open the user log", e);
+            }
+        }
+        return memoryUsers;
+    }
+
+    /**
+     * Closes the log files of the in-memory stores and stops the search index
+     * resync of the MySQL backend. Called once on exit.
+     */
+    public static synchronized void shutdown() {
+        if (!IN_MEMORY) ContactDaoImpl.shutdownSearchIndex();
+        if (memoryContacts != null) memoryContacts.close();
+        if (memoryUsers != null) memoryUsers.close();
+        memoryContacts = null;
+        memoryUsers = null;
+    }
+
+    private static Path storageDir() {
+        String dir = System.getProperty("cms.storage.dir");
+        return dir == null || dir.isBlank() ? null : Path.of(dir);
+    }
+
+    private static boolean fsync() {
+        return Boolean.getBoolean("cms.storage.fsync");
+    }
+}
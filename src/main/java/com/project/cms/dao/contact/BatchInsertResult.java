@@ -0,0 +1,92 @@
+package com.project.cms.dao.contact;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Outcome of a batched contact insert.
+ * <p>
+ * Generated IDs are reported in the same order as the input list. A row that
+ * could not be inserted keeps the ID {@code -1} and has an entry in
+ * {@link #getFailures()} keyed by its index in the input list.
+ */
+public class BatchInsertResult {
+
+    private final int[] generatedIds;
+    private final Map<Integer, String> failures = new TreeMap<>();
+
+    /**
+     * Creates an empty result for the given number of input rows.
+     *
+     * @param size number of contacts in the batch
+     */
+    BatchInsertResult(int size) {
+        this.generatedIds = new int[size];
+        Arrays.fill(generatedIds, -1);
+    }
+
+    /* ---------------- populated by the DAO ---------------- */
+
+    void setId(int index, int id) {
+        generatedIds[index] = id;
+        failures.remove(index);
+    }
+
+    void fail(int index, String message) {
+        generatedIds[index] = -1;
+        failures.put(index, message);
+    }
+
+    void failAll(String message) {
+        for (int i = 0; i < generatedIds.length; i++) {
+            fail(i, message);
+        }
+    }
+
+    /* ---------------- accessors ---------------- */
+
+    /**
+     * @return a copy of the generated IDs in input order ({@code -1} for failed rows)
+     */
+    public int[] getGeneratedIds() {
+        return generatedIds.clone();
+    }
+
+    /**
+     * @param index position of the contact in the input list
+     * @return the generated ID, or {@code -1} if that row failed
+     */
+    public int getIdAt(int index) {
+        return generatedIds[index];
+    }
+
+    /**
+     * @return failure messages keyed by input index, in ascending index order
+     */
+    public Map<Integer, String> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @return number of rows that were inserted
+     */
+    public int getSuccessCount() {
+        return generatedIds.length - failures.size();
+    }
+
+    /**
+     * @return number of rows that were rejected
+     */
+    public int getFailureCount() {
+        return failures.size();
+    }
+
+    /**
+     * @return true if at least one row was rejected
+     */
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+}
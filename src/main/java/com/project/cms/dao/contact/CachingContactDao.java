@@ -0,0 +1,475 @@
+package com.project.cms.dao.contact;
+
+import com.project.cms.model.Contact;
+import com.project.cms.model.ContactPage;
+import com.project.cms.model.PageCursor;
+import com.project.cms.model.SearchCriteria;
+import com.project.cms.model.StatisticsSnapshot;
+import com.project.cms.util.CacheStats;
+import com.project.cms.util.UnitOfWork;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Read-through cache in front of another {@link ContactDao}.
+ * <p>
+ * {@link #findById(int)} is answered from a bounded LRU map keyed by
+ * contact_id; entries also expire after a fixed time to live so that rows
+ * changed outside this application are eventually picked up again. Every
+ * write going through this DAO invalidates the affected IDs, so reads through
+ * the same instance never see a row older than its last write.
+ * <p>
+ * Contacts are mutable, so the cache stores and hands out copies: a caller
+ * editing the object it received cannot change what the next caller gets.
+ * All other methods are passed through unchanged.
+ * <p>
+ * Inside a {@link UnitOfWork} a cached contact is still served, as the
+ * pre-image of a write: the write itself checks the row version, so a stale
+ * copy makes it fail instead of overwriting newer data, and
+ * {@link #findCurrentById(int)} then reads the row again. Contacts written
+ * by a unit that has not ended yet are always read from the delegate, so a
+ * unit sees its own uncommitted writes. Rows read inside a unit are not
+ * cached.
+ * <p>
+ * Defaults can be overridden with the system properties
+ * {@code cms.cache.contacts.maxSize} and {@code cms.cache.contacts.ttlMs}.
+ */
+public class CachingContactDao implements ContactDao {
+
+    /** Default upper bound of cached contacts. */
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    /** Default time to live of a cached contact. */
+    public static final long DEFAULT_TTL_MILLIS = 60_000;
+
+    private final ContactDao delegate;
+    private final int maxSize;
+    private final long ttlMillis;
+
+    // guarded by this
+    private final LinkedHashMap<Integer, Entry> entries;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long expiredCount;
+
+    /**
+     * Incremented by every invalidation. A lookup that missed only stores the
+     * row it loaded if no write happened in the meantime, otherwise a slow
+     * read could put back a version that was just overwritten.
+     */
+    private long writeEpoch;
+
+    /** IDs written by units that have not ended yet, with the number of such writes. */
+    private final Map<Integer, Integer> unitWrites = new HashMap<>();
+
+    /**
+     * Creates a cache using the defaults or their system property overrides.
+     *
+     * @param delegate the DAO that actually talks to the database
+     */
+    public CachingContactDao(ContactDao delegate) {
+        this(delegate,
+                Integer.getInteger("cms.cache.contacts.maxSize", DEFAULT_MAX_SIZE),
+                Long.getLong("cms.cache.contacts.ttlMs", DEFAULT_TTL_MILLIS));
+    }
+
+    /**
+     * Creates a cache with explicit limits.
+     *
+     * @param delegate  the DAO that actually talks to the database
+     * @param maxSize   maximum number of cached contacts (at least 1)
+     * @param ttlMillis time to live of an entry in milliseconds
+     */
+    public CachingContactDao(ContactDao delegate, int maxSize, long ttlMillis) {
+        this.delegate = delegate;
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                if (size() <= CachingContactDao.this.maxSize) return false;
+                evictionCount++;
+                return true;
+            }
+        };
+    }
+
+    // ===========================================================
+    // CACHE
+    // ===========================================================
+
+    /**
+     * Returns a snapshot of the cache counters.
+     *
+     * @return current size, hits, misses, evictions and expirations
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(entries.size(), maxSize, hitCount, missCount, evictionCount, expiredCount);
+    }
+
+    /**
+     * Drops every cached contact, e.g. after the table was changed directly.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        writeEpoch++;
+    }
+
+    /**
+     * Drops an ID now and, inside a {@link UnitOfWork}, once more when the
+     * unit ends: until then other threads still read (and may cache) the
+     * previously committed row.
+     */
+    private void invalidate(int id) {
+        invalidateAll(List.of(id));
+    }
+
+    private void invalidateAll(List<Integer> ids) {
+        if (!UnitOfWork.isActive()) {
+            dropAll(ids, 0);
+            return;
+        }
+        dropAll(ids, 1);
+        UnitOfWork.afterCompletion(committed -> dropAll(ids, -1));
+    }
+
+    /**
+     * @param unitDelta +1 when a unit writes the IDs, -1 when it ends, 0 outside units
+     */
+    private synchronized void dropAll(List<Integer> ids, int unitDelta) {
+        for (int id : ids) {
+            entries.remove(id);
+            if (unitDelta != 0) {
+                unitWrites.merge(id, unitDelta, (a, b) -> a + b == 0 ? null : a + b);
+            }
+        }
+        writeEpoch++;
+    }
+
+    /**
+     * Removes expired entries from the LRU end, which holds the entries
+     * touched longest ago, stopping at the first live one. Anything expired
+     * behind it is dropped when it is looked up.
+     */
+    private void purgeExpired(long now) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry e = it.next();
+            if (e.expiresAt > now) break;
+            it.remove();
+            expiredCount++;
+        }
+    }
+
+    private static final class Entry {
+        final Contact contact;
+        final long expiresAt;
+
+        Entry(Contact contact, long expiresAt) {
+            this.contact = contact;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // ===========================================================
+    // CREATE
+    // ===========================================================
+
+    @Override
+    public int addContact(Contact contact) {
+        return delegate.addContact(contact);
+    }
+
+    @Override
+    public Contact addContactReturning(Contact contact) {
+        return delegate.addContactReturning(contact);
+    }
+
+    @Override
+    public void addContacts(List<Contact> contacts) {
+        delegate.addContacts(contacts);
+    }
+
+    @Override
+    public BatchInsertResult addContactsBatch(List<Contact> contacts, int chunkSize, boolean multiRowValues) {
+        return delegate.addContactsBatch(contacts, chunkSize, multiRowValues);
+    }
+
+    @Override
+    public int addContactWithId(Contact contact) {
+        int id = delegate.addContactWithId(contact);
+        invalidate(contact.getContactId());
+        return id;
+    }
+
+    @Override
+    public Contact addContactWithIdReturning(Contact contact) {
+        Contact saved = delegate.addContactWithIdReturning(contact);
+        invalidate(contact.getContactId());
+        return saved;
+    }
+
+    @Override
+    public int addContactsWithIds(List<Contact> contacts) {
+        if (contacts == null || contacts.isEmpty()) return 0;
+        List<Integer> ids = new ArrayList<>(contacts.size());
+        contacts.forEach(c -> ids.add(c.getContactId()));
+        try {
+            return delegate.addContactsWithIds(contacts);
+        } finally {
+            invalidateAll(ids);
+        }
+    }
+
+    @Override
+    public int upsertContacts(List<Contact> contacts) {
+        if (contacts == null || contacts.isEmpty()) return 0;
+        List<Integer> ids = new ArrayList<>();
+        for (Contact c : contacts) {
+            if (c.getContactId() > 0) ids.add(c.getContactId());
+        }
+        try {
+            return delegate.upsertContacts(contacts);
+        } finally {
+            invalidateAll(ids);
+        }
+    }
+
+    // ===========================================================
+    // READ
+    // ===========================================================
+
+    @Override
+    public Contact findById(int id) {
+        long epoch;
+        synchronized (this) {
+            Contact cached = cached(id);
+            if (cached != null) return cached;
+            epoch = writeEpoch;
+        }
+
+        // may be an uncommitted write of the unit: not cached
+        if (UnitOfWork.isActive()) return delegate.findById(id);
+
+        Contact loaded = delegate.findById(id);
+        if (loaded == null) return null;
+
+        synchronized (this) {
+            if (epoch == writeEpoch) {
+                entries.put(id, new Entry(new Contact(loaded), System.currentTimeMillis() + ttlMillis));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Looks the ID up in the cache, counting the hit or miss. IDs written by
+     * an open unit always miss. The caller holds the monitor.
+     *
+     * @return a copy of the cached contact, or null
+     */
+    private Contact cached(int id) {
+        long now = System.currentTimeMillis();
+        purgeExpired(now);
+
+        Entry e = unitWrites.containsKey(id) ? null : entries.get(id);
+        if (e != null && e.expiresAt > now) {
+            hitCount++;
+            return new Contact(e.contact);
+        }
+        if (e != null) {
+            entries.remove(id);
+            expiredCount++;
+        }
+        missCount++;
+        return null;
+    }
+
+    @Override
+    public Contact findCurrentById(int id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Contact> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public int streamAll(Consumer<Contact> sink) {
+        return delegate.streamAll(sink);
+    }
+
+    @Override
+    public List<Contact> findByPhonesOrEmails(Collection<String> phones, Collection<String> emails) {
+        return delegate.findByPhonesOrEmails(phones, emails);
+    }
+
+    // ===========================================================
+    // UPDATE
+    // ===========================================================
+
+    @Override
+    public boolean updateContact(Contact contact) {
+        try {
+            return delegate.updateContact(contact);
+        } finally {
+            invalidate(contact.getContactId());
+        }
+    }
+
+    // ===========================================================
+    // DELETE
+    // ===========================================================
+
+    @Override
+    public boolean deleteContactById(int id) {
+        try {
+            return delegate.deleteContactById(id);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public void deleteContactsByIds(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) return;
+        try {
+            delegate.deleteContactsByIds(ids);
+        } finally {
+            invalidateAll(ids);
+        }
+    }
+
+    @Override
+    public List<Contact> deleteContactsReturning(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) return new ArrayList<>();
+        try {
+            return delegate.deleteContactsReturning(ids);
+        } finally {
+            invalidateAll(ids);
+        }
+    }
+
+    @Override
+    public List<Integer> deleteContactsIfUnchanged(List<Contact> expected) {
+        if (expected == null || expected.isEmpty()) return new ArrayList<>();
+        List<Integer> ids = new ArrayList<>(expected.size());
+        expected.forEach(c -> ids.add(c.getContactId()));
+        try {
+            return delegate.deleteContactsIfUnchanged(expected);
+        } finally {
+            invalidateAll(ids);
+        }
+    }
+
+    // ===========================================================
+    // SEARCH / SORTING / PAGINATION
+    // ===========================================================
+
+    @Override
+    public List<Contact> search(SearchCriteria criteria) {
+        return delegate.search(criteria);
+    }
+
+    @Override
+    public List<Contact> findAllSorted(String field, boolean ascending) {
+        return delegate.findAllSorted(field, ascending);
+    }
+
+    @Override
+    public int streamAllSorted(String field, boolean ascending, Consumer<Contact> sink) {
+        return delegate.streamAllSorted(field, ascending, sink);
+    }
+
+    @Override
+    public ContactPage findPage(String field, boolean ascending, PageCursor after, int pageSize) {
+        return delegate.findPage(field, ascending, after, pageSize);
+    }
+
+    @Override
+    public ContactPage searchPage(SearchCriteria criteria, PageCursor after, int pageSize) {
+        return delegate.searchPage(criteria, after, pageSize);
+    }
+
+    // ===========================================================
+    // STATISTICS
+    // ===========================================================
+
+    @Override
+    public StatisticsSnapshot loadStatistics() {
+        return delegate.loadStatistics();
+    }
+
+    @Override
+    public int countAllContacts() {
+        return delegate.countAllContacts();
+    }
+
+    @Override
+    public int countContactsWithLinkedin() {
+        return delegate.countContactsWithLinkedin();
+    }
+
+    @Override
+    public int countContactsWithoutLinkedin() {
+        return delegate.countContactsWithoutLinkedin();
+    }
+
+    @Override
+    public String findMostCommonFirstName() {
+        return delegate.findMostCommonFirstName();
+    }
+
+    @Override
+    public String findMostCommonLastName() {
+        return delegate.findMostCommonLastName();
+    }
+
+    @Override
+    public Contact findYoungestContact() {
+        return delegate.findYoungestContact();
+    }
+
+    @Override
+    public Contact findOldestContact() {
+        return delegate.findOldestContact();
+    }
+
+    @Override
+    public double getAverageAge() {
+        return delegate.getAverageAge();
+    }
+
+    @Override
+    public List<String[]> getCityDistribution() {
+        return delegate.getCityDistribution();
+    }
+
+    @Override
+    public List<String[]> getAgeGroupDistribution() {
+        return delegate.getAgeGroupDistribution();
+    }
+
+    @Override
+    public List<String[]> getTopFirstNames() {
+        return delegate.getTopFirstNames();
+    }
+
+    @Override
+    public List<String[]> getTopLastNames() {
+        return delegate.getTopLastNames();
+    }
+
+    @Override
+    public List<String[]> getBirthMonthDistribution() {
+        return delegate.getBirthMonthDistribution();
+    }
+}
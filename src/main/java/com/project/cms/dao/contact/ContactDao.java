@@ -1,8 +1,13 @@
 package com.project.cms.dao.contact;
 
 import com.project.cms.model.Contact;
+import com.project.cms.model.ContactPage;
+import com.project.cms.model.PageCursor;
 import com.project.cms.model.SearchCriteria;
+import com.project.cms.model.StatisticsSnapshot;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object (DAO) interface for managing Contact entities.
@@ -28,19 +33,89 @@ public interface ContactDao {
      */
     int addContact(Contact contact);
 
+    /**
+     * Inserts a single contact and returns it as stored: with its generated
+     * ID and the timestamps and version the row starts with. Implementations
+     * backed by a database do this in one round trip instead of reading the
+     * row back.
+     *
+     * @param contact the contact to be added
+     * @return the stored contact, or null if the insert failed
+     */
+    default Contact addContactReturning(Contact contact) {
+        int id = addContact(contact);
+        return id == -1 ? null : findById(id);
+    }
+
      /**
      * Inserts multiple contact records into the database in batch mode.
+     * Equivalent to {@code addContactsBatch(contacts, DEFAULT_BATCH_SIZE, false)}.
      *
      * @param contacts list of contacts to be added
      */
     void addContacts(List<Contact> contacts);
 
+    /** Default number of rows sent per JDBC batch. */
+    int DEFAULT_BATCH_SIZE = 500;
+
     /**
-     * Inserts a contact with a specific ID (used for Undo).
+     * Inserts multiple contacts inside a single transaction, reusing one
+     * prepared statement and sending the rows in chunks of {@code chunkSize}.
+     * <p>
+     * With {@code multiRowValues} the rows of each chunk are sent as a single
+     * {@code INSERT ... VALUES (...), (...)} statement, which is what MySQL's
+     * {@code rewriteBatchedStatements} would do; a chunk rejected in that mode
+     * is retried row by row to find the offending rows.
+     *
+     * @param contacts       the contacts to insert
+     * @param chunkSize      number of rows per round trip
+     * @param multiRowValues true to send each chunk as one multi-row INSERT
+     * @return generated IDs in input order and the rows that were rejected
+     */
+    BatchInsertResult addContactsBatch(List<Contact> contacts, int chunkSize, boolean multiRowValues);
+
+    /**
+     * Inserts a contact with a specific ID and its original timestamps (used
+     * for Undo), like {@link #addContactsWithIds(List)} does for many.
      * @param contact the contact to restore
      */
     int addContactWithId(Contact contact);
 
+    /**
+     * Inserts a contact with a specific ID (used for Undo) and returns it as
+     * stored, like {@link #addContactReturning(Contact)}.
+     *
+     * @param contact the contact to restore
+     * @return the stored contact, or null if the insert failed
+     */
+    default Contact addContactWithIdReturning(Contact contact) {
+        int id = addContactWithId(contact);
+        return id == -1 ? null : findById(id);
+    }
+
+    /**
+     * Inserts contacts with their own IDs and timestamps (used to undo a bulk
+     * delete). The rows are sent as multi-row INSERTs of up to
+     * {@link #DEFAULT_BATCH_SIZE} rows inside one transaction: either all of
+     * them are inserted or none.
+     *
+     * @param contacts the contacts to restore
+     * @return the number of contacts inserted, or -1 if the transaction was rolled back
+     */
+    int addContactsWithIds(List<Contact> contacts);
+
+    /**
+     * Writes contacts in one transaction with {@code INSERT ... ON DUPLICATE
+     * KEY UPDATE} (used by the import). A contact with a {@code contact_id}
+     * replaces the editable columns of that row, increasing its version, or
+     * is inserted with that ID if the row no longer exists; a contact with ID
+     * 0 is inserted as a new row. Rows are sent as multi-row statements.
+     *
+     * @param contacts the contacts to write
+     * @return the number of contacts written, or -1 if the transaction was rolled back
+     */
+    int upsertContacts(List<Contact> contacts);
+
     // ===========================================================
     // READ
     // ===========================================================
@@ -53,6 +128,20 @@ public interface ContactDao {
      */
     Contact findById(int id);
 
+    /**
+     * Retrieves a contact like {@link #findById(int)}, but always from the
+     * storage itself, skipping any cache in front of it. Used to confirm a
+     * row whose cached copy turned out to be out of date. Inside a
+     * {@link com.project.cms.util.UnitOfWork} a database-backed DAO locks
+     * the row.
+     *
+     * @param id the contact ID
+     * @return the matching Contact object, or {@code null} if none found
+     */
+    default Contact findCurrentById(int id) {
+        return findById(id);
+    }
+
      /**
      * Retrieves all contacts stored in the database.
      *
@@ -60,15 +149,44 @@ public interface ContactDao {
      */
     List<Contact> findAll();
 
+    /**
+     * Streams all contacts ordered by ID to {@code sink} without loading the
+     * whole table. Rows are read from a forward-only cursor and handed over
+     * one by one, so only a bounded number of rows is held in memory.
+     * <p>
+     * The sink runs while the cursor is open; it should not block for long.
+     *
+     * @param sink receives every contact in order
+     * @return number of contacts delivered, or -1 if the read failed
+     *         (the sink may then have seen only part of the table)
+     */
+    int streamAll(Consumer<Contact> sink);
+
+    /**
+     * Finds the contacts whose primary phone is one of {@code phones} or whose
+     * email is one of {@code emails}, compared like the table's collation
+     * (case-insensitive). Used to match imported rows to existing contacts.
+     * Phones are stored without separators, so {@code phones} must be in the
+     * form of {@link com.project.cms.util.Validator#normalizePhone}.
+     *
+     * @param phones primary phone numbers to look for
+     * @param emails email addresses to look for
+     * @return the matching contacts ordered by ID, or null if the read failed
+     */
+    List<Contact> findByPhonesOrEmails(Collection<String> phones, Collection<String> emails);
+
     // ===========================================================
     // UPDATE
     // ===========================================================
 
     /**
      * Updates an existing contact record in the database.
-     * The contact must already exist (matched by contact_id).
+     * The contact must already exist (matched by contact_id) and still have
+     * the version it was read with; the update increases the version by one.
      *
      * @param contact the contact object containing updated fields
+     * @return true if the row was updated, false if it does not exist or has
+     *         a different version (changed by someone else meanwhile)
      */
     boolean updateContact(Contact contact);
 
@@ -85,11 +203,41 @@ public interface ContactDao {
 
     /**
      * Deletes multiple contacts based on a list of IDs.
+     * The IDs are sent in chunks of {@link #DEFAULT_BATCH_SIZE} inside one transaction.
      *
      * @param ids the list of contact IDs to delete
      */
     void deleteContactsByIds(List<Integer> ids);
 
+    /**
+     * Deletes multiple contacts inside one transaction and returns what was deleted.
+     * <p>
+     * The IDs are processed in chunks of {@link #DEFAULT_BATCH_SIZE}: each chunk
+     * costs one {@code SELECT ... WHERE contact_id IN (...) FOR UPDATE} to capture
+     * the rows and one {@code DELETE} with the same list. IDs that do not exist
+     * are ignored.
+     *
+     * @param ids the IDs of the contacts to delete
+     * @return the deleted contacts as they were before the delete, ordered by ID,
+     *         or null if the transaction failed and nothing was deleted
+     */
+    List<Contact> deleteContactsReturning(List<Integer> ids);
+
+    /**
+     * Deletes contacts only if every one of them still exists with the
+     * version given, all in one transaction.
+     * <p>
+     * The IDs are processed in chunks of {@link #DEFAULT_BATCH_SIZE}: every
+     * chunk is first locked with {@code SELECT contact_id, version ... FOR UPDATE};
+     * only when all rows match are they deleted. If any contact is missing or
+     * has another version, nothing is deleted.
+     *
+     * @param expected the contacts with the ID and version they must still have
+     * @return the IDs that are missing or have another version (empty if the
+     *         contacts were deleted), or null if the transaction failed
+     */
+    List<Integer> deleteContactsIfUnchanged(List<Contact> expected);
+
     // ===========================================================
     // SEARCH
     // ===========================================================
@@ -116,10 +264,59 @@ public interface ContactDao {
      */
     List<Contact> findAllSorted(String field, boolean ascending);
 
+    /**
+     * Streaming variant of {@link #findAllSorted(String, boolean)}.
+     *
+     * @param field     the column name to sort by
+     * @param ascending true for ASC, false for DESC
+     * @param sink      receives every contact in sort order
+     * @return number of contacts delivered, or -1 if the read failed
+     */
+    int streamAllSorted(String field, boolean ascending, Consumer<Contact> sink);
+
+    // ===========================================================
+    // PAGINATION (KEYSET)
+    // ===========================================================
+
+    /**
+     * Returns one page of contacts sorted by {@code field}, with contact_id
+     * as tiebreaker. The next page is located from the last seen sort key
+     * ({@code after}) instead of an OFFSET, so every page costs the same.
+     *
+     * @param field     a field accepted by {@link #findAllSorted}, or "contact_id"
+     * @param ascending true for ASC, false for DESC
+     * @param after     cursor returned with the previous page, or null for the first page
+     * @param pageSize  maximum number of rows on the page
+     * @return the page and the cursor for the following one
+     * @throws IllegalArgumentException if {@code after} was issued for another field or direction
+     */
+    ContactPage findPage(String field, boolean ascending, PageCursor after, int pageSize);
+
+    /**
+     * Returns one page of search results ordered by contact_id.
+     *
+     * @param criteria the search criteria map (field → value)
+     * @param after    cursor returned with the previous page, or null for the first page
+     * @param pageSize maximum number of rows on the page
+     * @return the page and the cursor for the following one
+     * @throws IllegalArgumentException if {@code after} does not come from a search page
+     */
+    ContactPage searchPage(SearchCriteria criteria, PageCursor after, int pageSize);
+
 
     //             STATISTICS METHODS (MANAGER ONLY)
     // ===========================================================
 
+    /**
+     * Computes every dashboard metric at once. The database implementation
+     * aggregates them on the server in a single query; callers that need
+     * the numbers repeatedly should read them through
+     * {@code ContactStatisticsStore} instead of calling this each time.
+     *
+     * @return an immutable snapshot of all statistics
+     */
+    StatisticsSnapshot loadStatistics();
+
      /**
      * @return total number of contacts in the database
      */
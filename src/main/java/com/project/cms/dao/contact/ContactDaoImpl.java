@@ -1,11 +1,28 @@
 package com.project.cms.dao.contact;
 
 import com.project.cms.model.Contact;
+import com.project.cms.model.ContactPage;
+import com.project.cms.model.PageCursor;
 import com.project.cms.model.SearchCriteria;
+import com.project.cms.model.StatisticsSnapshot;
+import com.project.cms.util.CacheStats;
 import com.project.cms.util.DbConnection;
+import com.project.cms.util.SqlTemplateCache;
+import com.project.cms.util.UnitOfWork;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Implementation of {@link ContactDao} responsible for performing all database
@@ -20,45 +37,101 @@ import java.util.List;
 
 public class ContactDaoImpl implements ContactDao {
 
+    private static final String INSERT_COLUMNS = "INSERT INTO contacts " +
+            "(first_name, middle_name, last_name, nickname, city, phone_primary, phone_secondary, email, linkedin_url, birth_date)";
+
+    private static final String INSERT_VALUES = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_SQL = INSERT_COLUMNS + " VALUES " + INSERT_VALUES;
+
+    /** Single-row insert that also sets {@code created_at}, see {@link #addContactReturning(Contact)}. */
+    private static final String INSERT_WITH_CREATED_SQL = "INSERT INTO contacts " +
+            "(first_name, middle_name, last_name, nickname, city, phone_primary, phone_secondary, email, linkedin_url, birth_date, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /** Columns accepted by the sorting methods. */
+    private static final List<String> SORTABLE_FIELDS = List.of(
+            "first_name", "last_name", "nickname", "city",
+            "phone_primary", "email", "birth_date", "created_at"
+    );
+
+    /** Columns accepted by the search methods. */
+    private static final List<String> SEARCHABLE_FIELDS = ContactSearchIndex.FIELDS;
+
+    /**
+     * SQL of the search, sort and page queries, keyed by their shape (searched
+     * columns, sort order, kind of cursor). Identical text lets the pool reuse
+     * the statement it already prepared on the connection.
+     */
+    private static final SqlTemplateCache SQL_TEMPLATES = new SqlTemplateCache(256);
+
+    /** Seek predicates of {@link #appendSeek}. */
+    private static final int SEEK_NONE = 0;
+    private static final int SEEK_BY_ID = 1;
+    private static final int SEEK_NULL_KEY = 2;
+    private static final int SEEK_KEY = 3;
+
+    /** Rows buffered per fetch when the driver supports real cursor fetching. */
+    private static final int STREAM_FETCH_SIZE = 256;
+
+    /**
+     * Trigram index answering substring searches in memory. Shared by all
+     * instances so that every write path keeps the same index up to date.
+     */
+    private static final ContactSearchIndex SEARCH_INDEX = new ContactSearchIndex();
+
+    /** Sections of {@link #STATISTICS_SQL}, one per kind of result row. */
+    private static final int STAT_TOTALS = 0;
+    private static final int STAT_LINKEDIN = 1;
+    private static final int STAT_CITY = 2;
+    private static final int STAT_AGE_GROUP = 3;
+    private static final int STAT_FIRST_NAME = 4;
+    private static final int STAT_LAST_NAME = 5;
+    private static final int STAT_BIRTH_MONTH = 6;
+    private static final int STAT_YOUNGEST = 7;
+    private static final int STAT_OLDEST = 8;
+
+    /** Every dashboard metric, aggregated by the database in one query. */
+    private static final String STATISTICS_SQL = statisticsSql();
+
     // ADD SINGLE CONTACT
     @Override
     public int addContact(Contact c) {
-        String sql = "INSERT INTO contacts " +
-                "(first_name, middle_name, last_name, nickname, city, phone_primary, phone_secondary, email, linkedin_url, birth_date) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        Contact saved = addContactReturning(c);
+        return saved != null ? saved.getContactId() : -1;
+    }
+
+    /**
+     * Inserts the contact in a single round trip. Instead of reading the row
+     * back, the stored contact is built from the input: the ID comes back
+     * with the insert, and {@code created_at} is set by the client (to the
+     * second, as the column stores it) instead of by the column default.
+     */
+    @Override
+    public Contact addContactReturning(Contact c) {
+        LocalDateTime createdAt = now();
 
         try (Connection conn = DbConnection.getConnection()) {
             if (conn == null) {
                 System.out.println("❌ Cannot add contact. Database connection failed.");
-                return -1;
+                return null;
             }
 
-            try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-                ps.setString(1, c.getFirstName());
-                ps.setString(2, c.getMiddleName());
-                ps.setString(3, c.getLastName());
-                ps.setString(4, c.getNickname());
-                ps.setString(5, c.getCity());
-                ps.setString(6, c.getPhonePrimary());
-                ps.setString(7, c.getPhoneSecondary());
-                ps.setString(8, c.getEmail());
-                ps.setString(9, c.getLinkedinUrl());
-
-                if (c.getBirthDate() != null) {
-                    ps.setDate(10, Date.valueOf(c.getBirthDate()));
-                } else {
-                    ps.setNull(10, Types.DATE);
-                }
+            try (PreparedStatement ps = conn.prepareStatement(INSERT_WITH_CREATED_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                int index = bindContact(ps, 1, c);
+                ps.setTimestamp(index, Timestamp.valueOf(createdAt));
 
                 int affected = ps.executeUpdate();
 
                 if (affected == 0) {
-                    return -1; // insert failed
+                    return null; // insert failed
                 }
 
                 try (ResultSet keys = ps.getGeneratedKeys()) {
                     if (keys.next()) {
-                        return keys.getInt(1); // return auto-generated ID
+                        Contact saved = stored(c, keys.getInt(1), createdAt);
+                        indexStored(saved);
+                        return saved;
                     }
                 }
             }
@@ -66,60 +139,517 @@ public class ContactDaoImpl implements ContactDao {
             System.out.println("❌ Error inserting contact: " + e.getMessage());
         }
 
-        return -1; // fail
+        return null; // fail
     }
 
     // ADD CONTACT WITH SPECIFIC ID (FOR UNDO)
     @Override
     public int addContactWithId(Contact c) {
+        Contact saved = addContactWithIdReturning(c);
+        return saved != null ? saved.getContactId() : -1;
+    }
+
+    /**
+     * Restores the contact in a single round trip, like {@link #addContactReturning(Contact)}.
+     * The original timestamps are written back, as by {@link #addContactsWithIds(List)};
+     * only a contact without {@code created_at} gets the current time.
+     */
+    @Override
+    public Contact addContactWithIdReturning(Contact c) {
         String sql = "INSERT INTO contacts " +
-                "(contact_id, first_name, middle_name, last_name, nickname, city, phone_primary, phone_secondary, email, linkedin_url, birth_date) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                "(contact_id, first_name, middle_name, last_name, nickname, city, phone_primary, phone_secondary, email, linkedin_url, birth_date, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        LocalDateTime createdAt = c.getCreatedAt() != null ? c.getCreatedAt() : now();
 
         try (Connection conn = DbConnection.getConnection()) {
-            if (conn == null) return -1;
+            if (conn == null) return null;
 
             try (PreparedStatement ps = conn.prepareStatement(sql)) {
                 ps.setInt(1, c.getContactId());
-                ps.setString(2, c.getFirstName());
-                ps.setString(3, c.getMiddleName());
-                ps.setString(4, c.getLastName());
-                ps.setString(5, c.getNickname());
-                ps.setString(6, c.getCity());
-                ps.setString(7, c.getPhonePrimary());
-                ps.setString(8, c.getPhoneSecondary());
-                ps.setString(9, c.getEmail());
-                ps.setString(10, c.getLinkedinUrl());
-
-                if (c.getBirthDate() != null) {
-                    ps.setDate(11, Date.valueOf(c.getBirthDate()));
-                } else {
-                    ps.setNull(11, Types.DATE);
-                }
+                int index = bindContact(ps, 2, c);
+                ps.setTimestamp(index++, Timestamp.valueOf(createdAt));
+                ps.setTimestamp(index, c.getUpdatedAt() == null ? null : Timestamp.valueOf(c.getUpdatedAt()));
 
                 int affected = ps.executeUpdate();
-                return affected > 0 ? c.getContactId() : -1;
+                if (affected == 0) return null;
+
+                Contact saved = stored(c, c.getContactId(), createdAt);
+                saved.setUpdatedAt(c.getUpdatedAt());
+                indexStored(saved);
+                return saved;
             }
         } catch (SQLException e) {
             System.out.println("❌ Error restoring contact: " + e.getMessage());
+            return null;
+        }
+    }
+
+
+    // ADD MULTIPLE CONTACTS WITH SPECIFIC IDS (FOR UNDO, ONE TRANSACTION)
+    @Override
+    public int addContactsWithIds(List<Contact> contacts) {
+        if (contacts == null || contacts.isEmpty()) return 0;
+
+        try (Connection conn = DbConnection.getConnection()) {
+            if (conn == null) {
+                System.out.println("❌ Cannot restore contacts. Database connection failed.");
+                return -1;
+            }
+
+            conn.setAutoCommit(false);
+            try {
+                PreparedStatement full = null;
+                try {
+                    for (int from = 0; from < contacts.size(); from += DEFAULT_BATCH_SIZE) {
+                        int to = Math.min(from + DEFAULT_BATCH_SIZE, contacts.size());
+
+                        // full-size chunks share one statement, the shorter tail gets its own
+                        if (to - from == DEFAULT_BATCH_SIZE) {
+                            if (full == null) full = conn.prepareStatement(multiRowRestoreSql(DEFAULT_BATCH_SIZE));
+                            insertRestoreChunk(full, contacts, from, to);
+                        } else {
+                            try (PreparedStatement tail = conn.prepareStatement(multiRowRestoreSql(to - from))) {
+                                insertRestoreChunk(tail, contacts, from, to);
+                            }
+                        }
+                    }
+                } finally {
+                    if (full != null) full.close();
+                }
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                System.out.println("❌ Error restoring contacts: " + e.getMessage());
+                return -1;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.out.println("❌ Error restoring contacts: " + e.getMessage());
             return -1;
         }
+
+        for (Contact c : contacts) {
+            indexInserted(c, c.getContactId());
+        }
+        return contacts.size();
+    }
+
+    private String multiRowRestoreSql(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO contacts " +
+                "(contact_id, first_name, middle_name, last_name, nickname, city, phone_primary, phone_secondary, " +
+                "email, linkedin_url, birth_date, created_at, updated_at) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sql.append(", ");
+            sql.append("(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, COALESCE(?, CURRENT_TIMESTAMP), ?)");
+        }
+        return sql.toString();
+    }
+
+    private void insertRestoreChunk(PreparedStatement ps, List<Contact> contacts, int from, int to) throws SQLException {
+        int index = 1;
+        for (int i = from; i < to; i++) {
+            Contact c = contacts.get(i);
+            ps.setInt(index++, c.getContactId());
+            index = bindContact(ps, index, c);
+            ps.setTimestamp(index++, c.getCreatedAt() == null ? null : Timestamp.valueOf(c.getCreatedAt()));
+            ps.setTimestamp(index++, c.getUpdatedAt() == null ? null : Timestamp.valueOf(c.getUpdatedAt()));
+        }
+        int affected = ps.executeUpdate();
+        if (affected != to - from) {
+            throw new SQLException("Expected " + (to - from) + " restored rows, got " + affected + ".");
+        }
+    }
+
+    // UPSERT CONTACTS (IMPORT, ONE TRANSACTION)
+    @Override
+    public int upsertContacts(List<Contact> contacts) {
+        if (contacts == null || contacts.isEmpty()) return 0;
+
+        // rows matched to an existing contact are upserted on the primary key; new rows
+        // are plain inserts, so their generated IDs come back reliably
+        List<Contact> matched = new ArrayList<>();
+        List<Contact> fresh = new ArrayList<>();
+        for (Contact c : contacts) {
+            (c.getContactId() > 0 ? matched : fresh).add(c);
+        }
+        int[] newIds = new int[fresh.size()];
+
+        try (Connection conn = DbConnection.getConnection()) {
+            if (conn == null) {
+                System.out.println("❌ Cannot import contacts. Database connection failed.");
+                return -1;
+            }
+
+            conn.setAutoCommit(false);
+            try {
+                for (int from = 0; from < matched.size(); from += DEFAULT_BATCH_SIZE) {
+                    int to = Math.min(from + DEFAULT_BATCH_SIZE, matched.size());
+                    try (PreparedStatement ps = conn.prepareStatement(multiRowUpsertSql(to - from))) {
+                        int index = 1;
+                        for (int i = from; i < to; i++) {
+                            ps.setInt(index++, matched.get(i).getContactId());
+                            index = bindContact(ps, index, matched.get(i));
+                        }
+                        ps.executeUpdate();
+                    }
+                }
+
+                for (int from = 0; from < fresh.size(); from += DEFAULT_BATCH_SIZE) {
+                    int to = Math.min(from + DEFAULT_BATCH_SIZE, fresh.size());
+                    try (PreparedStatement ps = prepareMultiRowInsert(conn, to - from)) {
+                        int index = 1;
+                        for (int i = from; i < to; i++) {
+                            index = bindContact(ps, index, fresh.get(i));
+                        }
+                        ps.executeUpdate();
+
+                        try (ResultSet keys = ps.getGeneratedKeys()) {
+                            for (int i = from; i < to; i++) {
+                                if (!keys.next()) throw new SQLException("No generated key returned.");
+                                newIds[i] = keys.getInt(1);
+                            }
+                        }
+                    }
+                }
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                System.out.println("❌ Error in upsertContacts: " + e.getMessage());
+                return -1;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.out.println("❌ Error in upsertContacts: " + e.getMessage());
+            return -1;
+        }
+
+        for (int i = 0; i < fresh.size(); i++) {
+            indexInserted(fresh.get(i), newIds[i]);
+        }
+        if (!matched.isEmpty()) reindex(matched);
+        return contacts.size();
+    }
+
+    private String multiRowUpsertSql(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO contacts " +
+                "(contact_id, first_name, middle_name, last_name, nickname, city, phone_primary, phone_secondary, " +
+                "email, linkedin_url, birth_date) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sql.append(", ");
+            sql.append("(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        }
+        sql.append(" ON DUPLICATE KEY UPDATE " +
+                "first_name = VALUES(first_name), middle_name = VALUES(middle_name), " +
+                "last_name = VALUES(last_name), nickname = VALUES(nickname), city = VALUES(city), " +
+                "phone_primary = VALUES(phone_primary), phone_secondary = VALUES(phone_secondary), " +
+                "email = VALUES(email), linkedin_url = VALUES(linkedin_url), birth_date = VALUES(birth_date), " +
+                "updated_at = CURRENT_TIMESTAMP, version = version + 1");
+        return sql.toString();
+    }
+
+    /**
+     * Feeds upserted rows to the search index. Their timestamps and version
+     * were set by the database, so the rows are read back.
+     */
+    private void reindex(List<Contact> upserted) {
+        List<Integer> ids = new ArrayList<>(upserted.size());
+        upserted.forEach(c -> ids.add(c.getContactId()));
+
+        String sql = "SELECT * FROM contacts WHERE contact_id IN (" + placeholders(ids.size()) + ")";
+        try (Connection conn = DbConnection.getConnection()) {
+            if (conn == null) return;
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                bindIds(ps, ids);
+                try (ResultSet rs = ps.executeQuery()) {
+                    ContactRowMapper mapper = ContactRowMapper.of(rs);
+                    List<Contact> rows = new ArrayList<>(ids.size());
+                    while (rs.next()) {
+                        rows.add(mapper.map(rs));
+                    }
+                    SEARCH_INDEX.onUpsertAll(rows);
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println("⚠ Search index not updated after import: " + e.getMessage());
+        } finally {
+            resyncAfterUnit(ids);
+        }
     }
 
-    
-    
     // ADD MULTIPLE CONTACTS
     @Override
     public void addContacts(List<Contact> contacts) {
-        for (Contact c : contacts) {
-            addContact(c);
+        BatchInsertResult result = addContactsBatch(contacts, DEFAULT_BATCH_SIZE, false);
+
+        result.getFailures().forEach((index, message) ->
+                System.out.println("❌ Error inserting contact #" + (index + 1) + ": " + message));
+    }
+
+    // ADD MULTIPLE CONTACTS (JDBC BATCH, ONE TRANSACTION)
+    @Override
+    public BatchInsertResult addContactsBatch(List<Contact> contacts, int chunkSize, boolean multiRowValues) {
+        BatchInsertResult result = new BatchInsertResult(contacts == null ? 0 : contacts.size());
+        if (contacts == null || contacts.isEmpty()) return result;
+
+        int size = Math.max(1, chunkSize);
+
+        try (Connection conn = DbConnection.getConnection()) {
+            if (conn == null) {
+                System.out.println("❌ Cannot add contacts. Database connection failed.");
+                result.failAll("Database connection failed.");
+                return result;
+            }
+
+            conn.setAutoCommit(false);
+            try (PreparedStatement single = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                PreparedStatement multi = null;
+                try {
+                    for (int from = 0; from < contacts.size(); from += size) {
+                        int to = Math.min(from + size, contacts.size());
+
+                        if (multiRowValues && to - from > 1) {
+                            // full-size chunks share one statement, the shorter tail gets its own
+                            if (to - from == size) {
+                                if (multi == null) multi = prepareMultiRowInsert(conn, size);
+                                insertMultiRowChunk(multi, single, contacts, from, to, result);
+                            } else {
+                                try (PreparedStatement tail = prepareMultiRowInsert(conn, to - from)) {
+                                    insertMultiRowChunk(tail, single, contacts, from, to, result);
+                                }
+                            }
+                        } else {
+                            insertBatchChunk(single, contacts, from, to, result);
+                        }
+                    }
+                } finally {
+                    if (multi != null) multi.close();
+                }
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                result.failAll("Batch rolled back: " + e.getMessage());
+                System.out.println("❌ Error in addContactsBatch: " + e.getMessage());
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            result.failAll(e.getMessage());
+            System.out.println("❌ Error in addContactsBatch: " + e.getMessage());
+        }
+
+        for (int i = 0; i < contacts.size(); i++) {
+            if (result.getIdAt(i) > 0) indexInserted(contacts.get(i), result.getIdAt(i));
+        }
+        return result;
+    }
+
+    /**
+     * Sends rows [from, to) as one JDBC batch on the shared statement and
+     * records the generated key or the failure of every row.
+     */
+    private void insertBatchChunk(PreparedStatement ps, List<Contact> contacts,
+                                  int from, int to, BatchInsertResult result) throws SQLException {
+        for (int i = from; i < to; i++) {
+            bindContact(ps, 1, contacts.get(i));
+            ps.addBatch();
+        }
+
+        int[] counts;
+        String error = null;
+        try {
+            counts = ps.executeBatch();
+        } catch (BatchUpdateException e) {
+            if (abortsTransaction(e)) throw e;
+            // MySQL continues after a failed row by default; the counts tell which rows made it
+            counts = e.getUpdateCounts();
+            error = e.getMessage();
+        } finally {
+            ps.clearBatch();
+        }
+
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            for (int i = from; i < to; i++) {
+                int k = i - from;
+                boolean ok = k < counts.length
+                        && (counts[k] > 0 || counts[k] == Statement.SUCCESS_NO_INFO);
+
+                if (ok && keys.next()) {
+                    result.setId(i, keys.getInt(1));
+                } else {
+                    result.fail(i, error != null ? error : "Row was not inserted.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends rows [from, to) as a single multi-row INSERT. If the database
+     * rejects the statement, nothing of it was applied and the chunk is
+     * replayed through the per-row batch path to pinpoint the bad rows.
+     */
+    private void insertMultiRowChunk(PreparedStatement multi, PreparedStatement single,
+                                     List<Contact> contacts, int from, int to,
+                                     BatchInsertResult result) throws SQLException {
+        int index = 1;
+        for (int i = from; i < to; i++) {
+            index = bindContact(multi, index, contacts.get(i));
+        }
+
+        try {
+            multi.executeUpdate();
+        } catch (SQLException e) {
+            if (abortsTransaction(e)) throw e;
+            insertBatchChunk(single, contacts, from, to, result);
+            return;
+        }
+
+        // MySQL hands out consecutive IDs for a multi-row insert, in row order
+        try (ResultSet keys = multi.getGeneratedKeys()) {
+            for (int i = from; i < to; i++) {
+                if (keys.next()) {
+                    result.setId(i, keys.getInt(1));
+                } else {
+                    result.fail(i, "No generated key returned.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Tells whether an error ended the whole transaction rather than one
+     * statement: a lost connection (SQLState 08xxx) or a deadlock / lock wait
+     * rollback (40xxx), after which InnoDB has already undone the earlier
+     * chunks. The batch must then fail as a whole.
+     */
+    private static boolean abortsTransaction(SQLException e) {
+        if (e instanceof SQLTransactionRollbackException) return true;
+        String state = e.getSQLState();
+        return state != null && (state.startsWith("08") || state.startsWith("40"));
+    }
+
+    private PreparedStatement prepareMultiRowInsert(Connection conn, int rows) throws SQLException {
+        StringBuilder sql = new StringBuilder(INSERT_COLUMNS).append(" VALUES ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(INSERT_VALUES);
+        }
+        return conn.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS);
+    }
+
+    /**
+     * Binds the ten insertable columns of a contact starting at {@code index}.
+     *
+     * @return the next free parameter index
+     */
+    private int bindContact(PreparedStatement ps, int index, Contact c) throws SQLException {
+        ps.setString(index++, c.getFirstName());
+        ps.setString(index++, c.getMiddleName());
+        ps.setString(index++, c.getLastName());
+        ps.setString(index++, c.getNickname());
+        ps.setString(index++, c.getCity());
+        ps.setString(index++, c.getPhonePrimary());
+        ps.setString(index++, c.getPhoneSecondary());
+        ps.setString(index++, c.getEmail());
+        ps.setString(index++, c.getLinkedinUrl());
+
+        if (c.getBirthDate() != null) {
+            ps.setDate(index++, Date.valueOf(c.getBirthDate()));
+        } else {
+            ps.setNull(index++, Types.DATE);
+        }
+        return index;
+    }
+
+    /**
+     * Feeds a freshly inserted row to the search index. The row is not read
+     * back, so the timestamps the database assigned are approximated locally.
+     */
+    private void indexInserted(Contact c, int id) {
+        Contact indexed = new Contact(c);
+        indexed.setContactId(id);
+        if (indexed.getCreatedAt() == null) indexed.setCreatedAt(LocalDateTime.now());
+        indexStored(indexed);
+    }
+
+    /**
+     * Feeds a row whose stored values are known exactly to the search index.
+     */
+    private void indexStored(Contact saved) {
+        SEARCH_INDEX.onUpsert(saved);
+        resyncAfterUnit(List.of(saved.getContactId()));
+    }
+
+    /**
+     * The row a single-row insert stored: the input with its ID and the
+     * values the other columns start with.
+     */
+    private static Contact stored(Contact c, int id, LocalDateTime createdAt) {
+        Contact saved = new Contact(c);
+        saved.setContactId(id);
+        saved.setCreatedAt(createdAt);
+        saved.setUpdatedAt(null);
+        saved.setVersion(0);
+        return saved;
+    }
+
+    /**
+     * @return the current time to the second, the precision of the TIMESTAMP columns
+     */
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    /**
+     * Inside a {@link UnitOfWork} the search index is updated before the
+     * transaction ends. If the unit is rolled back, the touched contacts are
+     * read again so that the index matches the database.
+     */
+    private void resyncAfterUnit(List<Integer> ids) {
+        UnitOfWork.afterCompletion(committed -> {
+            if (!committed) resyncIndex(ids);
+        });
+    }
+
+    private void resyncIndex(List<Integer> ids) {
+        Set<Integer> missing = new HashSet<>(ids);
+        String sql = "SELECT * FROM contacts WHERE contact_id IN (" + placeholders(ids.size()) + ")";
+
+        try (Connection conn = DbConnection.getConnection()) {
+            if (conn == null) return;
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                bindIds(ps, ids);
+                try (ResultSet rs = ps.executeQuery()) {
+                    ContactRowMapper mapper = ContactRowMapper.of(rs);
+                    List<Contact> rows = new ArrayList<>(ids.size());
+                    while (rs.next()) {
+                        Contact c = mapper.map(rs);
+                        missing.remove(c.getContactId());
+                        rows.add(c);
+                    }
+                    SEARCH_INDEX.onUpsertAll(rows);
+                }
+            }
+            SEARCH_INDEX.onDeleteAll(missing);
+        } catch (SQLException e) {
+            System.out.println("⚠ Search index not updated after rollback: " + e.getMessage());
         }
     }
 
     // FIND CONTACT BY ID
+    // (inside a unit of work the row is locked until the unit ends, so that
+    //  a read-then-write sequence cannot interleave with another writer)
     @Override
     public Contact findById(int id) {
-        String sql = "SELECT * FROM contacts WHERE contact_id = ?";
+        String sql = UnitOfWork.isActive()
+                ? "SELECT * FROM contacts WHERE contact_id = ? FOR UPDATE"
+                : "SELECT * FROM contacts WHERE contact_id = ?";
 
         try (Connection conn = DbConnection.getConnection()) {
             if (conn == null) {
@@ -131,7 +661,7 @@ public class ContactDaoImpl implements ContactDao {
                 ps.setInt(1, id);
                 ResultSet rs = ps.executeQuery();
 
-                return rs.next() ? map(rs) : null;
+                return rs.next() ? ContactRowMapper.of(rs).map(rs) : null;
             }
         } catch (SQLException e) {
             System.out.println("❌ Error in findById: " + e.getMessage());
@@ -154,8 +684,9 @@ public class ContactDaoImpl implements ContactDao {
 
             try (PreparedStatement ps = conn.prepareStatement(sql)) {
                 ResultSet rs = ps.executeQuery();
+                ContactRowMapper mapper = ContactRowMapper.of(rs);
                 while (rs.next()) {
-                    list.add(map(rs));
+                    list.add(mapper.map(rs));
                 }
             }
         } catch (SQLException e) {
@@ -165,6 +696,54 @@ public class ContactDaoImpl implements ContactDao {
         return list;
     }
 
+    // STREAM ALL CONTACTS
+    @Override
+    public int streamAll(Consumer<Contact> sink) {
+        return stream("SELECT * FROM contacts ORDER BY contact_id ASC", sink, "streamAll");
+    }
+
+    // FIND BY PRIMARY PHONE OR EMAIL (IMPORT MATCHING)
+    @Override
+    public List<Contact> findByPhonesOrEmails(Collection<String> phones, Collection<String> emails) {
+        List<Contact> list = new ArrayList<>();
+        if (phones.isEmpty() && emails.isEmpty()) return list;
+
+        // each side is answered by its (column, contact_id) index
+        StringBuilder sql = new StringBuilder("SELECT * FROM contacts WHERE ");
+        if (!phones.isEmpty()) {
+            sql.append("phone_primary IN (").append(placeholders(phones.size())).append(')');
+        }
+        if (!emails.isEmpty()) {
+            if (!phones.isEmpty()) sql.append(" OR ");
+            sql.append("email IN (").append(placeholders(emails.size())).append(')');
+        }
+        sql.append(" ORDER BY contact_id");
+
+        try (Connection conn = DbConnection.getConnection()) {
+            if (conn == null) {
+                System.out.println("❌ Cannot look up contacts. DB connection failed.");
+                return null;
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+                int index = 1;
+                for (String phone : phones) ps.setString(index++, phone);
+                for (String email : emails) ps.setString(index++, email);
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    ContactRowMapper mapper = ContactRowMapper.of(rs);
+                    while (rs.next()) {
+                        list.add(mapper.map(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println("❌ Error in findByPhonesOrEmails: " + e.getMessage());
+            return null;
+        }
+        return list;
+    }
+
     //UPDATE CONTACT
     @Override
     public boolean updateContact(Contact c) {
@@ -172,8 +751,8 @@ public class ContactDaoImpl implements ContactDao {
                 UPDATE contacts SET
                   first_name=?, middle_name=?, last_name=?, nickname=?, city=?,
                   phone_primary=?, phone_secondary=?, email=?, linkedin_url=?, birth_date=?,
-                  updated_at=CURRENT_TIMESTAMP
-                WHERE contact_id=?
+                  updated_at=CURRENT_TIMESTAMP, version=version+1
+                WHERE contact_id=? AND version=?
                 """;
 
         try (Connection conn = DbConnection.getConnection()) {
@@ -200,10 +779,17 @@ public class ContactDaoImpl implements ContactDao {
                 }
 
                 ps.setInt(11, c.getContactId());
+                ps.setInt(12, c.getVersion());
 
                 int affected = ps.executeUpdate();
 
-
+                if (affected == 1) {
+                    Contact indexed = new Contact(c);
+                    indexed.setUpdatedAt(LocalDateTime.now());
+                    indexed.setVersion(c.getVersion() + 1);
+                    SEARCH_INDEX.onUpsert(indexed);
+                    resyncAfterUnit(List.of(c.getContactId()));
+                }
                 return affected == 1;
             }
         } catch (SQLException e) {
@@ -227,7 +813,10 @@ public class ContactDaoImpl implements ContactDao {
 
                 int affected = ps.executeUpdate();
 
-
+                if (affected == 1) {
+                    SEARCH_INDEX.onDelete(id);
+                    resyncAfterUnit(List.of(id));
+                }
                 return affected == 1;
             }
         } catch (SQLException e) {
@@ -236,36 +825,168 @@ public class ContactDaoImpl implements ContactDao {
         }
     }
 
-    // DELETE MULTIPLE 
+    // DELETE MULTIPLE
     @Override
     public void deleteContactsByIds(List<Integer> ids) {
+        deleteInChunks(ids, false, "deleteContactsByIds");
+    }
+
+    // DELETE MULTIPLE (CHUNKED, ONE TRANSACTION, WITH PRE-IMAGES)
+    @Override
+    public List<Contact> deleteContactsReturning(List<Integer> ids) {
+        return deleteInChunks(ids, true, "deleteContactsReturning");
+    }
 
-        if (ids == null || ids.isEmpty()) return;
+    // DELETE MULTIPLE (ONLY IF UNCHANGED)
+    @Override
+    public List<Integer> deleteContactsIfUnchanged(List<Contact> expected) {
+        List<Integer> changed = new ArrayList<>();
+        if (expected == null || expected.isEmpty()) return changed;
 
-        StringBuilder placeholders = new StringBuilder();
+        Map<Integer, Integer> versions = new LinkedHashMap<>();
+        expected.forEach(c -> versions.put(c.getContactId(), c.getVersion()));
+        List<Integer> ids = new ArrayList<>(versions.keySet());
 
-        for (int i = 0; i < ids.size(); i++) {
-            placeholders.append("?");
-            if (i < ids.size() - 1) placeholders.append(",");
+        try (Connection conn = DbConnection.getConnection()) {
+            if (conn == null) {
+                System.out.println("❌ Cannot delete contacts. DB connection failed.");
+                return null;
+            }
+
+            conn.setAutoCommit(false);
+            try {
+                // lock every row first, so none can change between the check and the delete
+                for (int from = 0; from < ids.size(); from += DEFAULT_BATCH_SIZE) {
+                    List<Integer> chunk = ids.subList(from, Math.min(from + DEFAULT_BATCH_SIZE, ids.size()));
+                    Set<Integer> seen = new HashSet<>();
+
+                    String select = "SELECT contact_id, version FROM contacts WHERE contact_id IN ("
+                            + placeholders(chunk.size()) + ") FOR UPDATE";
+                    try (PreparedStatement ps = conn.prepareStatement(select)) {
+                        bindIds(ps, chunk);
+                        try (ResultSet rs = ps.executeQuery()) {
+                            while (rs.next()) {
+                                int id = rs.getInt(1);
+                                seen.add(id);
+                                if (rs.getInt(2) != versions.get(id)) changed.add(id);
+                            }
+                        }
+                    }
+                    for (int id : chunk) {
+                        if (!seen.contains(id)) changed.add(id);
+                    }
+                }
+
+                if (!changed.isEmpty()) {
+                    conn.rollback();
+                    return changed;
+                }
+
+                for (int from = 0; from < ids.size(); from += DEFAULT_BATCH_SIZE) {
+                    List<Integer> chunk = ids.subList(from, Math.min(from + DEFAULT_BATCH_SIZE, ids.size()));
+                    try (PreparedStatement ps = conn.prepareStatement(
+                            "DELETE FROM contacts WHERE contact_id IN (" + placeholders(chunk.size()) + ")")) {
+                        bindIds(ps, chunk);
+                        ps.executeUpdate();
+                    }
+                }
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                System.out.println("❌ Error in deleteContactsIfUnchanged: " + e.getMessage());
+                return null;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.out.println("❌ Error in deleteContactsIfUnchanged: " + e.getMessage());
+            return null;
         }
 
-        String sql = "DELETE FROM contacts WHERE contact_id IN (" + placeholders + ")";
+        SEARCH_INDEX.onDeleteAll(ids);
+        resyncAfterUnit(ids);
+        return changed;
+    }
+
+    /**
+     * Deletes the IDs in chunks of {@link #DEFAULT_BATCH_SIZE} inside one
+     * transaction, so no statement exceeds the driver's placeholder limit and
+     * a failure leaves the table untouched. With {@code capture} every chunk
+     * first locks and reads its rows, which become the return value.
+     *
+     * @return the captured rows (empty without capture), or null on failure
+     */
+    private List<Contact> deleteInChunks(List<Integer> ids, boolean capture, String operation) {
+        List<Contact> deleted = new ArrayList<>();
+        if (ids == null || ids.isEmpty()) return deleted;
+
+        List<Integer> unique = new ArrayList<>(new LinkedHashSet<>(ids));
 
         try (Connection conn = DbConnection.getConnection()) {
             if (conn == null) {
                 System.out.println("❌ Cannot delete contacts. DB connection failed.");
-                return;
+                return null;
             }
 
-            try (PreparedStatement ps = conn.prepareStatement(sql)) {
-                for (int i = 0; i < ids.size(); i++) {
-                    ps.setInt(i + 1, ids.get(i));
+            conn.setAutoCommit(false);
+            try {
+                for (int from = 0; from < unique.size(); from += DEFAULT_BATCH_SIZE) {
+                    List<Integer> chunk = unique.subList(from, Math.min(from + DEFAULT_BATCH_SIZE, unique.size()));
+                    String in = placeholders(chunk.size());
+
+                    if (capture) {
+                        String select = "SELECT * FROM contacts WHERE contact_id IN (" + in + ") ORDER BY contact_id FOR UPDATE";
+                        try (PreparedStatement ps = conn.prepareStatement(select)) {
+                            bindIds(ps, chunk);
+                            try (ResultSet rs = ps.executeQuery()) {
+                                ContactRowMapper mapper = ContactRowMapper.of(rs);
+                                while (rs.next()) {
+                                    deleted.add(mapper.map(rs));
+                                }
+                            }
+                        }
+                    }
+
+                    try (PreparedStatement ps = conn.prepareStatement("DELETE FROM contacts WHERE contact_id IN (" + in + ")")) {
+                        bindIds(ps, chunk);
+                        ps.executeUpdate();
+                    }
                 }
 
-                ps.executeUpdate();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                System.out.println("❌ Error in " + operation + ": " + e.getMessage());
+                return null;
+            } finally {
+                conn.setAutoCommit(true);
             }
         } catch (SQLException e) {
-            System.out.println("❌ Error in deleteContactsByIds: " + e.getMessage());
+            System.out.println("❌ Error in " + operation + ": " + e.getMessage());
+            return null;
+        }
+
+        SEARCH_INDEX.onDeleteAll(unique);
+        resyncAfterUnit(unique);
+
+        // chunks were read in ID order, but the chunks themselves follow the input order
+        deleted.sort(Comparator.comparingInt(Contact::getContactId));
+        return deleted;
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 2);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(',');
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
+    private static void bindIds(PreparedStatement ps, List<Integer> ids) throws SQLException {
+        for (int i = 0; i < ids.size(); i++) {
+            ps.setInt(i + 1, ids.get(i));
         }
     }
 
@@ -273,16 +994,7 @@ public class ContactDaoImpl implements ContactDao {
     @Override
     public List<Contact> findAllSorted(String field, boolean asc) {
 
-        List<String> allowed = List.of(
-                "first_name", "last_name", "nickname", "city",
-                "phone_primary", "email", "birth_date", "created_at"
-        );
-
-        if (!allowed.contains(field)) {
-            field = "first_name";
-        }
-
-        String sql = "SELECT * FROM contacts ORDER BY " + field + (asc ? " ASC" : " DESC");
+        String sql = sortedSql(field, asc);
 
         List<Contact> list = new ArrayList<>();
 
@@ -294,8 +1006,9 @@ public class ContactDaoImpl implements ContactDao {
 
             try (PreparedStatement ps = conn.prepareStatement(sql)) {
                 ResultSet rs = ps.executeQuery();
+                ContactRowMapper mapper = ContactRowMapper.of(rs);
                 while (rs.next()) {
-                    list.add(map(rs));
+                    list.add(mapper.map(rs));
                 }
             }
         } catch (SQLException e) {
@@ -305,27 +1018,283 @@ public class ContactDaoImpl implements ContactDao {
         return list;
     }
 
-    // SEARCH (DYNAMIC)
+    // SORT (STREAMING)
     @Override
-    public List<Contact> search(SearchCriteria criteria) {
+    public int streamAllSorted(String field, boolean asc, Consumer<Contact> sink) {
+        return stream(sortedSql(field, asc), sink, "streamAllSorted");
+    }
+
+    private String sortedSql(String field, boolean asc) {
+        String column = SORTABLE_FIELDS.contains(field) ? field : "first_name";
+        return SQL_TEMPLATES.get("sorted:" + column + (asc ? ":asc" : ":desc"),
+                () -> "SELECT * FROM contacts ORDER BY " + column + (asc ? " ASC" : " DESC"));
+    }
+
+    /**
+     * Runs {@code sql} on a forward-only, read-only cursor and hands every
+     * mapped row to {@code sink} as soon as it arrives.
+     */
+    private int stream(String sql, Consumer<Contact> sink, String operation) {
+        try (Connection conn = DbConnection.getConnection()) {
+            if (conn == null) {
+                System.out.println("❌ Cannot load contacts. DB connection failed.");
+                return -1;
+            }
+
+            return streamRows(conn, sql, sink);
+        } catch (SQLException e) {
+            System.out.println("❌ Error in " + operation + ": " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private int streamRows(Connection conn, String sql, Consumer<Contact> sink) throws SQLException {
+        int count = 0;
+
+        try (PreparedStatement ps = conn.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(streamingFetchSize(conn));
+
+            try (ResultSet rs = ps.executeQuery()) {
+                ContactRowMapper mapper = ContactRowMapper.of(rs);
+                while (rs.next()) {
+                    sink.accept(mapper.map(rs));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Loads the search index in the background on first use, and schedules
+     * its periodic resync so that writes made by other clients show up.
+     * Unlike {@link #streamAll}, a failure is reported to the index so that
+     * it never becomes ready with partial contents.
+     */
+    private void warmUpSearchIndex() {
+        ContactSearchIndex.RowSource source = sink -> {
+            try (Connection conn = DbConnection.getConnection()) {
+                if (conn == null) throw new SQLException("Database connection failed.");
+                streamRows(conn, "SELECT * FROM contacts ORDER BY contact_id ASC", sink);
+            }
+        };
+        SEARCH_INDEX.warmUpAsync(source);
+        SEARCH_INDEX.scheduleResync(source);
+    }
+
+    /**
+     * Stops the periodic resync of the shared search index. Called once on exit.
+     */
+    public static void shutdownSearchIndex() {
+        SEARCH_INDEX.shutdown();
+    }
+
+    /**
+     * MySQL Connector/J only streams when the fetch size is
+     * {@link Integer#MIN_VALUE} (unless cursor fetching is enabled on the URL);
+     * any other value makes it buffer the whole result. Other drivers get a
+     * regular positive fetch size.
+     */
+    private int streamingFetchSize(Connection conn) throws SQLException {
+        String product = conn.getMetaData().getDatabaseProductName();
+        return "MySQL".equalsIgnoreCase(product) ? Integer.MIN_VALUE : STREAM_FETCH_SIZE;
+    }
 
-        List<String> allowedFields = List.of(
-                "first_name", "last_name", "nickname", "city",
-                "email", "phone_primary", "phone_secondary", "linkedin_url"
-        );
+    // PAGE (KEYSET / SEEK)
+    @Override
+    public ContactPage findPage(String field, boolean asc, PageCursor after, int pageSize) {
+        String column = "contact_id".equals(field) || SORTABLE_FIELDS.contains(field) ? field : "first_name";
+        if (after != null) after.checkListing(column, asc);
+        int seek = seekShape(column, after);
+
+        String sql = SQL_TEMPLATES.get("page:" + column + (asc ? ":asc:" : ":desc:") + seek, () -> {
+            StringBuilder sb = new StringBuilder("SELECT * FROM contacts WHERE 1=1 ");
+            appendSeek(sb, column, asc, seek);
+
+            String dir = asc ? " ASC" : " DESC";
+            sb.append(" ORDER BY ");
+            if (!"contact_id".equals(column)) {
+                sb.append(column).append(dir).append(", ");
+            }
+            sb.append("contact_id").append(dir).append(" LIMIT ?");
+            return sb.toString();
+        });
 
-        StringBuilder sql = new StringBuilder("SELECT * FROM contacts WHERE 1=1 ");
         List<Object> params = new ArrayList<>();
+        addSeekParams(params, seek, after);
+        return queryPage(sql, params, column, asc, pageSize, "findPage");
+    }
 
-        criteria.getCriteria().forEach((field, value) -> {
+    // SEARCH PAGE (KEYSET ON contact_id)
+    @Override
+    public ContactPage searchPage(SearchCriteria criteria, PageCursor after, int pageSize) {
+        if (after != null) after.checkListing("contact_id", true);
+        if (SEARCH_INDEX.canAnswer(criteria)) {
+            int size = Math.max(1, pageSize);
+            int afterId = after == null ? Integer.MIN_VALUE : after.getLastId();
+            return toPage(SEARCH_INDEX.search(criteria, afterId, size + 1), "contact_id", true, size);
+        }
+        if (!SEARCH_INDEX.isReady()) warmUpSearchIndex();
 
-            if (!allowedFields.contains(field)) {
-                System.out.println("⚠ Skipping invalid search field: " + field);
-                return; 
+        List<Object> params = new ArrayList<>();
+        int fields = searchFields(criteria, params);
+        int seek = seekShape("contact_id", after);
+
+        String sql = SQL_TEMPLATES.get("searchPage:" + fields + ":" + seek, () -> {
+            StringBuilder sb = new StringBuilder("SELECT * FROM contacts WHERE 1=1 ");
+            appendCriteria(sb, fields);
+            appendSeek(sb, "contact_id", true, seek);
+            sb.append(" ORDER BY contact_id ASC LIMIT ?");
+            return sb.toString();
+        });
+
+        addSeekParams(params, seek, after);
+        return queryPage(sql, params, "contact_id", true, pageSize, "searchPage");
+    }
+
+    /**
+     * @return which seek predicate a page query after {@code after} needs
+     */
+    private static int seekShape(String field, PageCursor after) {
+        if (after == null) return SEEK_NONE;
+        if ("contact_id".equals(field)) return SEEK_BY_ID;
+        return after.getLastKey() == null ? SEEK_NULL_KEY : SEEK_KEY;
+    }
+
+    /**
+     * Appends the "rows after the cursor" predicate. MySQL sorts NULLs first
+     * in ascending and last in descending order, so a NULL sort key needs its
+     * own branch to keep the sequence gap-free.
+     */
+    private static void appendSeek(StringBuilder sql, String field, boolean asc, int seek) {
+        String cmp = asc ? " > " : " < ";
+
+        switch (seek) {
+            case SEEK_BY_ID -> sql.append(" AND contact_id").append(cmp).append("? ");
+            case SEEK_NULL_KEY -> {
+                if (asc) {
+                    sql.append(" AND ((").append(field).append(" IS NULL AND contact_id > ?) OR ")
+                       .append(field).append(" IS NOT NULL) ");
+                } else {
+                    sql.append(" AND (").append(field).append(" IS NULL AND contact_id < ?) ");
+                }
             }
+            case SEEK_KEY -> {
+                sql.append(" AND (").append(field).append(cmp).append("? OR (")
+                   .append(field).append(" = ? AND contact_id").append(cmp).append("?)");
+                if (!asc) sql.append(" OR ").append(field).append(" IS NULL");
+                sql.append(") ");
+            }
+            default -> { }
+        }
+    }
+
+    /**
+     * Adds the parameters of the predicate written by {@link #appendSeek}.
+     */
+    private static void addSeekParams(List<Object> params, int seek, PageCursor after) {
+        if (seek == SEEK_KEY) {
+            params.add(after.getLastKey());
+            params.add(after.getLastKey());
+        }
+        if (seek != SEEK_NONE) {
+            params.add(after.getLastId());
+        }
+    }
+
+    /**
+     * Runs a page query, fetching one extra row to learn whether another page follows.
+     * The SQL ends with {@code LIMIT ?}.
+     */
+    private ContactPage queryPage(String sql, List<Object> params, String field,
+                                  boolean asc, int pageSize, String operation) {
+        int size = Math.max(1, pageSize);
+        params.add(size + 1);
+
+        List<Contact> list = new ArrayList<>(size + 1);
 
-            sql.append(" AND ").append(field).append(" LIKE ? ");
-            params.add("%" + value + "%");
+        try (Connection conn = DbConnection.getConnection()) {
+            if (conn == null) {
+                System.out.println("❌ Cannot load contacts. DB connection failed.");
+                return new ContactPage(list, null);
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (int i = 0; i < params.size(); i++) {
+                    bindKey(ps, i + 1, params.get(i));
+                }
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    ContactRowMapper mapper = ContactRowMapper.of(rs);
+                    while (rs.next()) {
+                        list.add(mapper.map(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println("❌ Error in " + operation + ": " + e.getMessage());
+        }
+
+        return toPage(list, field, asc, size);
+    }
+
+    /**
+     * Cuts the look-ahead row off a page query result and turns it into the next cursor.
+     */
+    private ContactPage toPage(List<Contact> list, String field, boolean asc, int size) {
+        PageCursor next = null;
+        if (list.size() > size) {
+            list.remove(size);
+            Contact last = list.get(size - 1);
+            next = new PageCursor(field, asc, sortKeyOf(last, field), last.getContactId());
+        }
+        return new ContactPage(list, next);
+    }
+
+    private void bindKey(PreparedStatement ps, int index, Object value) throws SQLException {
+        if (value instanceof LocalDate d) {
+            ps.setDate(index, Date.valueOf(d));
+        } else if (value instanceof LocalDateTime t) {
+            ps.setTimestamp(index, Timestamp.valueOf(t));
+        } else {
+            ps.setObject(index, value);
+        }
+    }
+
+    /**
+     * Reads the value of a sortable column from an already mapped contact.
+     */
+    private Object sortKeyOf(Contact c, String field) {
+        return switch (field) {
+            case "first_name" -> c.getFirstName();
+            case "last_name" -> c.getLastName();
+            case "nickname" -> c.getNickname();
+            case "city" -> c.getCity();
+            case "phone_primary" -> c.getPhonePrimary();
+            case "email" -> c.getEmail();
+            case "birth_date" -> c.getBirthDate();
+            case "created_at" -> c.getCreatedAt();
+            default -> c.getContactId();
+        };
+    }
+
+    // SEARCH (DYNAMIC)
+    @Override
+    public List<Contact> search(SearchCriteria criteria) {
+
+        if (SEARCH_INDEX.canAnswer(criteria)) {
+            return SEARCH_INDEX.search(criteria, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+        if (!SEARCH_INDEX.isReady()) warmUpSearchIndex();
+
+        List<Object> params = new ArrayList<>();
+        int fields = searchFields(criteria, params);
+
+        String sql = SQL_TEMPLATES.get("search:" + fields, () -> {
+            StringBuilder sb = new StringBuilder("SELECT * FROM contacts WHERE 1=1 ");
+            appendCriteria(sb, fields);
+            return sb.toString();
         });
 
         List<Contact> list = new ArrayList<>();
@@ -336,15 +1305,16 @@ public class ContactDaoImpl implements ContactDao {
                 return list;
             }
 
-            try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
                 for (int i = 0; i < params.size(); i++) {
                     ps.setObject(i + 1, params.get(i));
                 }
 
                 ResultSet rs = ps.executeQuery();
+                ContactRowMapper mapper = ContactRowMapper.of(rs);
 
                 while (rs.next()) {
-                    list.add(map(rs));
+                    list.add(mapper.map(rs));
                 }
             }
         } catch (SQLException e) {
@@ -355,40 +1325,146 @@ public class ContactDaoImpl implements ContactDao {
     }
 
 
-    // MAP RESULTSET → CONTACT OBJECT
-    private Contact map(ResultSet rs) throws SQLException {
-        Contact c = new Contact();
-
-        c.setContactId(rs.getInt("contact_id"));
-        c.setFirstName(rs.getString("first_name"));
-        c.setMiddleName(rs.getString("middle_name"));
-        c.setLastName(rs.getString("last_name"));
-        c.setNickname(rs.getString("nickname"));
-        c.setCity(rs.getString("city"));
-
-        c.setPhonePrimary(rs.getString("phone_primary"));
-        c.setPhoneSecondary(rs.getString("phone_secondary"));
-
-        c.setEmail(rs.getString("email"));
-        c.setLinkedinUrl(rs.getString("linkedin_url"));
-
-        Date birth = rs.getDate("birth_date");
-        if (birth != null) {
-            c.setBirthDate(birth.toLocalDate());
+    /**
+     * Collects the valid search criteria in the order of {@link #SEARCHABLE_FIELDS},
+     * so that the same set of fields always gives the same SQL.
+     *
+     * @param params receives one {@code %value%} pattern per valid criterion
+     * @return the searched fields as a bit set of their positions in {@link #SEARCHABLE_FIELDS}
+     */
+    private int searchFields(SearchCriteria criteria, List<Object> params) {
+        int fields = 0;
+        for (String field : criteria.getCriteria().keySet()) {
+            int index = SEARCHABLE_FIELDS.indexOf(field);
+            if (index < 0) {
+                System.out.println("⚠ Skipping invalid search field: " + field);
+            } else {
+                fields |= 1 << index;
+            }
         }
 
-        c.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-        c.setUpdatedAt(rs.getTimestamp("updated_at") != null 
-                ? rs.getTimestamp("updated_at").toLocalDateTime()
-                : null);
+        for (int i = 0; i < SEARCHABLE_FIELDS.size(); i++) {
+            if ((fields & 1 << i) != 0) {
+                params.add("%" + criteria.getCriteria().get(SEARCHABLE_FIELDS.get(i)) + "%");
+            }
+        }
+        return fields;
+    }
 
-        return c;
+    /**
+     * Appends one {@code field LIKE ?} condition per field of {@link #searchFields}.
+     */
+    private static void appendCriteria(StringBuilder sql, int fields) {
+        for (int i = 0; i < SEARCHABLE_FIELDS.size(); i++) {
+            if ((fields & 1 << i) != 0) {
+                sql.append(" AND ").append(SEARCHABLE_FIELDS.get(i)).append(" LIKE ? ");
+            }
+        }
     }
 
+    /**
+     * @return counters of the SQL registry behind the search, sort and page queries
+     */
+    public static CacheStats getSqlTemplateStats() {
+        return SQL_TEMPLATES.getStats();
+    }
 
     //             STATISTICS METHODS (MANAGER ONLY)
     // ===========================================================
 
+    // ALL STATISTICS (ONE ROUND TRIP)
+    @Override
+    public StatisticsSnapshot loadStatistics() {
+        int total = 0;
+        int withLinkedin = 0;
+        double averageAge = 0;
+        Contact youngest = null;
+        Contact oldest = null;
+        List<String[]> cities = new ArrayList<>();
+        List<String[]> ageGroups = new ArrayList<>();
+        List<String[]> firstNames = new ArrayList<>();
+        List<String[]> lastNames = new ArrayList<>();
+        int[] birthMonths = new int[12];
+
+        try (Connection conn = DbConnection.getConnection()) {
+            if (conn == null) throw new SQLException("Database connection failed.");
+
+            try (PreparedStatement ps = conn.prepareStatement(STATISTICS_SQL);
+                 ResultSet rs = ps.executeQuery()) {
+
+                ContactRowMapper mapper = ContactRowMapper.of(rs);
+                while (rs.next()) {
+                    int section = rs.getInt(1);
+                    String label = rs.getString(2);
+                    int count = rs.getInt(3);
+
+                    switch (section) {
+                        case STAT_TOTALS -> {
+                            total = count;
+                            averageAge = rs.getDouble(4);
+                        }
+                        case STAT_LINKEDIN -> withLinkedin = count;
+                        case STAT_CITY -> cities.add(new String[]{label, String.valueOf(count)});
+                        case STAT_AGE_GROUP -> ageGroups.add(new String[]{label, String.valueOf(count)});
+                        case STAT_FIRST_NAME -> firstNames.add(new String[]{label, String.valueOf(count)});
+                        case STAT_LAST_NAME -> lastNames.add(new String[]{label, String.valueOf(count)});
+                        case STAT_BIRTH_MONTH -> birthMonths[Integer.parseInt(label) - 1] = count;
+                        case STAT_YOUNGEST -> youngest = mapper.map(rs);
+                        case STAT_OLDEST -> oldest = mapper.map(rs);
+                        default -> { }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading statistics", e);
+        }
+
+        return new StatisticsSnapshot(total, withLinkedin, youngest, oldest, averageAge,
+                cities, ageGroups, firstNames, lastNames,
+                StatisticsSnapshot.birthMonthRows(birthMonths));
+    }
+
+    /**
+     * Builds the statistics query: one {@code UNION ALL} branch per metric,
+     * each tagged with its section number. Every branch has the same columns
+     * ({@code section, label, cnt, avg_age} followed by the contact columns),
+     * which are only filled in for the youngest and oldest contact, so only
+     * the aggregated rows travel to the client.
+     */
+    private static String statisticsSql() {
+        String contactColumns = "contact_id, first_name, middle_name, last_name, nickname, city, "
+                + "phone_primary, phone_secondary, email, linkedin_url, "
+                + "birth_date, created_at, updated_at, version";
+        // result columns are named by the first branch, the others only pad with NULL
+        String namedNulls = contactColumns.replaceAll("(\\w+)", "NULL AS $1");
+        String noContact = contactColumns.replaceAll("\\w+", "NULL");
+        String age = "TIMESTAMPDIFF(YEAR, birth_date, CURDATE())";
+
+        return "SELECT " + STAT_TOTALS + " AS section, NULL AS label, COUNT(*) AS cnt, "
+                + "AVG(" + age + ") AS avg_age, " + namedNulls + " FROM contacts"
+                + " UNION ALL SELECT " + STAT_LINKEDIN + ", NULL, COUNT(*), NULL, " + noContact
+                + " FROM contacts WHERE linkedin_url IS NOT NULL AND linkedin_url <> ''"
+                + " UNION ALL SELECT " + STAT_CITY + ", city, COUNT(*), NULL, " + noContact
+                + " FROM contacts GROUP BY city"
+                + " UNION ALL SELECT " + STAT_AGE_GROUP + ", CASE"
+                + " WHEN " + age + " BETWEEN 18 AND 25 THEN '18-25'"
+                + " WHEN " + age + " BETWEEN 26 AND 30 THEN '26-30'"
+                + " WHEN " + age + " BETWEEN 31 AND 40 THEN '31-40'"
+                + " ELSE '40+' END AS age_group, COUNT(*), NULL, " + noContact
+                + " FROM contacts WHERE birth_date IS NOT NULL GROUP BY age_group"
+                + " UNION ALL (SELECT " + STAT_FIRST_NAME + ", first_name, COUNT(*) AS cnt, NULL, " + noContact
+                + " FROM contacts GROUP BY first_name ORDER BY cnt DESC LIMIT " + StatisticsSnapshot.TOP_NAMES + ")"
+                + " UNION ALL (SELECT " + STAT_LAST_NAME + ", last_name, COUNT(*) AS cnt, NULL, " + noContact
+                + " FROM contacts GROUP BY last_name ORDER BY cnt DESC LIMIT " + StatisticsSnapshot.TOP_NAMES + ")"
+                + " UNION ALL SELECT " + STAT_BIRTH_MONTH + ", MONTH(birth_date) AS birth_month, COUNT(*), NULL, "
+                + noContact + " FROM contacts WHERE birth_date IS NOT NULL GROUP BY birth_month"
+                + " UNION ALL (SELECT " + STAT_YOUNGEST + ", NULL, NULL, NULL, " + contactColumns
+                + " FROM contacts WHERE birth_date IS NOT NULL ORDER BY birth_date DESC LIMIT 1)"
+                + " UNION ALL (SELECT " + STAT_OLDEST + ", NULL, NULL, NULL, " + contactColumns
+                + " FROM contacts WHERE birth_date IS NOT NULL ORDER BY birth_date ASC LIMIT 1)"
+                + " ORDER BY section, cnt DESC";
+    }
+
     //  TOTAL CONTACT COUNT
     @Override
     public int countAllContacts() {
@@ -405,213 +1481,72 @@ public class ContactDaoImpl implements ContactDao {
     // CONTACTS WITH LINKEDIN COUNT
     @Override
     public int countContactsWithLinkedin() {
-        String sql = "SELECT COUNT(*) FROM contacts WHERE linkedin_url IS NOT NULL AND linkedin_url <> ''";
-        try (Connection conn = DbConnection.getConnection();
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ResultSet rs = ps.executeQuery()) {
-            return rs.next() ? rs.getInt(1) : 0;
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
+        return loadStatistics().getWithLinkedin();
     }
 
     // CONTACTS WITHOUT LINKEDIN COUNT
     @Override
     public int countContactsWithoutLinkedin() {
-        String sql = "SELECT COUNT(*) FROM contacts WHERE linkedin_url IS NULL OR linkedin_url = ''";
-        try (Connection conn = DbConnection.getConnection();
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ResultSet rs = ps.executeQuery()) {
-            return rs.next() ? rs.getInt(1) : 0;
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
+        return loadStatistics().getWithoutLinkedin();
     }
 
     // MOST COMMON FIRST NAME
     @Override
     public String findMostCommonFirstName() {
-        String sql = "SELECT first_name, COUNT(*) cnt FROM contacts GROUP BY first_name ORDER BY cnt DESC LIMIT 1";
-        try (Connection conn = DbConnection.getConnection();
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ResultSet rs = ps.executeQuery()) {
-            return rs.next() ? rs.getString("first_name") : null;
-        } catch (SQLException e) { throw new RuntimeException(e); }
+        return loadStatistics().getMostCommonFirstName();
     }
     
     // MOST COMMON LAST NAME
     @Override
     public String findMostCommonLastName() {
-        String sql = "SELECT last_name, COUNT(*) cnt FROM contacts GROUP BY last_name ORDER BY cnt DESC LIMIT 1";
-        try (Connection conn = DbConnection.getConnection();
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ResultSet rs = ps.executeQuery()) {
-            return rs.next() ? rs.getString("last_name") : null;
-        } catch (SQLException e) { throw new RuntimeException(e); }
+        return loadStatistics().getMostCommonLastName();
     }
 
     // YOUNGEST CONTACT
     @Override
     public Contact findYoungestContact() {
-        String sql = "SELECT * FROM contacts WHERE birth_date IS NOT NULL ORDER BY birth_date DESC LIMIT 1";
-        try (Connection conn = DbConnection.getConnection();
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ResultSet rs = ps.executeQuery()) {
-            return rs.next() ? map(rs) : null;
-        } catch (SQLException e) { throw new RuntimeException(e); }
+        return loadStatistics().getYoungest();
     }
 
     // OLDEST CONTACT
     @Override
     public Contact findOldestContact() {
-        String sql = "SELECT * FROM contacts WHERE birth_date IS NOT NULL ORDER BY birth_date ASC LIMIT 1";
-        try (Connection conn = DbConnection.getConnection();
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ResultSet rs = ps.executeQuery()) {
-            return rs.next() ? map(rs) : null;
-        } catch (SQLException e) { throw new RuntimeException(e); }
+        return loadStatistics().getOldest();
     }
 
     // AVERAGE AGE OF CONTACTS
     @Override
     public double getAverageAge() {
-        String sql = "SELECT AVG(TIMESTAMPDIFF(YEAR, birth_date, CURDATE())) AS avg_age FROM contacts WHERE birth_date IS NOT NULL";
-        try (Connection conn = DbConnection.getConnection();
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ResultSet rs = ps.executeQuery()) {
-            return rs.next() ? rs.getDouble("avg_age") : 0;
-        } catch (SQLException e) { throw new RuntimeException(e); }
+        return loadStatistics().getAverageAge();
     }
 
     // CITY DISTRIBUTION
     @Override
     public List<String[]> getCityDistribution() {
-        List<String[]> list = new ArrayList<>();
-        String sql = "SELECT city, COUNT(*) cnt FROM contacts GROUP BY city ORDER BY cnt DESC";
-
-        try (Connection conn = DbConnection.getConnection();
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                list.add(new String[]{
-                    rs.getString("city"),
-                    String.valueOf(rs.getInt("cnt"))
-                });
-            }
-        } catch (SQLException e) { throw new RuntimeException(e); }
-
-        return list;
+        return loadStatistics().getCityDistribution();
     }
 
     // AGE GROUP DISTRIBUTION
     @Override
     public List<String[]> getAgeGroupDistribution() {
-        List<String[]> list = new ArrayList<>();
-        String sql = """
-        SELECT 
-            CASE 
-                WHEN TIMESTAMPDIFF(YEAR, birth_date, CURDATE()) BETWEEN 18 AND 25 THEN '18-25'
-                WHEN TIMESTAMPDIFF(YEAR, birth_date, CURDATE()) BETWEEN 26 AND 30 THEN '26-30'
-                WHEN TIMESTAMPDIFF(YEAR, birth_date, CURDATE()) BETWEEN 31 AND 40 THEN '31-40'
-                ELSE '40+' 
-            END AS age_group,
-            COUNT(*) cnt
-        FROM contacts
-        WHERE birth_date IS NOT NULL
-        GROUP BY age_group
-        ORDER BY cnt DESC
-        """;
-
-        try (Connection conn = DbConnection.getConnection();
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                list.add(new String[]{
-                    rs.getString("age_group"),
-                    String.valueOf(rs.getInt("cnt"))
-                });
-            }
-        } catch (SQLException e) { throw new RuntimeException(e); }
-
-        return list;
+        return loadStatistics().getAgeGroupDistribution();
     }
 
     // TOP FIRST NAMES
     @Override
     public List<String[]> getTopFirstNames() {
-        List<String[]> list = new ArrayList<>();
-        String sql = "SELECT first_name, COUNT(*) cnt FROM contacts GROUP BY first_name ORDER BY cnt DESC LIMIT 5";
-
-        try (Connection conn = DbConnection.getConnection();
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                list.add(new String[]{
-                    rs.getString("first_name"),
-                    String.valueOf(rs.getInt("cnt"))
-                });
-            }
-
-        } catch (SQLException e) { throw new RuntimeException(e); }
-
-        return list;
+        return loadStatistics().getTopFirstNames();
     }
 
     // TOP LAST NAMES
     @Override
     public List<String[]> getTopLastNames() {
-        List<String[]> list = new ArrayList<>();
-        String sql = "SELECT last_name, COUNT(*) cnt FROM contacts GROUP BY last_name ORDER BY cnt DESC LIMIT 5";
-
-        try (Connection conn = DbConnection.getConnection();
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                list.add(new String[]{
-                    rs.getString("last_name"),
-                    String.valueOf(rs.getInt("cnt"))
-                });
-            }
-
-        } catch (SQLException e) { throw new RuntimeException(e); }
-
-        return list;
+        return loadStatistics().getTopLastNames();
     }
 
     // BIRTH MONTH DISTRIBUTION
     @Override
     public List<String[]> getBirthMonthDistribution() {
-        List<String[]> list = new ArrayList<>();
-
-        String sql = """
-            SELECT 
-                MONTH(birth_date) AS month_num,
-                MONTHNAME(birth_date) AS month_name,
-                COUNT(*) AS cnt
-            FROM contacts
-            WHERE birth_date IS NOT NULL
-            GROUP BY month_num, month_name
-            ORDER BY month_num
-        """;
-
-        try (Connection conn = DbConnection.getConnection();
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                list.add(new String[]{
-                    rs.getString("month_name"),
-                    String.valueOf(rs.getInt("cnt"))
-                });
-            }
-
-        } catch (SQLException e) {
-            throw new RuntimeException("Error generating birth month distribution", e);
-        }
-        return list;
+        return loadStatistics().getBirthMonthDistribution();
     }
 }
@@ -0,0 +1,100 @@
+package com.project.cms.dao.contact;
+
+import com.project.cms.model.Contact;
+import com.project.cms.util.ColumnIndexes;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Turns rows of the contacts table into {@link Contact} objects.
+ * <p>
+ * The position of every column is looked up once, from the metadata of the
+ * result set, when the mapper is created. Each row is then read by index,
+ * which spares the driver a column-name lookup per value; every timestamp
+ * is read and converted only once.
+ */
+final class ContactRowMapper {
+
+    private static final String[] COLUMNS = {
+            "contact_id", "first_name", "middle_name", "last_name", "nickname", "city",
+            "phone_primary", "phone_secondary", "email", "linkedin_url",
+            "birth_date", "created_at", "updated_at", "version"
+    };
+
+    private final int contactId;
+    private final int firstName;
+    private final int middleName;
+    private final int lastName;
+    private final int nickname;
+    private final int city;
+    private final int phonePrimary;
+    private final int phoneSecondary;
+    private final int email;
+    private final int linkedinUrl;
+    private final int birthDate;
+    private final int createdAt;
+    private final int updatedAt;
+    private final int version;
+
+    private ContactRowMapper(int[] index) {
+        contactId = index[0];
+        firstName = index[1];
+        middleName = index[2];
+        lastName = index[3];
+        nickname = index[4];
+        city = index[5];
+        phonePrimary = index[6];
+        phoneSecondary = index[7];
+        email = index[8];
+        linkedinUrl = index[9];
+        birthDate = index[10];
+        createdAt = index[11];
+        updatedAt = index[12];
+        version = index[13];
+    }
+
+    /**
+     * Resolves the column positions of a result set.
+     *
+     * @param rs a result set of {@code SELECT * FROM contacts ...}
+     * @return a mapper for the rows of {@code rs}
+     * @throws SQLException if a contact column is missing from the result
+     */
+    static ContactRowMapper of(ResultSet rs) throws SQLException {
+        return new ContactRowMapper(ColumnIndexes.resolve(rs.getMetaData(), COLUMNS));
+    }
+
+    /**
+     * Maps the current row of the result set the mapper was created for.
+     */
+    Contact map(ResultSet rs) throws SQLException {
+        Contact c = new Contact();
+
+        c.setContactId(rs.getInt(contactId));
+        c.setFirstName(rs.getString(firstName));
+        c.setMiddleName(rs.getString(middleName));
+        c.setLastName(rs.getString(lastName));
+        c.setNickname(rs.getString(nickname));
+        c.setCity(rs.getString(city));
+
+        c.setPhonePrimary(rs.getString(phonePrimary));
+        c.setPhoneSecondary(rs.getString(phoneSecondary));
+
+        c.setEmail(rs.getString(email));
+        c.setLinkedinUrl(rs.getString(linkedinUrl));
+
+        Date birth = rs.getDate(birthDate);
+        if (birth != null) {
+            c.setBirthDate(birth.toLocalDate());
+        }
+
+        c.setCreatedAt(rs.getTimestamp(createdAt).toLocalDateTime());
+        Timestamp updated = rs.getTimestamp(updatedAt);
+        c.setUpdatedAt(updated != null ? updated.toLocalDateTime() : null);
+        c.setVersion(rs.getInt(version));
+
+        return c;
+    }
+}
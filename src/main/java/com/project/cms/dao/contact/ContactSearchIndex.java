@@ -0,0 +1,560 @@
+package com.project.cms.dao.contact;
+
+import com.project.cms.model.Contact;
+import com.project.cms.model.SearchCriteria;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-process inverted trigram index over the searchable contact fields.
+ * <p>
+ * {@code LIKE '%value%'} cannot use a B-tree index, so every SQL search scans
+ * the whole table. This index maps every three-character substring of every
+ * searchable field to the sorted list of contact IDs containing it. A
+ * substring query only has to walk the shortest posting list among its
+ * trigrams and confirm each candidate with a plain {@code contains} check.
+ * <p>
+ * Values are folded with Turkish lower-casing rules (I → ı, İ → i), the same
+ * case rules the {@code utf8mb4_turkish_ci} collation of the contacts table
+ * applies, so "IŞIK" and "ışık" find each other exactly as they do in SQL.
+ * <p>
+ * The index starts <b>cold</b>. The first search triggers a background load
+ * from the database and is answered by SQL until the load completes. Writes
+ * made through {@link ContactDaoImpl} are applied incrementally; writes made
+ * while the load is running take precedence over the rows it delivers.
+ * <p>
+ * Removing a contact only drops its document: the IDs left behind in the
+ * posting lists are tombstones that every query already skips, because each
+ * candidate is confirmed against its live document. Once the tombstones
+ * outnumber the live postings, the posting lists are rebuilt from the
+ * documents in one pass, so a delete costs no array copying under the write
+ * lock. Bulk writes use {@link #onUpsertAll} and {@link #onDeleteAll}, which
+ * take the lock once.
+ * <p>
+ * Writes made outside this process are not seen, so the database-backed
+ * index can be resynchronised periodically with {@link #scheduleResync}: the
+ * table is read into a fresh index in the background, and the fresh index
+ * replaces the current one. Writes made while it is read take precedence, as
+ * during the initial load. The interval can be set with the system property
+ * {@code cms.search.resyncIntervalMs}.
+ */
+public class ContactSearchIndex {
+
+    /** Fields kept in the index, in column order. */
+    static final List<String> FIELDS = List.of(
+            "first_name", "last_name", "nickname", "city",
+            "email", "phone_primary", "phone_secondary", "linkedin_url"
+    );
+
+    /** Default time between two resynchronisations with the database. */
+    public static final long DEFAULT_RESYNC_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final Locale TURKISH = Locale.forLanguageTag("tr");
+
+    /** Minimum pause between two failed warm-up attempts. */
+    private static final long RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    /** Tombstones tolerated before compaction is considered at all. */
+    private static final long COMPACT_MIN_STALE = 10_000;
+
+    /**
+     * Supplies all contacts of the table for the initial load.
+     */
+    @FunctionalInterface
+    interface RowSource {
+        void load(Consumer<Contact> sink) throws SQLException;
+    }
+
+    private enum State { COLD, WARMING, READY }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private Contents contents = new Contents();
+    private Set<Integer> touchedDuringLoad;
+
+    private volatile State state = State.COLD;
+    private volatile long lastFailureMillis;
+
+    private ScheduledExecutorService resyncer;
+
+    /**
+     * Creates an empty, cold index.
+     */
+    public ContactSearchIndex() {
+    }
+
+    // ===========================================================
+    // LIFECYCLE
+    // ===========================================================
+
+    /**
+     * @return true once the initial load has completed
+     */
+    public boolean isReady() {
+        return state == State.READY;
+    }
+
+    /**
+     * Starts loading the index in a background thread if it is still cold.
+     * Returns immediately; callers keep using SQL until {@link #isReady()}.
+     *
+     * @param source reads every contact from the database
+     */
+    void warmUpAsync(RowSource source) {
+        synchronized (this) {
+            if (state != State.COLD) return;
+            if (System.currentTimeMillis() - lastFailureMillis < RETRY_DELAY_MILLIS) return;
+
+            lock.writeLock().lock();
+            try {
+                state = State.WARMING;
+                touchedDuringLoad = new HashSet<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        Thread loader = new Thread(() -> warmUp(source), "cms-search-index-warmup");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void warmUp(RowSource source) {
+        try {
+            source.load(this::loadRow);
+
+            lock.writeLock().lock();
+            try {
+                touchedDuringLoad = null;
+                state = State.READY;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.out.println("⚠ Search index could not be loaded, using SQL search: " + e.getMessage());
+            lock.writeLock().lock();
+            try {
+                contents = new Contents();
+                touchedDuringLoad = null;
+                lastFailureMillis = System.currentTimeMillis();
+                state = State.COLD;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void loadRow(Contact c) {
+        lock.writeLock().lock();
+        try {
+            // a write seen during the load is newer than the row being loaded
+            if (touchedDuringLoad != null && touchedDuringLoad.contains(c.getContactId())) return;
+            contents.put(c);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Schedules the periodic resynchronisation, using the configured or default interval.
+     *
+     * @param source reads every contact from the database
+     */
+    void scheduleResync(RowSource source) {
+        scheduleResync(source, Long.getLong("cms.search.resyncIntervalMs", DEFAULT_RESYNC_INTERVAL_MILLIS));
+    }
+
+    /**
+     * Schedules the periodic resynchronisation. Does nothing if it is already scheduled.
+     *
+     * @param source         reads every contact from the database
+     * @param intervalMillis time between two resynchronisations
+     */
+    synchronized void scheduleResync(RowSource source, long intervalMillis) {
+        if (resyncer != null) return;
+
+        resyncer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cms-search-index-resync");
+            t.setDaemon(true);
+            return t;
+        });
+        resyncer.scheduleWithFixedDelay(() -> resyncQuietly(source), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic resynchronisation.
+     */
+    public synchronized void shutdown() {
+        if (resyncer != null) {
+            resyncer.shutdownNow();
+            resyncer = null;
+        }
+    }
+
+    /**
+     * Reads every contact into a fresh index and replaces the current one.
+     * Contacts written while the table was read keep their current entry.
+     *
+     * @param source reads every contact from the database
+     * @return true if the fresh index was installed, false if the index is not
+     *         ready, another resync is running, or the read failed
+     */
+    boolean resync(RowSource source) {
+        lock.writeLock().lock();
+        try {
+            if (state != State.READY || touchedDuringLoad != null) return false;
+            touchedDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Contents fresh = new Contents();
+        try {
+            source.load(fresh::put);
+        } catch (SQLException | RuntimeException e) {
+            System.out.println("⚠ Search index could not be resynchronised: " + e.getMessage());
+            lock.writeLock().lock();
+            try {
+                touchedDuringLoad = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (int id : touchedDuringLoad) {
+                Document current = contents.documents.get(id);
+                if (current == null) {
+                    fresh.remove(id);
+                } else {
+                    fresh.put(current.contact);
+                }
+            }
+            fresh.compactIfNeeded();
+            contents = fresh;
+            touchedDuringLoad = null;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void resyncQuietly(RowSource source) {
+        try {
+            resync(source);
+        } catch (RuntimeException e) {
+            System.out.println("⚠ Search index resync failed: " + e.getMessage());
+        }
+    }
+
+    // ===========================================================
+    // INCREMENTAL MAINTENANCE
+    // ===========================================================
+
+    /**
+     * Adds or replaces a contact after it was inserted or updated.
+     *
+     * @param c the contact as stored in the database (ID must be set)
+     */
+    public void onUpsert(Contact c) {
+        onUpsertAll(List.of(c));
+    }
+
+    /**
+     * Adds or replaces several contacts under a single lock acquisition.
+     *
+     * @param contacts the contacts as stored in the database (IDs must be set)
+     */
+    public void onUpsertAll(Collection<Contact> contacts) {
+        if (state == State.COLD || contacts.isEmpty()) return;
+
+        lock.writeLock().lock();
+        try {
+            if (state == State.COLD) return;
+            for (Contact c : contacts) {
+                if (touchedDuringLoad != null) touchedDuringLoad.add(c.getContactId());
+                contents.put(c);
+            }
+            contents.compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a contact after it was deleted.
+     *
+     * @param contactId the ID of the deleted contact
+     */
+    public void onDelete(int contactId) {
+        onDeleteAll(List.of(contactId));
+    }
+
+    /**
+     * Removes several contacts under a single lock acquisition.
+     *
+     * @param contactIds the IDs of the deleted contacts
+     */
+    public void onDeleteAll(Collection<Integer> contactIds) {
+        if (state == State.COLD || contactIds.isEmpty()) return;
+
+        lock.writeLock().lock();
+        try {
+            if (state == State.COLD) return;
+            for (int id : contactIds) {
+                if (touchedDuringLoad != null) touchedDuringLoad.add(id);
+                contents.remove(id);
+            }
+            contents.compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===========================================================
+    // QUERY
+    // ===========================================================
+
+    /**
+     * Tells whether the index can answer the given criteria exactly like SQL would.
+     * Unknown fields and values containing LIKE wildcards are left to SQL.
+     *
+     * @param criteria the search criteria
+     * @return true if {@link #search} may be used
+     */
+    public boolean canAnswer(SearchCriteria criteria) {
+        if (state != State.READY || criteria == null || !criteria.hasCriteria()) return false;
+
+        for (Map.Entry<String, Object> e : criteria.getCriteria().entrySet()) {
+            String value = String.valueOf(e.getValue());
+            if (!FIELDS.contains(e.getKey()) || value.indexOf('%') >= 0 || value.indexOf('_') >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the contacts matching every criterion as a substring,
+     * ordered by contact ID.
+     *
+     * @param criteria the search criteria (must satisfy {@link #canAnswer})
+     * @param afterId  only contacts with a greater ID are returned
+     * @param limit    maximum number of contacts to return
+     * @return copies of the matching contacts
+     */
+    public List<Contact> search(SearchCriteria criteria, int afterId, int limit) {
+        int n = criteria.getCriteria().size();
+        int[] fields = new int[n];
+        String[] needles = new String[n];
+
+        int i = 0;
+        for (Map.Entry<String, Object> e : criteria.getCriteria().entrySet()) {
+            fields[i] = FIELDS.indexOf(e.getKey());
+            needles[i] = fold(String.valueOf(e.getValue()));
+            i++;
+        }
+
+        List<Contact> result = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            NavigableMap<Integer, Document> documents = contents.documents;
+            List<Map<Long, IntList>> postings = contents.postings;
+
+            IntList candidates = null;
+            for (int k = 0; k < n; k++) {
+                for (long gram : trigrams(needles[k])) {
+                    IntList ids = postings.get(fields[k]).get(gram);
+                    if (ids == null) return result;              // a trigram nobody has (or had)
+                    if (candidates == null || ids.size < candidates.size) candidates = ids;
+                }
+            }
+
+            if (candidates == null) {
+                // every needle is shorter than a trigram: scan the (in-memory) documents
+                for (Document doc : documents.tailMap(afterId, false).values()) {
+                    if (result.size() >= limit) break;
+                    if (doc.matches(fields, needles)) result.add(new Contact(doc.contact));
+                }
+            } else {
+                for (int p = candidates.indexAfter(afterId); p < candidates.size && result.size() < limit; p++) {
+                    Document doc = documents.get(candidates.values[p]);
+                    if (doc != null && doc.matches(fields, needles)) result.add(new Contact(doc.contact));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    // ===========================================================
+    // HELPERS
+    // ===========================================================
+
+    static String fold(String value) {
+        return value == null ? "" : value.toLowerCase(TURKISH);
+    }
+
+    private static long[] trigrams(String s) {
+        if (s.length() < 3) return new long[0];
+
+        long[] grams = new long[s.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    /**
+     * Documents and posting lists of one generation of the index.
+     * Only accessed under the index lock, or by the thread building it.
+     */
+    private static final class Contents {
+        final NavigableMap<Integer, Document> documents = new TreeMap<>();
+        final List<Map<Long, IntList>> postings = new ArrayList<>();
+
+        /** Postings owned by live documents, and tombstones left by removed ones. */
+        long livePostings;
+        long stalePostings;
+
+        Contents() {
+            for (int i = 0; i < FIELDS.size(); i++) {
+                postings.add(new HashMap<>());
+            }
+        }
+
+        void put(Contact c) {
+            remove(c.getContactId());
+
+            Document doc = new Document(new Contact(c));
+            documents.put(c.getContactId(), doc);
+            addPostings(doc);
+            livePostings += doc.postingCount;
+        }
+
+        /**
+         * Drops the document and leaves its postings behind as tombstones.
+         * A later {@link #put} of the same ID finds its old entries still in
+         * place, so the tombstone count is an upper bound.
+         */
+        void remove(int contactId) {
+            Document old = documents.remove(contactId);
+            if (old == null) return;
+
+            livePostings -= old.postingCount;
+            stalePostings += old.postingCount;
+        }
+
+        /**
+         * Rebuilds the posting lists from the live documents once the
+         * tombstones outnumber the live postings. Documents are visited in ID
+         * order, so every posting is an append.
+         */
+        void compactIfNeeded() {
+            if (stalePostings < COMPACT_MIN_STALE || stalePostings < livePostings) return;
+
+            postings.forEach(Map::clear);
+            for (Document doc : documents.values()) {
+                addPostings(doc);
+            }
+            stalePostings = 0;
+        }
+
+        private void addPostings(Document doc) {
+            int id = doc.contact.getContactId();
+            for (int f = 0; f < FIELDS.size(); f++) {
+                for (long gram : trigrams(doc.folded[f])) {
+                    postings.get(f).computeIfAbsent(gram, g -> new IntList()).add(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * A contact snapshot plus its folded field values.
+     */
+    private static final class Document {
+        final Contact contact;
+        final String[] folded = new String[FIELDS.size()];
+        final int postingCount;
+
+        Document(Contact c) {
+            this.contact = c;
+            folded[0] = fold(c.getFirstName());
+            folded[1] = fold(c.getLastName());
+            folded[2] = fold(c.getNickname());
+            folded[3] = fold(c.getCity());
+            folded[4] = fold(c.getEmail());
+            folded[5] = fold(c.getPhonePrimary());
+            folded[6] = fold(c.getPhoneSecondary());
+            folded[7] = fold(c.getLinkedinUrl());
+
+            int count = 0;
+            for (String value : folded) {
+                count += trigrams(value).length;
+            }
+            postingCount = count;
+        }
+
+        boolean matches(int[] fields, String[] needles) {
+            for (int k = 0; k < fields.length; k++) {
+                if (!folded[fields[k]].contains(needles[k])) return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Sorted, duplicate-free list of primitive ints used as a posting list.
+     * IDs mostly arrive in increasing order, which makes {@link #add} an append.
+     * Entries are never removed one by one; see {@link Contents#compactIfNeeded}.
+     */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int v) {
+            if (size == 0 || values[size - 1] < v) {
+                grow();
+                values[size++] = v;
+                return;
+            }
+            int pos = Arrays.binarySearch(values, 0, size, v);
+            if (pos >= 0) return;
+            pos = -pos - 1;
+            grow();
+            System.arraycopy(values, pos, values, pos + 1, size - pos);
+            values[pos] = v;
+            size++;
+        }
+
+        int indexAfter(int v) {
+            int pos = Arrays.binarySearch(values, 0, size, v);
+            return pos >= 0 ? pos + 1 : -pos - 1;
+        }
+
+        private void grow() {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+        }
+    }
+}
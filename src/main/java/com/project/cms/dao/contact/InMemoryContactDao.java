@@ -0,0 +1,1014 @@
+package com.project.cms.dao.contact;
+
+import com.project.cms.model.Contact;
+import com.project.cms.model.ContactPage;
+import com.project.cms.model.PageCursor;
+import com.project.cms.model.SearchCriteria;
+import com.project.cms.model.StatisticsSnapshot;
+import com.project.cms.util.IntHashMap;
+import com.project.cms.util.RecordLog;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Embedded implementation of {@link ContactDao} that keeps every contact in memory.
+ * <p>
+ * Contacts are found by ID in an {@link IntHashMap}. Every column accepted by
+ * {@link #findAllSorted} has its own sorted index of (column value,
+ * contact_id), so sorted listings and keyset pages are read straight from the
+ * index, the same way MySQL uses the {@code idx_contacts_*} indexes. Text is
+ * compared with a Turkish collator, ignoring case, and NULLs sort first, which
+ * matches the {@code utf8mb4_turkish_ci} ordering of the real table. The
+ * collation keys of a stored contact are computed once, so walking an index
+ * compares bytes instead of running the collator on every step.
+ * Substring searches use a {@link ContactSearchIndex} of their own.
+ * <p>
+ * Stored contacts are never modified: an update replaces the object, so the
+ * indexes can hold the same instances, and callers always receive copies.
+ * <p>
+ * Without a log file the contents are lost when the application stops. With
+ * one, every change is appended to a {@link RecordLog} before it becomes
+ * visible, and the log is replayed when the DAO is created.
+ */
+public class InMemoryContactDao implements ContactDao {
+
+    /** Columns accepted by the sorting methods (same as {@link ContactDaoImpl}). */
+    private static final List<String> SORTABLE_FIELDS = List.of(
+            "first_name", "last_name", "nickname", "city",
+            "phone_primary", "email", "birth_date", "created_at"
+    );
+
+    /** The log is rewritten once it holds this many times more records than live contacts. */
+    private static final int COMPACT_RATIO = 4;
+
+    /** ... and at least this many records. */
+    private static final int COMPACT_MIN_RECORDS = 10_000;
+
+    private static final Collator COLLATOR = Collator.getInstance(Locale.forLanguageTag("tr"));
+
+    static {
+        COLLATOR.setStrength(Collator.PRIMARY);
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private final IntHashMap<Contact> byId = new IntHashMap<>();
+    private final NavigableSet<Contact> idOrder = new TreeSet<>(Comparator.comparingInt(Contact::getContactId));
+    private final Map<String, NavigableSet<Contact>> sortIndexes = new HashMap<>();
+    private final Map<Contact, CollationKey[]> collationKeys = new IdentityHashMap<>();
+    private int nextId = 1;
+
+    private final ContactSearchIndex searchIndex = new ContactSearchIndex();
+    private final RecordLog<Contact> log;
+
+    /**
+     * Creates an empty, non-persistent store.
+     */
+    public InMemoryContactDao() {
+        this.log = null;
+        createIndexes();
+        warmUpSearchIndex();
+    }
+
+    /**
+     * Creates a store backed by a log file and loads what the log contains.
+     *
+     * @param logFile the log file (created if missing)
+     * @param sync    true to force every change to the disk before returning
+     * @throws IOException if the log cannot be opened or read
+     */
+    public InMemoryContactDao(Path logFile, boolean sync) throws IOException {
+        this.log = new RecordLog<>(logFile, new ContactCodec(), sync);
+        createIndexes();
+
+        log.replay(new RecordLog.Replayer<>() {
+            @Override
+            public void put(Contact c) {
+                store(c);
+            }
+
+            @Override
+            public void delete(int id) {
+                unstore(id);
+            }
+        });
+        warmUpSearchIndex();
+    }
+
+    private void createIndexes() {
+        for (String field : SORTABLE_FIELDS) {
+            sortIndexes.put(field, new TreeSet<>(orderBy(field)));
+        }
+    }
+
+    private void warmUpSearchIndex() {
+        searchIndex.warmUpAsync(sink -> {
+            for (Contact c : snapshot(idOrder)) {
+                sink.accept(c);
+            }
+        });
+    }
+
+    // ADD SINGLE CONTACT
+    @Override
+    public int addContact(Contact c) {
+        Contact saved = addContactReturning(c);
+        return saved == null ? -1 : saved.getContactId();
+    }
+
+    @Override
+    public Contact addContactReturning(Contact c) {
+        lock.writeLock().lock();
+        try {
+            String invalid = missingColumn(c);
+            if (invalid != null) {
+                System.out.println("❌ Error inserting contact: Column '" + invalid + "' cannot be null");
+                return null;
+            }
+
+            Contact stored = newRow(c, nextId);
+            persist(stored);
+            insert(stored);
+            compactIfNeeded();
+            return new Contact(stored);
+        } catch (IOException e) {
+            System.out.println("❌ Error inserting contact: " + e.getMessage());
+            return null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ADD CONTACT WITH SPECIFIC ID (FOR UNDO)
+    @Override
+    public int addContactWithId(Contact c) {
+        Contact saved = addContactWithIdReturning(c);
+        return saved == null ? -1 : saved.getContactId();
+    }
+
+    @Override
+    public Contact addContactWithIdReturning(Contact c) {
+        lock.writeLock().lock();
+        try {
+            if (byId.containsKey(c.getContactId())) {
+                System.out.println("❌ Error restoring contact: Duplicate entry '" + c.getContactId() + "' for key 'PRIMARY'");
+                return null;
+            }
+            if (c.getContactId() <= 0 || missingColumn(c) != null) return null;
+
+            Contact stored = restoredRow(c);
+            persist(stored);
+            insert(stored);
+            compactIfNeeded();
+            return new Contact(stored);
+        } catch (IOException e) {
+            System.out.println("❌ Error restoring contact: " + e.getMessage());
+            return null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ADD MULTIPLE CONTACTS WITH SPECIFIC IDS (FOR UNDO, ALL OR NOTHING)
+    @Override
+    public int addContactsWithIds(List<Contact> contacts) {
+        if (contacts == null || contacts.isEmpty()) return 0;
+
+        lock.writeLock().lock();
+        try {
+            List<Contact> rows = new ArrayList<>(contacts.size());
+            IntHashMap<Contact> seen = new IntHashMap<>(contacts.size());
+            for (Contact c : contacts) {
+                if (c.getContactId() <= 0 || byId.containsKey(c.getContactId())
+                        || seen.put(c.getContactId(), c) != null) {
+                    System.out.println("❌ Error restoring contacts: Duplicate entry '" + c.getContactId() + "' for key 'PRIMARY'");
+                    return -1;
+                }
+                String invalid = missingColumn(c);
+                if (invalid != null) {
+                    System.out.println("❌ Error restoring contacts: Column '" + invalid + "' cannot be null");
+                    return -1;
+                }
+
+                rows.add(restoredRow(c));
+            }
+
+            if (log != null) log.putAll(rows);
+            rows.forEach(this::insert);
+            compactIfNeeded();
+            return rows.size();
+        } catch (IOException e) {
+            System.out.println("❌ Error restoring contacts: " + e.getMessage());
+            return -1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // UPSERT CONTACTS (IMPORT, ALL OR NOTHING)
+    @Override
+    public int upsertContacts(List<Contact> contacts) {
+        if (contacts == null || contacts.isEmpty()) return 0;
+
+        lock.writeLock().lock();
+        try {
+            int maxGiven = 0;
+            for (Contact c : contacts) {
+                String invalid = missingColumn(c);
+                if (invalid != null) {
+                    System.out.println("❌ Error in upsertContacts: Column '" + invalid + "' cannot be null");
+                    return -1;
+                }
+                maxGiven = Math.max(maxGiven, c.getContactId());
+            }
+
+            // like ON DUPLICATE KEY UPDATE: an existing row is replaced and gets a new version
+            List<Contact> rows = new ArrayList<>(contacts.size());
+            List<Contact> replaced = new ArrayList<>();
+            int id = Math.max(nextId, maxGiven + 1);
+            for (Contact c : contacts) {
+                Contact old = c.getContactId() > 0 ? byId.get(c.getContactId()) : null;
+                if (old == null) {
+                    rows.add(newRow(c, c.getContactId() > 0 ? c.getContactId() : id++));
+                    continue;
+                }
+                Contact row = new Contact(c);
+                row.setCreatedAt(old.getCreatedAt());
+                row.setUpdatedAt(now());
+                row.setVersion(old.getVersion() + 1);
+                rows.add(row);
+                replaced.add(old);
+            }
+
+            if (log != null) log.putAll(rows);
+            replaced.forEach(this::remove);
+            rows.forEach(this::insert);
+            compactIfNeeded();
+            return rows.size();
+        } catch (IOException e) {
+            System.out.println("❌ Error in upsertContacts: " + e.getMessage());
+            return -1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ADD MULTIPLE CONTACTS
+    @Override
+    public void addContacts(List<Contact> contacts) {
+        BatchInsertResult result = addContactsBatch(contacts, DEFAULT_BATCH_SIZE, false);
+
+        result.getFailures().forEach((index, message) ->
+                System.out.println("❌ Error inserting contact #" + (index + 1) + ": " + message));
+    }
+
+    // ADD MULTIPLE CONTACTS (ONE LOG WRITE)
+    @Override
+    public BatchInsertResult addContactsBatch(List<Contact> contacts, int chunkSize, boolean multiRowValues) {
+        BatchInsertResult result = new BatchInsertResult(contacts == null ? 0 : contacts.size());
+        if (contacts == null || contacts.isEmpty()) return result;
+
+        lock.writeLock().lock();
+        try {
+            // chunking only matters for round trips, so the whole list is logged at once
+            List<Contact> rows = new ArrayList<>(contacts.size());
+            int id = nextId;
+            for (int i = 0; i < contacts.size(); i++) {
+                String invalid = missingColumn(contacts.get(i));
+                if (invalid != null) {
+                    result.fail(i, "Column '" + invalid + "' cannot be null");
+                } else {
+                    rows.add(newRow(contacts.get(i), id++));
+                }
+            }
+
+            try {
+                if (log != null) log.putAll(rows);
+            } catch (IOException e) {
+                result.failAll("Batch rolled back: " + e.getMessage());
+                System.out.println("❌ Error in addContactsBatch: " + e.getMessage());
+                return result;
+            }
+
+            int next = 0;
+            for (int i = 0; i < contacts.size(); i++) {
+                if (result.getFailures().containsKey(i)) continue;
+                Contact stored = rows.get(next++);
+                insert(stored);
+                result.setId(i, stored.getContactId());
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return result;
+    }
+
+    // FIND CONTACT BY ID
+    @Override
+    public Contact findById(int id) {
+        lock.readLock().lock();
+        try {
+            Contact c = byId.get(id);
+            return c == null ? null : new Contact(c);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // FIND ALL CONTACTS
+    @Override
+    public List<Contact> findAll() {
+        return copies(snapshot(idOrder));
+    }
+
+    // STREAM ALL CONTACTS
+    @Override
+    public int streamAll(Consumer<Contact> sink) {
+        return emit(snapshot(idOrder), sink);
+    }
+
+    // FIND BY PRIMARY PHONE OR EMAIL (IMPORT MATCHING)
+    @Override
+    public List<Contact> findByPhonesOrEmails(Collection<String> phones, Collection<String> emails) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Contact> found = new TreeSet<>(Comparator.comparingInt(Contact::getContactId));
+            collectEqual("phone_primary", phones, found);
+            collectEqual("email", emails, found);
+            return copies(new ArrayList<>(found));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the contacts whose column equals one of the values (under the
+     * collation of the index) by seeking the sorted index of that column.
+     */
+    private void collectEqual(String field, Collection<String> values, Collection<Contact> found) {
+        NavigableSet<Contact> index = sortIndexes.get(field);
+        int column = SORTABLE_FIELDS.indexOf(field);
+        for (String value : values) {
+            Contact probe = probe(field, value, Integer.MIN_VALUE);
+            CollationKey key = collationKey(probe, column);
+            for (Contact c : index.tailSet(probe, true)) {
+                CollationKey k = collationKey(c, column);
+                if (k == null || k.compareTo(key) != 0) break;
+                found.add(c);
+            }
+        }
+    }
+
+    // UPDATE CONTACT
+    @Override
+    public boolean updateContact(Contact c) {
+        lock.writeLock().lock();
+        try {
+            Contact old = byId.get(c.getContactId());
+            if (old == null || old.getVersion() != c.getVersion()) return false;
+            String invalid = missingColumn(c);
+            if (invalid != null) {
+                System.out.println("❌ Error in updateContact: Column '" + invalid + "' cannot be null");
+                return false;
+            }
+
+            Contact stored = new Contact(c);
+            stored.setCreatedAt(old.getCreatedAt());
+            stored.setUpdatedAt(now());
+            stored.setVersion(old.getVersion() + 1);
+            persist(stored);
+
+            remove(old);
+            insert(stored);
+            compactIfNeeded();
+            return true;
+        } catch (IOException e) {
+            System.out.println("❌ Error in updateContact: " + e.getMessage());
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // DELETE CONTACT BY ID
+    @Override
+    public boolean deleteContactById(int id) {
+        lock.writeLock().lock();
+        try {
+            Contact old = byId.get(id);
+            if (old == null) return false;
+
+            if (log != null) log.delete(id);
+            remove(old);
+            compactIfNeeded();
+            return true;
+        } catch (IOException e) {
+            System.out.println("❌ Error in deleteContactById: " + e.getMessage());
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // DELETE MULTIPLE
+    @Override
+    public void deleteContactsByIds(List<Integer> ids) {
+        deleteContactsReturning(ids);
+    }
+
+    // DELETE MULTIPLE (WITH PRE-IMAGES)
+    @Override
+    public List<Contact> deleteContactsReturning(List<Integer> ids) {
+        List<Contact> deleted = new ArrayList<>();
+        if (ids == null || ids.isEmpty()) return deleted;
+
+        lock.writeLock().lock();
+        try {
+            int[] present = ids.stream().distinct().filter(byId::containsKey).mapToInt(Integer::intValue).sorted().toArray();
+            if (log != null) log.deleteAll(present);
+            for (int id : present) {
+                Contact old = byId.get(id);
+                remove(old);
+                deleted.add(new Contact(old));
+            }
+            compactIfNeeded();
+            return deleted;
+        } catch (IOException e) {
+            System.out.println("❌ Error in deleteContactsReturning: " + e.getMessage());
+            return null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // DELETE MULTIPLE (ONLY IF UNCHANGED)
+    @Override
+    public List<Integer> deleteContactsIfUnchanged(List<Contact> expected) {
+        List<Integer> changed = new ArrayList<>();
+        if (expected == null || expected.isEmpty()) return changed;
+
+        lock.writeLock().lock();
+        try {
+            for (Contact c : expected) {
+                Contact current = byId.get(c.getContactId());
+                if (current == null || current.getVersion() != c.getVersion()) changed.add(c.getContactId());
+            }
+            if (!changed.isEmpty()) return changed;
+
+            int[] ids = expected.stream().mapToInt(Contact::getContactId).distinct().sorted().toArray();
+            if (log != null) log.deleteAll(ids);
+            for (int id : ids) {
+                remove(byId.get(id));
+            }
+            compactIfNeeded();
+            return changed;
+        } catch (IOException e) {
+            System.out.println("❌ Error in deleteContactsIfUnchanged: " + e.getMessage());
+            return null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // SORT
+    @Override
+    public List<Contact> findAllSorted(String field, boolean asc) {
+        return copies(snapshot(sortedView(field, asc)));
+    }
+
+    // SORT (STREAMING)
+    @Override
+    public int streamAllSorted(String field, boolean asc, Consumer<Contact> sink) {
+        return emit(snapshot(sortedView(field, asc)), sink);
+    }
+
+    private NavigableSet<Contact> sortedView(String field, boolean asc) {
+        if (!SORTABLE_FIELDS.contains(field)) {
+            field = "first_name";
+        }
+        NavigableSet<Contact> index = sortIndexes.get(field);
+        return asc ? index : index.descendingSet();
+    }
+
+    // PAGE (KEYSET / SEEK)
+    @Override
+    public ContactPage findPage(String field, boolean asc, PageCursor after, int pageSize) {
+        if (!"contact_id".equals(field) && !SORTABLE_FIELDS.contains(field)) {
+            field = "first_name";
+        }
+        if (after != null) after.checkListing(field, asc);
+        int size = Math.max(1, pageSize);
+
+        NavigableSet<Contact> index = "contact_id".equals(field) ? idOrder : sortIndexes.get(field);
+        List<Contact> list = new ArrayList<>(size + 1);
+
+        lock.readLock().lock();
+        try {
+            NavigableSet<Contact> rest;
+            if (after == null) {
+                rest = asc ? index : index.descendingSet();
+            } else {
+                Contact probe = probe(field, after.getLastKey(), after.getLastId());
+                rest = asc ? index.tailSet(probe, false) : index.headSet(probe, false).descendingSet();
+            }
+
+            for (Contact c : rest) {
+                if (list.size() > size) break;
+                list.add(new Contact(c));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return toPage(list, field, asc, size);
+    }
+
+    // SEARCH PAGE (KEYSET ON contact_id)
+    @Override
+    public ContactPage searchPage(SearchCriteria criteria, PageCursor after, int pageSize) {
+        if (after != null) after.checkListing("contact_id", true);
+        int size = Math.max(1, pageSize);
+        int afterId = after == null ? Integer.MIN_VALUE : after.getLastId();
+
+        List<Contact> list = searchIndex.canAnswer(criteria)
+                ? searchIndex.search(criteria, afterId, size + 1)
+                : scan(criteria, afterId, size + 1);
+        return toPage(list, "contact_id", true, size);
+    }
+
+    // SEARCH (DYNAMIC)
+    @Override
+    public List<Contact> search(SearchCriteria criteria) {
+        if (searchIndex.canAnswer(criteria)) {
+            return searchIndex.search(criteria, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+        return scan(criteria, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Evaluates the criteria as {@code field LIKE '%value%'} on every contact,
+     * for searches the index cannot answer (LIKE wildcards in the value, or the
+     * index is still loading).
+     */
+    private List<Contact> scan(SearchCriteria criteria, int afterId, int limit) {
+        List<Function<Contact, String>> getters = new ArrayList<>();
+        List<Pattern> patterns = new ArrayList<>();
+
+        criteria.getCriteria().forEach((field, value) -> {
+            if (!ContactSearchIndex.FIELDS.contains(field)) {
+                System.out.println("⚠ Skipping invalid search field: " + field);
+                return;
+            }
+            getters.add(c -> (String) valueOf(c, field));
+            patterns.add(likePattern(String.valueOf(value)));
+        });
+
+        List<Contact> result = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (Contact c : idOrder.tailSet(probe("contact_id", null, afterId), false)) {
+                if (result.size() >= limit) break;
+
+                boolean matches = true;
+                for (int i = 0; i < getters.size() && matches; i++) {
+                    String v = getters.get(i).apply(c);
+                    matches = v != null && patterns.get(i).matcher(ContactSearchIndex.fold(v)).matches();
+                }
+                if (matches) result.add(new Contact(c));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Translates {@code '%' + value + '%'} from LIKE syntax into a regular
+     * expression over folded text.
+     */
+    private static Pattern likePattern(String value) {
+        StringBuilder regex = new StringBuilder(".*");
+        for (char ch : ContactSearchIndex.fold(value).toCharArray()) {
+            switch (ch) {
+                case '%' -> regex.append(".*");
+                case '_' -> regex.append('.');
+                default -> regex.append(Pattern.quote(String.valueOf(ch)));
+            }
+        }
+        return Pattern.compile(regex.append(".*").toString(), Pattern.DOTALL);
+    }
+
+    // ALL STATISTICS (ONE PASS)
+    @Override
+    public StatisticsSnapshot loadStatistics() {
+        StatisticsSnapshot.Accumulator acc = new StatisticsSnapshot.Accumulator();
+
+        lock.readLock().lock();
+        try {
+            byId.forEachValue(acc);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return acc.build();
+    }
+
+    @Override
+    public int countAllContacts() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int countContactsWithLinkedin() {
+        return loadStatistics().getWithLinkedin();
+    }
+
+    @Override
+    public int countContactsWithoutLinkedin() {
+        return loadStatistics().getWithoutLinkedin();
+    }
+
+    @Override
+    public String findMostCommonFirstName() {
+        return loadStatistics().getMostCommonFirstName();
+    }
+
+    @Override
+    public String findMostCommonLastName() {
+        return loadStatistics().getMostCommonLastName();
+    }
+
+    @Override
+    public Contact findYoungestContact() {
+        return loadStatistics().getYoungest();
+    }
+
+    @Override
+    public Contact findOldestContact() {
+        return loadStatistics().getOldest();
+    }
+
+    @Override
+    public double getAverageAge() {
+        return loadStatistics().getAverageAge();
+    }
+
+    @Override
+    public List<String[]> getCityDistribution() {
+        return loadStatistics().getCityDistribution();
+    }
+
+    @Override
+    public List<String[]> getAgeGroupDistribution() {
+        return loadStatistics().getAgeGroupDistribution();
+    }
+
+    @Override
+    public List<String[]> getTopFirstNames() {
+        return loadStatistics().getTopFirstNames();
+    }
+
+    @Override
+    public List<String[]> getTopLastNames() {
+        return loadStatistics().getTopLastNames();
+    }
+
+    @Override
+    public List<String[]> getBirthMonthDistribution() {
+        return loadStatistics().getBirthMonthDistribution();
+    }
+
+    /**
+     * Closes the log file. The DAO must not be used afterwards.
+     */
+    public void close() {
+        if (log == null) return;
+        try {
+            log.close();
+        } catch (IOException e) {
+            System.out.println("⚠ Could not close the contact log: " + e.getMessage());
+        }
+    }
+
+    // ===========================================================
+    // STORAGE (caller holds the write lock)
+    // ===========================================================
+
+    private void persist(Contact c) throws IOException {
+        if (log != null) log.put(c);
+    }
+
+    private void insert(Contact c) {
+        store(c);
+        searchIndex.onUpsert(c);
+    }
+
+    private void remove(Contact c) {
+        unstore(c.getContactId());
+        searchIndex.onDelete(c.getContactId());
+    }
+
+    private void store(Contact c) {
+        Contact old = byId.put(c.getContactId(), c);
+        if (old != null) unindex(old);
+
+        idOrder.add(c);
+        collationKeys.put(c, collationKeysOf(c));
+        for (NavigableSet<Contact> index : sortIndexes.values()) {
+            index.add(c);
+        }
+        nextId = Math.max(nextId, c.getContactId() + 1);
+    }
+
+    private void unstore(int id) {
+        Contact old = byId.remove(id);
+        if (old != null) unindex(old);
+    }
+
+    private void unindex(Contact c) {
+        idOrder.remove(c);
+        for (NavigableSet<Contact> index : sortIndexes.values()) {
+            index.remove(c);
+        }
+        collationKeys.remove(c);
+    }
+
+    private void compactIfNeeded() {
+        if (log == null) return;
+        long records = log.getRecordCount();
+        if (records < COMPACT_MIN_RECORDS || records < (long) COMPACT_RATIO * byId.size()) return;
+
+        try {
+            log.rewrite(idOrder);
+        } catch (IOException e) {
+            // the old log is still complete, so this only costs disk space
+            System.out.println("⚠ Could not compact the contact log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Copies an incoming contact into a new row with the given ID and the
+     * insert timestamp the database would assign.
+     */
+    private static Contact newRow(Contact c, int id) {
+        Contact row = new Contact(c);
+        row.setContactId(id);
+        row.setCreatedAt(now());
+        row.setUpdatedAt(null);
+        row.setVersion(0);
+        return row;
+    }
+
+    /**
+     * The row an undo brings back: the contact with its original timestamps
+     * (the current time if it has no {@code created_at}) and a new version.
+     */
+    private static Contact restoredRow(Contact c) {
+        Contact row = new Contact(c);
+        if (row.getCreatedAt() == null) row.setCreatedAt(now());
+        row.setVersion(0);
+        return row;
+    }
+
+    /**
+     * @return the first NOT NULL column the contact leaves empty, or null
+     */
+    private static String missingColumn(Contact c) {
+        if (c.getFirstName() == null) return "first_name";
+        if (c.getLastName() == null) return "last_name";
+        if (c.getNickname() == null) return "nickname";
+        if (c.getCity() == null) return "city";
+        if (c.getPhonePrimary() == null) return "phone_primary";
+        if (c.getEmail() == null) return "email";
+        return null;
+    }
+
+    /** TIMESTAMP columns keep whole seconds. */
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    // ===========================================================
+    // READ HELPERS
+    // ===========================================================
+
+    /**
+     * Copies the references of a view under the read lock, so that the
+     * caller can walk them (and run callbacks) without holding the lock.
+     */
+    private List<Contact> snapshot(Collection<Contact> view) {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(view);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<Contact> copies(List<Contact> rows) {
+        rows.replaceAll(Contact::new);
+        return rows;
+    }
+
+    private static int emit(List<Contact> rows, Consumer<Contact> sink) {
+        for (Contact c : rows) {
+            sink.accept(new Contact(c));
+        }
+        return rows.size();
+    }
+
+    private static ContactPage toPage(List<Contact> list, String field, boolean asc, int size) {
+        PageCursor next = null;
+        if (list.size() > size) {
+            list.remove(size);
+            Contact last = list.get(size - 1);
+            next = new PageCursor(field, asc, valueOf(last, field), last.getContactId());
+        }
+        return new ContactPage(list, next);
+    }
+
+    /**
+     * Builds a contact that sorts exactly where the cursor row sorted.
+     */
+    private static Contact probe(String field, Object key, int id) {
+        Contact p = new Contact();
+        p.setContactId(id);
+        switch (field) {
+            case "first_name" -> p.setFirstName((String) key);
+            case "last_name" -> p.setLastName((String) key);
+            case "nickname" -> p.setNickname((String) key);
+            case "city" -> p.setCity((String) key);
+            case "phone_primary" -> p.setPhonePrimary((String) key);
+            case "email" -> p.setEmail((String) key);
+            case "birth_date" -> p.setBirthDate((LocalDate) key);
+            case "created_at" -> p.setCreatedAt((LocalDateTime) key);
+            default -> { }
+        }
+        return new Probe(p);
+    }
+
+    /**
+     * A search key. Its collation keys are computed once, as seeking an
+     * index compares it with every contact on the way down.
+     */
+    private static final class Probe extends Contact {
+        private final CollationKey[] keys;
+
+        Probe(Contact values) {
+            super(values);
+            this.keys = collationKeysOf(values);
+        }
+    }
+
+    /**
+     * Reads a column of a contact by its column name.
+     */
+    private static Object valueOf(Contact c, String field) {
+        return switch (field) {
+            case "first_name" -> c.getFirstName();
+            case "last_name" -> c.getLastName();
+            case "nickname" -> c.getNickname();
+            case "city" -> c.getCity();
+            case "email" -> c.getEmail();
+            case "phone_primary" -> c.getPhonePrimary();
+            case "phone_secondary" -> c.getPhoneSecondary();
+            case "linkedin_url" -> c.getLinkedinUrl();
+            case "birth_date" -> c.getBirthDate();
+            case "created_at" -> c.getCreatedAt();
+            default -> c.getContactId();
+        };
+    }
+
+    /**
+     * Orders by the column (NULLs first, text by Turkish collation), then by contact_id.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Comparator<Contact> orderBy(String field) {
+        int column = SORTABLE_FIELDS.indexOf(field);
+
+        Comparator<Contact> values = (a, b) -> {
+            Object va = valueOf(a, field);
+            Object vb = valueOf(b, field);
+            if (va == null || vb == null) return va == null ? (vb == null ? 0 : -1) : 1;
+            if (va instanceof String) return collationKey(a, column).compareTo(collationKey(b, column));
+            return ((Comparable) va).compareTo(vb);
+        };
+        return values.thenComparingInt(Contact::getContactId);
+    }
+
+    /**
+     * Collation key of a text column: the cached one for stored contacts and
+     * probes, a fresh one otherwise.
+     */
+    private CollationKey collationKey(Contact c, int column) {
+        CollationKey[] keys = c instanceof Probe p ? p.keys : collationKeys.get(c);
+        return keys != null ? keys[column] : COLLATOR.getCollationKey((String) valueOf(c, SORTABLE_FIELDS.get(column)));
+    }
+
+    private static CollationKey[] collationKeysOf(Contact c) {
+        CollationKey[] keys = new CollationKey[SORTABLE_FIELDS.size()];
+        for (int i = 0; i < keys.length; i++) {
+            if (valueOf(c, SORTABLE_FIELDS.get(i)) instanceof String s) {
+                keys[i] = COLLATOR.getCollationKey(s);
+            }
+        }
+        return keys;
+    }
+
+    // ===========================================================
+    // LOG FORMAT
+    // ===========================================================
+
+    /**
+     * Binary form of a contact: ID, the text columns as nullable UTF strings,
+     * then the birth date as epoch day, the timestamps as epoch seconds and the row version.
+     */
+    private static final class ContactCodec implements RecordLog.Codec<Contact> {
+
+        @Override
+        public void write(DataOutput out, Contact c) throws IOException {
+            out.writeInt(c.getContactId());
+            writeText(out, c.getFirstName());
+            writeText(out, c.getMiddleName());
+            writeText(out, c.getLastName());
+            writeText(out, c.getNickname());
+            writeText(out, c.getCity());
+            writeText(out, c.getPhonePrimary());
+            writeText(out, c.getPhoneSecondary());
+            writeText(out, c.getEmail());
+            writeText(out, c.getLinkedinUrl());
+            out.writeLong(c.getBirthDate() == null ? Long.MIN_VALUE : c.getBirthDate().toEpochDay());
+            writeTime(out, c.getCreatedAt());
+            writeTime(out, c.getUpdatedAt());
+            out.writeInt(c.getVersion());
+        }
+
+        @Override
+        public Contact read(DataInput in) throws IOException {
+            Contact c = new Contact();
+            c.setContactId(in.readInt());
+            c.setFirstName(readText(in));
+            c.setMiddleName(readText(in));
+            c.setLastName(readText(in));
+            c.setNickname(readText(in));
+            c.setCity(readText(in));
+            c.setPhonePrimary(readText(in));
+            c.setPhoneSecondary(readText(in));
+            c.setEmail(readText(in));
+            c.setLinkedinUrl(readText(in));
+            long birth = in.readLong();
+            c.setBirthDate(birth == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(birth));
+            c.setCreatedAt(readTime(in));
+            c.setUpdatedAt(readTime(in));
+            c.setVersion(in.readInt());
+            return c;
+        }
+
+        private static void writeText(DataOutput out, String s) throws IOException {
+            out.writeBoolean(s != null);
+            if (s != null) out.writeUTF(s);
+        }
+
+        private static String readText(DataInput in) throws IOException {
+            return in.readBoolean() ? in.readUTF() : null;
+        }
+
+        private static void writeTime(DataOutput out, LocalDateTime t) throws IOException {
+            out.writeLong(t == null ? Long.MIN_VALUE : t.toEpochSecond(ZoneOffset.UTC));
+        }
+
+        private static LocalDateTime readTime(DataInput in) throws IOException {
+            long s = in.readLong();
+            return s == Long.MIN_VALUE ? null : LocalDateTime.ofEpochSecond(s, 0, ZoneOffset.UTC);
+        }
+    }
+}
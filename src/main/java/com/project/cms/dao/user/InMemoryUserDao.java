@@ -0,0 +1,333 @@
+package com.project.cms.dao.user;
+
+import com.project.cms.model.RoleType;
+import com.project.cms.model.User;
+import com.project.cms.util.IntHashMap;
+import com.project.cms.util.RecordLog;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Embedded implementation of {@link UserDao} that keeps every user in memory.
+ * <p>
+ * Users are found by ID in an {@link IntHashMap} and by username in a map
+ * keyed by the Turkish lower-case form of the name, which makes usernames
+ * unique and case-insensitive like the {@code utf8mb4_turkish_ci} column.
+ * An empty store is seeded with the four default accounts of the SQL script,
+ * so the application can be logged into right away.
+ * <p>
+ * With a log file, every change is appended to a {@link RecordLog} before it
+ * becomes visible and the log is replayed on startup.
+ */
+public class InMemoryUserDao implements UserDao {
+
+    private static final Locale TURKISH = Locale.forLanguageTag("tr");
+
+    // guarded by this
+    private final IntHashMap<User> byId = new IntHashMap<>();
+    private final Map<String, User> byUsername = new HashMap<>();
+    private int nextId = 1;
+
+    private final RecordLog<User> log;
+
+    /**
+     * Creates a non-persistent store holding the default users.
+     */
+    public InMemoryUserDao() {
+        this.log = null;
+        seedDefaultUsers();
+    }
+
+    /**
+     * Creates a store backed by a log file and loads what the log contains.
+     * If the log is empty, the default users are added to it.
+     *
+     * @param logFile the log file (created if missing)
+     * @param sync    true to force every change to the disk before returning
+     * @throws IOException if the log cannot be opened or read
+     */
+    public InMemoryUserDao(Path logFile, boolean sync) throws IOException {
+        this.log = new RecordLog<>(logFile, new UserCodec(), sync);
+
+        log.replay(new RecordLog.Replayer<>() {
+            @Override
+            public void put(User u) {
+                store(u);
+            }
+
+            @Override
+            public void delete(int id) {
+                unstore(id);
+            }
+        });
+        if (log.getRecordCount() == 0) seedDefaultUsers();
+    }
+
+    //  FIND USER BY USERNAME
+    @Override
+    public synchronized User findByUsername(String username) {
+        if (username == null) return null;
+        User u = byUsername.get(key(username));
+        return u == null ? null : new User(u);
+    }
+
+    //  GET USER BY ID
+    @Override
+    public synchronized User getUserById(int userId) {
+        User u = byId.get(userId);
+        return u == null ? null : new User(u);
+    }
+
+    @Override
+    public User loadUserById(int userId) {
+        return getUserById(userId);
+    }
+
+    //  LIST ALL USERS
+    @Override
+    public synchronized List<User> getAllUsers() {
+        int[] ids = byId.keys();
+        Arrays.sort(ids);
+
+        List<User> list = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            list.add(new User(byId.get(id)));
+        }
+        return list;
+    }
+
+    //  UPDATE PASSWORD
+    @Override
+    public synchronized boolean updatePassword(int userId, String newPasswordHash) {
+        User old = byId.get(userId);
+        if (old == null || newPasswordHash == null) return false;
+
+        // the version guards updateUser, which does not write the hash
+        User stored = new User(old);
+        stored.setPasswordHash(newPasswordHash);
+        return replace(stored, "updatePassword");
+    }
+
+    //  REPLACE PASSWORD HASH (REHASH ON LOGIN)
+    @Override
+    public synchronized boolean replacePasswordHash(int userId, String expectedHash, String newPasswordHash) {
+        User old = byId.get(userId);
+        if (old == null || newPasswordHash == null || !Objects.equals(old.getPasswordHash(), expectedHash)) return false;
+
+        // same password, so the version (guarding updateUser) stays as it is
+        User stored = new User(old);
+        stored.setPasswordHash(newPasswordHash);
+        return replace(stored, "replacePasswordHash");
+    }
+
+    // UPDATE USER
+    @Override
+    public synchronized boolean updateUser(User user) {
+        User old = byId.get(user.getUserId());
+        if (old == null || old.getVersion() != user.getVersion()) return false;
+        if (user.getName() == null || user.getSurname() == null || user.getRole() == null) {
+            System.out.println("❌ Error in updateUser: name, surname and role cannot be null");
+            return false;
+        }
+
+        // the username, password and creation time are not editable here, as in UserDaoImpl
+        User stored = new User(old);
+        stored.setName(user.getName());
+        stored.setSurname(user.getSurname());
+        stored.setPhone(user.getPhone());
+        stored.setBirthDate(user.getBirthDate());
+        stored.setRole(user.getRole());
+        stored.setVersion(old.getVersion() + 1);
+        return replace(stored, "updateUser");
+    }
+
+    //  ADD USER
+    @Override
+    public synchronized int addUser(User user) {
+        if (user.getUsername() == null || user.getPasswordHash() == null
+                || user.getName() == null || user.getSurname() == null || user.getRole() == null) {
+            System.out.println("❌ Error in addUser: username, password, name, surname and role cannot be null");
+            return -1;
+        }
+        if (byUsername.containsKey(key(user.getUsername()))) {
+            System.out.println("❌ Error in addUser: Duplicate entry '" + user.getUsername() + "' for key 'username'");
+            return -1;
+        }
+
+        User stored = new User(user);
+        stored.setUserId(nextId);
+        stored.setCreatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        stored.setPlainPassword(null);
+        stored.setVersion(0);
+
+        try {
+            if (log != null) log.put(stored);
+        } catch (IOException e) {
+            System.out.println("❌ Error in addUser: " + e.getMessage());
+            return -1;
+        }
+        store(stored);
+        return stored.getUserId();
+    }
+
+    //  DELETE USER
+    @Override
+    public synchronized boolean deleteUser(int userId) {
+        if (!byId.containsKey(userId)) return false;
+
+        try {
+            if (log != null) log.delete(userId);
+        } catch (IOException e) {
+            System.out.println("❌ Error in deleteUser: " + e.getMessage());
+            return false;
+        }
+        unstore(userId);
+        return true;
+    }
+
+    //  DELETE USER (ONLY IF UNCHANGED)
+    @Override
+    public synchronized boolean deleteUserIfVersion(int userId, int expectedVersion) {
+        User old = byId.get(userId);
+        if (old == null || old.getVersion() != expectedVersion) return false;
+        return deleteUser(userId);
+    }
+
+    /**
+     * Closes the log file. The DAO must not be used afterwards.
+     */
+    public synchronized void close() {
+        if (log == null) return;
+        try {
+            log.close();
+        } catch (IOException e) {
+            System.out.println("⚠ Could not close the user log: " + e.getMessage());
+        }
+    }
+
+    // ===========================================================
+    // STORAGE (caller holds the monitor)
+    // ===========================================================
+
+    private boolean replace(User stored, String operation) {
+        try {
+            if (log != null) log.put(stored);
+        } catch (IOException e) {
+            System.out.println("❌ Error in " + operation + ": " + e.getMessage());
+            return false;
+        }
+        store(stored);
+        return true;
+    }
+
+    private void store(User u) {
+        User old = byId.put(u.getUserId(), u);
+        if (old != null) byUsername.remove(key(old.getUsername()));
+        byUsername.put(key(u.getUsername()), u);
+        nextId = Math.max(nextId, u.getUserId() + 1);
+    }
+
+    private void unstore(int id) {
+        User old = byId.remove(id);
+        if (old != null) byUsername.remove(key(old.getUsername()));
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(TURKISH);
+    }
+
+    /**
+     * Adds the accounts created by the SQL script (same usernames, password
+     * hashes and roles).
+     */
+    private void seedDefaultUsers() {
+        addUser(user("tt", "63fVi4XgA8Z/Qu7gFXmzXC8eLSbgz1aPS1Vqyl1+f0A=:zQ+105ZbfEWBC4ZzVhMdUA==",
+                "Nezihat", "Kılıç", "+905551112233", "1998-04-10", RoleType.TESTER));
+        addUser(user("jd", "1SEyaD4T3hOJKC6GprcNFgv59RI63Uv3sSNq2bVDJ1I=:ESqKxhWaj831hm7GaXeoLg==",
+                "Simay", "Mutlu", "+905552223344", "2000-01-15", RoleType.JUNIOR_DEVELOPER));
+        addUser(user("sd", "1gsk4Z9iB7ePlnP2YpJETFZpxTB2uQDvLIWqIJ7UpjA=:kHlr9n5p8b18faBtWZyFyQ==",
+                "Sıla", "Şimşek", "+905553334455", "1995-07-22", RoleType.SENIOR_DEVELOPER));
+        addUser(user("man", "ORQoC32DpxWzoQ7W2U3d/DHN7ndX9JNcjsJ12XXJUJ0=:8bAAMfLnEGEp+FR9igTx5A==",
+                "Pelin", "Cömertler", "+905554445566", "1990-03-05", RoleType.MANAGER));
+    }
+
+    private static User user(String username, String hash, String name, String surname,
+                             String phone, String birthDate, RoleType role) {
+        User u = new User();
+        u.setUsername(username);
+        u.setPasswordHash(hash);
+        u.setName(name);
+        u.setSurname(surname);
+        u.setPhone(phone);
+        u.setBirthDate(LocalDate.parse(birthDate));
+        u.setRole(role);
+        return u;
+    }
+
+    // ===========================================================
+    // LOG FORMAT
+    // ===========================================================
+
+    /**
+     * Binary form of a user: ID, the text columns as nullable UTF strings, the
+     * role name, then the birth date as epoch day, the creation time as
+     * epoch seconds and the row version.
+     */
+    private static final class UserCodec implements RecordLog.Codec<User> {
+
+        @Override
+        public void write(DataOutput out, User u) throws IOException {
+            out.writeInt(u.getUserId());
+            writeText(out, u.getUsername());
+            writeText(out, u.getPasswordHash());
+            writeText(out, u.getName());
+            writeText(out, u.getSurname());
+            writeText(out, u.getPhone());
+            writeText(out, u.getRole() == null ? null : u.getRole().name());
+            out.writeLong(u.getBirthDate() == null ? Long.MIN_VALUE : u.getBirthDate().toEpochDay());
+            out.writeLong(u.getCreatedAt() == null ? Long.MIN_VALUE : u.getCreatedAt().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(u.getVersion());
+        }
+
+        @Override
+        public User read(DataInput in) throws IOException {
+            User u = new User();
+            u.setUserId(in.readInt());
+            u.setUsername(readText(in));
+            u.setPasswordHash(readText(in));
+            u.setName(readText(in));
+            u.setSurname(readText(in));
+            u.setPhone(readText(in));
+            String role = readText(in);
+            u.setRole(role == null ? null : RoleType.valueOf(role));
+            long birth = in.readLong();
+            u.setBirthDate(birth == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(birth));
+            long created = in.readLong();
+            u.setCreatedAt(created == Long.MIN_VALUE ? null : LocalDateTime.ofEpochSecond(created, 0, ZoneOffset.UTC));
+            u.setVersion(in.readInt());
+            return u;
+        }
+
+        private static void writeText(DataOutput out, String s) throws IOException {
+            out.writeBoolean(s != null);
+            if (s != null) out.writeUTF(s);
+        }
+
+        private static String readText(DataInput in) throws IOException {
+            return in.readBoolean() ? in.readUTF() : null;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.project.cms.dao.user;
 
 import com.project.cms.model.User;
+import java.sql.SQLException;
 import java.util.List;
 
 
@@ -34,6 +35,17 @@ public interface UserDao {
      */
     User getUserById(int userId);
 
+    /**
+     * Retrieves a User by its unique ID like {@link #getUserById(int)}, but
+     * reports a failed read instead of treating it as a missing user.
+     * Used where a missing user has consequences, e.g. ending its sessions.
+     *
+     * @param userId the ID of the user
+     * @return the User object if found, null if no user has this ID
+     * @throws SQLException if the user could not be read
+     */
+    User loadUserById(int userId) throws SQLException;
+
     /**
      * Returns a list of all users in the system.
      * Accessible only to Manager role.
@@ -44,17 +56,38 @@ public interface UserDao {
 
     /**
      * Updates the password hash of the user with the specified ID.
+     * Unconditional. Like {@link #replacePasswordHash}, it leaves the row
+     * version unchanged: {@link #updateUser(User)} does not write the hash,
+     * so a password change cannot conflict with an edit of the other fields.
      *
      * @param userId the ID of the user whose password will be updated
      * @param newPasswordHash the hashed password value
      */
     boolean updatePassword(int userId, String newPasswordHash);
 
+    /**
+     * Replaces the password hash of a user only if it is still
+     * {@code expectedHash}, so that upgrading a hash on login cannot
+     * overwrite a password changed meanwhile. The row version is left
+     * unchanged: the password stays the same, and {@link #updateUser(User)}
+     * does not write the hash, so pending edits and undo actions stay valid.
+     *
+     * @param userId the ID of the user
+     * @param expectedHash the hash the user was read with
+     * @param newPasswordHash the new hash of the same password
+     * @return true if the hash was replaced
+     */
+    boolean replacePasswordHash(int userId, String expectedHash, String newPasswordHash);
+
     /**
      * Updates all editable fields of a User entity.
      * Manager can change: name, surname, phone, birthDate, role, etc.
+     * The row must still have the version the user was read with; the update
+     * increases the version by one.
      *
      * @param user the User object containing updated values
+     * @return true if the row was updated, false if it does not exist or has
+     *         a different version (changed by someone else meanwhile)
      */
     boolean updateUser(User user);
 
@@ -73,4 +106,16 @@ public interface UserDao {
      * @param userId the ID of the user to delete
      */
     boolean deleteUser(int userId);
+
+    /**
+     * Deletes a user only if its row still has the given version, in one
+     * statement, so that a concurrent edit cannot slip in between the check
+     * and the delete.
+     *
+     * @param userId          the ID of the user to delete
+     * @param expectedVersion the version the user was read with
+     * @return true if the row was deleted, false if it does not exist, has a
+     *         different version, or the database failed
+     */
+    boolean deleteUserIfVersion(int userId, int expectedVersion);
 }
\ No newline at end of file
@@ -1,6 +1,5 @@
 package com.project.cms.dao.user;
 
-import com.project.cms.model.RoleType;
 import com.project.cms.model.User;
 import com.project.cms.util.DbConnection;
 import java.sql.*;
@@ -37,7 +36,7 @@ public class UserDaoImpl implements UserDao{
                 ResultSet rs = ps.executeQuery(); // execute the query
 
                 if (rs.next()) {
-                    return mapRowToUser(rs);
+                    return UserRowMapper.of(rs).map(rs);
                 }
             }
         } catch (SQLException e) {
@@ -49,24 +48,30 @@ public class UserDaoImpl implements UserDao{
     //  GET USER BY ID
     @Override
     public User getUserById(int userId) {
+        try {
+            return loadUserById(userId);
+        } catch (SQLException e) {
+            System.out.println("❌ Error in getUserById: " + e.getMessage());
+            return null;
+        }
+    }
+
+    //  GET USER BY ID (REPORTING ERRORS)
+    @Override
+    public User loadUserById(int userId) throws SQLException {
         String sql = "SELECT * FROM users WHERE user_id = ?";
 
         try (Connection conn = DbConnection.getConnection()) {
-            if (conn == null) {
-                System.out.println("❌ Cannot fetch user by ID. Database connection failed.");
-                return null;
-            }
+            if (conn == null) throw new SQLException("Database connection failed.");
 
             try (PreparedStatement ps = conn.prepareStatement(sql)) {
                 ps.setInt(1, userId);
                 ResultSet rs = ps.executeQuery();
 
                 if (rs.next()) {
-                    return mapRowToUser(rs);
+                    return UserRowMapper.of(rs).map(rs);
                 }
             }
-        } catch (SQLException e) {
-            System.out.println("❌ Error in getUserById: " + e.getMessage());
         }
 
         return null;
@@ -87,8 +92,9 @@ public class UserDaoImpl implements UserDao{
             try (PreparedStatement ps = conn.prepareStatement(sql);
                 ResultSet rs = ps.executeQuery()) {
 
+                UserRowMapper mapper = UserRowMapper.of(rs);
                 while (rs.next()) {
-                    list.add(mapRowToUser(rs));
+                    list.add(mapper.map(rs));
                 }
             }
         } catch (SQLException e) {
@@ -124,12 +130,36 @@ public class UserDaoImpl implements UserDao{
         }
     }
 
+    // REPLACE PASSWORD HASH (REHASH ON LOGIN)
+    @Override
+    public boolean replacePasswordHash(int userId, String expectedHash, String newPasswordHash) {
+        String sql = "UPDATE users SET password_hash = ? WHERE user_id = ? AND password_hash = ?";
+
+        try (Connection conn = DbConnection.getConnection()) {
+            if (conn == null) {
+                System.out.println("❌ Cannot update password. Database connection failed.");
+                return false;
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, newPasswordHash);
+                ps.setInt(2, userId);
+                ps.setString(3, expectedHash);
+
+                return ps.executeUpdate() == 1;
+            }
+        } catch (SQLException e) {
+            System.out.println("❌ Error in replacePasswordHash: " + e.getMessage());
+            return false;
+        }
+    }
+
     // UPDATE USER
      @Override
     public boolean updateUser(User user) {
         String sql =
-                "UPDATE users SET name = ?, surname = ?, phone = ?, birth_date = ?, role = ? " +
-                "WHERE user_id = ?";
+                "UPDATE users SET name = ?, surname = ?, phone = ?, birth_date = ?, role = ?, version = version + 1 " +
+                "WHERE user_id = ? AND version = ?";
         
         try (Connection conn = DbConnection.getConnection()) {
             if (conn == null) {
@@ -150,6 +180,7 @@ public class UserDaoImpl implements UserDao{
 
                 ps.setString(5, user.getRole().name());
                 ps.setInt(6, user.getUserId());
+                ps.setInt(7, user.getVersion());
 
                 int affected = ps.executeUpdate();
 
@@ -237,34 +268,26 @@ public class UserDaoImpl implements UserDao{
         }
     }
 
+    // DELETE USER (ONLY IF UNCHANGED)
+    @Override
+    public boolean deleteUserIfVersion(int userId, int expectedVersion) {
+        String sql = "DELETE FROM users WHERE user_id = ? AND version = ?";
 
-    //  RESULTSET → USER MAPPER
-    private User mapRowToUser(ResultSet rs) throws SQLException {
-
-        User user = new User();
-
-        user.setUserId(rs.getInt("user_id"));
-        user.setUsername(rs.getString("username"));
-        user.setPasswordHash(rs.getString("password_hash"));
-        user.setName(rs.getString("name"));
-        user.setSurname(rs.getString("surname"));
-        user.setPhone(rs.getString("phone"));
-
-        Date birthDate = rs.getDate("birth_date");
-        if (birthDate != null) {
-            user.setBirthDate(birthDate.toLocalDate());
-        }
+        try (Connection conn = DbConnection.getConnection()) {
+            if (conn == null) {
+                System.out.println("❌ Cannot delete user. Database connection failed.");
+                return false;
+            }
 
-        String roleStr = rs.getString("role");
-        if (roleStr != null) {
-            user.setRole(RoleType.valueOf(roleStr));
-        }
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, userId);
+                ps.setInt(2, expectedVersion);
 
-        Timestamp createdAtTs = rs.getTimestamp("created_at");
-        if (createdAtTs != null) {
-            user.setCreatedAt(createdAtTs.toLocalDateTime());
+                return ps.executeUpdate() == 1;
+            }
+        } catch (SQLException e) {
+            System.out.println("❌ Error in deleteUserIfVersion: " + e.getMessage());
+            return false;
         }
-
-        return user;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+package com.project.cms.dao.user;
+
+import com.project.cms.model.RoleType;
+import com.project.cms.model.User;
+import com.project.cms.util.ColumnIndexes;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Turns rows of the users table into {@link User} objects, reading every
+ * column by the position resolved once from the result set metadata.
+ */
+final class UserRowMapper {
+
+    private static final String[] COLUMNS = {
+            "user_id", "username", "password_hash", "name", "surname", "phone",
+            "birth_date", "role", "created_at", "version"
+    };
+
+    private final int[] index;
+
+    private UserRowMapper(int[] index) {
+        this.index = index;
+    }
+
+    /**
+     * Resolves the column positions of a result set.
+     *
+     * @param rs a result set of {@code SELECT * FROM users ...}
+     * @return a mapper for the rows of {@code rs}
+     * @throws SQLException if a user column is missing from the result
+     */
+    static UserRowMapper of(ResultSet rs) throws SQLException {
+        return new UserRowMapper(ColumnIndexes.resolve(rs.getMetaData(), COLUMNS));
+    }
+
+    /**
+     * Maps the current row of the result set the mapper was created for.
+     */
+    User map(ResultSet rs) throws SQLException {
+        User user = new User();
+
+        user.setUserId(rs.getInt(index[0]));
+        user.setUsername(rs.getString(index[1]));
+        user.setPasswordHash(rs.getString(index[2]));
+        user.setName(rs.getString(index[3]));
+        user.setSurname(rs.getString(index[4]));
+        user.setPhone(rs.getString(index[5]));
+
+        Date birthDate = rs.getDate(index[6]);
+        if (birthDate != null) {
+            user.setBirthDate(birthDate.toLocalDate());
+        }
+
+        String roleStr = rs.getString(index[7]);
+        if (roleStr != null) {
+            user.setRole(RoleType.valueOf(roleStr));
+        }
+
+        Timestamp createdAtTs = rs.getTimestamp(index[8]);
+        if (createdAtTs != null) {
+            user.setCreatedAt(createdAtTs.toLocalDateTime());
+        }
+
+        user.setVersion(rs.getInt(index[9]));
+
+        return user;
+    }
+}
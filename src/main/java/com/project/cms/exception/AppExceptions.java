@@ -133,4 +133,43 @@ public class AppExceptions {
             super(message);
         }
     }
+
+    /**
+     * Thrown when a record was changed by someone else after it was read.
+     * <p>Updates carry the version of the row they were based on; if the row
+     * has a different version by the time the update arrives, it is rejected
+     * instead of silently overwriting the newer data.</p>
+     *
+     * Example cases:
+     * <ul>
+     *   <li>Two sessions edit the same contact; the second save is rejected</li>
+     *   <li>Undoing an update after another user already changed the record again</li>
+     * </ul>
+     */
+    public static class OptimisticLockException extends Exception {
+        /**
+         * Creates a new OptimisticLockException.
+         *
+         * @param message explanation of which record was changed concurrently
+         */
+        public OptimisticLockException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Thrown when a session token is unknown, was logged out, or expired
+     * after being idle for too long.
+     * <p>The front end should ask the user to log in again.</p>
+     */
+    public static class SessionExpiredException extends Exception {
+        /**
+         * Creates a new SessionExpiredException.
+         *
+         * @param message why the session is no longer valid
+         */
+        public SessionExpiredException(String message) {
+            super(message);
+        }
+    }
 }
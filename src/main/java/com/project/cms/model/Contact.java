@@ -25,11 +25,37 @@ public class Contact {
     private LocalDate birthDate;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private int version;
 /**
      * Default constructor for creating an empty Contact object.
      */
     public Contact() {}
 
+    /**
+     * Copy constructor.
+     * Creates a new Contact object by copying all fields from an existing one,
+     * so that cached or recorded snapshots cannot be changed through the original.
+     *
+     * @param c The source Contact object to copy.
+     */
+    public Contact(Contact c) {
+        this.contactId = c.contactId;
+        this.userId = c.userId;
+        this.firstName = c.firstName;
+        this.middleName = c.middleName;
+        this.lastName = c.lastName;
+        this.nickname = c.nickname;
+        this.city = c.city;
+        this.phonePrimary = c.phonePrimary;
+        this.phoneSecondary = c.phoneSecondary;
+        this.email = c.email;
+        this.linkedinUrl = c.linkedinUrl;
+        this.birthDate = c.birthDate;
+        this.createdAt = c.createdAt;
+        this.updatedAt = c.updatedAt;
+        this.version = c.version;
+    }
+
     // === GETTERS ===
     /**
      * Gets the unique identifier of the contact.
@@ -101,6 +127,12 @@ public class Contact {
      * @return The last update timestamp.
      */
     public LocalDateTime getUpdatedAt() { return updatedAt; }
+    /**
+     * Gets the row version, increased by every update. An update only
+     * succeeds if the row still has the version the contact was read with.
+     * @return The version.
+     */
+    public int getVersion() { return version; }
 
     // === SETTERS ===
     /**
@@ -173,6 +205,11 @@ public class Contact {
      * @param updatedAt The timestamp.
      */
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    /**
+     * Sets the row version.
+     * @param version The version.
+     */
+    public void setVersion(int version) { this.version = version; }
     /**
      * Returns a string representation of the contact object.
      * Useful for debugging and logging purposes.
@@ -195,6 +232,7 @@ public class Contact {
                 ", birthDate=" + birthDate +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", version=" + version +
                 '}';
     }
 }
@@ -0,0 +1,51 @@
+package com.project.cms.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset paginated contact listing.
+ * <p>
+ * Holds the contacts of the page and, if more rows follow, the
+ * {@link PageCursor} to pass in when requesting the next page.
+ */
+public class ContactPage {
+
+    private final List<Contact> contacts;
+    private final PageCursor nextCursor;
+
+    /**
+     * Creates a page.
+     *
+     * @param contacts   the rows of this page, in listing order
+     * @param nextCursor cursor for the next page, or null if this is the last page
+     */
+    public ContactPage(List<Contact> contacts, PageCursor nextCursor) {
+        this.contacts = Collections.unmodifiableList(contacts);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the contacts on this page.
+     * @return An unmodifiable list of contacts.
+     */
+    public List<Contact> getContacts() { return contacts; }
+
+    /**
+     * Gets the cursor that continues after this page.
+     * @return The next cursor, or null on the last page.
+     */
+    public PageCursor getNextCursor() { return nextCursor; }
+
+    /**
+     * Checks whether another page follows.
+     * @return true if {@link #getNextCursor()} is not null.
+     */
+    public boolean hasNext() { return nextCursor != null; }
+
+    /**
+     * Checks whether the page has no rows.
+     * @return true if the page is empty.
+     */
+    public boolean isEmpty() { return contacts.isEmpty(); }
+}
@@ -0,0 +1,78 @@
+package com.project.cms.model;
+
+/**
+ * Position of the last row of a page in a keyset ("seek") paginated listing.
+ * <p>
+ * Instead of an OFFSET, the next page is requested as "rows that sort after
+ * ({@code lastKey}, {@code lastId})", which the database answers from the index
+ * on the sort column. Fetching page N therefore costs the same as page 1.
+ * The cursor also remembers the sort field and direction it belongs to.
+ */
+public class PageCursor {
+
+    private final String field;
+    private final boolean ascending;
+    private final Object lastKey;
+    private final int lastId;
+
+    /**
+     * Creates a cursor pointing after the given row.
+     *
+     * @param field     the column the listing is sorted by
+     * @param ascending the sort direction of the listing
+     * @param lastKey   the sort column value of the last row (may be null)
+     * @param lastId    the contact_id of the last row, used as tiebreaker
+     */
+    public PageCursor(String field, boolean ascending, Object lastKey, int lastId) {
+        this.field = field;
+        this.ascending = ascending;
+        this.lastKey = lastKey;
+        this.lastId = lastId;
+    }
+
+    /**
+     * Gets the sort column of the listing.
+     * @return The column name.
+     */
+    public String getField() { return field; }
+
+    /**
+     * Gets the sort direction of the listing.
+     * @return true for ascending order.
+     */
+    public boolean isAscending() { return ascending; }
+
+    /**
+     * Gets the sort column value of the last row on the previous page.
+     * @return The key value (String, LocalDate, LocalDateTime or Integer), or null.
+     */
+    public Object getLastKey() { return lastKey; }
+
+    /**
+     * Gets the contact ID of the last row on the previous page.
+     * @return The tiebreaker ID.
+     */
+    public int getLastId() { return lastId; }
+
+    /**
+     * Checks that this cursor belongs to a listing sorted by the given field
+     * and direction. A cursor from another listing would seek on the wrong
+     * column and silently skip or repeat rows.
+     *
+     * @param field     the sort column of the requested page
+     * @param ascending the sort direction of the requested page
+     * @throws IllegalArgumentException if the field or direction differ
+     */
+    public void checkListing(String field, boolean ascending) {
+        if (!this.field.equals(field) || this.ascending != ascending) {
+            throw new IllegalArgumentException("Cursor " + this + " does not belong to a listing sorted by "
+                    + field + (ascending ? " ASC" : " DESC") + ".");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PageCursor {" + field + (ascending ? " ASC" : " DESC")
+                + ", after=" + lastKey + "/" + lastId + '}';
+    }
+}
@@ -9,7 +9,9 @@ import com.project.cms.model.role.*;
  * {@link RolePermissions} strategy associated with that role.
  * <p>
  * This design leverages <b>Polymorphism</b> to decouple the role definition from
- * its specific behavior/permissions.
+ * its specific behavior/permissions. The services do not call it per check:
+ * {@link PermissionMatrix} creates each role's permissions once and turns
+ * them into a lookup table.
  */
 public enum RoleType {
 /**
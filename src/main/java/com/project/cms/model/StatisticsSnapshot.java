@@ -0,0 +1,292 @@
+package com.project.cms.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Period;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Immutable set of every metric shown on the statistics dashboard.
+ * <p>
+ * A snapshot is either built from values the database already aggregated,
+ * or by feeding every contact to an {@link Accumulator}, which keeps only
+ * counters and the current youngest/oldest contact.
+ * <p>
+ * Distribution lists use the same {@code {label, count}} rows as the
+ * individual statistics methods of {@code ContactDao}.
+ */
+public class StatisticsSnapshot {
+
+    private static final Locale TURKISH = Locale.forLanguageTag("tr");
+
+    /** Number of names listed in the "top names" tables. */
+    public static final int TOP_NAMES = 5;
+
+    private final LocalDateTime computedAt;
+    private final int totalContacts;
+    private final int withLinkedin;
+    private final String mostCommonFirstName;
+    private final String mostCommonLastName;
+    private final Contact youngest;
+    private final Contact oldest;
+    private final double averageAge;
+    private final List<String[]> cityDistribution;
+    private final List<String[]> ageGroupDistribution;
+    private final List<String[]> topFirstNames;
+    private final List<String[]> topLastNames;
+    private final List<String[]> birthMonthDistribution;
+
+    /**
+     * Creates a snapshot from already aggregated values. Lists are copied;
+     * the name rankings are cut to the first {@value #TOP_NAMES} rows.
+     *
+     * @param totalContacts          number of contacts
+     * @param withLinkedin           number of contacts with a LinkedIn URL
+     * @param youngest               contact with the latest birth date, or null
+     * @param oldest                 contact with the earliest birth date, or null
+     * @param averageAge             average age in full years
+     * @param cityDistribution       {city, count} rows, most frequent first
+     * @param ageGroupDistribution   {age group, count} rows, most frequent first
+     * @param firstNameRanking       {first name, count} rows, most frequent first
+     * @param lastNameRanking        {last name, count} rows, most frequent first
+     * @param birthMonthDistribution {month name, count} rows in calendar order
+     */
+    public StatisticsSnapshot(int totalContacts, int withLinkedin,
+                              Contact youngest, Contact oldest, double averageAge,
+                              List<String[]> cityDistribution,
+                              List<String[]> ageGroupDistribution,
+                              List<String[]> firstNameRanking,
+                              List<String[]> lastNameRanking,
+                              List<String[]> birthMonthDistribution) {
+        this.computedAt = LocalDateTime.now();
+        this.totalContacts = totalContacts;
+        this.withLinkedin = withLinkedin;
+
+        this.mostCommonFirstName = firstNameRanking.isEmpty() ? null : firstNameRanking.get(0)[0];
+        this.mostCommonLastName = lastNameRanking.isEmpty() ? null : lastNameRanking.get(0)[0];
+        this.topFirstNames = copy(firstNameRanking.subList(0, Math.min(TOP_NAMES, firstNameRanking.size())));
+        this.topLastNames = copy(lastNameRanking.subList(0, Math.min(TOP_NAMES, lastNameRanking.size())));
+
+        this.youngest = youngest == null ? null : new Contact(youngest);
+        this.oldest = oldest == null ? null : new Contact(oldest);
+        this.averageAge = averageAge;
+
+        this.cityDistribution = copy(cityDistribution);
+        this.ageGroupDistribution = copy(ageGroupDistribution);
+        this.birthMonthDistribution = copy(birthMonthDistribution);
+    }
+
+    /**
+     * Maps an age in full years to its dashboard age group.
+     *
+     * @param age the age in full years
+     * @return "18-25", "26-30", "31-40" or "40+" (which also collects ages below 18)
+     */
+    public static String ageGroupOf(int age) {
+        if (age >= 18 && age <= 25) return "18-25";
+        if (age >= 26 && age <= 30) return "26-30";
+        if (age >= 31 && age <= 40) return "31-40";
+        return "40+";
+    }
+
+    /**
+     * Turns per-month counts (index 0 = January) into {month name, count}
+     * rows in calendar order, leaving out empty months.
+     *
+     * @param counts twelve monthly counts
+     * @return the distribution rows
+     */
+    public static List<String[]> birthMonthRows(int[] counts) {
+        List<String[]> months = new ArrayList<>();
+        for (int m = 0; m < 12; m++) {
+            if (counts[m] > 0) {
+                months.add(new String[]{
+                        Month.of(m + 1).getDisplayName(TextStyle.FULL, Locale.ENGLISH),
+                        String.valueOf(counts[m])
+                });
+            }
+        }
+        return months;
+    }
+
+    /**
+     * Sorts grouped counts by count (descending); ties keep first-seen order.
+     */
+    private static List<String[]> ranked(Map<String, Group> groups) {
+        List<Group> sorted = new ArrayList<>(groups.values());
+        sorted.sort(Comparator.comparingInt((Group g) -> g.count).reversed());
+
+        List<String[]> rows = new ArrayList<>(sorted.size());
+        for (Group g : sorted) {
+            rows.add(new String[]{g.label, String.valueOf(g.count)});
+        }
+        return rows;
+    }
+
+    private static List<String[]> copy(List<String[]> rows) {
+        List<String[]> copy = new ArrayList<>(rows.size());
+        for (String[] row : rows) copy.add(row.clone());
+        return Collections.unmodifiableList(copy);
+    }
+
+    // === GETTERS ===
+
+    /** @return when this snapshot was computed */
+    public LocalDateTime getComputedAt() { return computedAt; }
+
+    /** @return total number of contacts */
+    public int getTotalContacts() { return totalContacts; }
+
+    /** @return number of contacts that have a LinkedIn URL */
+    public int getWithLinkedin() { return withLinkedin; }
+
+    /** @return number of contacts without a LinkedIn URL */
+    public int getWithoutLinkedin() { return totalContacts - withLinkedin; }
+
+    /** @return the most frequent first name, or null if there are no contacts */
+    public String getMostCommonFirstName() { return mostCommonFirstName; }
+
+    /** @return the most frequent last name, or null if there are no contacts */
+    public String getMostCommonLastName() { return mostCommonLastName; }
+
+    /** @return a copy of the contact with the latest birth date, or null */
+    public Contact getYoungest() { return youngest == null ? null : new Contact(youngest); }
+
+    /** @return a copy of the contact with the earliest birth date, or null */
+    public Contact getOldest() { return oldest == null ? null : new Contact(oldest); }
+
+    /** @return average age in full years of the contacts with a birth date */
+    public double getAverageAge() { return averageAge; }
+
+    /** @return {city, count} rows, most frequent first */
+    public List<String[]> getCityDistribution() { return copy(cityDistribution); }
+
+    /** @return {age group, count} rows, most frequent first */
+    public List<String[]> getAgeGroupDistribution() { return copy(ageGroupDistribution); }
+
+    /** @return the {@value #TOP_NAMES} most frequent {first name, count} rows */
+    public List<String[]> getTopFirstNames() { return copy(topFirstNames); }
+
+    /** @return the {@value #TOP_NAMES} most frequent {last name, count} rows */
+    public List<String[]> getTopLastNames() { return copy(topLastNames); }
+
+    /** @return {month name, count} rows in calendar order, empty months omitted */
+    public List<String[]> getBirthMonthDistribution() { return copy(birthMonthDistribution); }
+
+    // ===========================================================
+    // ACCUMULATOR
+    // ===========================================================
+
+    /**
+     * Single-pass builder of a {@link StatisticsSnapshot}. Feed it every
+     * contact (e.g. as the sink of a streaming read), then call {@link #build()}.
+     * <p>
+     * Names and cities are grouped case-insensitively with Turkish rules, like
+     * the {@code utf8mb4_turkish_ci} collation does in SQL; the first spelling
+     * seen is used as the label. Ages are full years, as with
+     * {@code TIMESTAMPDIFF(YEAR, birth_date, CURDATE())}.
+     * <p>
+     * Not thread-safe.
+     */
+    public static class Accumulator implements Consumer<Contact> {
+
+        private final LocalDate today;
+
+        private int total;
+        private int withLinkedin;
+        private int withBirthDate;
+        private long ageSum;
+        private Contact youngest;
+        private Contact oldest;
+        private final int[] birthMonths = new int[12];
+        private final Map<String, Group> firstNames = new LinkedHashMap<>();
+        private final Map<String, Group> lastNames = new LinkedHashMap<>();
+        private final Map<String, Group> cities = new LinkedHashMap<>();
+        private final Map<String, Group> ageGroups = new LinkedHashMap<>();
+
+        /**
+         * Creates an accumulator computing ages relative to today.
+         */
+        public Accumulator() {
+            this(LocalDate.now());
+        }
+
+        /**
+         * @param today the date ages are computed against
+         */
+        public Accumulator(LocalDate today) {
+            this.today = today;
+        }
+
+        @Override
+        public void accept(Contact c) {
+            total++;
+
+            if (c.getLinkedinUrl() != null && !c.getLinkedinUrl().isEmpty()) {
+                withLinkedin++;
+            }
+
+            count(firstNames, c.getFirstName());
+            count(lastNames, c.getLastName());
+            count(cities, c.getCity());
+
+            LocalDate birth = c.getBirthDate();
+            if (birth == null) return;
+
+            int age = Period.between(birth, today).getYears();
+            withBirthDate++;
+            ageSum += age;
+            birthMonths[birth.getMonthValue() - 1]++;
+            count(ageGroups, ageGroupOf(age));
+
+            // strict comparison: on equal birth dates the first contact seen wins
+            if (youngest == null || birth.isAfter(youngest.getBirthDate())) youngest = new Contact(c);
+            if (oldest == null || birth.isBefore(oldest.getBirthDate())) oldest = new Contact(c);
+        }
+
+        /**
+         * @return the snapshot of everything accepted so far
+         */
+        public StatisticsSnapshot build() {
+            return new StatisticsSnapshot(
+                    total, withLinkedin, youngest, oldest,
+                    withBirthDate == 0 ? 0 : ageSum / (double) withBirthDate,
+                    ranked(cities), ranked(ageGroups),
+                    ranked(firstNames), ranked(lastNames),
+                    birthMonthRows(birthMonths));
+        }
+
+        private static void count(Map<String, Group> groups, String label) {
+            String key = foldLabel(label);
+            groups.computeIfAbsent(key, k -> new Group(label)).count++;
+        }
+    }
+
+    /**
+     * Grouping key of a name or city: case-folded with Turkish rules.
+     *
+     * @param label the value as stored
+     * @return the folded key (null stays null)
+     */
+    public static String foldLabel(String label) {
+        return label == null ? null : label.toLowerCase(TURKISH);
+    }
+
+    private static final class Group {
+        final String label;
+        int count;
+
+        Group(String label) {
+            this.label = label;
+        }
+    }
+}
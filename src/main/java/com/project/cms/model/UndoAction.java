@@ -1,10 +1,16 @@
 package com.project.cms.model;
+
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Represents an encapsulation of an action that can be undone.
  * <p>
  * This class stores the state of an entity (Contact or User) before and after
  * a modification, allowing the system to revert changes if needed.
  * It supports undo operations for CREATE, UPDATE, and DELETE actions.
+ * A bulk action holds the pre-images of all contacts it affected, so a
+ * multi-contact operation is undone as a whole.
  */
 public class UndoAction {
 
@@ -18,6 +24,8 @@ public class UndoAction {
         CONTACT_CREATE,
         CONTACT_UPDATE,
         CONTACT_DELETE,
+        CONTACT_BULK_CREATE,
+        CONTACT_BULK_DELETE,
         USER_CREATE,
         USER_UPDATE,
         USER_DELETE,
@@ -34,6 +42,9 @@ public class UndoAction {
     private final User oldUser;
     private final User newUser;
 
+    // for bulk contact actions
+    private final List<Contact> contacts;
+
     /* ====================================================
        2) BASE CONSTRUCTOR
        ==================================================== */
@@ -57,6 +68,22 @@ public class UndoAction {
         this.newContact = newContact;
         this.oldUser = oldUser;
         this.newUser = newUser;
+        this.contacts = Collections.emptyList();
+    }
+
+    /**
+     * Constructs a bulk UndoAction over several contacts.
+     *
+     * @param type The type of action performed.
+     * @param contacts The contacts affected by the action.
+     */
+    private UndoAction(ActionType type, List<Contact> contacts) {
+        this.type = type;
+        this.oldContact = null;
+        this.newContact = null;
+        this.oldUser = null;
+        this.newUser = null;
+        this.contacts = Collections.unmodifiableList(contacts);
     }
 
     /* ====================================================
@@ -97,6 +124,13 @@ public class UndoAction {
     public User getNewUser() {
         return newUser;
     }
+/**
+     * Gets the contacts of a bulk action.
+     * @return The affected contacts (empty for single-entity actions).
+     */
+    public List<Contact> getContacts() {
+        return contacts;
+    }
 
     /* ====================================================
        4) CONTACT FACTORY METHODS
@@ -152,6 +186,27 @@ public class UndoAction {
         );
     }
 
+/**
+     * Creates an undo action for the creation of several contacts.
+     * Undo logic: Delete every created contact.
+     * @param created The contacts as they were created (IDs set).
+     * @return A configured UndoAction instance.
+     */
+    // CONTACT → BULK CREATE (undo = delete all)
+    public static UndoAction forContactBulkCreate(List<Contact> created) {
+        return new UndoAction(ActionType.CONTACT_BULK_CREATE, created);
+    }
+/**
+     * Creates an undo action for the deletion of several contacts.
+     * Undo logic: Re-create every deleted contact.
+     * @param deleted The contacts as they were before the delete.
+     * @return A configured UndoAction instance.
+     */
+    // CONTACT → BULK DELETE (undo = recreate all)
+    public static UndoAction forContactBulkDelete(List<Contact> deleted) {
+        return new UndoAction(ActionType.CONTACT_BULK_DELETE, deleted);
+    }
+
     /* ====================================================
        5) USER FACTORY METHODS
        ==================================================== */
@@ -39,6 +39,8 @@ public class User {
     private RoleType role;
 
     private LocalDateTime createdAt;
+
+    private int version;
 // Field to hold raw password input temporarily (not stored in DB)
     private String plainPassword;
 
@@ -93,6 +95,11 @@ public class User {
     public RoleType getRole() { return role; }
 
     public LocalDateTime getCreatedAt() { return createdAt; }
+/**
+     * Gets the row version, increased by every update of the user.
+     * @return The version.
+     */
+    public int getVersion() { return version; }
 /**
      * Gets the plain text password (used during login/update).
      * @return The raw password.
@@ -149,6 +156,11 @@ public class User {
      * @param createdAt The timestamp.
      */
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+/**
+     * Sets the row version.
+     * @param version The version.
+     */
+    public void setVersion(int version) { this.version = version; }
 /**
      * Sets the plain text password for processing.
      * @param plainPassword The raw password input.
@@ -183,6 +195,8 @@ public class User {
 
         this.createdAt = u.createdAt;
 
+        this.version = u.version;
+
     }
 
 
@@ -0,0 +1,47 @@
+package com.project.cms.model.role;
+
+import java.util.function.Consumer;
+
+/**
+ * The operations of {@link RolePermissions}, one constant per method, used
+ * as the keys of the {@link PermissionMatrix}.
+ */
+public enum Operation {
+
+    /* ---------------- COMMON ---------------- */
+    CHANGE_PASSWORD(RolePermissions::changePassword),
+    LOGOUT(RolePermissions::logout),
+
+    /* ---------------- CONTACT READ ---------------- */
+    LIST_ALL_CONTACTS(RolePermissions::listAllContacts),
+    SEARCH_BY_SINGLE_FIELD(RolePermissions::searchBySingleField),
+    SEARCH_BY_MULTIPLE_FIELDS(RolePermissions::searchByMultipleFields),
+    SORT_CONTACTS(RolePermissions::sortContacts),
+
+    /* ---------------- CONTACT MODIFY ---------------- */
+    UPDATE_CONTACT(RolePermissions::updateExistingContact),
+    ADD_CONTACTS(RolePermissions::addNewContactOrContacts),
+    DELETE_CONTACTS(RolePermissions::deleteExistingContactOrContacts),
+
+    /* ---------------- MANAGER ---------------- */
+    SHOW_STATISTICS(RolePermissions::showContactsStatisticalInfo),
+    LIST_ALL_USERS(RolePermissions::listAllUsers),
+    UPDATE_USER(RolePermissions::updateExistingUser),
+    ADD_USER(RolePermissions::addNewUser),
+    DELETE_USER(RolePermissions::deleteExistingUser);
+
+    private final Consumer<RolePermissions> check;
+
+    Operation(Consumer<RolePermissions> check) {
+        this.check = check;
+    }
+
+    /**
+     * Calls the matching {@link RolePermissions} method.
+     *
+     * @throws UnsupportedOperationException if the role does not allow the operation
+     */
+    void checkOn(RolePermissions permissions) {
+        check.accept(permissions);
+    }
+}
@@ -0,0 +1,73 @@
+package com.project.cms.model.role;
+
+import com.project.cms.model.RoleType;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Which {@link Operation}s each {@link RoleType} may perform, worked out once
+ * when the class is loaded.
+ * <p>
+ * The role classes ({@code TesterRole}, {@code ManagerRole}, ...) stay the
+ * definition of the permissions: every operation is tried once on every
+ * role, and the ones that do not throw {@link UnsupportedOperationException}
+ * are recorded. A check is then a lookup of one bit, with nothing allocated
+ * and no exception thrown for a denied operation.
+ */
+public final class PermissionMatrix {
+
+    /** Allowed operations per role, one bit per {@link Operation#ordinal()}. */
+    private static final long[] ALLOWED = new long[RoleType.values().length];
+
+    private static final Map<RoleType, Set<Operation>> OPERATIONS = new EnumMap<>(RoleType.class);
+
+    private static final Map<RoleType, RolePermissions> PERMISSIONS = new EnumMap<>(RoleType.class);
+
+    static {
+        for (RoleType role : RoleType.values()) {
+            RolePermissions permissions = role.createPermissions();
+            EnumSet<Operation> allowed = EnumSet.noneOf(Operation.class);
+
+            for (Operation operation : Operation.values()) {
+                try {
+                    operation.checkOn(permissions);
+                    allowed.add(operation);
+                    ALLOWED[role.ordinal()] |= 1L << operation.ordinal();
+                } catch (UnsupportedOperationException e) {
+                    // denied
+                }
+            }
+            OPERATIONS.put(role, Collections.unmodifiableSet(allowed));
+            PERMISSIONS.put(role, permissions);
+        }
+    }
+
+    private PermissionMatrix() {
+    }
+
+    /**
+     * @return true if {@code role} may perform {@code operation}
+     */
+    public static boolean isAllowed(RoleType role, Operation operation) {
+        return (ALLOWED[role.ordinal()] & (1L << operation.ordinal())) != 0;
+    }
+
+    /**
+     * @return the operations {@code role} may perform (unmodifiable)
+     */
+    public static Set<Operation> allowedOperations(RoleType role) {
+        return OPERATIONS.get(role);
+    }
+
+    /**
+     * The role objects are stateless, so one instance per role is shared.
+     *
+     * @return the permissions of {@code role}
+     */
+    public static RolePermissions permissionsOf(RoleType role) {
+        return PERMISSIONS.get(role);
+    }
+}
@@ -0,0 +1,129 @@
+package com.project.cms.service;
+
+import com.project.cms.dao.contact.BatchInsertResult;
+import com.project.cms.model.Contact;
+import com.project.cms.model.ContactPage;
+import com.project.cms.model.PageCursor;
+import com.project.cms.model.SearchCriteria;
+import com.project.cms.model.User;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking view of a {@link ContactService}.
+ * <p>
+ * Every method starts the matching {@link ContactService} call on an
+ * {@link AsyncExecutor} and returns at once. The future completes with the
+ * result, or exceptionally with the exception the call threw
+ * ({@code ValidationException}, {@code AccessDeniedException}, ...), so the
+ * usual checks move into {@code exceptionally} / {@code handle}. Sinks and
+ * progress callbacks are invoked on the background thread.
+ */
+public class AsyncContactService {
+
+    private final ContactService contactService;
+    private final AsyncExecutor executor;
+
+    /**
+     *
+     * @param contactService - the service doing the work
+     * @param executor - runs the calls, shared with other async services
+     */
+    public AsyncContactService(ContactService contactService, AsyncExecutor executor) {
+        this.contactService = contactService;
+        this.executor = executor;
+    }
+
+    // CREATE / RESTORE
+    public CompletableFuture<Contact> createContact(Contact contact, User performingUser) {
+        return executor.submit(() -> contactService.createContact(contact, performingUser));
+    }
+
+    public CompletableFuture<Contact> restoreContact(Contact contact, User performingUser) {
+        return executor.submit(() -> contactService.restoreContact(contact, performingUser));
+    }
+
+    public CompletableFuture<BatchInsertResult> createContacts(List<Contact> contacts, User performingUser) {
+        return executor.submit(() -> contactService.createContacts(contacts, performingUser));
+    }
+
+    public CompletableFuture<Integer> restoreContacts(List<Contact> contacts, User performingUser) {
+        return executor.submit(() -> contactService.restoreContacts(contacts, performingUser));
+    }
+
+    // IMPORT / EXPORT
+    public CompletableFuture<ImportReport> importContacts(Path file, User performingUser, Consumer<ImportReport> progress) {
+        return executor.submit(() -> contactService.importContacts(file, performingUser, progress));
+    }
+
+    public CompletableFuture<Integer> exportContacts(Path file) {
+        return executor.submit(() -> contactService.exportContacts(file));
+    }
+
+    // UPDATE
+    public CompletableFuture<Void> updateContact(Contact updated, User performingUser) {
+        return executor.run(() -> contactService.updateContact(updated, performingUser));
+    }
+
+    public CompletableFuture<Void> updateContact(Contact updated, User performingUser, boolean recordUndo) {
+        return executor.run(() -> contactService.updateContact(updated, performingUser, recordUndo));
+    }
+
+    // DELETE
+    public CompletableFuture<Void> deleteContact(int contactId, User performingUser) {
+        return executor.run(() -> contactService.deleteContact(contactId, performingUser));
+    }
+
+    public CompletableFuture<Void> deleteContact(int contactId, User performingUser, boolean recordUndo) {
+        return executor.run(() -> contactService.deleteContact(contactId, performingUser, recordUndo));
+    }
+
+    public CompletableFuture<Integer> deleteContacts(List<Integer> contactIds, User performingUser) {
+        return executor.submit(() -> contactService.deleteContacts(contactIds, performingUser));
+    }
+
+    public CompletableFuture<Integer> deleteContacts(List<Integer> contactIds, User performingUser, boolean recordUndo) {
+        return executor.submit(() -> contactService.deleteContacts(contactIds, performingUser, recordUndo));
+    }
+
+    public CompletableFuture<Integer> deleteContactsIfUnchanged(List<Contact> expected, User performingUser) {
+        return executor.submit(() -> contactService.deleteContactsIfUnchanged(expected, performingUser));
+    }
+
+    // READ
+    public CompletableFuture<Contact> getContactById(int contactId) {
+        return executor.submit(() -> contactService.getContactById(contactId));
+    }
+
+    public CompletableFuture<List<Contact>> getAllContacts() {
+        return executor.submit(contactService::getAllContacts);
+    }
+
+    public CompletableFuture<Integer> streamAllContacts(Consumer<Contact> sink) {
+        return executor.submit(() -> contactService.streamAllContacts(sink));
+    }
+
+    public CompletableFuture<List<Contact>> sortContacts(String field, boolean ascending) {
+        return executor.submit(() -> contactService.sortContacts(field, ascending));
+    }
+
+    public CompletableFuture<Integer> streamSortedContacts(String field, boolean ascending, Consumer<Contact> sink) {
+        return executor.submit(() -> contactService.streamSortedContacts(field, ascending, sink));
+    }
+
+    public CompletableFuture<List<Contact>> searchContacts(SearchCriteria criteria, User performingUser) {
+        return executor.submit(() -> contactService.searchContacts(criteria, performingUser));
+    }
+
+    // PAGINATION
+    public CompletableFuture<ContactPage> getContactsPage(String field, boolean ascending, PageCursor after, int pageSize) {
+        return executor.submit(() -> contactService.getContactsPage(field, ascending, after, pageSize));
+    }
+
+    public CompletableFuture<ContactPage> searchContactsPage(SearchCriteria criteria, User performingUser,
+                                                             PageCursor after, int pageSize) {
+        return executor.submit(() -> contactService.searchContactsPage(criteria, performingUser, after, pageSize));
+    }
+}
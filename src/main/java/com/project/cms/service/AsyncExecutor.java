@@ -0,0 +1,155 @@
+package com.project.cms.service;
+
+import com.project.cms.util.DbConnection;
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs blocking service calls in the background for {@link AsyncContactService}
+ * and {@link AsyncUserService}.
+ * <p>
+ * When the JVM offers virtual threads (Java 21 and later) every call gets
+ * its own virtual thread, so waiting calls cost almost nothing. The database
+ * only has {@link DbConnection#getPoolMaxSize()} connections, though, so a
+ * semaphore with that many permits lets at most that many calls run at once.
+ * The others wait for a permit on their own (cheap) thread instead of piling
+ * up in the connection pool, where they would run into its borrow timeout.
+ * <p>
+ * On older JVMs the calls run on that many daemon platform threads and the
+ * rest wait in the executor queue.
+ */
+public class AsyncExecutor {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final boolean virtualThreads;
+
+    /**
+     * Caps concurrent calls at the size of the connection pool.
+     */
+    public AsyncExecutor() {
+        this(DbConnection.getPoolMaxSize());
+    }
+
+    /**
+     * @param maxConcurrent calls allowed to run at the same time (at least 1)
+     */
+    public AsyncExecutor(int maxConcurrent) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.permits = new Semaphore(this.maxConcurrent, true);
+
+        ExecutorService virtual = virtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : platformThreadExecutor(this.maxConcurrent);
+    }
+
+    /**
+     * Runs a call in the background once a permit is free.
+     *
+     * @param call the blocking service call
+     * @return completes with the result of the call, or exceptionally with
+     *         the exception it threw (checked service exceptions included)
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    future.completeExceptionally(e);
+                    return;
+                }
+                try {
+                    future.complete(call.call());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Runs a call without a result in the background.
+     *
+     * @see #submit(Callable)
+     */
+    public CompletableFuture<Void> run(BlockingCall call) {
+        return submit(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return calls allowed to run at the same time
+     */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * @return calls currently waiting for a permit (on virtual threads; on
+     *         platform threads waiting calls are queued in the executor instead)
+     */
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * @return true if calls run on virtual threads
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Stops accepting calls. Calls already submitted still complete.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /** A service call without a result that may throw a checked exception. */
+    @FunctionalInterface
+    public interface BlockingCall {
+        void run() throws Exception;
+    }
+
+    /**
+     * {@code Executors.newVirtualThreadPerTaskExecutor()}, looked up at runtime
+     * because the project is compiled for Java 17.
+     *
+     * @return the executor, or null on JVMs without virtual threads
+     */
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService platformThreadExecutor(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "cms-async-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
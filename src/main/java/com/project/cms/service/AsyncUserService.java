@@ -0,0 +1,97 @@
+package com.project.cms.service;
+
+import com.project.cms.model.User;
+import com.project.cms.model.role.Operation;
+import com.project.cms.model.role.RolePermissions;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking view of a {@link UserService}; see {@link AsyncContactService}
+ * for how results and exceptions are delivered.
+ */
+public class AsyncUserService {
+
+    private final UserService userService;
+    private final AsyncExecutor executor;
+
+    /**
+     *
+     * @param userService - the service doing the work
+     * @param executor - runs the calls, shared with other async services
+     */
+    public AsyncUserService(UserService userService, AsyncExecutor executor) {
+        this.userService = userService;
+        this.executor = executor;
+    }
+
+    // LOGIN / PASSWORD
+    public CompletableFuture<User> login(String username, String password) {
+        return executor.submit(() -> userService.login(username, password));
+    }
+
+    public CompletableFuture<Void> changePassword(int userId, String oldPass, String newPass) {
+        return executor.run(() -> userService.changePassword(userId, oldPass, newPass));
+    }
+
+    public CompletableFuture<Void> restorePreviousPassword(int userId, String oldPasswordHash, User performingUser) {
+        return executor.run(() -> userService.restorePreviousPassword(userId, oldPasswordHash, performingUser));
+    }
+
+    /**
+     * Permissions are derived from the role without touching the database,
+     * so the future is already complete.
+     */
+    public CompletableFuture<RolePermissions> getPermissionsFor(User user) {
+        try {
+            return CompletableFuture.completedFuture(userService.getPermissionsFor(user));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Like {@link #getPermissionsFor(User)}, answered from the role alone, so
+     * the future is already complete.
+     */
+    public CompletableFuture<Boolean> isAllowed(User user, Operation operation) {
+        try {
+            return CompletableFuture.completedFuture(userService.isAllowed(user, operation));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // MANAGER: USERS
+    public CompletableFuture<User> createUser(User newUser, User performingUser) {
+        return executor.submit(() -> userService.createUser(newUser, performingUser));
+    }
+
+    public CompletableFuture<User> createUser(User newUser, User performingUser, boolean recordUndo) {
+        return executor.submit(() -> userService.createUser(newUser, performingUser, recordUndo));
+    }
+
+    public CompletableFuture<Void> updateUser(User updatedUser, User performingUser) {
+        return executor.run(() -> userService.updateUser(updatedUser, performingUser));
+    }
+
+    public CompletableFuture<Void> updateUser(User updatedUser, User performingUser, boolean recordUndo) {
+        return executor.run(() -> userService.updateUser(updatedUser, performingUser, recordUndo));
+    }
+
+    public CompletableFuture<Void> deleteUser(int targetUserId, User performingUser) {
+        return executor.run(() -> userService.deleteUser(targetUserId, performingUser));
+    }
+
+    public CompletableFuture<Void> deleteUser(int targetUserId, User performingUser, boolean recordUndo) {
+        return executor.run(() -> userService.deleteUser(targetUserId, performingUser, recordUndo));
+    }
+
+    public CompletableFuture<Void> deleteUserIfUnchanged(User expected, User performingUser) {
+        return executor.run(() -> userService.deleteUserIfUnchanged(expected, performingUser));
+    }
+
+    public CompletableFuture<List<User>> getAllUsers() {
+        return executor.submit(userService::getAllUsers);
+    }
+}
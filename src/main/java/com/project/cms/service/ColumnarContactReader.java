@@ -0,0 +1,302 @@
+package com.project.cms.service;
+
+import static com.project.cms.service.ColumnarContactWriter.COLUMNS;
+import static com.project.cms.service.ColumnarContactWriter.DELTA;
+import static com.project.cms.service.ColumnarContactWriter.DICTIONARY;
+import static com.project.cms.service.ColumnarContactWriter.FORMAT_VERSION;
+import static com.project.cms.service.ColumnarContactWriter.INT32;
+import static com.project.cms.service.ColumnarContactWriter.INT64;
+import static com.project.cms.service.ColumnarContactWriter.MAGIC;
+import static com.project.cms.service.ColumnarContactWriter.STRING;
+
+import com.project.cms.model.Contact;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reads a file written in the columnar export format
+ * (see {@link ColumnarContactWriter} for the layout).
+ * <p>
+ * The footer is read on {@link #open}; row groups are then read one at a
+ * time, so memory use does not depend on the size of the file.
+ * {@link #countValues} only reads the chunks of one column and counts
+ * dictionary codes without turning them back into strings.
+ */
+public final class ColumnarContactReader implements Closeable {
+
+    private final FileChannel channel;
+    private final long[] groupOffsets;
+    private final int[] groupRows;
+    private final long rowCount;
+
+    private ColumnarContactReader(FileChannel channel, long[] groupOffsets, int[] groupRows, long rowCount) {
+        this.channel = channel;
+        this.groupOffsets = groupOffsets;
+        this.groupRows = groupRows;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Opens a file and reads its footer.
+     *
+     * @param file the exported file
+     * @return the reader
+     * @throws IOException if the file cannot be read or is not in the columnar format
+     */
+    public static ColumnarContactReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < 13) throw notColumnar();
+
+            ByteBuffer head = read(channel, 0, 5);
+            if (head.getInt() != MAGIC) throw notColumnar();
+            if (head.get() != FORMAT_VERSION) throw new IOException("Unsupported columnar file version.");
+
+            ByteBuffer tail = read(channel, size - 8, 8);
+            int footerLength = tail.getInt();
+            if (tail.getInt() != MAGIC || footerLength < 0 || footerLength > size - 13) throw notColumnar();
+
+            ByteBuffer footer = read(channel, size - 8 - footerLength, footerLength);
+            int columns = footer.getInt();
+            for (int i = 0; i < columns; i++) {
+                String name = string(footer, (int) varLong(footer));
+                if (i >= COLUMNS.size() || !COLUMNS.get(i).equals(name)) {
+                    throw new IOException("Unexpected column '" + name + "' in columnar file.");
+                }
+            }
+            if (columns != COLUMNS.size()) throw new IOException("Columnar file lacks columns.");
+
+            int groups = footer.getInt();
+            long[] offsets = new long[groups];
+            int[] rows = new int[groups];
+            for (int i = 0; i < groups; i++) {
+                offsets[i] = footer.getLong();
+                rows[i] = footer.getInt();
+            }
+            return new ColumnarContactReader(channel, offsets, rows, footer.getLong());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e instanceof IOException io ? io : new IOException("Corrupt columnar file.", e);
+        }
+    }
+
+    /**
+     * @return number of contacts in the file
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return number of row groups in the file
+     */
+    public int getRowGroupCount() {
+        return groupOffsets.length;
+    }
+
+    /**
+     * Reads every contact, in the order they were exported.
+     *
+     * @param sink receives the contacts
+     * @return number of contacts read
+     * @throws IOException if the file cannot be read
+     */
+    public long read(Consumer<Contact> sink) throws IOException {
+        long count = 0;
+        for (int g = 0; g < groupOffsets.length; g++) {
+            Contact[] rows = new Contact[groupRows[g]];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = new Contact();
+            }
+
+            long position = groupOffsets[g] + 4;
+            for (int column = 0; column < COLUMNS.size(); column++) {
+                ByteBuffer header = read(channel, position, 5);
+                byte encoding = header.get();
+                int length = header.getInt();
+                decode(column, encoding, read(channel, position + 5, length), rows);
+                position += 5 + length;
+            }
+
+            for (Contact c : rows) {
+                sink.accept(c);
+            }
+            count += rows.length;
+        }
+        return count;
+    }
+
+    /**
+     * Counts how often each value of a text column occurs (NULLs are not
+     * counted), reading only that column.
+     *
+     * @param column a text column, e.g. "city" or "first_name"
+     * @return value → number of contacts
+     * @throws IOException if the file cannot be read
+     */
+    public Map<String, Long> countValues(String column) throws IOException {
+        int index = COLUMNS.indexOf(column);
+        if (index < 1 || index > 9) throw new IllegalArgumentException("Not a text column: " + column);
+
+        Map<String, Long> counts = new HashMap<>();
+        for (int g = 0; g < groupOffsets.length; g++) {
+            ByteBuffer chunk = chunk(g, index);
+            byte encoding = chunk.get();
+            chunk.getInt();
+            if (encoding == DICTIONARY) {
+                String[] values = dictionary(chunk);
+                long[] perCode = new long[values.length + 1];
+                for (int i = 0; i < groupRows[g]; i++) {
+                    perCode[(int) varLong(chunk)]++;
+                }
+                for (int code = 1; code < perCode.length; code++) {
+                    if (perCode[code] > 0) counts.merge(values[code - 1], perCode[code], Long::sum);
+                }
+            } else {
+                for (int i = 0; i < groupRows[g]; i++) {
+                    String value = nullableString(chunk);
+                    if (value != null) counts.merge(value, 1L, Long::sum);
+                }
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // ===========================================================
+    // DECODING
+    // ===========================================================
+
+    /**
+     * Finds the chunk of a column in a group by skipping the chunks before it.
+     *
+     * @return the chunk, starting with its encoding byte and length
+     */
+    private ByteBuffer chunk(int group, int column) throws IOException {
+        long position = groupOffsets[group] + 4;
+        for (int c = 0; ; c++) {
+            ByteBuffer header = read(channel, position, 5);
+            header.get();
+            int length = header.getInt();
+            if (c == column) return read(channel, position, 5 + length);
+            position += 5 + length;
+        }
+    }
+
+    private static void decode(int column, byte encoding, ByteBuffer data, Contact[] rows) throws IOException {
+        switch (encoding) {
+            case DELTA -> {
+                long id = 0;
+                for (Contact c : rows) {
+                    long v = varLong(data);
+                    id += (v >>> 1) ^ -(v & 1);
+                    c.setContactId((int) id);
+                }
+            }
+            case DICTIONARY -> {
+                String[] values = dictionary(data);
+                for (Contact c : rows) {
+                    int code = (int) varLong(data);
+                    setText(c, column, code == 0 ? null : values[code - 1]);
+                }
+            }
+            case STRING -> {
+                for (Contact c : rows) {
+                    setText(c, column, nullableString(data));
+                }
+            }
+            case INT32 -> {
+                for (Contact c : rows) {
+                    int v = data.getInt();
+                    if (column == 13) {
+                        c.setVersion(v);
+                    } else if (v != Integer.MIN_VALUE) {
+                        c.setBirthDate(LocalDate.ofEpochDay(v));
+                    }
+                }
+            }
+            case INT64 -> {
+                for (Contact c : rows) {
+                    long v = data.getLong();
+                    if (v == Long.MIN_VALUE) continue;
+                    LocalDateTime t = LocalDateTime.ofEpochSecond(v, 0, ZoneOffset.UTC);
+                    if (column == 11) c.setCreatedAt(t);
+                    else c.setUpdatedAt(t);
+                }
+            }
+            default -> throw new IOException("Unknown column encoding " + encoding + ".");
+        }
+    }
+
+    private static void setText(Contact c, int column, String value) {
+        switch (column) {
+            case 1 -> c.setFirstName(value);
+            case 2 -> c.setMiddleName(value);
+            case 3 -> c.setLastName(value);
+            case 4 -> c.setNickname(value);
+            case 5 -> c.setCity(value);
+            case 6 -> c.setPhonePrimary(value);
+            case 7 -> c.setPhoneSecondary(value);
+            case 8 -> c.setEmail(value);
+            case 9 -> c.setLinkedinUrl(value);
+            default -> { }
+        }
+    }
+
+    private static String[] dictionary(ByteBuffer data) {
+        String[] values = new String[(int) varLong(data)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = string(data, (int) varLong(data));
+        }
+        return values;
+    }
+
+    private static String nullableString(ByteBuffer data) {
+        long length = varLong(data);
+        return length == 0 ? null : string(data, (int) length - 1);
+    }
+
+    private static String string(ByteBuffer data, int length) {
+        String s = new String(data.array(), data.arrayOffset() + data.position(), length, StandardCharsets.UTF_8);
+        data.position(data.position() + length);
+        return s;
+    }
+
+    private static long varLong(ByteBuffer data) {
+        long v = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = data.get();
+            v |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return v;
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) throw new EOFException();
+        }
+        return buffer.flip();
+    }
+
+    private static IOException notColumnar() {
+        return new IOException("Not a columnar contact file.");
+    }
+}
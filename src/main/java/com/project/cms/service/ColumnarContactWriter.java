@@ -0,0 +1,290 @@
+package com.project.cms.service;
+
+import com.project.cms.model.Contact;
+import com.project.cms.util.ChannelOutput;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes contacts in the columnar export format.
+ * <p>
+ * Rows are collected in groups of {@link #ROW_GROUP_SIZE}; each group is
+ * written column by column, so a reader can load a single column (e.g. all
+ * cities) without decoding the others. Layout, all numbers big-endian:
+ * <pre>
+ * file   = MAGIC version:byte group* footer footerLength:int MAGIC
+ * group  = rows:int chunk*                   (one chunk per column, in COLUMNS order)
+ * chunk  = encoding:byte length:int data
+ * footer = columns:int name:string* groups:int (offset:long rows:int)* totalRows:long
+ * </pre>
+ * Encodings:
+ * <ul>
+ *     <li>{@code DELTA} – contact_id as zigzag varint differences;</li>
+ *     <li>{@code DICTIONARY} – first_name and city: the distinct values of the
+ *     group, then one varint code per row (0 = NULL, n = n-th value); a group
+ *     with too many distinct values falls back to {@code STRING};</li>
+ *     <li>{@code STRING} – per row a varint of length + 1 (0 = NULL) and UTF-8 bytes;</li>
+ *     <li>{@code INT32} / {@code INT64} – birth_date as epoch day, timestamps as
+ *     UTC epoch seconds, version; MIN_VALUE stands for NULL.</li>
+ * </ul>
+ * Only one group is held in memory, whatever the number of rows.
+ */
+final class ColumnarContactWriter implements Closeable {
+
+    static final int MAGIC = 0x434D5343;              // "CMSC"
+    static final byte FORMAT_VERSION = 1;
+    static final int ROW_GROUP_SIZE = 8_192;
+
+    static final byte INT32 = 0;
+    static final byte INT64 = 1;
+    static final byte STRING = 2;
+    static final byte DICTIONARY = 3;
+    static final byte DELTA = 4;
+
+    static final List<String> COLUMNS = List.of(
+            "contact_id", "first_name", "middle_name", "last_name", "nickname", "city",
+            "phone_primary", "phone_secondary", "email", "linkedin_url",
+            "birth_date", "created_at", "updated_at", "version"
+    );
+
+    private final ChannelOutput out;
+    private final Contact[] rows = new Contact[ROW_GROUP_SIZE];
+    private final Bytes chunk = new Bytes();
+    private int buffered;
+
+    private final Bytes groupIndex = new Bytes();     // offset and rows of every group, for the footer
+    private int groupCount;
+    private long rowCount;
+
+    ColumnarContactWriter(ChannelOutput out) throws IOException {
+        this.out = out;
+        out.writeInt(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+    }
+
+    void write(Contact c) throws IOException {
+        rows[buffered++] = c;
+        if (buffered == ROW_GROUP_SIZE) writeGroup();
+    }
+
+    /**
+     * Writes the last group and the footer. Does not close the output.
+     */
+    @Override
+    public void close() throws IOException {
+        if (buffered > 0) writeGroup();
+
+        Bytes footer = new Bytes();
+        footer.writeInt(COLUMNS.size());
+        for (String name : COLUMNS) {
+            footer.writeString(name);
+        }
+        footer.writeInt(groupCount);
+        footer.write(groupIndex);
+        footer.writeLong(rowCount);
+
+        footer.writeTo(out);
+        out.writeInt(footer.size());
+        out.writeInt(MAGIC);
+    }
+
+    // ===========================================================
+    // ROW GROUPS
+    // ===========================================================
+
+    private void writeGroup() throws IOException {
+        groupIndex.writeLong(out.position());
+        groupIndex.writeInt(buffered);
+        out.writeInt(buffered);
+
+        for (int column = 0; column < COLUMNS.size(); column++) {
+            chunk.reset();
+            byte encoding = encode(column);
+            out.writeByte(encoding);
+            out.writeInt(chunk.size());
+            chunk.writeTo(out);
+        }
+
+        groupCount++;
+        rowCount += buffered;
+        Arrays.fill(rows, 0, buffered, null);
+        buffered = 0;
+    }
+
+    /**
+     * Encodes one column of the buffered rows into {@link #chunk}.
+     *
+     * @return the encoding used
+     */
+    private byte encode(int column) {
+        switch (column) {
+            case 0 -> {
+                int previous = 0;
+                for (int i = 0; i < buffered; i++) {
+                    int id = rows[i].getContactId();
+                    chunk.writeVarLong(zigzag((long) id - previous));
+                    previous = id;
+                }
+                return DELTA;
+            }
+            case 1, 5 -> {
+                return dictionary(column) ? DICTIONARY : strings(column);
+            }
+            case 10 -> {
+                for (int i = 0; i < buffered; i++) {
+                    chunk.writeInt(rows[i].getBirthDate() == null
+                            ? Integer.MIN_VALUE : (int) rows[i].getBirthDate().toEpochDay());
+                }
+                return INT32;
+            }
+            case 11, 12 -> {
+                for (int i = 0; i < buffered; i++) {
+                    LocalDateTime t = column == 11 ? rows[i].getCreatedAt() : rows[i].getUpdatedAt();
+                    chunk.writeLong(t == null ? Long.MIN_VALUE : t.toEpochSecond(ZoneOffset.UTC));
+                }
+                return INT64;
+            }
+            case 13 -> {
+                for (int i = 0; i < buffered; i++) {
+                    chunk.writeInt(rows[i].getVersion());
+                }
+                return INT32;
+            }
+            default -> {
+                return strings(column);
+            }
+        }
+    }
+
+    private byte strings(int column) {
+        for (int i = 0; i < buffered; i++) {
+            chunk.writeNullableString(text(rows[i], column));
+        }
+        return STRING;
+    }
+
+    /**
+     * Dictionary-encodes a column, unless more than half of its values are
+     * distinct (then the dictionary would not save space).
+     *
+     * @return false if the column was not written
+     */
+    private boolean dictionary(int column) {
+        Map<String, Integer> codes = new HashMap<>();
+        String[] values = new String[buffered];
+        int[] rowCodes = new int[buffered];
+        for (int i = 0; i < buffered; i++) {
+            String value = text(rows[i], column);
+            if (value == null) continue;
+
+            Integer code = codes.get(value);
+            if (code == null) {
+                if (codes.size() > buffered / 2) return false;
+                code = codes.size() + 1;
+                codes.put(value, code);
+                values[code - 1] = value;
+            }
+            rowCodes[i] = code;
+        }
+
+        chunk.writeVarLong(codes.size());
+        for (int i = 0; i < codes.size(); i++) {
+            chunk.writeString(values[i]);
+        }
+        for (int i = 0; i < buffered; i++) {
+            chunk.writeVarLong(rowCodes[i]);
+        }
+        return true;
+    }
+
+    private static String text(Contact c, int column) {
+        return ContactColumns.get(c, column - 1);
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    // ===========================================================
+    // BYTE BUFFER
+    // ===========================================================
+
+    /** Growable byte array for one chunk (or the footer). */
+    private static final class Bytes {
+        private byte[] data = new byte[4096];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        void writeInt(int v) {
+            ensure(4);
+            data[size++] = (byte) (v >>> 24);
+            data[size++] = (byte) (v >>> 16);
+            data[size++] = (byte) (v >>> 8);
+            data[size++] = (byte) v;
+        }
+
+        void writeLong(long v) {
+            writeInt((int) (v >>> 32));
+            writeInt((int) v);
+        }
+
+        void writeVarLong(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                data[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            data[size++] = (byte) v;
+        }
+
+        void writeString(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            write(bytes, bytes.length);
+        }
+
+        void writeNullableString(String s) {
+            if (s == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            write(bytes, bytes.length);
+        }
+
+        void write(Bytes other) {
+            write(other.data, other.size);
+        }
+
+        private void write(byte[] bytes, int length) {
+            ensure(length);
+            System.arraycopy(bytes, 0, data, size, length);
+            size += length;
+        }
+
+        void writeTo(ChannelOutput out) throws IOException {
+            out.write(data, 0, size);
+        }
+
+        private void ensure(int bytes) {
+            if (size + bytes > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + bytes));
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.project.cms.service;
+
+import com.project.cms.exception.AppExceptions.ValidationException;
+import com.project.cms.model.Contact;
+import com.project.cms.util.DateUtils;
+import com.project.cms.util.Validator;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The contact columns of import and export files, named like the table columns.
+ * <p>
+ * Headers and JSON keys are matched ignoring case, spaces, underscores and
+ * dashes, so {@code first_name}, {@code First Name} and {@code firstName}
+ * are the same column.
+ */
+final class ContactColumns {
+
+    static final List<String> NAMES = List.of(
+            "first_name", "middle_name", "last_name", "nickname", "city",
+            "phone_primary", "phone_secondary", "email", "linkedin_url", "birth_date"
+    );
+
+    /** Columns a file must have (the NOT NULL columns of the table). */
+    static final List<String> REQUIRED = List.of(
+            "first_name", "last_name", "nickname", "city", "phone_primary", "email"
+    );
+
+    private static final Map<String, Integer> BY_KEY = new HashMap<>();
+
+    static {
+        for (int i = 0; i < NAMES.size(); i++) {
+            BY_KEY.put(key(NAMES.get(i)), i);
+        }
+        BY_KEY.put("phone", NAMES.indexOf("phone_primary"));
+        BY_KEY.put("linkedin", NAMES.indexOf("linkedin_url"));
+    }
+
+    private ContactColumns() {
+    }
+
+    /**
+     * @param header a header or JSON key
+     * @return index of the column in {@link #NAMES}, or -1 if the column is not imported
+     */
+    static int indexOf(String header) {
+        Integer index = BY_KEY.get(key(header));
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Sets one column of a contact from its text in the file. Blank text
+     * leaves the column empty; phone numbers lose their spaces and dashes.
+     *
+     * @throws ValidationException if the text is not a valid value of the column
+     */
+    static void set(Contact c, int column, String text) throws ValidationException {
+        String value = text == null || text.isBlank() ? null : text.trim();
+
+        switch (column) {
+            case 0 -> c.setFirstName(value);
+            case 1 -> c.setMiddleName(value);
+            case 2 -> c.setLastName(value);
+            case 3 -> c.setNickname(value);
+            case 4 -> c.setCity(value);
+            case 5 -> c.setPhonePrimary(Validator.normalizePhone(value));
+            case 6 -> {
+                String phone = Validator.normalizePhone(value);
+                if (phone != null) Validator.validatePhone(phone);
+                c.setPhoneSecondary(phone);
+            }
+            case 7 -> c.setEmail(value);
+            case 8 -> c.setLinkedinUrl(value);
+            case 9 -> c.setBirthDate(parseDate(value));
+            default -> { }
+        }
+    }
+
+    /**
+     * @return the text of one column of a contact as written to export files
+     *         (ISO dates), or null if the column is empty
+     */
+    static String get(Contact c, int column) {
+        return switch (column) {
+            case 0 -> c.getFirstName();
+            case 1 -> c.getMiddleName();
+            case 2 -> c.getLastName();
+            case 3 -> c.getNickname();
+            case 4 -> c.getCity();
+            case 5 -> c.getPhonePrimary();
+            case 6 -> c.getPhoneSecondary();
+            case 7 -> c.getEmail();
+            case 8 -> c.getLinkedinUrl();
+            case 9 -> c.getBirthDate() == null ? null : c.getBirthDate().toString();
+            default -> null;
+        };
+    }
+
+    /**
+     * Accepts ISO dates (yyyy-MM-dd) and the dd/MM/yyyy format of the console.
+     */
+    private static LocalDate parseDate(String value) throws ValidationException {
+        if (value == null) return null;
+
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            LocalDate date = DateUtils.stringToDate(value);
+            if (date == null) {
+                throw new ValidationException("Invalid birth date '" + value + "'. Use yyyy-MM-dd or dd/MM/yyyy.");
+            }
+            return date;
+        }
+    }
+
+    private static String key(String header) {
+        StringBuilder sb = new StringBuilder(header.length());
+        for (int i = 0; i < header.length(); i++) {
+            char ch = header.charAt(i);
+            if (ch != '_' && ch != '-' && !Character.isWhitespace(ch)) sb.append(ch);
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+}
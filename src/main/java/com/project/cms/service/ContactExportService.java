@@ -0,0 +1,225 @@
+package com.project.cms.service;
+
+import com.project.cms.dao.contact.ContactDao;
+import com.project.cms.exception.AppExceptions.ValidationException;
+import com.project.cms.model.Contact;
+import com.project.cms.util.ChannelOutput;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Exports all contacts to a file.
+ * <p>
+ * Contacts are taken from {@link ContactDao#streamAll}, which reads them from
+ * a forward-only cursor, and are written through a {@link ChannelOutput}
+ * as they arrive. Nothing but the current row (for the columnar format: the
+ * current row group) is held in memory, whatever the number of contacts.
+ * <p>
+ * The file is first written next to the target with a {@code .part} suffix
+ * and only moved into place when the export is complete, so a failed export
+ * never leaves a truncated file behind.
+ */
+public class ContactExportService {
+
+    private final ContactDao contactDao;
+
+    /**
+     *
+     * @param contactDao - the DAO the contacts are read from
+     */
+    public ContactExportService(ContactDao contactDao) {
+        this.contactDao = contactDao;
+    }
+
+    /**
+     * Exports to a file, choosing the format by its extension.
+     *
+     * @see #exportFile(Path, ExportFormat)
+     */
+    public int exportFile(Path file) throws ValidationException, IOException {
+        return exportFile(file, ExportFormat.fromFileName(file.getFileName().toString()));
+    }
+
+    /**
+     * Exports every contact, ordered by ID.
+     *
+     * @param file - the file to write (replaced if it exists)
+     * @param format - the format to write
+     * @return the number of contacts exported
+     * @throws IOException - if the file cannot be written
+     */
+    public int exportFile(Path file, ExportFormat format) throws IOException {
+        Path part = file.resolveSibling(file.getFileName() + ".part");
+        boolean done = false;
+
+        try {
+            int count;
+            try (ChannelOutput out = new ChannelOutput(part);
+                 RowWriter writer = writerFor(format, out)) {
+
+                count = contactDao.streamAll(c -> {
+                    try {
+                        writer.write(c);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            if (count < 0) {
+                throw new RuntimeException("Database error: Failed to read contacts.");
+            }
+
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING);
+            done = true;
+            return count;
+        } finally {
+            if (!done) Files.deleteIfExists(part);
+        }
+    }
+
+    private static RowWriter writerFor(ExportFormat format, ChannelOutput out) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvWriter(out);
+            case NDJSON -> new JsonLinesWriter(out);
+            case COLUMNAR -> {
+                ColumnarContactWriter columnar = new ColumnarContactWriter(out);
+                yield new RowWriter() {
+                    @Override
+                    public void write(Contact c) throws IOException {
+                        columnar.write(c);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        columnar.close();
+                    }
+                };
+            }
+        };
+    }
+
+    // ===========================================================
+    // TEXT FORMATS
+    // ===========================================================
+
+    /** Writes one contact at a time; {@link #close} completes the file. */
+    private interface RowWriter extends Closeable {
+        void write(Contact c) throws IOException;
+    }
+
+    /**
+     * CSV with the column names of {@link ContactColumns} plus contact_id, in
+     * the form {@link ContactImportService} reads.
+     */
+    private static final class CsvWriter implements RowWriter {
+        private final ChannelOutput out;
+        private final StringBuilder line = new StringBuilder(256);
+
+        CsvWriter(ChannelOutput out) throws IOException {
+            this.out = out;
+            out.writeText("contact_id," + String.join(",", ContactColumns.NAMES) + "\n");
+        }
+
+        @Override
+        public void write(Contact c) throws IOException {
+            line.setLength(0);
+            line.append(c.getContactId());
+            for (int column = 0; column < ContactColumns.NAMES.size(); column++) {
+                line.append(',');
+                appendField(ContactColumns.get(c, column));
+            }
+            line.append('\n');
+            out.writeText(line);
+        }
+
+        /**
+         * Quotes a field if it holds a separator, a quote or a line break.
+         */
+        private void appendField(String value) {
+            if (value == null) return;
+
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char ch = value.charAt(i);
+                quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+            }
+            if (!quote) {
+                line.append(value);
+                return;
+            }
+
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char ch = value.charAt(i);
+                if (ch == '"') line.append('"');
+                line.append(ch);
+            }
+            line.append('"');
+        }
+
+        @Override
+        public void close() {
+            // nothing after the last row
+        }
+    }
+
+    /**
+     * One JSON object per line, keyed by column name; empty columns are null.
+     */
+    private static final class JsonLinesWriter implements RowWriter {
+        private final ChannelOutput out;
+        private final StringBuilder line = new StringBuilder(320);
+
+        JsonLinesWriter(ChannelOutput out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(Contact c) throws IOException {
+            line.setLength(0);
+            line.append("{\"contact_id\":").append(c.getContactId());
+            for (int column = 0; column < ContactColumns.NAMES.size(); column++) {
+                line.append(",\"").append(ContactColumns.NAMES.get(column)).append("\":");
+                appendString(ContactColumns.get(c, column));
+            }
+            line.append("}\n");
+            out.writeText(line);
+        }
+
+        private void appendString(String value) {
+            if (value == null) {
+                line.append("null");
+                return;
+            }
+
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char ch = value.charAt(i);
+                switch (ch) {
+                    case '"' -> line.append("\\\"");
+                    case '\\' -> line.append("\\\\");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    case '\t' -> line.append("\\t");
+                    default -> {
+                        if (ch < 0x20) line.append(String.format("\\u%04x", (int) ch));
+                        else line.append(ch);
+                    }
+                }
+            }
+            line.append('"');
+        }
+
+        @Override
+        public void close() {
+            // nothing after the last row
+        }
+    }
+}
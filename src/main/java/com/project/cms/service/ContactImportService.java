@@ -0,0 +1,757 @@
+package com.project.cms.service;
+
+import com.project.cms.dao.contact.ContactDao;
+import com.project.cms.exception.AppExceptions.AccessDeniedException;
+import com.project.cms.exception.AppExceptions.ValidationException;
+import com.project.cms.model.Contact;
+import com.project.cms.model.User;
+import com.project.cms.model.role.Operation;
+import com.project.cms.util.LongHashSet;
+import com.project.cms.util.Validator;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Imports contacts from a CSV or JSON file.
+ * <p>
+ * The file runs through a pipeline of three stages:
+ * <ol>
+ *     <li>a reader thread cuts the file into chunks of {@link #CHUNK_SIZE}
+ *     records (a quoted CSV field may span lines; JSON objects are found by
+ *     their braces);</li>
+ *     <li>a pool of workers turns the records of a chunk into contacts and
+ *     checks them with {@link Validator#validateContact};</li>
+ *     <li>the calling thread takes the chunks in file order, drops
+ *     duplicates, matches the rest to existing contacts and writes every
+ *     chunk with one {@link ContactDao#upsertContacts} call.</li>
+ * </ol>
+ * The reader hands the chunks to the writer through a bounded queue, so it
+ * waits whenever parsing or writing falls behind and only a few chunks are
+ * in memory whatever the size of the file.
+ * <p>
+ * A record whose primary phone or email occurred earlier in the file is a
+ * duplicate and is skipped. A record whose primary phone or email belongs to
+ * an existing contact overwrites that contact; the others become new
+ * contacts. Imports are not recorded for undo.
+ * <p>
+ * The number of workers is {@code cms.import.threads} (default: one per processor).
+ */
+public class ContactImportService {
+
+    /** Records per chunk; also the rows written per upsert. */
+    static final int CHUNK_SIZE = 1_000;
+
+    /** Errors kept in the report; further ones are only counted. */
+    private static final int MAX_ERRORS = 20;
+
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private static final Locale TR = Locale.forLanguageTag("tr");
+
+    /** Marks the end of the file in the queue. */
+    private static final Future<ParsedChunk> END = CompletableFuture.completedFuture(null);
+
+    private final ContactDao contactDao;
+    private final UserService userService;
+    private final ContactStatisticsStore statisticsStore;
+    private final int threads;
+
+    /**
+     *
+     * @param contactDao - the DAO the contacts are written to
+     * @param userService - the user service used for role permission checks
+     * @param statisticsStore - the store recounted after the import (may be null)
+     */
+    public ContactImportService(ContactDao contactDao, UserService userService, ContactStatisticsStore statisticsStore) {
+        this.contactDao = contactDao;
+        this.userService = userService;
+        this.statisticsStore = statisticsStore;
+        this.threads = Math.max(1, Integer.getInteger("cms.import.threads",
+                Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Imports a file, choosing the format by its extension.
+     *
+     * @see #importFile(Path, ImportFormat, User, Consumer)
+     */
+    public ImportReport importFile(Path file, User performingUser, Consumer<ImportReport> progress)
+            throws ValidationException, AccessDeniedException, IOException {
+        return importFile(file, ImportFormat.fromFileName(file.getFileName().toString()), performingUser, progress);
+    }
+
+    /**
+     * Imports a file.
+     * Records that fail validation are skipped and reported; they do not stop the import.
+     *
+     * @param file - the file to read (UTF-8)
+     * @param format - the format of the file
+     * @param performingUser - the user performing the import
+     * @param progress - receives a report a few times per second (may be null)
+     * @return the report of the whole import
+     * @throws ValidationException - if a CSV file lacks a required column
+     * @throws AccessDeniedException - if the user is not allowed to create contacts
+     * @throws IOException - if the file cannot be opened
+     */
+    public ImportReport importFile(Path file, ImportFormat format, User performingUser, Consumer<ImportReport> progress)
+            throws ValidationException, AccessDeniedException, IOException {
+
+        // Role check (same as create)
+        if (!userService.isAllowed(performingUser, Operation.ADD_CONTACTS))
+            throw new AccessDeniedException("Only Senior Developer can import contacts.");
+
+        BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        RecordSource source;
+        try {
+            source = format == ImportFormat.CSV ? new CsvSource(in) : new JsonSource(in);
+        } catch (ValidationException | IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+
+        try (source) {
+            ImportReport report = run(source, progress);
+            if (statisticsStore != null && report.getInserted() + report.getUpdated() > 0) {
+                statisticsStore.reconcile();
+            }
+            return report;
+        }
+    }
+
+    // ===========================================================
+    // PIPELINE
+    // ===========================================================
+
+    private ImportReport run(RecordSource source, Consumer<ImportReport> progress) {
+        Tally tally = new Tally();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "cms-import-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        BlockingQueue<Future<ParsedChunk>> queue = new ArrayBlockingQueue<>(threads * 2);
+
+        Thread reader = new Thread(() -> split(source, workers, queue), "cms-import-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        try {
+            write(queue, tally, progress);
+        } finally {
+            // wakes the reader if it still waits for room in the queue
+            reader.interrupt();
+            workers.shutdownNow();
+            try {
+                reader.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return tally.report();
+    }
+
+    /**
+     * Reader stage: cuts the file into chunks and hands each one to a worker.
+     */
+    private static void split(RecordSource source, ExecutorService workers, BlockingQueue<Future<ParsedChunk>> queue) {
+        try {
+            boolean more = true;
+            while (more) {
+                RawChunk chunk = new RawChunk();
+                while ((more = source.read(chunk)) && chunk.size() < CHUNK_SIZE) {
+                    // fill the chunk
+                }
+                if (chunk.size() > 0) {
+                    queue.put(workers.submit(() -> parse(source, chunk)));
+                }
+            }
+            queue.put(END);
+        } catch (InterruptedException e) {
+            // the writer stopped the import
+        } catch (IOException | RuntimeException e) {
+            try {
+                queue.put(CompletableFuture.failedFuture(e));
+            } catch (InterruptedException stopped) {
+                // the writer stopped the import
+            }
+        }
+    }
+
+    /**
+     * Worker stage: turns the records of a chunk into validated contacts.
+     */
+    private static ParsedChunk parse(RecordSource source, RawChunk chunk) {
+        ParsedChunk parsed = new ParsedChunk(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            try {
+                Contact c = source.parse(chunk.records.get(i));
+                Validator.validateContact(c);
+                parsed.accept(c, chunk.lines[i]);
+            } catch (ValidationException e) {
+                parsed.reject(chunk.lines[i], e.getMessage());
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Writer stage: stores the chunks in file order.
+     */
+    private void write(BlockingQueue<Future<ParsedChunk>> queue, Tally tally, Consumer<ImportReport> progress) {
+        LongHashSet phonesSeen = new LongHashSet();
+        LongHashSet emailsSeen = new LongHashSet();
+        LongHashSet idsUpdated = new LongHashSet();
+        long lastReport = System.nanoTime();
+
+        try {
+            while (true) {
+                Future<ParsedChunk> next = queue.take();
+                if (next == END) return;
+
+                ParsedChunk chunk;
+                try {
+                    chunk = next.get();
+                } catch (ExecutionException e) {
+                    tally.stop("The file could not be read: " + e.getCause().getMessage());
+                    return;
+                }
+
+                if (!store(chunk, tally, phonesSeen, emailsSeen, idsUpdated)) {
+                    tally.stop("Database error near line " + chunk.firstLine()
+                            + ". Contacts before this point were saved.");
+                    return;
+                }
+
+                long now = System.nanoTime();
+                if (progress != null && now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                    progress.accept(tally.report());
+                    lastReport = now;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tally.stop("The import was interrupted.");
+        }
+    }
+
+    /**
+     * Drops duplicates, matches the chunk to existing contacts and upserts it.
+     *
+     * @return false if the database failed
+     */
+    private boolean store(ParsedChunk chunk, Tally tally,
+                          LongHashSet phonesSeen, LongHashSet emailsSeen, LongHashSet idsUpdated) {
+        tally.read += chunk.records;
+        tally.invalid += chunk.errors.size();
+        chunk.errors.forEach(tally::error);
+
+        // duplicates within the file: the first record wins
+        List<Contact> batch = new ArrayList<>(chunk.contacts.size());
+        List<Integer> lines = new ArrayList<>(chunk.contacts.size());
+        Set<String> phones = new LinkedHashSet<>();
+        Set<String> emails = new LinkedHashSet<>();
+        for (int i = 0; i < chunk.contacts.size(); i++) {
+            Contact c = chunk.contacts.get(i);
+            long phone = fingerprint(phoneKey(c.getPhonePrimary()));
+            long email = fingerprint(emailKey(c.getEmail()));
+            if (phonesSeen.contains(phone) || emailsSeen.contains(email)) {
+                tally.duplicates++;
+                continue;
+            }
+            phonesSeen.add(phone);
+            emailsSeen.add(email);
+
+            batch.add(c);
+            lines.add(chunk.lines[i]);
+            phones.add(c.getPhonePrimary());
+            emails.add(c.getEmail());
+        }
+        if (batch.isEmpty()) return true;
+
+        // the table has no unique key on phone or email, so matches are looked up first
+        List<Contact> existing = contactDao.findByPhonesOrEmails(phones, emails);
+        if (existing == null) return false;
+
+        Map<String, Integer> idByPhone = new HashMap<>();
+        Map<String, Integer> idByEmail = new HashMap<>();
+        for (Contact e : existing) {
+            idByPhone.putIfAbsent(phoneKey(e.getPhonePrimary()), e.getContactId());
+            idByEmail.putIfAbsent(emailKey(e.getEmail()), e.getContactId());
+        }
+
+        List<Contact> rows = new ArrayList<>(batch.size());
+        int matched = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            Contact c = batch.get(i);
+            Integer byPhone = idByPhone.get(phoneKey(c.getPhonePrimary()));
+            Integer byEmail = idByEmail.get(emailKey(c.getEmail()));
+
+            if (byPhone != null && byEmail != null && !byPhone.equals(byEmail)) {
+                tally.invalid++;
+                tally.error(lines.get(i), "Phone matches contact " + byPhone
+                        + " but email matches contact " + byEmail + ".");
+                continue;
+            }
+
+            int id = byPhone != null ? byPhone : byEmail != null ? byEmail : 0;
+            if (id > 0) {
+                if (!idsUpdated.add(id)) {
+                    tally.duplicates++;
+                    continue;
+                }
+                matched++;
+            }
+            c.setContactId(id);
+            rows.add(c);
+        }
+        if (rows.isEmpty()) return true;
+
+        if (contactDao.upsertContacts(rows) < 0) return false;
+
+        tally.updated += matched;
+        tally.inserted += rows.size() - matched;
+        return true;
+    }
+
+    private static String phoneKey(String phone) {
+        return Validator.normalizePhone(phone);
+    }
+
+    /** Emails are compared ignoring case, like the utf8mb4_turkish_ci column. */
+    private static String emailKey(String email) {
+        return email.trim().toLowerCase(TR);
+    }
+
+    /**
+     * 64-bit FNV-1a hash; the sets keep fingerprints instead of strings so a
+     * file of millions of rows costs a few megabytes.
+     */
+    private static long fingerprint(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // ===========================================================
+    // CHUNKS
+    // ===========================================================
+
+    /** Records as read from the file, with the line each one starts on. */
+    private static final class RawChunk {
+        final List<String> records = new ArrayList<>(CHUNK_SIZE);
+        final int[] lines = new int[CHUNK_SIZE];
+
+        void add(String record, int line) {
+            lines[records.size()] = line;
+            records.add(record);
+        }
+
+        int size() {
+            return records.size();
+        }
+    }
+
+    /** Valid contacts of a chunk and the errors of the others. */
+    private static final class ParsedChunk {
+        final int records;
+        final List<Contact> contacts;
+        final int[] lines;
+        final List<Map.Entry<Integer, String>> errors = new ArrayList<>();
+
+        ParsedChunk(int records) {
+            this.records = records;
+            this.contacts = new ArrayList<>(records);
+            this.lines = new int[records];
+        }
+
+        void accept(Contact c, int line) {
+            lines[contacts.size()] = line;
+            contacts.add(c);
+        }
+
+        void reject(int line, String message) {
+            errors.add(Map.entry(line, message));
+        }
+
+        int firstLine() {
+            if (!contacts.isEmpty()) return lines[0];
+            return errors.isEmpty() ? 0 : errors.get(0).getKey();
+        }
+    }
+
+    /** Running counts; only touched by the writer. */
+    private static final class Tally {
+        final long started = System.nanoTime();
+        final List<String> errors = new ArrayList<>();
+        long read;
+        long inserted;
+        long updated;
+        long duplicates;
+        long invalid;
+        String stopReason;
+
+        void error(Map.Entry<Integer, String> error) {
+            error(error.getKey(), error.getValue());
+        }
+
+        void error(int line, String message) {
+            if (errors.size() < MAX_ERRORS) errors.add("Line " + line + ": " + message);
+        }
+
+        void stop(String reason) {
+            stopReason = reason;
+        }
+
+        ImportReport report() {
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            return new ImportReport(read, inserted, updated, duplicates, invalid, errors, millis, stopReason);
+        }
+    }
+
+    // ===========================================================
+    // FILE FORMATS
+    // ===========================================================
+
+    /**
+     * Splits a file into records (reader thread) and turns a record into a
+     * contact (worker threads, so it must be thread-safe).
+     */
+    private interface RecordSource extends Closeable {
+
+        /**
+         * Adds the next record to the chunk.
+         *
+         * @return false at the end of the file
+         */
+        boolean read(RawChunk chunk) throws IOException;
+
+        Contact parse(String record) throws ValidationException;
+    }
+
+    /**
+     * CSV with a header row naming the columns. Fields are separated by
+     * commas, or by semicolons if the header has no comma; quoted fields may
+     * contain separators, doubled quotes and line breaks.
+     */
+    private static final class CsvSource implements RecordSource {
+        private final BufferedReader in;
+        private final char separator;
+        private final int[] columns;    // field position -> column index, -1 if ignored
+        private int lineNo;
+
+        CsvSource(BufferedReader in) throws IOException, ValidationException {
+            this.in = in;
+
+            String header = nextRecord();
+            if (header == null) throw new ValidationException("The file is empty.");
+            if (header.startsWith("\uFEFF")) header = header.substring(1);
+            this.separator = header.indexOf(',') < 0 && header.indexOf(';') >= 0 ? ';' : ',';
+
+            List<String> names = split(header, separator);
+            this.columns = new int[names.size()];
+            boolean[] present = new boolean[ContactColumns.NAMES.size()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = ContactColumns.indexOf(names.get(i));
+                if (columns[i] >= 0) present[columns[i]] = true;
+            }
+            for (String required : ContactColumns.REQUIRED) {
+                if (!present[ContactColumns.NAMES.indexOf(required)]) {
+                    throw new ValidationException("The file has no '" + required + "' column.");
+                }
+            }
+        }
+
+        @Override
+        public boolean read(RawChunk chunk) throws IOException {
+            int line = lineNo + 1;
+            String record = nextRecord();
+            if (record == null) return false;
+            chunk.add(record, line);
+            return true;
+        }
+
+        /**
+         * Reads lines until the quotes are balanced; blank lines are skipped.
+         */
+        private String nextRecord() throws IOException {
+            String line;
+            do {
+                line = in.readLine();
+                if (line == null) return null;
+                lineNo++;
+            } while (line.isBlank());
+
+            if (line.indexOf('"') < 0) return line;
+
+            StringBuilder record = new StringBuilder(line);
+            boolean open = (count(line, '"') & 1) == 1;
+            while (open && (line = in.readLine()) != null) {
+                lineNo++;
+                record.append('\n').append(line);
+                open ^= (count(line, '"') & 1) == 1;
+            }
+            return record.toString();
+        }
+
+        @Override
+        public Contact parse(String record) throws ValidationException {
+            List<String> fields = split(record, separator);
+            Contact c = new Contact();
+            for (int i = 0; i < Math.min(fields.size(), columns.length); i++) {
+                if (columns[i] >= 0) ContactColumns.set(c, columns[i], fields.get(i));
+            }
+            return c;
+        }
+
+        private static List<String> split(String record, char separator) {
+            List<String> fields = new ArrayList<>(ContactColumns.NAMES.size());
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+
+            for (int i = 0; i < record.length(); i++) {
+                char ch = record.charAt(i);
+                if (quoted) {
+                    if (ch != '"') {
+                        field.append(ch);
+                    } else if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (ch == '"') {
+                    quoted = true;
+                } else if (ch == separator) {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(ch);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private static int count(String s, char ch) {
+            int n = 0;
+            for (int i = 0; i < s.length(); i++) {
+                if (s.charAt(i) == ch) n++;
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * A JSON array of flat objects, or one object per line. Keys are column
+     * names; values are strings, numbers or null. Unknown keys are ignored.
+     */
+    private static final class JsonSource implements RecordSource {
+        private final BufferedReader in;
+        private final char[] buffer = new char[64 * 1024];
+        private int position;
+        private int limit;
+        private int lineNo = 1;
+
+        JsonSource(BufferedReader in) {
+            this.in = in;
+        }
+
+        /**
+         * Skips to the next top-level object and reads it up to its closing brace.
+         */
+        @Override
+        public boolean read(RawChunk chunk) throws IOException {
+            int ch;
+            while ((ch = next()) != '{') {
+                if (ch < 0) return false;
+                if (ch != '[' && ch != ']' && ch != ',' && ch != '\uFEFF' && !Character.isWhitespace(ch)) {
+                    throw new IOException("Unexpected '" + (char) ch + "' on line " + lineNo
+                            + ". Expected a JSON array of objects or one object per line.");
+                }
+            }
+
+            int line = lineNo;
+            StringBuilder object = new StringBuilder("{");
+            int depth = 1;
+            boolean inString = false;
+            while (depth > 0) {
+                ch = next();
+                if (ch < 0) throw new IOException("The object starting on line " + line + " is not closed.");
+                object.append((char) ch);
+
+                if (inString) {
+                    if (ch == '\\') {
+                        int escaped = next();
+                        if (escaped >= 0) object.append((char) escaped);
+                    } else if (ch == '"') {
+                        inString = false;
+                    }
+                } else if (ch == '"') {
+                    inString = true;
+                } else if (ch == '{' || ch == '[') {
+                    depth++;
+                } else if (ch == '}' || ch == ']') {
+                    depth--;
+                }
+            }
+            chunk.add(object.toString(), line);
+            return true;
+        }
+
+        private int next() throws IOException {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            char ch = buffer[position++];
+            if (ch == '\n') lineNo++;
+            return ch;
+        }
+
+        @Override
+        public Contact parse(String record) throws ValidationException {
+            Contact c = new Contact();
+            JsonObjectReader reader = new JsonObjectReader(record);
+            String key;
+            while ((key = reader.nextKey()) != null) {
+                String value = reader.nextValue(key);
+                int column = ContactColumns.indexOf(key);
+                if (column >= 0) ContactColumns.set(c, column, value);
+            }
+            return c;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * Reads the members of one flat JSON object.
+     */
+    private static final class JsonObjectReader {
+        private final String text;
+        private int i = 1;      // after the opening brace
+
+        JsonObjectReader(String text) {
+            this.text = text;
+        }
+
+        /**
+         * @return the next key, or null after the last member
+         */
+        String nextKey() throws ValidationException {
+            skipSpace();
+            if (peek() == ',') {
+                i++;
+                skipSpace();
+            }
+            if (peek() == '}') return null;
+
+            String key = string();
+            skipSpace();
+            if (peek() != ':') throw malformed();
+            i++;
+            return key;
+        }
+
+        /**
+         * @return the value as text; null for JSON null
+         */
+        String nextValue(String key) throws ValidationException {
+            skipSpace();
+            char ch = peek();
+            if (ch == '"') return string();
+            if (ch == '{' || ch == '[') {
+                throw new ValidationException("Value of '" + key + "' must be a string, number or null.");
+            }
+
+            int start = i;
+            while (i < text.length() && ",} \t\r\n".indexOf(text.charAt(i)) < 0) i++;
+            String literal = text.substring(start, i);
+            if (literal.isEmpty()) throw malformed();
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String string() throws ValidationException {
+            if (peek() != '"') throw malformed();
+            i++;
+
+            StringBuilder sb = new StringBuilder();
+            while (i < text.length()) {
+                char ch = text.charAt(i++);
+                if (ch == '"') return sb.toString();
+                if (ch != '\\') {
+                    sb.append(ch);
+                    continue;
+                }
+                if (i >= text.length()) break;
+                char escaped = text.charAt(i++);
+                switch (escaped) {
+                    case 'n' -> sb.append('\n');
+                    case 't' -> sb.append('\t');
+                    case 'r' -> sb.append('\r');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        if (i + 4 > text.length()) throw malformed();
+                        try {
+                            sb.append((char) Integer.parseInt(text.substring(i, i + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw malformed();
+                        }
+                        i += 4;
+                    }
+                    default -> sb.append(escaped);
+                }
+            }
+            throw malformed();
+        }
+
+        private void skipSpace() {
+            while (i < text.length() && Character.isWhitespace(text.charAt(i))) i++;
+        }
+
+        private char peek() throws ValidationException {
+            if (i >= text.length()) throw malformed();
+            return text.charAt(i);
+        }
+
+        private static ValidationException malformed() {
+            return new ValidationException("Malformed JSON object.");
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.project.cms.service;
+
+import com.project.cms.dao.contact.ContactDao;
+import com.project.cms.dao.contact.ContactDaoImpl;
+import com.project.cms.dao.user.InMemoryUserDao;
+import com.project.cms.model.Contact;
+import com.project.cms.model.RoleType;
+import com.project.cms.model.User;
+import com.project.cms.util.DbConnection;
+import com.project.cms.util.RoundTrips;
+import java.sql.Connection;
+import java.util.Objects;
+
+/**
+ * Checks how many database round trips the create and restore paths of
+ * {@link ContactServiceImpl} cost. Runs against the configured database
+ * ({@code cms.db.url}) and removes the contacts it creates.
+ */
+public class ContactRoundTripTest {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("Running Contact Round Trip Tests...\n");
+
+        try (Connection conn = DbConnection.getConnection()) {
+            if (conn == null) {
+                System.out.println("SKIP: no database connection");
+                return;
+            }
+        }
+
+        ContactDao contactDao = new ContactDaoImpl();
+        UserServiceImpl userService = new UserServiceImpl(new InMemoryUserDao(), null);
+        ContactServiceImpl contactService = new ContactServiceImpl(contactDao, null, userService);
+        UndoServiceImpl undoService = new UndoServiceImpl(contactService, userService);
+        userService.setUndoService(undoService);
+        contactService.setUndoService(undoService);
+
+        User user = new User();
+        user.setUserId(3000);
+        user.setUsername("roundtrip");
+        user.setRole(RoleType.SENIOR_DEVELOPER);
+
+        // the first calls open the connection and prepare the statements on it
+        Contact warm = contactService.createContact(contact("warm"), user);
+        contactDao.deleteContactById(warm.getContactId());
+        contactService.restoreContact(warm, user);
+        contactDao.deleteContactById(warm.getContactId());
+
+        testCreate(contactService, contactDao, user);
+        testRestore(contactService, contactDao, user);
+
+        System.out.println("\nAll tests finished.");
+    }
+
+    private static void testCreate(ContactServiceImpl contactService, ContactDao contactDao, User user) throws Exception {
+        System.out.println("=== Create Test ===");
+
+        RoundTrips.reset();
+        Contact saved = contactService.createContact(contact("create"), user);
+        long trips = RoundTrips.count();
+
+        check(trips == 1, "Create cost " + trips + " round trip(s)");
+        check(sameRow(saved, contactDao.findById(saved.getContactId())), "Returned contact matches the stored row");
+
+        contactDao.deleteContactById(saved.getContactId());
+    }
+
+    private static void testRestore(ContactServiceImpl contactService, ContactDao contactDao, User user) throws Exception {
+        System.out.println("=== Restore Test ===");
+
+        Contact deleted = contactService.createContact(contact("restore"), user);
+        contactDao.deleteContactById(deleted.getContactId());
+
+        RoundTrips.reset();
+        Contact saved = contactService.restoreContact(deleted, user);
+        long trips = RoundTrips.count();
+
+        check(trips == 1, "Restore cost " + trips + " round trip(s)");
+        check(saved.getContactId() == deleted.getContactId(), "Restored contact keeps its ID");
+        check(sameRow(saved, contactDao.findById(saved.getContactId())), "Returned contact matches the stored row");
+
+        contactDao.deleteContactById(saved.getContactId());
+    }
+
+    private static boolean sameRow(Contact returned, Contact stored) {
+        return stored != null
+                && returned.getContactId() == stored.getContactId()
+                && Objects.equals(returned.getFirstName(), stored.getFirstName())
+                && Objects.equals(returned.getPhonePrimary(), stored.getPhonePrimary())
+                && Objects.equals(returned.getCreatedAt(), stored.getCreatedAt())
+                && Objects.equals(returned.getUpdatedAt(), stored.getUpdatedAt())
+                && returned.getVersion() == stored.getVersion();
+    }
+
+    private static void check(boolean passed, String message) {
+        System.out.println((passed ? "PASS: " : "FAIL: ") + message);
+    }
+
+    private static Contact contact(String nickname) {
+        Contact c = new Contact();
+        c.setFirstName("Round");
+        c.setLastName("Trip");
+        c.setNickname(nickname);
+        c.setCity("Izmir");
+        c.setPhonePrimary("+905551234567");
+        c.setEmail("roundtrip@example.com");
+        return c;
+    }
+}
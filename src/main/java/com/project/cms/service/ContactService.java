@@ -1,12 +1,19 @@
 package com.project.cms.service;
 
+import com.project.cms.dao.contact.BatchInsertResult;
 import com.project.cms.exception.AppExceptions.AccessDeniedException;
 import com.project.cms.exception.AppExceptions.ContactNotFoundException;
+import com.project.cms.exception.AppExceptions.OptimisticLockException;
 import com.project.cms.exception.AppExceptions.ValidationException;
 import com.project.cms.model.Contact;
+import com.project.cms.model.ContactPage;
+import com.project.cms.model.PageCursor;
 import com.project.cms.model.SearchCriteria;
 import com.project.cms.model.User;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Defines the main operations for managing contacts.
@@ -43,17 +50,76 @@ public interface ContactService {
             throws ValidationException, AccessDeniedException;
 
 
+    // BULK CREATE (Senior only)
+    /**
+     * Creates several contacts with one batched insert and records a single
+     * undo action for all contacts that were created.
+     * @param contacts - the contacts to be created
+     * @param performingUser - the user performing the operation
+     * @return generated IDs in input order and the rows the database rejected
+     * @throws ValidationException - if any contact is invalid (nothing is created then)
+     * @throws AccessDeniedException - if the user does not have Senior role
+     */
+    BatchInsertResult createContacts(List<Contact> contacts, User performingUser)
+            throws ValidationException, AccessDeniedException;
+
+
+    // BULK RESTORE (For Undo - preserves IDs)
+    /**
+     * Restores previously deleted contacts in one transaction during an Undo operation.
+     * @param contacts - the contacts to restore, with their original IDs
+     * @param performingUser - the user performing the restoration
+     * @return the number of contacts restored
+     * @throws ValidationException if any contact is invalid (nothing is restored then)
+     * @throws AccessDeniedException if the user is not authorized to perform this operation
+     */
+    int restoreContacts(List<Contact> contacts, User performingUser)
+            throws ValidationException, AccessDeniedException;
+
+
+    // IMPORT FROM FILE (Senior only)
+    /**
+     * Imports contacts from a CSV or JSON file. Records matching an existing
+     * contact by primary phone or email update it; the rest are inserted.
+     * Imports are not recorded for undo.
+     * @param file - the .csv, .json or .jsonl file to import
+     * @param performingUser - the user performing the import
+     * @param progress - receives progress reports while the import runs (may be null)
+     * @return counts of inserted, updated, duplicate and invalid records
+     * @throws ValidationException - if the file type is not supported or a required column is missing
+     * @throws AccessDeniedException - if the user does not have Senior role
+     * @throws IOException - if the file cannot be read
+     */
+    ImportReport importContacts(Path file, User performingUser, Consumer<ImportReport> progress)
+            throws ValidationException, AccessDeniedException, IOException;
+
+
+    // EXPORT TO FILE
+    /**
+     * Exports all contacts to a file, streaming them from the database.
+     * The format follows the extension: .csv, .ndjson (or .jsonl) or .cmsc (columnar).
+     * @param file - the file to write (replaced if it exists)
+     * @return the number of contacts exported
+     * @throws ValidationException - if the file type is not supported
+     * @throws IOException - if the file cannot be written
+     */
+    int exportContacts(Path file) throws ValidationException, IOException;
+
+
     // UPDATE (Junior + Senior)
     /**
      * Updates an existing contact.
+     * The contact must carry the version it was read with; on success its
+     * version is set to the new one.
      * @param updated - the updated contact object
      * @param performingUser - the user performing the update
      * @throws ValidationException - if updated fields are invalid
      * @throws ContactNotFoundException - if the contact does not exist
      * @throws AccessDeniedException - if the user is not allowed to update
+     * @throws OptimisticLockException - if the contact was changed by someone else since it was read
      */
     void updateContact(Contact updated, User performingUser)
-            throws ValidationException, ContactNotFoundException, AccessDeniedException;
+            throws ValidationException, ContactNotFoundException, AccessDeniedException, OptimisticLockException;
 
      /**
       * Updates an existing contact with the option to disable Undo recording.
@@ -63,9 +129,10 @@ public interface ContactService {
       * @throws ValidationException - if updated fields are invalid
       * @throws ContactNotFoundException - if the contact does not exist
       * @throws AccessDeniedException - if the user is not allowed to update
+      * @throws OptimisticLockException - if the contact was changed by someone else since it was read
       */
     void updateContact(Contact updated, User performingUser, boolean recordUndo)
-            throws ValidationException, ContactNotFoundException, AccessDeniedException;
+            throws ValidationException, ContactNotFoundException, AccessDeniedException, OptimisticLockException;
 
 
 
@@ -93,6 +160,46 @@ public interface ContactService {
             throws ContactNotFoundException, AccessDeniedException;
 
 
+    // BULK DELETE (Senior only)
+    /**
+     * Deletes several contacts in one transaction and records a single undo
+     * action for all of them. IDs that do not exist are skipped.
+     * @param contactIds - the IDs of the contacts to delete
+     * @param performingUser - the user performing the deletion
+     * @return the number of contacts deleted
+     * @throws ContactNotFoundException - if none of the IDs exists
+     * @throws AccessDeniedException - if the user cannot delete
+     */
+    int deleteContacts(List<Integer> contactIds, User performingUser)
+            throws ContactNotFoundException, AccessDeniedException;
+
+    /**
+     * Deletes several contacts with an option to disable Undo recording.
+     * @param contactIds - the IDs of the contacts to delete
+     * @param performingUser - the user performing the deletion
+     * @param recordUndo - whether an undo action should be recorded
+     * @return the number of contacts deleted
+     * @throws ContactNotFoundException - if none of the IDs exists
+     * @throws AccessDeniedException - if the user cannot delete
+     */
+    int deleteContacts(List<Integer> contactIds, User performingUser, boolean recordUndo)
+            throws ContactNotFoundException, AccessDeniedException;
+
+    /**
+     * Deletes contacts only if none of them was changed or deleted since the
+     * given versions were read, e.g. to undo their creation. The check and the
+     * delete run in one transaction; on a conflict nothing is deleted. No undo
+     * action is recorded.
+     * @param expected - the contacts with the ID and version they must still have
+     * @param performingUser - the user performing the deletion
+     * @return the number of contacts deleted
+     * @throws AccessDeniedException - if the user cannot delete
+     * @throws OptimisticLockException - if a contact was changed or deleted meanwhile
+     */
+    int deleteContactsIfUnchanged(List<Contact> expected, User performingUser)
+            throws AccessDeniedException, OptimisticLockException;
+
+
     // GET SINGLE CONTACT
     /**
      * Gets one contact by ID.
@@ -111,6 +218,14 @@ public interface ContactService {
      */
     List<Contact> getAllContacts();
 
+    /**
+     * Streams all contacts to {@code sink} one row at a time instead of
+     * building the whole list in memory.
+     * @param sink - receives every contact ordered by ID
+     * @return the number of contacts delivered, or -1 if the read failed
+     */
+    int streamAllContacts(Consumer<Contact> sink);
+
 
     // SORT CONTACTS
     /**
@@ -121,6 +236,15 @@ public interface ContactService {
      */
     List<Contact> sortContacts(String field, boolean ascending);
 
+    /**
+     * Streaming variant of {@link #sortContacts(String, boolean)}.
+     * @param field - the field name to sort by
+     * @param ascending - true for ascending, false for descending
+     * @param sink - receives every contact in sort order
+     * @return the number of contacts delivered, or -1 if the read failed
+     */
+    int streamSortedContacts(String field, boolean ascending, Consumer<Contact> sink);
+
     // SEARCH (OR logic)
     /**
      * 
@@ -131,4 +255,29 @@ public interface ContactService {
      */
     public List<Contact> searchContacts(SearchCriteria criteria, User performingUser)
             throws AccessDeniedException;
+
+
+    // PAGINATION (keyset)
+    /**
+     * Gets one page of contacts sorted by a field, continuing after {@code after}.
+     * Use "contact_id" as field for the plain listing order.
+     * @param field - the field name to sort by
+     * @param ascending - true for ascending, false for descending
+     * @param after - cursor of the previous page, or null for the first page
+     * @param pageSize - maximum number of contacts on the page
+     * @return the page and the cursor for the next one
+     */
+    ContactPage getContactsPage(String field, boolean ascending, PageCursor after, int pageSize);
+
+    /**
+     * Gets one page of search results, continuing after {@code after}.
+     * @param criteria - the search rules
+     * @param performingUser - the user doing the search
+     * @param after - cursor of the previous page, or null for the first page
+     * @param pageSize - maximum number of contacts on the page
+     * @return the page and the cursor for the next one
+     * @throws AccessDeniedException - if the user cannot search
+     */
+    ContactPage searchContactsPage(SearchCriteria criteria, User performingUser, PageCursor after, int pageSize)
+            throws AccessDeniedException;
 }
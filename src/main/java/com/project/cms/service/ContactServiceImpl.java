@@ -1,16 +1,27 @@
 package com.project.cms.service;
 
+import com.project.cms.dao.DaoFactory;
+import com.project.cms.dao.contact.BatchInsertResult;
 import com.project.cms.dao.contact.ContactDao;
-import com.project.cms.dao.contact.ContactDaoImpl;
 import com.project.cms.exception.AppExceptions.AccessDeniedException;
 import com.project.cms.exception.AppExceptions.ContactNotFoundException;
+import com.project.cms.exception.AppExceptions.OptimisticLockException;
 import com.project.cms.exception.AppExceptions.ValidationException;
 import com.project.cms.model.Contact;
+import com.project.cms.model.ContactPage;
+import com.project.cms.model.PageCursor;
 import com.project.cms.model.SearchCriteria;
 import com.project.cms.model.UndoAction;
 import com.project.cms.model.User;
+import com.project.cms.model.role.Operation;
+import com.project.cms.util.UnitOfWork;
 import com.project.cms.util.Validator;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Implementation of ContactService.
@@ -21,16 +32,30 @@ import java.util.List;
 
 public class ContactServiceImpl implements ContactService {
 
-    private final ContactDao contactDao = new ContactDaoImpl();
+    private final ContactDao contactDao;
     private  UndoService undoService;
     private final UserService userService;
+    private ContactStatisticsStore statisticsStore;
 
     /**
-     * 
+     * Uses the DAO of the configured storage backend (by default the MySQL
+     * DAO behind a read-through contact cache, see {@link DaoFactory}).
+     *
      * @param undoService - the undo service used to record undo actions
      * @param userService - the user service used for role permission checks
      */
     public ContactServiceImpl(UndoService undoService, UserService userService) {
+        this(DaoFactory.contactDao(), undoService, userService);
+    }
+
+    /**
+     * 
+     * @param contactDao - the DAO used for all contact persistence
+     * @param undoService - the undo service used to record undo actions
+     * @param userService - the user service used for role permission checks
+     */
+    public ContactServiceImpl(ContactDao contactDao, UndoService undoService, UserService userService) {
+        this.contactDao = contactDao;
         this.undoService = undoService;
         this.userService = userService;
     }
@@ -43,6 +68,14 @@ public class ContactServiceImpl implements ContactService {
         this.undoService = undoService;
     }
 
+    /**
+     * 
+     * @param statisticsStore - the store notified of every contact change (may be null)
+     */
+    public void setStatisticsStore(ContactStatisticsStore statisticsStore) {
+        this.statisticsStore = statisticsStore;
+    }
+
     /* =========================================================
        CREATE CONTACT  (Senior Only)
     ========================================================= */
@@ -51,29 +84,22 @@ public class ContactServiceImpl implements ContactService {
             throws ValidationException, AccessDeniedException {
 
         // Role check
-        try {
-            userService.getPermissionsFor(performingUser).addNewContactOrContacts();
-        } catch (UnsupportedOperationException e) {
+        if (!userService.isAllowed(performingUser, Operation.ADD_CONTACTS))
             throw new AccessDeniedException("Only Senior Developer can create contacts.");
-        }
 
         // Validate
         Validator.validateContact(contact);
+        normalizePhones(contact);
 
-        // Insert → returns new ID
-        // Insert → returns new ID
-        int newId = contactDao.addContact(contact);
-        
-        if (newId == -1) {
-            throw new RuntimeException("Database error: Failed to create contact.");
-        }
+        // Insert → returns the stored contact, no read back
+        Contact saved = contactDao.addContactReturning(contact);
 
-        Contact saved = contactDao.findById(newId);
-        
         if (saved == null) {
-            throw new RuntimeException("Database error: Contact created but could not be retrieved.");
+            throw new RuntimeException("Database error: Failed to create contact.");
         }
 
+        if (statisticsStore != null) statisticsStore.onCreate(saved);
+
         // Undo: CREATE → undo = DELETE
         undoService.recordUndoAction(
                 performingUser,
@@ -91,73 +117,199 @@ public class ContactServiceImpl implements ContactService {
             throws ValidationException, AccessDeniedException {
 
         // Role check (same as create)
-        try {
-            userService.getPermissionsFor(performingUser).addNewContactOrContacts();
-        } catch (UnsupportedOperationException e) {
+        if (!userService.isAllowed(performingUser, Operation.ADD_CONTACTS))
             throw new AccessDeniedException("Only Senior Developer can restore contacts.");
-        }
 
         // Validate
         Validator.validateContact(contact);
+        normalizePhones(contact);
 
-        // Insert with specific ID
-        int restoredId = contactDao.addContactWithId(contact);
-        
-        if (restoredId == -1) {
-            throw new RuntimeException("Database error: Failed to restore contact.");
-        }
+        // Insert with specific ID → returns the stored contact
+        Contact saved = contactDao.addContactWithIdReturning(contact);
 
-        Contact saved = contactDao.findById(restoredId);
-        
         if (saved == null) {
-            throw new RuntimeException("Database error: Contact restored but could not be retrieved.");
+            throw new RuntimeException("Database error: Failed to restore contact.");
         }
 
+        if (statisticsStore != null) statisticsStore.onCreate(saved);
+
         // No new undo record here to avoid infinite loops or complex undo stacks
         return saved;
     }
 
+    /* =========================================================
+       BULK CREATE (Senior Only)
+    ========================================================= */
+    @Override
+    public BatchInsertResult createContacts(List<Contact> contacts, User performingUser)
+            throws ValidationException, AccessDeniedException {
+
+        // Role check
+        if (!userService.isAllowed(performingUser, Operation.ADD_CONTACTS))
+            throw new AccessDeniedException("Only Senior Developer can create contacts.");
+
+        validateAll(contacts);
+
+        BatchInsertResult result = contactDao.addContactsBatch(contacts, ContactDao.DEFAULT_BATCH_SIZE, true);
+
+        // the batch is not read back; created_at is approximated locally
+        List<Contact> created = new ArrayList<>(result.getSuccessCount());
+        for (int i = 0; i < contacts.size(); i++) {
+            if (result.getIdAt(i) <= 0) continue;
+            Contact saved = new Contact(contacts.get(i));
+            saved.setContactId(result.getIdAt(i));
+            if (saved.getCreatedAt() == null) saved.setCreatedAt(LocalDateTime.now());
+            created.add(saved);
+        }
+
+        if (statisticsStore != null) created.forEach(statisticsStore::onCreate);
+
+        // Undo: BULK CREATE → delete all of them
+        if (!created.isEmpty()) {
+            undoService.recordUndoAction(
+                    performingUser,
+                    UndoAction.forContactBulkCreate(created)
+            );
+        }
+
+        return result;
+    }
+
+    /* =========================================================
+       BULK RESTORE (For Undo - Preserves IDs)
+    ========================================================= */
+    @Override
+    public int restoreContacts(List<Contact> contacts, User performingUser)
+            throws ValidationException, AccessDeniedException {
+
+        // Role check (same as create)
+        if (!userService.isAllowed(performingUser, Operation.ADD_CONTACTS))
+            throw new AccessDeniedException("Only Senior Developer can restore contacts.");
+
+        validateAll(contacts);
+
+        // one transaction: all contacts come back or none
+        int restored = contactDao.addContactsWithIds(contacts);
+        if (restored == -1) {
+            throw new RuntimeException("Database error: Failed to restore contacts.");
+        }
+
+        if (statisticsStore != null) contacts.forEach(statisticsStore::onCreate);
+
+        // No new undo record here, as in restoreContact
+        return restored;
+    }
+
+    /* =========================================================
+       IMPORT FROM FILE (Senior Only)
+    ========================================================= */
+    @Override
+    public ImportReport importContacts(Path file, User performingUser, Consumer<ImportReport> progress)
+            throws ValidationException, AccessDeniedException, IOException {
+
+        // statistics are recounted once at the end instead of per row
+        return new ContactImportService(contactDao, userService, statisticsStore)
+                .importFile(file, performingUser, progress);
+    }
+
+    /* =========================================================
+       EXPORT TO FILE
+    ========================================================= */
+    @Override
+    public int exportContacts(Path file) throws ValidationException, IOException {
+        return new ContactExportService(contactDao).exportFile(file);
+    }
+
+    /**
+     * Validates every contact before a bulk write, so that an invalid row
+     * rejects the whole operation up front.
+     */
+    private void validateAll(List<Contact> contacts) throws ValidationException {
+        if (contacts == null || contacts.isEmpty())
+            throw new ValidationException("No contacts given.");
+
+        for (int i = 0; i < contacts.size(); i++) {
+            try {
+                Validator.validateContact(contacts.get(i));
+            } catch (ValidationException e) {
+                throw new ValidationException("Contact #" + (i + 1) + ": " + e.getMessage());
+            }
+            normalizePhones(contacts.get(i));
+        }
+    }
+
+    /**
+     * Stores phones without separators, the form the import matches
+     * existing contacts by.
+     */
+    private static void normalizePhones(Contact c) {
+        c.setPhonePrimary(Validator.normalizePhone(c.getPhonePrimary()));
+        c.setPhoneSecondary(Validator.normalizePhone(c.getPhoneSecondary()));
+    }
+
     /* =========================================================
        UPDATE CONTACT (Junior + Senior)
     ========================================================= */
     @Override
     public void updateContact(Contact updated, User performingUser)
-            throws ValidationException, ContactNotFoundException, AccessDeniedException {
+            throws ValidationException, ContactNotFoundException, AccessDeniedException, OptimisticLockException {
         updateContact(updated, performingUser, true);
     }
 
     @Override
     public void updateContact(Contact updated, User performingUser, boolean recordUndo)
-            throws ValidationException, ContactNotFoundException, AccessDeniedException {
+            throws ValidationException, ContactNotFoundException, AccessDeniedException, OptimisticLockException {
 
         // Role check
-        try {
-            userService.getPermissionsFor(performingUser).updateExistingContact();
-        } catch (UnsupportedOperationException e) {
+        if (!userService.isAllowed(performingUser, Operation.UPDATE_CONTACT))
             throw new AccessDeniedException("Only Junior/Senior can update contacts.");
-        }
-
-        // Find old contact
-        Contact old = contactDao.findById(updated.getContactId());
-        if (old == null)
-            throw new ContactNotFoundException("Contact not found.");
 
-        // Validate new version
-        Validator.validateContact(updated);
+        // Read the old row and write the new one in one transaction
+        Contact old;
+        try (UnitOfWork work = UnitOfWork.begin()) {
+            // may come from the cache; the versioned UPDATE below catches a stale copy
+            old = contactDao.findById(updated.getContactId());
+            if (old != null && old.getVersion() != updated.getVersion())
+                old = contactDao.findCurrentById(updated.getContactId());
+            if (old == null)
+                throw new ContactNotFoundException("Contact not found.");
+            if (old.getVersion() != updated.getVersion())
+                throw conflict(updated.getContactId());
+
+            // Validate new version
+            Validator.validateContact(updated);
+            normalizePhones(updated);
+
+            // Row is only written if it still has the version it was read with
+            boolean ok = contactDao.updateContact(updated);
+            if (!ok) {
+                Contact current = contactDao.findCurrentById(updated.getContactId());
+                if (current == null)
+                    throw new ContactNotFoundException("Contact not found.");
+                if (current.getVersion() != updated.getVersion())
+                    throw conflict(updated.getContactId());
+                throw new ContactNotFoundException("Update failed.");
+            }
+            work.commit();
+        }
+        updated.setVersion(updated.getVersion() + 1);
 
-        boolean ok = contactDao.updateContact(updated);
-        if (!ok)
-            throw new ContactNotFoundException("Update failed.");
+        if (statisticsStore != null) statisticsStore.onUpdate(old, updated);
 
         // Undo: UPDATE → restore old version
         if (recordUndo) {
             undoService.recordUndoAction(
                     performingUser,
-                    UndoAction.forContactUpdate(old, updated)
+                    UndoAction.forContactUpdate(old, new Contact(updated))
             );
         }
     }
 
+    private static OptimisticLockException conflict(int contactId) {
+        return new OptimisticLockException("Contact " + contactId
+                + " was changed by another user in the meantime. Reload it and try again.");
+    }
+
     /* =========================================================
        DELETE CONTACT (Senior Only)
     ========================================================= */
@@ -172,19 +324,31 @@ public class ContactServiceImpl implements ContactService {
             throws ContactNotFoundException, AccessDeniedException {
 
         // Role check
-        try {
-            userService.getPermissionsFor(performingUser).deleteExistingContactOrContacts();
-        } catch (UnsupportedOperationException e) {
+        if (!userService.isAllowed(performingUser, Operation.DELETE_CONTACTS))
             throw new AccessDeniedException("Only Senior Developer can delete contacts.");
-        }
 
-        Contact old = contactDao.findById(contactId);
-        if (old == null)
-            throw new ContactNotFoundException("Contact not found.");
+        // The deleted row is the one recorded for undo
+        Contact old;
+        try (UnitOfWork work = UnitOfWork.begin()) {
+            old = contactDao.findById(contactId);
+            if (old == null)
+                throw new ContactNotFoundException("Contact not found.");
+
+            // the version check tells whether a cached pre-image was still current
+            List<Integer> changed = contactDao.deleteContactsIfUnchanged(List.of(old));
+            if (changed == null)
+                throw new ContactNotFoundException("Delete failed.");
+            if (!changed.isEmpty()) {
+                old = contactDao.findCurrentById(contactId);
+                if (old == null)
+                    throw new ContactNotFoundException("Contact not found.");
+                if (!contactDao.deleteContactById(contactId))
+                    throw new ContactNotFoundException("Delete failed.");
+            }
+            work.commit();
+        }
 
-        boolean ok = contactDao.deleteContactById(contactId);
-        if (!ok)
-            throw new ContactNotFoundException("Delete failed.");
+        if (statisticsStore != null) statisticsStore.onDelete(old);
 
         // Undo: DELETE → recreate old contact
         if (recordUndo) {
@@ -195,6 +359,75 @@ public class ContactServiceImpl implements ContactService {
         }
     }
 
+    /* =========================================================
+       BULK DELETE (Senior Only)
+    ========================================================= */
+    @Override
+    public int deleteContacts(List<Integer> contactIds, User performingUser)
+            throws ContactNotFoundException, AccessDeniedException {
+        return deleteContacts(contactIds, performingUser, true);
+    }
+
+    @Override
+    public int deleteContacts(List<Integer> contactIds, User performingUser, boolean recordUndo)
+            throws ContactNotFoundException, AccessDeniedException {
+
+        // Role check
+        if (!userService.isAllowed(performingUser, Operation.DELETE_CONTACTS))
+            throw new AccessDeniedException("Only Senior Developer can delete contacts.");
+
+        if (contactIds == null || contactIds.isEmpty())
+            throw new ContactNotFoundException("No contact IDs given.");
+
+        // pre-images are read inside the delete transaction, chunk by chunk
+        List<Contact> deleted = contactDao.deleteContactsReturning(contactIds);
+        if (deleted == null)
+            throw new RuntimeException("Database error: Failed to delete contacts.");
+        if (deleted.isEmpty())
+            throw new ContactNotFoundException("No matching contacts found.");
+
+        if (statisticsStore != null) deleted.forEach(statisticsStore::onDelete);
+
+        // Undo: BULK DELETE → recreate all of them
+        if (recordUndo) {
+            undoService.recordUndoAction(
+                    performingUser,
+                    UndoAction.forContactBulkDelete(deleted)
+            );
+        }
+
+        return deleted.size();
+    }
+
+    /* =========================================================
+       DELETE IF UNCHANGED (Senior Only, used by undo)
+    ========================================================= */
+    @Override
+    public int deleteContactsIfUnchanged(List<Contact> expected, User performingUser)
+            throws AccessDeniedException, OptimisticLockException {
+
+        // Role check
+        if (!userService.isAllowed(performingUser, Operation.DELETE_CONTACTS))
+            throw new AccessDeniedException("Only Senior Developer can delete contacts.");
+
+        if (expected == null || expected.isEmpty()) return 0;
+
+        // versions are compared on locked rows, in the delete transaction
+        List<Integer> changed = contactDao.deleteContactsIfUnchanged(expected);
+        if (changed == null)
+            throw new RuntimeException("Database error: Failed to delete contacts.");
+        if (!changed.isEmpty()) {
+            String which = changed.size() == 1 ? "Contact " + changed.get(0) + " was"
+                    : "Contacts " + changed.subList(0, Math.min(5, changed.size()))
+                            + (changed.size() > 5 ? " and " + (changed.size() - 5) + " more" : "") + " were";
+            throw new OptimisticLockException(which
+                    + " changed or deleted by another user in the meantime. Nothing was deleted.");
+        }
+
+        if (statisticsStore != null) expected.forEach(statisticsStore::onDelete);
+        return expected.size();
+    }
+
     /* =========================================================
        GET CONTACT BY ID
     ========================================================= */
@@ -217,6 +450,11 @@ public class ContactServiceImpl implements ContactService {
         return contactDao.findAll();
     }
 
+    @Override
+    public int streamAllContacts(Consumer<Contact> sink) {
+        return contactDao.streamAll(sink);
+    }
+
     /* =========================================================
        SORT CONTACTS
     ========================================================= */
@@ -225,6 +463,11 @@ public class ContactServiceImpl implements ContactService {
         return contactDao.findAllSorted(field, ascending);
     }
 
+    @Override
+    public int streamSortedContacts(String field, boolean ascending, Consumer<Contact> sink) {
+        return contactDao.streamAllSorted(field, ascending, sink);
+    }
+
     /* =========================================================
        SEARCH (OR LOGIC)
     ========================================================= */
@@ -233,11 +476,8 @@ public class ContactServiceImpl implements ContactService {
             throws AccessDeniedException {
 
         // Role check
-        try {
-            userService.getPermissionsFor(performingUser).searchBySingleField();
-        } catch (UnsupportedOperationException e) {
+        if (!userService.isAllowed(performingUser, Operation.SEARCH_BY_SINGLE_FIELD))
             throw new AccessDeniedException("You are not allowed to search contacts.");
-        }
 
         // if no criteria provided, return all contacts
         if (criteria == null || !criteria.hasCriteria()) {
@@ -246,6 +486,31 @@ public class ContactServiceImpl implements ContactService {
         
         return contactDao.search(criteria);
     }
+
+    /* =========================================================
+       PAGINATION (KEYSET)
+    ========================================================= */
+    @Override
+    public ContactPage getContactsPage(String field, boolean ascending, PageCursor after, int pageSize) {
+        return contactDao.findPage(field, ascending, after, pageSize);
+    }
+
+    @Override
+    public ContactPage searchContactsPage(SearchCriteria criteria, User performingUser,
+                                          PageCursor after, int pageSize)
+            throws AccessDeniedException {
+
+        // Role check
+        if (!userService.isAllowed(performingUser, Operation.SEARCH_BY_SINGLE_FIELD))
+            throw new AccessDeniedException("You are not allowed to search contacts.");
+
+        // if no criteria provided, page through all contacts
+        if (criteria == null || !criteria.hasCriteria()) {
+            return contactDao.findPage("contact_id", true, after, pageSize);
+        }
+
+        return contactDao.searchPage(criteria, after, pageSize);
+    }
     
 
 }
@@ -0,0 +1,328 @@
+package com.project.cms.service;
+
+import com.project.cms.dao.contact.ContactDao;
+import com.project.cms.model.Contact;
+import com.project.cms.model.StatisticsSnapshot;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * In-memory statistics kept up to date by deltas instead of table scans.
+ * <p>
+ * {@link ContactServiceImpl} reports every create, update, delete and restore
+ * to this store, which moves the affected counters up or down. Opening the
+ * dashboard then only reads the aggregates: its cost depends on the number of
+ * distinct names, cities and birth dates, not on the number of contacts.
+ * <p>
+ * Writes made outside the service (another client, a manual SQL statement)
+ * are not seen, so a background job periodically rebuilds the aggregates
+ * from the database. A rebuild that overlapped a delta is discarded and
+ * retried, because it cannot tell whether the scan already contained that
+ * change. Until the first rebuild succeeds the store is not ready and
+ * {@link #snapshot()} returns null.
+ * <p>
+ * The reconciliation interval can be set with the system property
+ * {@code cms.stats.reconcileIntervalMs}.
+ */
+public class ContactStatisticsStore {
+
+    /** Default time between two reconciliations with the database. */
+    public static final long DEFAULT_RECONCILE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    /** Rebuild attempts per reconciliation before waiting for the next one. */
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private final ContactDao contactDao;
+
+    // guarded by this
+    private Aggregates aggregates;
+    private long generation;
+
+    private ScheduledExecutorService reconciler;
+
+    /**
+     * @param contactDao the DAO used to rebuild the aggregates
+     */
+    public ContactStatisticsStore(ContactDao contactDao) {
+        this.contactDao = contactDao;
+    }
+
+    // ===========================================================
+    // LIFECYCLE
+    // ===========================================================
+
+    /**
+     * Builds the aggregates in the background and schedules the periodic
+     * reconciliation, using the configured or default interval.
+     */
+    public void start() {
+        start(Long.getLong("cms.stats.reconcileIntervalMs", DEFAULT_RECONCILE_INTERVAL_MILLIS));
+    }
+
+    /**
+     * Builds the aggregates in the background and schedules the periodic reconciliation.
+     *
+     * @param intervalMillis time between two reconciliations
+     */
+    public synchronized void start(long intervalMillis) {
+        if (reconciler != null) return;
+
+        reconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cms-stats-reconciler");
+            t.setDaemon(true);
+            return t;
+        });
+        reconciler.scheduleWithFixedDelay(this::reconcileQuietly, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic reconciliation.
+     */
+    public synchronized void shutdown() {
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+            reconciler = null;
+        }
+    }
+
+    /**
+     * @return true once the aggregates have been built from the database
+     */
+    public synchronized boolean isReady() {
+        return aggregates != null;
+    }
+
+    // ===========================================================
+    // RECONCILIATION
+    // ===========================================================
+
+    /**
+     * Rebuilds the aggregates from the database and replaces the current ones.
+     *
+     * @return true if the rebuild was installed, false if the read failed or
+     *         every attempt overlapped a concurrent change
+     */
+    public boolean reconcile() {
+        for (int attempt = 0; attempt < RECONCILE_ATTEMPTS; attempt++) {
+            long before;
+            synchronized (this) {
+                before = generation;
+            }
+
+            Aggregates fresh = new Aggregates();
+            if (contactDao.streamAll(fresh) < 0) return false;
+
+            synchronized (this) {
+                if (before == generation) {
+                    aggregates = fresh;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            System.out.println("⚠ Statistics reconciliation failed: " + e.getMessage());
+        }
+    }
+
+    // ===========================================================
+    // DELTAS
+    // ===========================================================
+
+    /**
+     * Records a newly created or restored contact.
+     *
+     * @param created the contact as stored
+     */
+    public synchronized void onCreate(Contact created) {
+        generation++;
+        if (aggregates != null) aggregates.apply(created, +1);
+    }
+
+    /**
+     * Records a change of an existing contact.
+     *
+     * @param before the contact before the update
+     * @param after  the contact after the update
+     */
+    public synchronized void onUpdate(Contact before, Contact after) {
+        generation++;
+        if (aggregates != null) {
+            aggregates.apply(before, -1);
+            aggregates.apply(after, +1);
+        }
+    }
+
+    /**
+     * Records a deleted contact.
+     *
+     * @param deleted the contact as it was before the delete
+     */
+    public synchronized void onDelete(Contact deleted) {
+        generation++;
+        if (aggregates != null) aggregates.apply(deleted, -1);
+    }
+
+    // ===========================================================
+    // SNAPSHOT
+    // ===========================================================
+
+    /**
+     * Builds a dashboard snapshot from the current aggregates.
+     *
+     * @return the snapshot, or null if the store is not ready yet
+     */
+    public synchronized StatisticsSnapshot snapshot() {
+        return aggregates == null ? null : aggregates.toSnapshot(LocalDate.now());
+    }
+
+    /**
+     * All counters of the dashboard. Also used as the sink of a rebuild scan.
+     */
+    private static final class Aggregates implements Consumer<Contact> {
+
+        private int total;
+        private int withLinkedin;
+        private final RankedCounts firstNames = new RankedCounts();
+        private final RankedCounts lastNames = new RankedCounts();
+        private final RankedCounts cities = new RankedCounts();
+        private final int[] birthMonths = new int[12];
+
+        /** Contacts with a birth date by date, then ID; only name fields are kept. */
+        private final NavigableMap<LocalDate, TreeMap<Integer, Contact>> byBirthDate = new TreeMap<>();
+
+        @Override
+        public void accept(Contact c) {
+            apply(c, +1);
+        }
+
+        void apply(Contact c, int delta) {
+            total += delta;
+            if (c.getLinkedinUrl() != null && !c.getLinkedinUrl().isEmpty()) withLinkedin += delta;
+
+            firstNames.add(c.getFirstName(), delta);
+            lastNames.add(c.getLastName(), delta);
+            cities.add(c.getCity(), delta);
+
+            LocalDate birth = c.getBirthDate();
+            if (birth == null) return;
+
+            birthMonths[birth.getMonthValue() - 1] += delta;
+            if (delta > 0) {
+                byBirthDate.computeIfAbsent(birth, d -> new TreeMap<>()).put(c.getContactId(), slim(c));
+            } else {
+                TreeMap<Integer, Contact> sameDay = byBirthDate.get(birth);
+                if (sameDay != null) {
+                    sameDay.remove(c.getContactId());
+                    if (sameDay.isEmpty()) byBirthDate.remove(birth);
+                }
+            }
+        }
+
+        StatisticsSnapshot toSnapshot(LocalDate today) {
+            // ages move with the calendar, so they are derived from the birth dates here
+            int withBirthDate = 0;
+            long ageSum = 0;
+            RankedCounts ageGroups = new RankedCounts();
+
+            for (Map.Entry<LocalDate, TreeMap<Integer, Contact>> e : byBirthDate.entrySet()) {
+                int n = e.getValue().size();
+                int age = Period.between(e.getKey(), today).getYears();
+                withBirthDate += n;
+                ageSum += (long) age * n;
+                ageGroups.add(StatisticsSnapshot.ageGroupOf(age), n);
+            }
+
+            Contact youngest = byBirthDate.isEmpty() ? null : byBirthDate.lastEntry().getValue().firstEntry().getValue();
+            Contact oldest = byBirthDate.isEmpty() ? null : byBirthDate.firstEntry().getValue().firstEntry().getValue();
+
+            return new StatisticsSnapshot(
+                    total, withLinkedin, youngest, oldest,
+                    withBirthDate == 0 ? 0 : ageSum / (double) withBirthDate,
+                    cities.rows(Integer.MAX_VALUE), ageGroups.rows(Integer.MAX_VALUE),
+                    firstNames.rows(StatisticsSnapshot.TOP_NAMES),
+                    lastNames.rows(StatisticsSnapshot.TOP_NAMES),
+                    StatisticsSnapshot.birthMonthRows(birthMonths));
+        }
+
+        private static Contact slim(Contact c) {
+            Contact s = new Contact();
+            s.setContactId(c.getContactId());
+            s.setFirstName(c.getFirstName());
+            s.setLastName(c.getLastName());
+            s.setBirthDate(c.getBirthDate());
+            return s;
+        }
+    }
+
+    /**
+     * Count map plus an ordered view of it (count descending, then first seen).
+     * The ordered set acts as a heap that also supports decrements: a changed
+     * group is taken out and put back in O(log n), and the top N is read from
+     * its head without sorting.
+     */
+    private static final class RankedCounts {
+
+        private final Map<String, Group> groups = new HashMap<>();
+        private final TreeSet<Group> ranking = new TreeSet<>(
+                Comparator.comparingInt((Group g) -> g.count).reversed()
+                          .thenComparingLong(g -> g.seq));
+        private long nextSeq;
+
+        void add(String label, int delta) {
+            String key = StatisticsSnapshot.foldLabel(label);
+            Group g = groups.get(key);
+            if (g == null) {
+                if (delta <= 0) return;
+                g = new Group(label, nextSeq++);
+                groups.put(key, g);
+            } else {
+                ranking.remove(g);
+            }
+
+            g.count += delta;
+            if (g.count <= 0) {
+                groups.remove(key);
+            } else {
+                ranking.add(g);
+            }
+        }
+
+        List<String[]> rows(int limit) {
+            List<String[]> rows = new ArrayList<>(Math.min(limit, ranking.size()));
+            for (Group g : ranking) {
+                if (rows.size() >= limit) break;
+                rows.add(new String[]{g.label, String.valueOf(g.count)});
+            }
+            return rows;
+        }
+    }
+
+    private static final class Group {
+        final String label;
+        final long seq;
+        int count;
+
+        Group(String label, long seq) {
+            this.label = label;
+            this.seq = seq;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.project.cms.service;
+
+import com.project.cms.exception.AppExceptions.ValidationException;
+import java.util.Locale;
+
+/**
+ * File formats written by {@link ContactExportService}.
+ */
+public enum ExportFormat {
+
+    /** Comma separated values with a header row; can be imported again. */
+    CSV(".csv"),
+
+    /** One JSON object per line; can be imported again. */
+    NDJSON(".ndjson"),
+
+    /** Binary column store, read with {@link ColumnarContactReader}. */
+    COLUMNAR(".cmsc");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * @return the usual file extension, with the dot
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Picks the format from the file extension.
+     *
+     * @param fileName name of the file
+     * @return the format
+     * @throws ValidationException if the extension is not supported
+     */
+    public static ExportFormat fromFileName(String fileName) throws ValidationException {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) return CSV;
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) return NDJSON;
+        if (name.endsWith(".cmsc")) return COLUMNAR;
+        throw new ValidationException("Unsupported file type. Use a .csv, .ndjson or .cmsc file.");
+    }
+}
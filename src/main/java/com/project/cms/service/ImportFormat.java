@@ -0,0 +1,30 @@
+package com.project.cms.service;
+
+import com.project.cms.exception.AppExceptions.ValidationException;
+import java.util.Locale;
+
+/**
+ * File formats accepted by {@link ContactImportService}.
+ */
+public enum ImportFormat {
+
+    /** Comma (or semicolon) separated values with a header row. */
+    CSV,
+
+    /** A JSON array of contact objects, or one object per line (JSON Lines). */
+    JSON;
+
+    /**
+     * Picks the format from the file extension.
+     *
+     * @param fileName name of the file
+     * @return the format
+     * @throws ValidationException if the extension is not supported
+     */
+    public static ImportFormat fromFileName(String fileName) throws ValidationException {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) return CSV;
+        if (name.endsWith(".json") || name.endsWith(".jsonl") || name.endsWith(".ndjson")) return JSON;
+        throw new ValidationException("Unsupported file type. Use a .csv, .json or .jsonl file.");
+    }
+}
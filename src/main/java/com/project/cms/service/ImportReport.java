@@ -0,0 +1,103 @@
+package com.project.cms.service;
+
+import java.util.List;
+
+/**
+ * Progress or result of a contact import.
+ * <p>
+ * While the import runs, {@link ContactImportService} hands out reports of
+ * the records handled so far; the report returned at the end covers the whole file.
+ */
+public final class ImportReport {
+
+    private final long recordsRead;
+    private final long inserted;
+    private final long updated;
+    private final long duplicates;
+    private final long invalid;
+    private final List<String> errors;
+    private final long elapsedMillis;
+    private final String stopReason;
+
+    ImportReport(long recordsRead, long inserted, long updated, long duplicates, long invalid,
+                 List<String> errors, long elapsedMillis, String stopReason) {
+        this.recordsRead = recordsRead;
+        this.inserted = inserted;
+        this.updated = updated;
+        this.duplicates = duplicates;
+        this.invalid = invalid;
+        this.errors = List.copyOf(errors);
+        this.elapsedMillis = elapsedMillis;
+        this.stopReason = stopReason;
+    }
+
+    /**
+     * @return number of records read from the file
+     */
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    /**
+     * @return number of new contacts
+     */
+    public long getInserted() {
+        return inserted;
+    }
+
+    /**
+     * @return number of existing contacts overwritten by a matching record
+     */
+    public long getUpdated() {
+        return updated;
+    }
+
+    /**
+     * @return number of records skipped because their phone or email occurred before
+     */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * @return number of records rejected by validation
+     */
+    public long getInvalid() {
+        return invalid;
+    }
+
+    /**
+     * @return the first errors, each prefixed with its line in the file
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return time spent so far
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return records read per second
+     */
+    public long getRecordsPerSecond() {
+        return elapsedMillis == 0 ? recordsRead : recordsRead * 1000 / elapsedMillis;
+    }
+
+    /**
+     * @return false if the import was stopped before the end of the file
+     */
+    public boolean isComplete() {
+        return stopReason == null;
+    }
+
+    /**
+     * @return why the import was stopped, or null
+     */
+    public String getStopReason() {
+        return stopReason;
+    }
+}
@@ -0,0 +1,91 @@
+package com.project.cms.service;
+
+import com.project.cms.model.RoleType;
+import com.project.cms.model.User;
+import java.time.LocalDateTime;
+
+/**
+ * A logged-in user, identified by an opaque token handed out by
+ * {@link SessionService#login(String, String)}.
+ * <p>
+ * The session keeps a copy of the user (without the password hash) and its
+ * role, so requests carrying the token can be authorized without reading
+ * the users table. {@link SessionService} refreshes the copy when the user
+ * is changed.
+ */
+public final class Session {
+
+    private final String token;
+    private final int userId;
+    private final LocalDateTime createdAt;
+
+    private volatile User user;
+    private volatile long loadedAtNanos;
+    private volatile long lastAccessNanos;
+    private volatile boolean stale;
+
+    Session(String token, User user) {
+        this.token = token;
+        this.userId = user.getUserId();
+        this.createdAt = LocalDateTime.now();
+        this.lastAccessNanos = System.nanoTime();
+        load(user);
+    }
+
+    /**
+     * @return the token identifying the session
+     */
+    public String getToken() {
+        return token;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * @return a copy of the logged-in user, as last read from the database
+     */
+    public User getUser() {
+        return new User(user);
+    }
+
+    public RoleType getRole() {
+        return user.getRole();
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /** Replaces the cached user with a freshly read one. */
+    void load(User fresh) {
+        User copy = new User(fresh);
+        copy.setPasswordHash(null);
+        copy.setPlainPassword(null);
+        this.user = copy;
+        this.loadedAtNanos = System.nanoTime();
+    }
+
+    /** Makes the next access read the user again. */
+    void markStale() {
+        stale = true;
+    }
+
+    /** Called before the user is read again. */
+    void clearStale() {
+        stale = false;
+    }
+
+    boolean needsReload(long now, long refreshNanos) {
+        return stale || now - loadedAtNanos >= refreshNanos;
+    }
+
+    boolean isIdle(long now, long idleNanos) {
+        return now - lastAccessNanos >= idleNanos;
+    }
+
+    void touch(long now) {
+        lastAccessNanos = now;
+    }
+}
@@ -0,0 +1,226 @@
+package com.project.cms.service;
+
+import com.project.cms.dao.DaoFactory;
+import com.project.cms.dao.user.UserDao;
+import com.project.cms.exception.AppExceptions.InvalidCredentialsException;
+import com.project.cms.exception.AppExceptions.SessionExpiredException;
+import com.project.cms.exception.AppExceptions.UserNotFoundException;
+import com.project.cms.model.User;
+import com.project.cms.model.role.Operation;
+import com.project.cms.model.role.PermissionMatrix;
+import java.security.SecureRandom;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the logged-in users of a front end that serves several sessions at
+ * once, so that only the login itself reads the users table.
+ * <p>
+ * {@link #login(String, String)} checks the credentials through the
+ * {@link UserService} and returns a {@link Session} with a random, opaque
+ * token. Later requests pass the token to {@link #authenticate(String)} or
+ * {@link #isAllowed(String, Operation)}, which answer from the session's
+ * copy of the user and the {@link PermissionMatrix}.
+ * <p>
+ * The copy is read again:
+ * <ul>
+ *   <li>after the user was updated, deleted or got a new password through
+ *       the {@link UserService} (a deleted user's sessions end),</li>
+ *   <li>once it is older than {@code cms.session.refreshSeconds} (default 60),
+ *       which picks up changes made by other processes.</li>
+ * </ul>
+ * If that read fails, the session keeps its copy and the next access tries
+ * again; only a user that is really gone ends the session.
+ * Sessions not used for {@code cms.session.idleTimeoutMinutes} (default 30)
+ * expire; a daemon thread removes them from the table.
+ */
+public class SessionService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int TOKEN_BYTES = 32;
+
+    private final UserService userService;
+    private final UserDao userDao;
+    private final long idleNanos;
+    private final long refreshNanos;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * Creates a session service with the timeouts from the system properties.
+     * @param userService - checks the credentials and reports user changes
+     */
+    public SessionService(UserService userService) {
+        this(userService, DaoFactory.userDao(),
+                TimeUnit.MINUTES.toMillis(Long.getLong("cms.session.idleTimeoutMinutes", 30)),
+                TimeUnit.SECONDS.toMillis(Long.getLong("cms.session.refreshSeconds", 60)));
+    }
+
+    /**
+     *
+     * @param userService - checks the credentials and reports user changes
+     * @param userDao - reads users again when a session's copy is outdated
+     * @param idleTimeoutMillis - how long an unused session stays valid
+     * @param refreshMillis - how long a session's copy of the user is trusted
+     */
+    public SessionService(UserService userService, UserDao userDao, long idleTimeoutMillis, long refreshMillis) {
+        this.userService = userService;
+        this.userDao = userDao;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, idleTimeoutMillis));
+        this.refreshNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, refreshMillis));
+
+        userService.addUserChangeListener(this::userChanged);
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cms-session-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1_000, idleTimeoutMillis / 2);
+        sweeper.scheduleWithFixedDelay(this::sweep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /* ===================== LOGIN / LOGOUT ===================== */
+
+    /**
+     * Checks the credentials and opens a session.
+     *
+     * @return the new session; its token identifies it in later calls
+     * @throws InvalidCredentialsException - if the password is incorrect
+     * @throws UserNotFoundException - if the user does not exist
+     */
+    public Session login(String username, String password)
+            throws InvalidCredentialsException, UserNotFoundException {
+
+        User user = userService.login(username, password);
+
+        Session session = new Session(newToken(), user);
+        sessions.put(session.getToken(), session);
+        return session;
+    }
+
+    /**
+     * Ends a session. Unknown tokens are ignored.
+     */
+    public void logout(String token) {
+        if (token != null) sessions.remove(token);
+    }
+
+    /**
+     * Ends all sessions of a user.
+     *
+     * @return number of sessions ended
+     */
+    public int logoutAll(int userId) {
+        int before = sessions.size();
+        sessions.values().removeIf(s -> s.getUserId() == userId);
+        return before - sessions.size();
+    }
+
+    /* ===================== REQUESTS ===================== */
+
+    /**
+     * Looks up the session of a request and marks it as used.
+     *
+     * @return the session
+     * @throws SessionExpiredException - if the token is unknown, the session
+     *                                   expired, or its user was deleted
+     */
+    public Session authenticate(String token) throws SessionExpiredException {
+        Session session = token == null ? null : sessions.get(token);
+        if (session == null)
+            throw new SessionExpiredException("Session is not valid. Please log in again.");
+
+        long now = System.nanoTime();
+        if (session.isIdle(now, idleNanos)) {
+            sessions.remove(token, session);
+            throw new SessionExpiredException("Session expired. Please log in again.");
+        }
+        if (session.needsReload(now, refreshNanos)) {
+            reload(session);
+        }
+        session.touch(now);
+        return session;
+    }
+
+    /**
+     * @return a copy of the user logged in with {@code token}
+     * @throws SessionExpiredException - if the session is no longer valid
+     */
+    public User currentUser(String token) throws SessionExpiredException {
+        return authenticate(token).getUser();
+    }
+
+    /**
+     * Checks whether the user logged in with {@code token} may perform an
+     * operation, without touching the users table.
+     *
+     * @throws SessionExpiredException - if the session is no longer valid
+     */
+    public boolean isAllowed(String token, Operation operation) throws SessionExpiredException {
+        return PermissionMatrix.isAllowed(authenticate(token).getRole(), operation);
+    }
+
+    /**
+     * @return number of sessions in the table (expired ones until the next sweep)
+     */
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Stops the background removal of expired sessions.
+     */
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    /* ===================== INTERNAL ===================== */
+
+    private void reload(Session session) throws SessionExpiredException {
+        synchronized (session) {
+            if (!session.needsReload(System.nanoTime(), refreshNanos)) return;   // reloaded meanwhile
+
+            // a change reported while reading marks the session again
+            session.clearStale();
+            User fresh;
+            try {
+                fresh = userDao.loadUserById(session.getUserId());
+            } catch (SQLException e) {
+                // keep serving the cached copy; the next access tries again
+                session.markStale();
+                System.out.println("⚠ Could not refresh session user " + session.getUserId() + ": " + e.getMessage());
+                return;
+            }
+            if (fresh == null) {
+                sessions.remove(session.getToken(), session);
+                throw new SessionExpiredException("User no longer exists. Please log in again.");
+            }
+            session.load(fresh);
+        }
+    }
+
+    /** Users change rarely, so the table is simply scanned. */
+    private void userChanged(int userId) {
+        for (Session session : sessions.values()) {
+            if (session.getUserId() == userId) session.markStale();
+        }
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        sessions.values().removeIf(s -> s.isIdle(now, idleNanos));
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
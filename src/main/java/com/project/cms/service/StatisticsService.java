@@ -2,13 +2,14 @@ package com.project.cms.service;
 
 import com.project.cms.dao.contact.ContactDao;
 import com.project.cms.model.Contact;
+import com.project.cms.model.StatisticsSnapshot;
 import com.project.cms.util.ConsoleColors;
 import com.project.cms.util.ConsoleTable;
 import java.util.List;
 
 /**
  * Shows contact statistics using tables and simple animations.
- * Uses ContactDao to fetch data and display results.
+ * Uses ContactDao to fetch a {@link StatisticsSnapshot} and display it.
  *
  * @author Simay
  */
@@ -17,6 +18,7 @@ import java.util.List;
 public class StatisticsService {
 
     private final ContactDao contactDao;
+    private final ContactStatisticsStore statisticsStore;
 
     // dynamic label width for alignment
     private int maxLabelWidth = 0;
@@ -26,7 +28,18 @@ public class StatisticsService {
     * @param contactDao - the DAO used to fetch statistics
     */
     public StatisticsService(ContactDao contactDao) {
+        this(contactDao, null);
+    }
+
+   /**
+    * Creates a StatisticsService that reads the incrementally maintained
+    * aggregates and only scans the table while the store is not ready.
+    * @param contactDao - the DAO used as fallback
+    * @param statisticsStore - the in-memory aggregate store (may be null)
+    */
+    public StatisticsService(ContactDao contactDao, ContactStatisticsStore statisticsStore) {
         this.contactDao = contactDao;
+        this.statisticsStore = statisticsStore;
     }
 
     // ----------------------------------------------------------------------
@@ -124,6 +137,25 @@ public class StatisticsService {
         ConsoleTable.printTable(headers, rows);
     }
 
+    // ----------------------------------------------------------------------
+    // Contact line (youngest / oldest)
+    // ----------------------------------------------------------------------
+    /**
+     * Prints a "name surname (birth date)" line, or "-" if there is no such contact.
+     * @param label
+     * @param contact
+     */
+    private void printContactLine(String label, Contact contact) {
+        if (contact == null) {
+            System.out.printf("%-22s : -\n", label);
+            return;
+        }
+        System.out.printf("%-22s : %s%s %s (%s)%s\n",
+                label,
+                ConsoleColors.GREEN_BOLD, contact.getFirstName(), contact.getLastName(),
+                contact.getBirthDate(), ConsoleColors.RESET);
+    }
+
     // ----------------------------------------------------------------------
     // MAIN DASHBOARD
     // ----------------------------------------------------------------------
@@ -147,14 +179,20 @@ public class StatisticsService {
         // ------------------------------------------------------------------
         System.out.println(ConsoleColors.YELLOW_BOLD + "[ GENERAL INFORMATION ]" + ConsoleColors.RESET);
 
-        int total = contactDao.countAllContacts();
-        int withLinkedin = contactDao.countContactsWithLinkedin();
-        int withoutLinkedin = contactDao.countContactsWithoutLinkedin();
-        String commonFirst = contactDao.findMostCommonFirstName();
-        String commonLast = contactDao.findMostCommonLastName();
-        Contact youngest = contactDao.findYoungestContact();
-        Contact oldest = contactDao.findOldestContact();
-        double avgAge = contactDao.getAverageAge();
+        // aggregates kept up to date by deltas; a single table scan until they are built
+        StatisticsSnapshot stats = statisticsStore == null ? null : statisticsStore.snapshot();
+        if (stats == null) {
+            stats = contactDao.loadStatistics();
+        }
+
+        int total = stats.getTotalContacts();
+        int withLinkedin = stats.getWithLinkedin();
+        int withoutLinkedin = stats.getWithoutLinkedin();
+        String commonFirst = stats.getMostCommonFirstName();
+        String commonLast = stats.getMostCommonLastName();
+        Contact youngest = stats.getYoungest();
+        Contact oldest = stats.getOldest();
+        double avgAge = stats.getAverageAge();
 
         System.out.printf("%-22s : %s%d%s\n",
                 "Total Contacts", ConsoleColors.GREEN_BOLD, total, ConsoleColors.RESET);
@@ -171,15 +209,8 @@ public class StatisticsService {
         System.out.printf("%-22s : %s%s%s\n",
                 "Most Common Surname", ConsoleColors.YELLOW_BOLD, commonLast, ConsoleColors.RESET);
 
-        System.out.printf("%-22s : %s%s %s (%s)%s\n",
-                "Youngest Contact",
-                ConsoleColors.GREEN_BOLD, youngest.getFirstName(), youngest.getLastName(),
-                youngest.getBirthDate(), ConsoleColors.RESET);
-
-        System.out.printf("%-22s : %s%s %s (%s)%s\n",
-                "Oldest Contact",
-                ConsoleColors.GREEN_BOLD, oldest.getFirstName(), oldest.getLastName(),
-                oldest.getBirthDate(), ConsoleColors.RESET);
+        printContactLine("Youngest Contact", youngest);
+        printContactLine("Oldest Contact", oldest);
 
         System.out.printf("%-22s : %s%.1f%s\n",
                 "Average Age", ConsoleColors.PURPLE_BOLD, avgAge, ConsoleColors.RESET);
@@ -191,7 +222,7 @@ public class StatisticsService {
         System.out.println(ConsoleColors.PURPLE + "\n------------------------------------------------------------" + ConsoleColors.RESET);
         System.out.println(ConsoleColors.RED + "[ CITY DISTRIBUTION ]" + ConsoleColors.RESET);
 
-        List<String[]> cityData = contactDao.getCityDistribution();
+        List<String[]> cityData = stats.getCityDistribution();
 
         updateMaxLabelWidth(cityData);
         int maxCity = cityData.stream().mapToInt(c -> Integer.parseInt(c[1])).max().orElse(1);
@@ -205,21 +236,21 @@ public class StatisticsService {
         // AGE GROUP (TABLE)
         // ------------------------------------------------------------------
         System.out.println(ConsoleColors.PURPLE + "\n------------------------------------------------------------" + ConsoleColors.RESET);
-        printTableSection("[ AGE GROUP DISTRIBUTION ]", contactDao.getAgeGroupDistribution());
+        printTableSection("[ AGE GROUP DISTRIBUTION ]", stats.getAgeGroupDistribution());
 
 
         // ------------------------------------------------------------------
         // TOP FIRST NAMES
         // ------------------------------------------------------------------
         System.out.println(ConsoleColors.PURPLE + "\n------------------------------------------------------------" + ConsoleColors.RESET);
-        printTableSection("[ TOP 5 FIRST NAMES ]", contactDao.getTopFirstNames());
+        printTableSection("[ TOP 5 FIRST NAMES ]", stats.getTopFirstNames());
 
 
         // ------------------------------------------------------------------
         // TOP LAST NAMES
         // ------------------------------------------------------------------
         System.out.println(ConsoleColors.PURPLE + "\n------------------------------------------------------------" + ConsoleColors.RESET);
-        printTableSection("[ TOP 5 LAST NAMES ]", contactDao.getTopLastNames());
+        printTableSection("[ TOP 5 LAST NAMES ]", stats.getTopLastNames());
 
 
         // ------------------------------------------------------------------
@@ -228,7 +259,7 @@ public class StatisticsService {
         System.out.println(ConsoleColors.RED_BOLD + "\n------------------------------------------------------------" + ConsoleColors.RESET);
         System.out.println(ConsoleColors.YELLOW_BOLD + "[ BIRTH MONTH DISTRIBUTION ]" + ConsoleColors.RESET);
 
-        List<String[]> birthData = contactDao.getBirthMonthDistribution();
+        List<String[]> birthData = stats.getBirthMonthDistribution();
 
         updateMaxLabelWidth(birthData);
         int maxMonth = birthData.stream().mapToInt(m -> Integer.parseInt(m[1])).max().orElse(1);
@@ -0,0 +1,261 @@
+package com.project.cms.service;
+
+import com.project.cms.model.Contact;
+import com.project.cms.model.RoleType;
+import com.project.cms.model.UndoAction;
+import com.project.cms.model.UndoAction.ActionType;
+import com.project.cms.model.User;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Compact binary form of an {@link UndoAction}, used by {@link UndoJournal}
+ * for entries that are no longer among the most recent ones.
+ * <p>
+ * Contacts are written field by field from a fixed field table. For a
+ * {@code CONTACT_UPDATE} the new contact is stored as a delta against the old
+ * one: a bit mask of the fields that differ, followed by only those values.
+ * An edit that changes one field of a contact therefore costs one contact
+ * plus a few bytes instead of two full contacts.
+ * <p>
+ * Plain-text passwords are never encoded; the encoded form may end up in a
+ * spill file on disk.
+ */
+final class UndoActionCodec {
+
+    private static final int HAS_OLD_CONTACT = 1;
+    private static final int HAS_NEW_CONTACT = 1 << 1;
+    private static final int NEW_CONTACT_IS_DELTA = 1 << 2;
+    private static final int HAS_OLD_USER = 1 << 3;
+    private static final int HAS_NEW_USER = 1 << 4;
+    private static final int HAS_CONTACT_LIST = 1 << 5;
+
+    private static final ActionType[] TYPES = ActionType.values();
+
+    /** Every persisted column of a contact, in encoding order (at most 32). */
+    private static final List<ContactField> CONTACT_FIELDS = List.of(
+            new ContactField(Kind.INT, Contact::getContactId, (c, v) -> c.setContactId((Integer) v)),
+            new ContactField(Kind.INT, Contact::getUserId, (c, v) -> c.setUserId((Integer) v)),
+            new ContactField(Kind.TEXT, Contact::getFirstName, (c, v) -> c.setFirstName((String) v)),
+            new ContactField(Kind.TEXT, Contact::getMiddleName, (c, v) -> c.setMiddleName((String) v)),
+            new ContactField(Kind.TEXT, Contact::getLastName, (c, v) -> c.setLastName((String) v)),
+            new ContactField(Kind.TEXT, Contact::getNickname, (c, v) -> c.setNickname((String) v)),
+            new ContactField(Kind.TEXT, Contact::getCity, (c, v) -> c.setCity((String) v)),
+            new ContactField(Kind.TEXT, Contact::getPhonePrimary, (c, v) -> c.setPhonePrimary((String) v)),
+            new ContactField(Kind.TEXT, Contact::getPhoneSecondary, (c, v) -> c.setPhoneSecondary((String) v)),
+            new ContactField(Kind.TEXT, Contact::getEmail, (c, v) -> c.setEmail((String) v)),
+            new ContactField(Kind.TEXT, Contact::getLinkedinUrl, (c, v) -> c.setLinkedinUrl((String) v)),
+            new ContactField(Kind.DATE, Contact::getBirthDate, (c, v) -> c.setBirthDate((LocalDate) v)),
+            new ContactField(Kind.DATETIME, Contact::getCreatedAt, (c, v) -> c.setCreatedAt((LocalDateTime) v)),
+            new ContactField(Kind.DATETIME, Contact::getUpdatedAt, (c, v) -> c.setUpdatedAt((LocalDateTime) v)),
+            new ContactField(Kind.INT, Contact::getVersion, (c, v) -> c.setVersion((Integer) v))
+    );
+
+    private enum Kind { INT, TEXT, DATE, DATETIME }
+
+    private record ContactField(Kind kind, Function<Contact, Object> getter, BiConsumer<Contact, Object> setter) {}
+
+    private UndoActionCodec() {}
+
+    // ===========================================================
+    // ENCODE
+    // ===========================================================
+
+    static byte[] encode(UndoAction action) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+
+            Contact oldC = action.getOldContact();
+            Contact newC = action.getNewContact();
+            boolean delta = oldC != null && newC != null;
+
+            int flags = 0;
+            if (oldC != null) flags |= HAS_OLD_CONTACT;
+            if (newC != null) flags |= HAS_NEW_CONTACT;
+            if (delta) flags |= NEW_CONTACT_IS_DELTA;
+            if (action.getOldUser() != null) flags |= HAS_OLD_USER;
+            if (action.getNewUser() != null) flags |= HAS_NEW_USER;
+            if (!action.getContacts().isEmpty()) flags |= HAS_CONTACT_LIST;
+
+            out.writeByte(action.getType().ordinal());
+            out.writeByte(flags);
+
+            if (oldC != null) writeContact(out, oldC);
+            if (delta) {
+                writeDelta(out, oldC, newC);
+            } else if (newC != null) {
+                writeContact(out, newC);
+            }
+            if (action.getOldUser() != null) writeUser(out, action.getOldUser());
+            if (action.getNewUser() != null) writeUser(out, action.getNewUser());
+
+            if ((flags & HAS_CONTACT_LIST) != 0) {
+                out.writeInt(action.getContacts().size());
+                for (Contact c : action.getContacts()) {
+                    writeContact(out, c);
+                }
+            }
+
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);    // cannot happen on a byte array
+        }
+    }
+
+    private static void writeContact(DataOutputStream out, Contact c) throws IOException {
+        for (ContactField f : CONTACT_FIELDS) {
+            writeValue(out, f.kind(), f.getter().apply(c));
+        }
+    }
+
+    private static void writeDelta(DataOutputStream out, Contact base, Contact changed) throws IOException {
+        int mask = 0;
+        for (int i = 0; i < CONTACT_FIELDS.size(); i++) {
+            Function<Contact, Object> get = CONTACT_FIELDS.get(i).getter();
+            if (!Objects.equals(get.apply(base), get.apply(changed))) mask |= 1 << i;
+        }
+
+        out.writeInt(mask);
+        for (int i = 0; i < CONTACT_FIELDS.size(); i++) {
+            if ((mask & (1 << i)) != 0) {
+                ContactField f = CONTACT_FIELDS.get(i);
+                writeValue(out, f.kind(), f.getter().apply(changed));
+            }
+        }
+    }
+
+    private static void writeUser(DataOutputStream out, User u) throws IOException {
+        out.writeInt(u.getUserId());
+        writeValue(out, Kind.TEXT, u.getUsername());
+        writeValue(out, Kind.TEXT, u.getPasswordHash());
+        writeValue(out, Kind.TEXT, u.getName());
+        writeValue(out, Kind.TEXT, u.getSurname());
+        writeValue(out, Kind.TEXT, u.getPhone());
+        writeValue(out, Kind.DATE, u.getBirthDate());
+        writeValue(out, Kind.TEXT, u.getRole() == null ? null : u.getRole().name());
+        writeValue(out, Kind.DATETIME, u.getCreatedAt());
+        out.writeInt(u.getVersion());
+    }
+
+    private static void writeValue(DataOutputStream out, Kind kind, Object value) throws IOException {
+        if (kind == Kind.INT) {
+            out.writeInt((Integer) value);
+            return;
+        }
+
+        out.writeBoolean(value != null);
+        if (value == null) return;
+
+        switch (kind) {
+            case TEXT -> out.writeUTF((String) value);
+            case DATE -> out.writeLong(((LocalDate) value).toEpochDay());
+            case DATETIME -> {
+                LocalDateTime t = (LocalDateTime) value;
+                out.writeLong(t.toLocalDate().toEpochDay());
+                out.writeLong(t.toLocalTime().toNanoOfDay());
+            }
+            default -> throw new IllegalStateException(kind.name());
+        }
+    }
+
+    // ===========================================================
+    // DECODE
+    // ===========================================================
+
+    static UndoAction decode(byte[] data) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+
+            ActionType type = TYPES[in.readUnsignedByte()];
+            int flags = in.readUnsignedByte();
+
+            Contact oldC = (flags & HAS_OLD_CONTACT) != 0 ? readContact(in) : null;
+            Contact newC = null;
+            if ((flags & NEW_CONTACT_IS_DELTA) != 0) {
+                newC = readDelta(in, oldC);
+            } else if ((flags & HAS_NEW_CONTACT) != 0) {
+                newC = readContact(in);
+            }
+            User oldU = (flags & HAS_OLD_USER) != 0 ? readUser(in) : null;
+            User newU = (flags & HAS_NEW_USER) != 0 ? readUser(in) : null;
+
+            if ((flags & HAS_CONTACT_LIST) != 0) {
+                int n = in.readInt();
+                List<Contact> contacts = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    contacts.add(readContact(in));
+                }
+                return type == ActionType.CONTACT_BULK_CREATE
+                        ? UndoAction.forContactBulkCreate(contacts)
+                        : UndoAction.forContactBulkDelete(contacts);
+            }
+
+            return new UndoAction(type, oldC, newC, oldU, newU);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Contact readContact(DataInputStream in) throws IOException {
+        Contact c = new Contact();
+        for (ContactField f : CONTACT_FIELDS) {
+            f.setter().accept(c, readValue(in, f.kind()));
+        }
+        return c;
+    }
+
+    private static Contact readDelta(DataInputStream in, Contact base) throws IOException {
+        Contact c = new Contact(base);
+        int mask = in.readInt();
+        for (int i = 0; i < CONTACT_FIELDS.size(); i++) {
+            if ((mask & (1 << i)) != 0) {
+                ContactField f = CONTACT_FIELDS.get(i);
+                f.setter().accept(c, readValue(in, f.kind()));
+            }
+        }
+        return c;
+    }
+
+    private static User readUser(DataInputStream in) throws IOException {
+        User u = new User();
+        u.setUserId(in.readInt());
+        u.setUsername((String) readValue(in, Kind.TEXT));
+        u.setPasswordHash((String) readValue(in, Kind.TEXT));
+        u.setName((String) readValue(in, Kind.TEXT));
+        u.setSurname((String) readValue(in, Kind.TEXT));
+        u.setPhone((String) readValue(in, Kind.TEXT));
+        u.setBirthDate((LocalDate) readValue(in, Kind.DATE));
+        String role = (String) readValue(in, Kind.TEXT);
+        u.setRole(role == null ? null : RoleType.valueOf(role));
+        u.setCreatedAt((LocalDateTime) readValue(in, Kind.DATETIME));
+        u.setVersion(in.readInt());
+        return u;
+    }
+
+    private static Object readValue(DataInputStream in, Kind kind) throws IOException {
+        if (kind == Kind.INT) return in.readInt();
+        if (!in.readBoolean()) return null;
+
+        return switch (kind) {
+            case TEXT -> in.readUTF();
+            case DATE -> LocalDate.ofEpochDay(in.readLong());
+            case DATETIME -> LocalDateTime.of(LocalDate.ofEpochDay(in.readLong()),
+                    LocalTime.ofNanoOfDay(in.readLong()));
+            default -> throw new IllegalStateException(kind.name());
+        };
+    }
+}
@@ -0,0 +1,204 @@
+package com.project.cms.service;
+
+import com.project.cms.model.UndoAction;
+import com.project.cms.util.MappedSpillFile;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+/**
+ * Bounded undo history of one user, newest entry first.
+ * <p>
+ * Entries move through three tiers as they age:
+ * <ol>
+ *     <li><b>hot</b> – the last {@link #HOT_ENTRIES} actions, kept as objects
+ *     because they are the ones most likely to be undone;</li>
+ *     <li><b>encoded</b> – older actions in the compact form of
+ *     {@link UndoActionCodec};</li>
+ *     <li><b>spilled</b> – what exceeds the budget, moved to a memory-mapped
+ *     {@link MappedSpillFile} outside the Java heap.</li>
+ * </ol>
+ * The hot and encoded tiers together are limited to {@code memoryBudget}
+ * bytes. Hot actions are counted with the rough estimate of
+ * {@link #estimateBytes}, so a bulk action larger than the budget does not
+ * stay on the heap as objects: it is encoded at once and, if still too
+ * large, spilled.
+ * The history never holds more than {@code maxDepth} entries; the oldest one
+ * is forgotten when a new one would exceed it. If the spill file is not
+ * available, entries over the memory budget are forgotten instead.
+ * <p>
+ * Not thread-safe; {@link UndoServiceImpl} serializes access per user.
+ */
+final class UndoJournal {
+
+    /** Number of most recent actions kept as objects. */
+    static final int HOT_ENTRIES = 4;
+
+    /** Rough heap footprint of an action object without its payload. */
+    private static final long ACTION_BYTES = 64;
+
+    /** Rough heap footprint of a contact object with its strings and dates. */
+    private static final long CONTACT_BYTES = 640;
+
+    /** Rough heap footprint of a user object with its strings. */
+    private static final long USER_BYTES = 320;
+
+    private final int maxDepth;
+    private final long memoryBudget;
+    private final Supplier<MappedSpillFile> spillFile;
+
+    private final Deque<UndoAction> hot = new ArrayDeque<>();
+    private final Deque<byte[]> encoded = new ArrayDeque<>();
+    private final Deque<MappedSpillFile.Handle> spilled = new ArrayDeque<>();
+    private long hotBytes;
+    private long encodedBytes;
+
+    /**
+     * @param maxDepth     maximum number of entries kept
+     * @param memoryBudget maximum bytes of hot and encoded entries kept on the heap
+     * @param spillFile    supplies the shared spill file, or null if none is available
+     */
+    UndoJournal(int maxDepth, long memoryBudget, Supplier<MappedSpillFile> spillFile) {
+        this.maxDepth = Math.max(1, maxDepth);
+        this.memoryBudget = Math.max(0, memoryBudget);
+        this.spillFile = spillFile;
+    }
+
+    /**
+     * Adds the newest action, pushing older entries down the tiers.
+     */
+    void push(UndoAction action) {
+        hot.addFirst(action);
+        hotBytes += estimateBytes(action);
+
+        // the oldest hot entry moves down first, so the tiers stay in age order
+        while (hot.size() > HOT_ENTRIES || (hotBytes > memoryBudget && !hot.isEmpty())) {
+            UndoAction oldest = hot.removeLast();
+            hotBytes -= estimateBytes(oldest);
+
+            byte[] data = UndoActionCodec.encode(oldest);
+            encoded.addFirst(data);
+            encodedBytes += data.length;
+        }
+
+        while (hotBytes + encodedBytes > memoryBudget && !encoded.isEmpty()) {
+            byte[] data = encoded.removeLast();
+            encodedBytes -= data.length;
+            spill(data);
+        }
+
+        while (size() > maxDepth) {
+            dropOldest();
+        }
+    }
+
+    /**
+     * Removes and returns the newest action.
+     *
+     * @return the action, or null if the history is empty
+     */
+    UndoAction pop() {
+        if (!hot.isEmpty()) {
+            UndoAction action = hot.removeFirst();
+            hotBytes -= estimateBytes(action);
+            return action;
+        }
+
+        if (!encoded.isEmpty()) {
+            byte[] data = encoded.removeFirst();
+            encodedBytes -= data.length;
+            return UndoActionCodec.decode(data);
+        }
+
+        if (!spilled.isEmpty()) {
+            MappedSpillFile.Handle handle = spilled.removeFirst();
+            MappedSpillFile file = spillFile.get();
+            byte[] data = file.read(handle);
+            file.free(handle);
+            return UndoActionCodec.decode(data);
+        }
+        return null;
+    }
+
+    /**
+     * @return number of entries in all tiers
+     */
+    int size() {
+        return hot.size() + encoded.size() + spilled.size();
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return bytes of encoded entries held on the heap
+     */
+    long getEncodedBytes() {
+        return encodedBytes;
+    }
+
+    /**
+     * @return estimated bytes of the hot entries
+     */
+    long getHotBytes() {
+        return hotBytes;
+    }
+
+    /**
+     * @return number of entries currently in the spill file
+     */
+    int getSpilledCount() {
+        return spilled.size();
+    }
+
+    /**
+     * Forgets every entry and releases their space in the spill file.
+     */
+    void clear() {
+        hot.clear();
+        hotBytes = 0;
+        encoded.clear();
+        encodedBytes = 0;
+        while (!spilled.isEmpty()) {
+            spillFile.get().free(spilled.removeFirst());
+        }
+    }
+
+    private void spill(byte[] data) {
+        MappedSpillFile file = spillFile == null ? null : spillFile.get();
+        if (file == null) return;             // no spill file: the entry is forgotten
+
+        try {
+            spilled.addFirst(file.write(data));
+        } catch (IOException e) {
+            System.out.println("⚠ Undo history could not be written to disk: " + e.getMessage());
+        }
+    }
+
+    private void dropOldest() {
+        if (!spilled.isEmpty()) {
+            spillFile.get().free(spilled.removeLast());
+        } else if (!encoded.isEmpty()) {
+            encodedBytes -= encoded.removeLast().length;
+        } else {
+            hotBytes -= estimateBytes(hot.removeLast());
+        }
+    }
+
+    /**
+     * Estimates the heap footprint of an action kept as objects. Counts
+     * objects rather than measuring them, so it is cheap enough to repeat
+     * whenever an action enters or leaves the hot tier.
+     */
+    static long estimateBytes(UndoAction action) {
+        long bytes = ACTION_BYTES;
+        if (action.getOldContact() != null) bytes += CONTACT_BYTES;
+        if (action.getNewContact() != null) bytes += CONTACT_BYTES;
+        if (action.getOldUser() != null) bytes += USER_BYTES;
+        if (action.getNewUser() != null) bytes += USER_BYTES;
+        if (action.getContacts() != null) bytes += CONTACT_BYTES * action.getContacts().size();
+        return bytes;
+    }
+}
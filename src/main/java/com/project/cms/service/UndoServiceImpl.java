@@ -2,31 +2,78 @@ package com.project.cms.service;
 
 import com.project.cms.exception.AppExceptions.AccessDeniedException;
 import com.project.cms.exception.AppExceptions.ContactNotFoundException;
+import com.project.cms.exception.AppExceptions.OptimisticLockException;
 import com.project.cms.exception.AppExceptions.UndoOperationException;
 import com.project.cms.exception.AppExceptions.ValidationException;
 import com.project.cms.model.Contact;
 import com.project.cms.model.UndoAction;
 import com.project.cms.model.User;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Stack;
+import com.project.cms.util.MappedSpillFile;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Implementation of the UndoService.
  * <p>
  * Stores undo actions for each user and performs the undo operations.
- * Undo is supported for contact create/update/delete and
+ * Undo is supported for contact create/update/delete, bulk create/delete and
  * user create/update/delete/password-change operations.
+ * <p>
+ * Each user's history is an {@link UndoJournal} bounded by depth and by the
+ * bytes it keeps on the heap; older entries are stored compactly and, past
+ * the budget, in a memory-mapped spill file. The limits can be set with the
+ * system properties {@code cms.undo.maxDepth}, {@code cms.undo.memoryBudgetBytes}
+ * and {@code cms.undo.spillDir}.
+ * <p>
+ * Undoing an update or a creation checks the row version: if the record was
+ * changed again after the action, the undo is refused with an
+ * {@link UndoOperationException} instead of overwriting the newer data.
+ * <p>
+ * The service is thread-safe, so several sessions can share it. Each user's
+ * history has its own lock: recording and undoing for the same user are
+ * serialized, and an undo holds the lock until the action has been reverted,
+ * so a new action of that user is never recorded in the middle of an undo.
+ * Different users never wait for each other.
  *
  * @author Simay
  */
 
 public class UndoServiceImpl implements UndoService {
 
-    private final Map<Integer, Stack<UndoAction>> undoStacks = new HashMap<>();
+    /** Default number of undoable actions kept per user. */
+    public static final int DEFAULT_MAX_DEPTH = 100;
+
+    /** Default heap bytes of undo actions (hot and encoded) kept per user. */
+    public static final long DEFAULT_MEMORY_BUDGET_BYTES = 256 * 1024;
+
+    private final ConcurrentMap<Integer, History> histories = new ConcurrentHashMap<>();
     private final ContactService contactService;
     private final UserService userService;
 
+    private final int maxDepth = Integer.getInteger("cms.undo.maxDepth", DEFAULT_MAX_DEPTH);
+    private final long memoryBudget = Long.getLong("cms.undo.memoryBudgetBytes", DEFAULT_MEMORY_BUDGET_BYTES);
+
+    // guarded by this
+    private MappedSpillFile spillFile;
+    private boolean spillFileFailed;
+
+    /**
+     * The journal of one user together with its lock. A history that became
+     * empty is retired and removed from the map; a thread that still holds a
+     * reference to it looks the user up again.
+     */
+    private static final class History {
+        final UndoJournal journal;
+        boolean retired;                      // guarded by this
+
+        History(UndoJournal journal) {
+            this.journal = journal;
+        }
+    }
+
 
     /**
      * 
@@ -43,7 +90,34 @@ public class UndoServiceImpl implements UndoService {
        ============================================ */
     @Override
     public void recordUndoAction(User user, UndoAction action) {
-        undoStacks.computeIfAbsent(user.getUserId(), id -> new Stack<>()).push(action);
+        while (true) {
+            History history = histories.computeIfAbsent(user.getUserId(),
+                    id -> new History(new UndoJournal(maxDepth, memoryBudget, this::spillFile)));
+            synchronized (history) {
+                if (!history.retired) {
+                    history.journal.push(action);
+                    return;
+                }
+            }
+            // retired by a concurrent undo between lookup and lock: look up again
+        }
+    }
+
+    /**
+     * Opens the shared spill file on first use. If it cannot be created,
+     * histories drop their oldest entries instead of spilling.
+     */
+    private synchronized MappedSpillFile spillFile() {
+        if (spillFile == null && !spillFileFailed) {
+            try {
+                Path dir = Path.of(System.getProperty("cms.undo.spillDir", System.getProperty("java.io.tmpdir")));
+                spillFile = MappedSpillFile.createTemp(dir, "cms-undo-");
+            } catch (IOException | RuntimeException e) {
+                spillFileFailed = true;
+                System.out.println("⚠ Undo history cannot spill to disk, old entries will be dropped: " + e.getMessage());
+            }
+        }
+        return spillFile;
     }
 
     /* ============================================
@@ -54,12 +128,38 @@ public class UndoServiceImpl implements UndoService {
             throws UndoOperationException, ValidationException,
                    ContactNotFoundException, AccessDeniedException {
 
-        Stack<UndoAction> stack = undoStacks.get(performingUser.getUserId());
+        int userId = performingUser.getUserId();
+
+        while (true) {
+            History history = histories.get(userId);
+            if (history == null)
+                throw new UndoOperationException("No actions to undo.");
 
-        if (stack == null || stack.isEmpty())
-            throw new UndoOperationException("No actions to undo.");
+            synchronized (history) {
+                if (history.retired) continue;
 
-        UndoAction action = stack.pop();
+                UndoAction action = history.journal.pop();
+                if (action == null)
+                    throw new UndoOperationException("No actions to undo.");
+
+                try {
+                    // still holding the lock: no action of this user is recorded meanwhile
+                    revert(action, performingUser);
+                    return;
+                } finally {
+                    // an empty history is not kept around
+                    if (history.journal.isEmpty()) {
+                        history.retired = true;
+                        histories.remove(userId, history);
+                    }
+                }
+            }
+        }
+    }
+
+    private void revert(UndoAction action, User performingUser)
+            throws UndoOperationException, ValidationException,
+                   ContactNotFoundException, AccessDeniedException {
 
         switch (action.getType()) {
 
@@ -67,18 +167,43 @@ public class UndoServiceImpl implements UndoService {
                CONTACT UNDO OPERATIONS
                ================================================== */
             case CONTACT_CREATE -> {
+                // version-guarded delete: the check and the delete happen on the locked row
                 Contact created = action.getNewContact();
-                contactService.deleteContact(created.getContactId(), performingUser, false);
+                try {
+                    contactService.deleteContactsIfUnchanged(List.of(created), performingUser);
+                } catch (OptimisticLockException e) {
+                    throw changedSince("Contact " + created.getContactId());
+                }
             }
 
             case CONTACT_UPDATE -> {
-                contactService.updateContact(action.getOldContact(), performingUser, false);
+                // old values, but expected to replace exactly the version this update produced
+                Contact restore = new Contact(action.getOldContact());
+                restore.setVersion(action.getNewContact().getVersion());
+                try {
+                    contactService.updateContact(restore, performingUser, false);
+                } catch (OptimisticLockException e) {
+                    throw changedSince("Contact " + restore.getContactId());
+                }
             }
 
             case CONTACT_DELETE -> {
                 contactService.restoreContact(action.getOldContact(), performingUser);
             }
 
+            case CONTACT_BULK_CREATE -> {
+                // nothing is deleted if any of the created contacts was edited or deleted since
+                try {
+                    contactService.deleteContactsIfUnchanged(action.getContacts(), performingUser);
+                } catch (OptimisticLockException e) {
+                    throw new UndoOperationException(e.getMessage() + " The bulk creation cannot be undone.");
+                }
+            }
+
+            case CONTACT_BULK_DELETE -> {
+                contactService.restoreContacts(action.getContacts(), performingUser);
+            }
+
             /* ===========================
                USER UNDO OPERATIONS
                =========================== */
@@ -87,7 +212,9 @@ public class UndoServiceImpl implements UndoService {
                     User created = action.getNewUser();
                     if (created == null)
                         throw new UndoOperationException("Invalid undo data.");
-                    userService.deleteUser(created.getUserId(), performingUser, false);
+                    userService.deleteUserIfUnchanged(created, performingUser);
+                } catch (OptimisticLockException e) {
+                    throw changedSince("User " + action.getNewUser().getUserId());
                 } catch (Exception e) {
                     throw new UndoOperationException("Cannot undo user creation: " + e.getMessage());
                 }
@@ -98,7 +225,11 @@ public class UndoServiceImpl implements UndoService {
                     User oldUser = action.getOldUser();
                     if (oldUser == null)
                         throw new UndoOperationException("Invalid undo data.");
-                    userService.updateUser(oldUser, performingUser, false);
+                    User restore = new User(oldUser);
+                    restore.setVersion(action.getNewUser().getVersion());
+                    userService.updateUser(restore, performingUser, false);
+                } catch (OptimisticLockException e) {
+                    throw changedSince("User " + action.getOldUser().getUserId());
                 } catch (Exception e) {
                     throw new UndoOperationException("Cannot undo user update: " + e.getMessage());
                 }
@@ -127,5 +258,14 @@ public class UndoServiceImpl implements UndoService {
                 }
             }
         } 
-    } 
-} 
+    }
+
+    /**
+     * The record was written again after the action being undone; reverting
+     * it would overwrite that newer change.
+     */
+    private static UndoOperationException changedSince(String record) {
+        return new UndoOperationException(record
+                + " was changed by another user after this action, so it cannot be undone.");
+    }
+}
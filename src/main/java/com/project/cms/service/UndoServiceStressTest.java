@@ -0,0 +1,194 @@
+package com.project.cms.service;
+
+import com.project.cms.dao.contact.InMemoryContactDao;
+import com.project.cms.dao.user.InMemoryUserDao;
+import com.project.cms.exception.AppExceptions.UndoOperationException;
+import com.project.cms.model.Contact;
+import com.project.cms.model.RoleType;
+import com.project.cms.model.UndoAction;
+import com.project.cms.model.User;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stress test of {@link UndoServiceImpl} under concurrent sessions.
+ * Runs on the in-memory DAOs, so no database is needed.
+ */
+public class UndoServiceStressTest {
+
+    private static final int USERS = 4;
+    private static final int THREADS_PER_USER = 4;
+    private static final int OPERATIONS_PER_THREAD = 2_000;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("Running UndoService Stress Tests...\n");
+
+        // small budget so the test also goes through the encoded and spilled tiers
+        System.setProperty("cms.undo.maxDepth", String.valueOf(THREADS_PER_USER * OPERATIONS_PER_THREAD));
+        System.setProperty("cms.undo.memoryBudgetBytes", "4096");
+
+        testConcurrentRecordAndUndo();
+        testRecordWaitsForUndo();
+
+        System.out.println("\nAll tests finished.");
+    }
+
+    /**
+     * Several threads per user create contacts and undo at random. Every
+     * create is recorded, so once all histories are drained no contact may be
+     * left and every recorded action must have been undone exactly once.
+     */
+    private static void testConcurrentRecordAndUndo() throws Exception {
+        System.out.println("=== Concurrent Record / Undo Test ===");
+
+        InMemoryContactDao contactDao = new InMemoryContactDao();
+        UserServiceImpl userService = new UserServiceImpl(new InMemoryUserDao(), null);
+        ContactServiceImpl contactService = new ContactServiceImpl(contactDao, null, userService);
+        UndoServiceImpl undoService = new UndoServiceImpl(contactService, userService);
+        userService.setUndoService(undoService);
+        contactService.setUndoService(undoService);
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(senior(1000 + i));
+        }
+
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger undone = new AtomicInteger();
+        AtomicInteger serial = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(USERS * THREADS_PER_USER);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> tasks = new ArrayList<>();
+
+        for (User user : users) {
+            for (int t = 0; t < THREADS_PER_USER; t++) {
+                tasks.add(pool.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        if (random.nextInt(3) == 0) {
+                            try {
+                                undoService.undo(user);
+                                undone.incrementAndGet();
+                            } catch (UndoOperationException e) {
+                                // the history of this user was empty at the moment
+                            }
+                        } else {
+                            contactService.createContact(contact(serial.incrementAndGet()), user);
+                            created.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        pool.shutdown();
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - began);
+
+        for (User user : users) {
+            while (true) {
+                try {
+                    undoService.undo(user);
+                    undone.incrementAndGet();
+                } catch (UndoOperationException e) {
+                    break;
+                }
+            }
+        }
+
+        int left = contactDao.countAllContacts();
+        if (left == 0 && created.get() == undone.get()) {
+            System.out.println("PASS: " + created.get() + " actions recorded and undone in " + millis + " ms");
+        } else {
+            System.out.println("FAIL: recorded " + created.get() + ", undone " + undone.get()
+                    + ", contacts left " + left);
+        }
+    }
+
+    /**
+     * While an undo of a user is being carried out, a new action of the same
+     * user must not be recorded; it has to wait until the undo is complete.
+     */
+    private static void testRecordWaitsForUndo() throws Exception {
+        System.out.println("\n=== Record During Undo Test ===");
+
+        CountDownLatch deleteStarted = new CountDownLatch(1);
+        AtomicInteger deletesFinished = new AtomicInteger();
+
+        InMemoryContactDao contactDao = new InMemoryContactDao() {
+            @Override
+            public List<Integer> deleteContactsIfUnchanged(List<Contact> expected) {
+                deleteStarted.countDown();
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                List<Integer> changed = super.deleteContactsIfUnchanged(expected);
+                deletesFinished.incrementAndGet();
+                return changed;
+            }
+        };
+        UserServiceImpl userService = new UserServiceImpl(new InMemoryUserDao(), null);
+        ContactServiceImpl contactService = new ContactServiceImpl(contactDao, null, userService);
+        UndoServiceImpl undoService = new UndoServiceImpl(contactService, userService);
+        userService.setUndoService(undoService);
+        contactService.setUndoService(undoService);
+
+        User user = senior(2000);
+        contactService.createContact(contact(1), user);
+
+        Thread undoThread = new Thread(() -> {
+            try {
+                undoService.undo(user);
+            } catch (Exception e) {
+                System.out.println("FAIL: Undo failed → " + e.getMessage());
+            }
+        });
+        undoThread.start();
+
+        deleteStarted.await();
+        undoService.recordUndoAction(user, UndoAction.forContactCreate(contact(2)));
+        boolean waited = deletesFinished.get() == 1;
+        undoThread.join();
+
+        if (waited) {
+            System.out.println("PASS: Record waited for the running undo");
+        } else {
+            System.out.println("FAIL: Record completed while the undo was still running");
+        }
+    }
+
+    private static User senior(int id) {
+        User user = new User();
+        user.setUserId(id);
+        user.setUsername("stress" + id);
+        user.setRole(RoleType.SENIOR_DEVELOPER);
+        return user;
+    }
+
+    private static Contact contact(int n) {
+        Contact c = new Contact();
+        c.setFirstName("Stress");
+        c.setLastName("Test");
+        c.setNickname("n" + n);
+        c.setCity("İstanbul");
+        c.setPhonePrimary(String.format("+90555%07d", n));
+        c.setEmail("stress" + n + "@example.com");
+        return c;
+    }
+}
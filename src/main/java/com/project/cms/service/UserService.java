@@ -2,9 +2,11 @@ package com.project.cms.service;
 
 import com.project.cms.exception.AppExceptions.AccessDeniedException;
 import com.project.cms.exception.AppExceptions.InvalidCredentialsException;
+import com.project.cms.exception.AppExceptions.OptimisticLockException;
 import com.project.cms.exception.AppExceptions.UserNotFoundException;
 import com.project.cms.exception.AppExceptions.ValidationException;
 import com.project.cms.model.User;
+import com.project.cms.model.role.Operation;
 import com.project.cms.model.role.RolePermissions;
 import java.util.List;
 
@@ -68,6 +70,37 @@ public interface UserService {
         RolePermissions getPermissionsFor(User user);
 
 
+        // CHECK A PERMISSION
+        /**
+         * Checks whether the user's role allows an operation, without
+         * creating role objects or throwing for a denied operation.
+         * @param user - the user performing the operation
+         * @param operation - the operation to check
+         * @return true if the operation is allowed
+         */
+        boolean isAllowed(User user, Operation operation);
+
+
+        // USER CHANGES
+        /**
+         * Told after a user was changed through this service, e.g. to
+         * refresh copies of the user kept elsewhere.
+         */
+        @FunctionalInterface
+        interface UserChangeListener {
+                /**
+                 * @param userId - the user that was updated, deleted or got a new password
+                 */
+                void userChanged(int userId);
+        }
+
+        /**
+         * Registers a listener for changes made to users through this service.
+         * @param listener - the listener
+         */
+        void addUserChangeListener(UserChangeListener listener);
+
+
         // MANAGER: CREATE USER
         /**
          * Creates a new user. Only Managers can perform this action.
@@ -96,14 +129,17 @@ public interface UserService {
         // MANAGER: UPDATE USER
         /**
          * Updates an existing user.
+         * The user must carry the version it was read with; on success its
+         * version is set to the new one.
          * @param updatedUser - the updated user data
          * @param performingUser - the user performing the update
          * @throws ValidationException - if the updated data is invalid
          * @throws UserNotFoundException - if the user does not exist
          * @throws AccessDeniedException - if the user is not allowed to update users
+         * @throws OptimisticLockException - if the user was changed by someone else since it was read
          */
         void updateUser(User updatedUser, User performingUser)
-                throws ValidationException, UserNotFoundException, AccessDeniedException;
+                throws ValidationException, UserNotFoundException, AccessDeniedException, OptimisticLockException;
 
         /**
          * Updates a user with optional undo recording.
@@ -113,9 +149,10 @@ public interface UserService {
          * @throws ValidationException - if the updated data is invalid
          * @throws UserNotFoundException - if the user does not exist
          * @throws AccessDeniedException - if the user is not allowed to update users
+         * @throws OptimisticLockException - if the user was changed by someone else since it was read
          */
         void updateUser(User updatedUser, User performingUser, boolean recordUndo)
-                throws ValidationException, UserNotFoundException, AccessDeniedException;
+                throws ValidationException, UserNotFoundException, AccessDeniedException, OptimisticLockException;
 
 
         // MANAGER: DELETE USER
@@ -140,6 +177,19 @@ public interface UserService {
         void deleteUser(int targetUserId, User performingUser, boolean recordUndo)
                 throws UserNotFoundException, AccessDeniedException;
 
+        /**
+         * Deletes a user only if it was not changed since {@code expected} was
+         * read. The version check and the delete are one statement. Used by
+         * undo, so no undo action is recorded.
+         * @param expected - the user as it was read, with its version
+         * @param performingUser - the user performing the deletion
+         * @throws UserNotFoundException - if the user does not exist
+         * @throws AccessDeniedException - if the user is not allowed to delete users
+         * @throws OptimisticLockException - if the user was changed since it was read
+         */
+        void deleteUserIfUnchanged(User expected, User performingUser)
+                throws UserNotFoundException, AccessDeniedException, OptimisticLockException;
+
         /**
          * 
          * @return Returns all users in the system.
@@ -1,18 +1,22 @@
 package com.project.cms.service;
 
+import com.project.cms.dao.DaoFactory;
 import com.project.cms.dao.user.UserDao;
-import com.project.cms.dao.user.UserDaoImpl;
 import com.project.cms.exception.AppExceptions.AccessDeniedException;
 import com.project.cms.exception.AppExceptions.InvalidCredentialsException;
+import com.project.cms.exception.AppExceptions.OptimisticLockException;
 import com.project.cms.exception.AppExceptions.UserNotFoundException;
 import com.project.cms.exception.AppExceptions.ValidationException;
 import com.project.cms.model.UndoAction;
 import com.project.cms.model.User;
 import com.project.cms.model.RoleType;
+import com.project.cms.model.role.Operation;
+import com.project.cms.model.role.PermissionMatrix;
 import com.project.cms.model.role.RolePermissions;
 import com.project.cms.util.PasswordHasher;
 import com.project.cms.util.Validator;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Implementation of UserService.
@@ -23,15 +27,27 @@ import java.util.List;
 
 public class UserServiceImpl implements UserService {
 
-    private final UserDao userDao = new UserDaoImpl();
+    private final UserDao userDao;
 
     private  UndoService undoService;
 
+    private final List<UserChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
     /**
      * Creates a new UserServiceImpl instance.
      * @param undoService - the undo service used for recording undo actions
      */
     public UserServiceImpl(UndoService undoService) {
+        this(DaoFactory.userDao(), undoService);
+    }
+
+    /**
+     * Creates a new UserServiceImpl instance on top of the given DAO.
+     * @param userDao - the DAO used for all user data access
+     * @param undoService - the undo service used for recording undo actions
+     */
+    public UserServiceImpl(UserDao userDao, UndoService undoService) {
+        this.userDao = userDao;
         this.undoService = undoService;
     }
 
@@ -56,6 +72,15 @@ public class UserServiceImpl implements UserService {
         if (!PasswordHasher.verifyPassword(password, user.getPasswordHash()))
             throw new InvalidCredentialsException("Invalid password.");
 
+        // Upgrade a hash of an older format or cost while the password is at hand
+        if (PasswordHasher.needsRehash(user.getPasswordHash())) {
+            String upgraded = PasswordHasher.hashPassword(password);
+            if (userDao.replacePasswordHash(user.getUserId(), user.getPasswordHash(), upgraded)) {
+                user.setPasswordHash(upgraded);
+                fireUserChanged(user.getUserId());
+            }
+        }
+
         return user;
     }
 
@@ -83,6 +108,7 @@ public class UserServiceImpl implements UserService {
 
         String hashed = PasswordHasher.hashPassword(newPass);
         userDao.updatePassword(userId, hashed);
+        fireUserChanged(userId);
 
         // Capture new state for undo
         User newUserCopy = new User(user);
@@ -97,7 +123,14 @@ public class UserServiceImpl implements UserService {
     public RolePermissions getPermissionsFor(User user) {
         if (user == null || user.getRole() == null)
             throw new IllegalArgumentException("User or role cannot be null.");
-        return user.getRole().createPermissions();
+        return PermissionMatrix.permissionsOf(user.getRole());
+    }
+
+    @Override
+    public boolean isAllowed(User user, Operation operation) {
+        if (user == null || user.getRole() == null)
+            throw new IllegalArgumentException("User or role cannot be null.");
+        return PermissionMatrix.isAllowed(user.getRole(), operation);
     }
 
     /* ===================== CREATE USER (Manager) ===================== */
@@ -113,12 +146,8 @@ public class UserServiceImpl implements UserService {
             throws ValidationException, AccessDeniedException {
 
         // Permission check
-        RolePermissions perm = getPermissionsFor(performingUser);
-        try {
-            perm.addNewUser();
-        } catch (UnsupportedOperationException e) {
+        if (!isAllowed(performingUser, Operation.ADD_USER))
             throw new AccessDeniedException("Only Manager can create users.");
-        }
 
         // Validate non-password fields (name, surname, phone, etc.)
         Validator.validateUser(newUser);
@@ -159,39 +188,52 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public void updateUser(User updatedUser, User performingUser)
-            throws ValidationException, UserNotFoundException, AccessDeniedException {
+            throws ValidationException, UserNotFoundException, AccessDeniedException, OptimisticLockException {
         updateUser(updatedUser, performingUser, true);
     }
 
     @Override
     public void updateUser(User updatedUser, User performingUser, boolean recordUndo)
-            throws ValidationException, UserNotFoundException, AccessDeniedException {
+            throws ValidationException, UserNotFoundException, AccessDeniedException, OptimisticLockException {
 
-        RolePermissions perm = getPermissionsFor(performingUser);
-        try {
-            perm.updateExistingUser();
-        } catch (UnsupportedOperationException e) {
+        if (!isAllowed(performingUser, Operation.UPDATE_USER))
             throw new AccessDeniedException("Only Manager can update users.");
-        }
 
         User oldUser = userDao.getUserById(updatedUser.getUserId());
         if (oldUser == null)
             throw new UserNotFoundException("User not found.");
+        if (oldUser.getVersion() != updatedUser.getVersion())
+            throw conflict(updatedUser.getUserId());
 
         // Manager MUST NOT change password here
         updatedUser.setPasswordHash(oldUser.getPasswordHash());
 
         Validator.validateUser(updatedUser);
 
-        userDao.updateUser(updatedUser);
+        // Row is only written if it still has the version it was read with
+        if (!userDao.updateUser(updatedUser)) {
+            User current = userDao.getUserById(updatedUser.getUserId());
+            if (current == null)
+                throw new UserNotFoundException("User not found.");
+            if (current.getVersion() != updatedUser.getVersion())
+                throw conflict(updatedUser.getUserId());
+            throw new RuntimeException("Database error: Failed to update user.");
+        }
+        updatedUser.setVersion(updatedUser.getVersion() + 1);
+        fireUserChanged(updatedUser.getUserId());
 
         // Undo: UPDATE USER → undo = restore old user
         if (recordUndo) {
             undoService.recordUndoAction(performingUser,
-                    UndoAction.forUserUpdate(oldUser, updatedUser));
+                    UndoAction.forUserUpdate(oldUser, new User(updatedUser)));
         }
     }
 
+    private static OptimisticLockException conflict(int userId) {
+        return new OptimisticLockException("User " + userId
+                + " was changed by another user in the meantime. Reload it and try again.");
+    }
+
     /* ===================== DELETE USER (Manager) ===================== */
 
     @Override
@@ -204,12 +246,8 @@ public class UserServiceImpl implements UserService {
     public void deleteUser(int targetUserId, User performingUser, boolean recordUndo)
             throws UserNotFoundException, AccessDeniedException {
 
-        RolePermissions perm = getPermissionsFor(performingUser);
-        try {
-            perm.deleteExistingUser();
-        } catch (UnsupportedOperationException e) {
+        if (!isAllowed(performingUser, Operation.DELETE_USER))
             throw new AccessDeniedException("Only Manager can delete users.");
-        }
 
         // Manager cannot delete himself
         if (performingUser.getUserId() == targetUserId)
@@ -225,6 +263,7 @@ public class UserServiceImpl implements UserService {
 
         // 3) delete user
         userDao.deleteUser(targetUserId);
+        fireUserChanged(targetUserId);
 
     
         if (recordUndo) {
@@ -236,6 +275,29 @@ public class UserServiceImpl implements UserService {
     }
 
 
+    @Override
+    public void deleteUserIfUnchanged(User expected, User performingUser)
+            throws UserNotFoundException, AccessDeniedException, OptimisticLockException {
+
+        if (!isAllowed(performingUser, Operation.DELETE_USER))
+            throw new AccessDeniedException("Only Manager can delete users.");
+
+        if (performingUser.getUserId() == expected.getUserId())
+            throw new AccessDeniedException("You cannot delete your own account.");
+
+        // Row is only deleted if it still has the version it was read with
+        if (!userDao.deleteUserIfVersion(expected.getUserId(), expected.getVersion())) {
+            User current = userDao.getUserById(expected.getUserId());
+            if (current == null)
+                throw new UserNotFoundException("User not found.");
+            if (current.getVersion() != expected.getVersion())
+                throw conflict(expected.getUserId());
+            throw new RuntimeException("Database error: Failed to delete user.");
+        }
+        fireUserChanged(expected.getUserId());
+    }
+
+
     @Override
         public List<User> getAllUsers() {
         return userDao.getAllUsers();
@@ -260,5 +322,19 @@ public class UserServiceImpl implements UserService {
         }
 
         userDao.updatePassword(userId, oldPasswordHash);
+        fireUserChanged(userId);
+    }
+
+    /* ===================== USER CHANGES ===================== */
+
+    @Override
+    public void addUserChangeListener(UserChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    private void fireUserChanged(int userId) {
+        for (UserChangeListener listener : changeListeners) {
+            listener.userChanged(userId);
+        }
     }
 }
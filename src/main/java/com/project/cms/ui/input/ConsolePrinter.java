@@ -174,6 +174,12 @@ public class ConsolePrinter {
         }
     }
 
+    /** Column titles used by every contact table. */
+    static final java.util.List<String> CONTACT_HEADERS = java.util.List.of(
+        "ID", "First Name", "Middle Name", "Last Name", "Nickname", 
+        "City", "Phone 1", "Phone 2", "Email", "LinkedIn", "Birth Date"
+    );
+
     /**
      * Prints a formatted table of contact objects using ConsoleTable.
      *
@@ -186,29 +192,47 @@ public class ConsolePrinter {
             return;
         }
 
-        java.util.List<String> headers = java.util.List.of(
-            "ID", "First Name", "Middle Name", "Last Name", "Nickname", 
-            "City", "Phone 1", "Phone 2", "Email", "LinkedIn", "Birth Date"
-        );
         java.util.List<java.util.List<String>> rows = new java.util.ArrayList<>();
 
         for (com.project.cms.model.Contact c : contacts) {
-            rows.add(java.util.List.of(
-                String.valueOf(c.getContactId()),
-                c.getFirstName(),
-                c.getMiddleName() == null ? "" : c.getMiddleName(),
-                c.getLastName(),
-                c.getNickname() == null ? "" : c.getNickname(),
-                c.getCity() == null ? "" : c.getCity(),
-                c.getPhonePrimary(),
-                c.getPhoneSecondary() == null ? "" : c.getPhoneSecondary(),
-                c.getEmail() == null ? "" : c.getEmail(),
-                c.getLinkedinUrl() == null ? "" : c.getLinkedinUrl(),
-                c.getBirthDate() == null ? "" : c.getBirthDate().toString()
-            ));
+            rows.add(contactRow(c));
         }
 
-        com.project.cms.util.ConsoleTable.printTable(headers, rows);
+        com.project.cms.util.ConsoleTable.printTable(CONTACT_HEADERS, rows);
+    }
+
+    /**
+     * Creates a writer that prints streamed contacts incrementally,
+     * one block of rows at a time.
+     *
+     * @return a new table writer; call {@link ContactTableWriter#finish()} at the end
+     */
+
+    public static ContactTableWriter contactTableWriter() {
+        return new ContactTableWriter();
+    }
+
+    /**
+     * Converts a contact into the cell values of one table row.
+     *
+     * @param c contact to display
+     * @return the row cells in {@link #CONTACT_HEADERS} order
+     */
+
+    static java.util.List<String> contactRow(com.project.cms.model.Contact c) {
+        return java.util.List.of(
+            String.valueOf(c.getContactId()),
+            c.getFirstName(),
+            c.getMiddleName() == null ? "" : c.getMiddleName(),
+            c.getLastName(),
+            c.getNickname() == null ? "" : c.getNickname(),
+            c.getCity() == null ? "" : c.getCity(),
+            c.getPhonePrimary(),
+            c.getPhoneSecondary() == null ? "" : c.getPhoneSecondary(),
+            c.getEmail() == null ? "" : c.getEmail(),
+            c.getLinkedinUrl() == null ? "" : c.getLinkedinUrl(),
+            c.getBirthDate() == null ? "" : c.getBirthDate().toString()
+        );
     }
 
     /**
@@ -0,0 +1,59 @@
+package com.project.cms.ui.input;
+
+import com.project.cms.model.Contact;
+import com.project.cms.util.ConsoleTable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Prints contacts as they arrive from a streaming source.
+ * <p>
+ * Rows are collected into blocks of at most {@link #BLOCK_SIZE} entries; every
+ * full block is printed as its own table and then discarded. Output therefore
+ * starts after the first block and memory use stays bounded no matter how many
+ * contacts are streamed.
+ */
+public class ContactTableWriter implements Consumer<Contact> {
+
+    /** Number of rows printed per table block. */
+    public static final int BLOCK_SIZE = 50;
+
+    private final List<List<String>> block = new ArrayList<>(BLOCK_SIZE);
+    private int total;
+
+    /**
+     * Adds a contact to the current block, printing the block when it is full.
+     *
+     * @param contact the next contact to display
+     */
+    @Override
+    public void accept(Contact contact) {
+        block.add(ConsolePrinter.contactRow(contact));
+        total++;
+        if (block.size() == BLOCK_SIZE) {
+            flush();
+        }
+    }
+
+    /**
+     * Prints the remaining rows. If nothing was streamed at all, prints the
+     * usual "no contacts" message instead.
+     *
+     * @return total number of contacts printed
+     */
+    public int finish() {
+        if (total == 0) {
+            ConsolePrinter.info("No contacts to display.");
+            return 0;
+        }
+        flush();
+        return total;
+    }
+
+    private void flush() {
+        if (block.isEmpty()) return;
+        ConsoleTable.printTable(ConsolePrinter.CONTACT_HEADERS, block);
+        block.clear();
+    }
+}
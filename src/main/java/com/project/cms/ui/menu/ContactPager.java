@@ -0,0 +1,130 @@
+package com.project.cms.ui.menu;
+
+import com.project.cms.model.Contact;
+import com.project.cms.model.ContactPage;
+import com.project.cms.model.PageCursor;
+import com.project.cms.ui.input.ConsolePrinter;
+import com.project.cms.ui.input.ContactTableWriter;
+import com.project.cms.ui.input.InputHandler;
+import java.util.function.Consumer;
+
+/**
+ * Shared console view that pages through a contact listing.
+ * <p>
+ * Each page is requested with the cursor of the previous one, so only the
+ * rows of the current page are ever loaded. Used by the list, sort and
+ * search screens of the Tester, Junior and Senior menus.
+ * <p>
+ * Listings that can also be streamed offer to print everything at once:
+ * the rows then come from a forward-only cursor and are printed block by
+ * block through a {@link ContactTableWriter}, without paging.
+ */
+class ContactPager {
+
+    /** Number of contacts shown per page. */
+    static final int PAGE_SIZE = 20;
+
+    /**
+     * Loads one page of a listing.
+     */
+    @FunctionalInterface
+    interface PageSource {
+        /**
+         * @param after cursor of the previous page, or null for the first page
+         * @return the requested page
+         * @throws Exception if the page cannot be loaded (e.g. access denied)
+         */
+        ContactPage fetch(PageCursor after) throws Exception;
+    }
+
+    /**
+     * Streams a whole listing.
+     */
+    @FunctionalInterface
+    interface StreamSource {
+        /**
+         * @param sink receives the contacts in listing order
+         * @return number of contacts streamed, or -1 on failure
+         * @throws Exception if the listing cannot be loaded
+         */
+        int stream(Consumer<Contact> sink) throws Exception;
+    }
+
+    private ContactPager() {}
+
+    /**
+     * Prints pages until the listing ends or the user stops paging.
+     *
+     * @param source loads the pages
+     * @return number of contacts shown
+     * @throws Exception if loading a page fails
+     */
+    static int show(PageSource source) throws Exception {
+        return show(source, "No contacts to display.");
+    }
+
+    /**
+     * Prints pages until the listing ends or the user stops paging.
+     *
+     * @param source       loads the pages
+     * @param emptyMessage message printed when the listing has no rows at all
+     * @return number of contacts shown
+     * @throws Exception if loading a page fails
+     */
+    static int show(PageSource source, String emptyMessage) throws Exception {
+        return show(source, null, emptyMessage);
+    }
+
+    /**
+     * Prints pages until the listing ends or the user stops paging; the user
+     * can also ask for the whole listing, which is then streamed.
+     *
+     * @param source loads the pages
+     * @param all    streams the same listing, or null if it cannot be streamed
+     * @return number of contacts shown
+     * @throws Exception if loading a page or the stream fails
+     */
+    static int show(PageSource source, StreamSource all) throws Exception {
+        return show(source, all, "No contacts to display.");
+    }
+
+    private static int show(PageSource source, StreamSource all, String emptyMessage) throws Exception {
+        PageCursor cursor = null;
+        int pageNo = 1;
+        int shown = 0;
+
+        while (true) {
+            ContactPage page = source.fetch(cursor);
+
+            if (page.isEmpty() && pageNo == 1) {
+                ConsolePrinter.info(emptyMessage);
+                return 0;
+            }
+
+            ConsolePrinter.subTitle("Page " + pageNo);
+            ConsolePrinter.printContactList(page.getContacts());
+            shown += page.getContacts().size();
+
+            if (!page.hasNext()) {
+                ConsolePrinter.info(shown + " contact(s) shown.");
+                return shown;
+            }
+
+            String answer = InputHandler.readString(all == null
+                    ? "Press ENTER for the next page, or 'q' to stop"
+                    : "Press ENTER for the next page, 'a' to print the whole list, or 'q' to stop", false);
+            if (answer.equalsIgnoreCase("q")) {
+                return shown;
+            }
+            if (all != null && answer.equalsIgnoreCase("a")) {
+                ConsolePrinter.subTitle("Whole list");
+                ContactTableWriter writer = ConsolePrinter.contactTableWriter();
+                all.stream(writer);
+                return writer.finish();
+            }
+
+            cursor = page.getNextCursor();
+            pageNo++;
+        }
+    }
+}
@@ -80,8 +80,13 @@ public class JuniorDevMenu {
      */
     private void listContacts() {
         ConsolePrinter.subTitle("All Contacts");
-        List<Contact> contacts = contactService.getAllContacts();
-        ConsolePrinter.printContactList(contacts);
+        try {
+            ContactPager.show(after ->
+                    contactService.getContactsPage("contact_id", true, after, ContactPager.PAGE_SIZE),
+                    contactService::streamAllContacts);
+        } catch (Exception e) {
+            ConsolePrinter.error("Listing failed: " + e.getMessage());
+        }
     }
 /**
      * Performs a multi-field search on contacts.
@@ -123,13 +128,9 @@ public class JuniorDevMenu {
         }
 
         try {
-            List<Contact> results = contactService.searchContacts(criteria, user);
-            if (results.isEmpty()) {
-                ConsolePrinter.info("No matching contacts found.");
-            } else {
-                ConsolePrinter.success(results.size() + " contact(s) found:");
-                ConsolePrinter.printContactList(results);
-            }
+            ContactPager.show(after ->
+                    contactService.searchContactsPage(criteria, user, after, ContactPager.PAGE_SIZE),
+                    "No matching contacts found.");
         } catch (Exception e) {
             ConsolePrinter.error("Search failed: " + e.getMessage());
         }
@@ -169,8 +170,9 @@ public class JuniorDevMenu {
         boolean isAscending = InputHandler.readInt("Order", 1, 2) == 1;
 
         try {
-            List<Contact> sortedList = contactService.sortContacts(field, isAscending);
-            ConsolePrinter.printContactList(sortedList);
+            ContactPager.show(after ->
+                    contactService.getContactsPage(field, isAscending, after, ContactPager.PAGE_SIZE),
+                    sink -> contactService.streamSortedContacts(field, isAscending, sink));
         } catch (Exception e) {
             ConsolePrinter.error("Sort failed: " + e.getMessage());
         }
@@ -4,11 +4,14 @@ import com.project.cms.model.Contact;
 import com.project.cms.model.SearchCriteria;
 import com.project.cms.model.User;
 import com.project.cms.service.ContactService;
+import com.project.cms.service.ImportReport;
 import com.project.cms.service.UndoService;
 import com.project.cms.service.UserService;
 import com.project.cms.ui.input.ConsolePrinter;
 import com.project.cms.ui.input.InputHandler;
 import com.project.cms.util.Validator;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 /**
  * Menu interface for the Senior Developer role.
@@ -18,6 +21,8 @@ import java.util.List;
  * <li>All Junior capabilities (Read, Update, Undo, Password Change).</li>
  * <li><b>Create:</b> Can add new contacts to the system.</li>
  * <li><b>Delete:</b> Can remove existing contacts.</li>
+ * <li><b>Import:</b> Can load contacts from a CSV or JSON file.</li>
+ * <li><b>Export:</b> Can save all contacts to a CSV, NDJSON or columnar file.</li>
  * <li><b>Undo:</b> Can undo create, update, and delete operations.</li>
  * </ul>
  */
@@ -55,12 +60,14 @@ public class SeniorDevMenu {
             ConsolePrinter.menuOption(3, "Sort Contacts");
             ConsolePrinter.menuOption(4, "Add New Contact");
             ConsolePrinter.menuOption(5, "Update Contact");
-            ConsolePrinter.menuOption(6, "Delete Contact");
-            ConsolePrinter.menuOption(7, "Undo Last Operation");
-            ConsolePrinter.menuOption(8, "Change Password");
+            ConsolePrinter.menuOption(6, "Delete Contact(s)");
+            ConsolePrinter.menuOption(7, "Import Contacts (CSV/JSON)");
+            ConsolePrinter.menuOption(8, "Export Contacts (CSV/NDJSON/Columnar)");
+            ConsolePrinter.menuOption(9, "Undo Last Operation");
+            ConsolePrinter.menuOption(10, "Change Password");
             ConsolePrinter.menuOption(0, "Logout");
 
-            int choice = InputHandler.readInt("Choice", 0, 8);
+            int choice = InputHandler.readInt("Choice", 0, 10);
 
             switch (choice) {
                 case 1 -> listContacts();
@@ -69,8 +76,10 @@ public class SeniorDevMenu {
                 case 4 -> addContact();
                 case 5 -> updateContact();
                 case 6 -> deleteContact();
-                case 7 -> undoLastAction();
-                case 8 -> changePassword();
+                case 7 -> importContacts();
+                case 8 -> exportContacts();
+                case 9 -> undoLastAction();
+                case 10 -> changePassword();
                 case 0 -> { 
                     ConsolePrinter.info("Logging out...");
                     return; 
@@ -85,8 +94,13 @@ public class SeniorDevMenu {
      */
     private void listContacts() {
         ConsolePrinter.subTitle("All Contacts");
-        List<Contact> contacts = contactService.getAllContacts();
-        ConsolePrinter.printContactList(contacts);
+        try {
+            ContactPager.show(after ->
+                    contactService.getContactsPage("contact_id", true, after, ContactPager.PAGE_SIZE),
+                    contactService::streamAllContacts);
+        } catch (Exception e) {
+            ConsolePrinter.error("Listing failed: " + e.getMessage());
+        }
     }
 /**
      * Performs a multi-field search on contacts.
@@ -127,13 +141,9 @@ public class SeniorDevMenu {
         }
 
         try {
-            List<Contact> results = contactService.searchContacts(criteria, user);
-            if (results.isEmpty()) {
-                ConsolePrinter.info("No matching contacts found.");
-            } else {
-                ConsolePrinter.success(results.size() + " contact(s) found:");
-                ConsolePrinter.printContactList(results);
-            }
+            ContactPager.show(after ->
+                    contactService.searchContactsPage(criteria, user, after, ContactPager.PAGE_SIZE),
+                    "No matching contacts found.");
         } catch (Exception e) {
             ConsolePrinter.error("Search failed: " + e.getMessage());
         }
@@ -174,8 +184,9 @@ public class SeniorDevMenu {
         boolean isAscending = InputHandler.readInt("Order", 1, 2) == 1;
 
         try {
-            List<Contact> sortedList = contactService.sortContacts(field, isAscending);
-            ConsolePrinter.printContactList(sortedList);
+            ContactPager.show(after ->
+                    contactService.getContactsPage(field, isAscending, after, ContactPager.PAGE_SIZE),
+                    sink -> contactService.streamSortedContacts(field, isAscending, sink));
         } catch (Exception e) {
             ConsolePrinter.error("Sort failed: " + e.getMessage());
         }
@@ -289,18 +300,89 @@ public class SeniorDevMenu {
         }
     }
 /**
-     * Deletes a contact from the system.
+     * Deletes one or more contacts from the system.
+     * Several IDs can be given separated by commas; they are deleted together
+     * and undone together.
      */
     private void deleteContact() {
-        ConsolePrinter.subTitle("Delete Contact");
-        int id = InputHandler.readInt("Enter Contact ID to delete");
+        ConsolePrinter.subTitle("Delete Contact(s)");
+        String input = InputHandler.readString("Enter Contact ID(s) to delete (comma-separated)", true);
+
+        List<Integer> ids = new ArrayList<>();
+        try {
+            for (String part : input.split(",")) {
+                if (!part.isBlank()) ids.add(Integer.parseInt(part.trim()));
+            }
+        } catch (NumberFormatException e) {
+            ConsolePrinter.error("Invalid ID list. Use numbers separated by commas, e.g. 3, 7, 12.");
+            return;
+        }
+
         try {
-            contactService.deleteContact(id, user);
-            ConsolePrinter.success("Contact deleted successfully.");
+            if (ids.size() == 1) {
+                contactService.deleteContact(ids.get(0), user);
+                ConsolePrinter.success("Contact deleted successfully.");
+            } else {
+                int deleted = contactService.deleteContacts(ids, user);
+                ConsolePrinter.success(deleted + " contact(s) deleted successfully.");
+            }
         } catch (Exception e) {
             ConsolePrinter.error("Delete failed: " + e.getMessage());
         }
     }
+/**
+     * Imports contacts from a CSV or JSON file, showing the progress while it runs.
+     * Existing contacts with the same primary phone or email are updated.
+     */
+    private void importContacts() {
+        ConsolePrinter.subTitle("Import Contacts");
+        System.out.println("CSV files need a header row, e.g. first_name,last_name,nickname,city,phone_primary,email");
+        System.out.println("JSON files hold an array of objects (or one object per line) with the same keys.");
+        String input = InputHandler.readString("File path (.csv, .json, .jsonl)", true);
+
+        try {
+            ImportReport report = contactService.importContacts(Path.of(input.trim()), user, progress ->
+                    System.out.print("\r" + progress.getRecordsRead() + " records read ("
+                            + progress.getRecordsPerSecond() + "/s)..."));
+            System.out.println();
+
+            if (report.isComplete()) {
+                ConsolePrinter.success("Import finished in " + report.getElapsedMillis() + " ms.");
+            } else {
+                ConsolePrinter.error("Import stopped: " + report.getStopReason());
+            }
+            System.out.println("Records read : " + report.getRecordsRead()
+                    + " (" + report.getRecordsPerSecond() + "/s)");
+            System.out.println("Inserted     : " + report.getInserted());
+            System.out.println("Updated      : " + report.getUpdated());
+            System.out.println("Duplicates   : " + report.getDuplicates());
+            System.out.println("Invalid      : " + report.getInvalid());
+            if (!report.getErrors().isEmpty()) {
+                ConsolePrinter.warning("First problems:");
+                report.getErrors().forEach(error -> System.out.println("  " + error));
+            }
+            ConsolePrinter.info("Imports cannot be undone.");
+        } catch (Exception e) {
+            ConsolePrinter.error("Import failed: " + e.getMessage());
+        }
+    }
+/**
+     * Exports all contacts to a file; the format follows the file extension.
+     */
+    private void exportContacts() {
+        ConsolePrinter.subTitle("Export Contacts");
+        System.out.println(".csv and .ndjson files can be imported again; .cmsc is a compact columnar file.");
+        String input = InputHandler.readString("File path (.csv, .ndjson, .cmsc)", true);
+
+        try {
+            long started = System.currentTimeMillis();
+            int count = contactService.exportContacts(Path.of(input.trim()));
+            ConsolePrinter.success(count + " contact(s) exported in "
+                    + (System.currentTimeMillis() - started) + " ms.");
+        } catch (Exception e) {
+            ConsolePrinter.error("Export failed: " + e.getMessage());
+        }
+    }
 /**
      * Reverts the last create, update, or delete operation.
      */
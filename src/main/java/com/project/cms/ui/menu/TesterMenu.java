@@ -1,6 +1,5 @@
 package com.project.cms.ui.menu;
 
-import com.project.cms.model.Contact;
 import com.project.cms.model.SearchCriteria;
 import com.project.cms.model.User;
 import com.project.cms.service.ContactService;
@@ -8,7 +7,6 @@ import com.project.cms.service.UndoService;
 import com.project.cms.service.UserService;
 import com.project.cms.ui.input.ConsolePrinter;
 import com.project.cms.ui.input.InputHandler;
-import java.util.List;
 /**
  * Menu interface for the Tester role.
  * <p>
@@ -77,9 +75,13 @@ public class TesterMenu {
      */
     private void listContacts() {
         ConsolePrinter.subTitle("All Contacts");
-        
-        List<Contact> contacts = contactService.getAllContacts();
-        ConsolePrinter.printContactList(contacts);
+        try {
+            ContactPager.show(after ->
+                    contactService.getContactsPage("contact_id", true, after, ContactPager.PAGE_SIZE),
+                    contactService::streamAllContacts);
+        } catch (Exception e) {
+            ConsolePrinter.error("Listing failed: " + e.getMessage());
+        }
     }
 /**
      * Performs a multi-field search on contacts based on user input.
@@ -120,14 +122,9 @@ public class TesterMenu {
         }
 
         try {
-            List<Contact> results = contactService.searchContacts(criteria, user);
-            
-            if (results.isEmpty()) {
-                ConsolePrinter.info("No matching contacts found.");
-            } else {
-                ConsolePrinter.success(results.size() + " contact(s) found:");
-                ConsolePrinter.printContactList(results);
-            }
+            ContactPager.show(after ->
+                    contactService.searchContactsPage(criteria, user, after, ContactPager.PAGE_SIZE),
+                    "No matching contacts found.");
         } catch (Exception e) {
             ConsolePrinter.error("Search failed: " + e.getMessage());
         }
@@ -168,8 +165,9 @@ public class TesterMenu {
         boolean isAscending = InputHandler.readInt("Order", 1, 2) == 1;
 
         try {
-            List<Contact> sortedList = contactService.sortContacts(field, isAscending);
-            ConsolePrinter.printContactList(sortedList);
+            ContactPager.show(after ->
+                    contactService.getContactsPage(field, isAscending, after, ContactPager.PAGE_SIZE),
+                    sink -> contactService.streamSortedContacts(field, isAscending, sink));
         } catch (Exception e) {
             ConsolePrinter.error("Sort failed: " + e.getMessage());
         }
@@ -0,0 +1,70 @@
+package com.project.cms.util;
+
+/**
+ * Immutable snapshot of the counters of an in-process cache.
+ * <p>
+ * Used to size a cache: a low hit ratio together with many evictions means
+ * the cache is too small (or the TTL too short) for the working set.
+ */
+public class CacheStats {
+
+    private final int size;
+    private final int maxSize;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long expiredCount;
+
+    /**
+     * Creates a new statistics snapshot.
+     *
+     * @param size          entries currently cached
+     * @param maxSize       configured upper bound of entries
+     * @param hitCount      lookups answered from the cache
+     * @param missCount     lookups that went to the database
+     * @param evictionCount entries dropped because the cache was full
+     * @param expiredCount  entries dropped because their TTL had passed
+     */
+    public CacheStats(int size, int maxSize, long hitCount, long missCount,
+                      long evictionCount, long expiredCount) {
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.expiredCount = expiredCount;
+    }
+
+    /** @return entries currently cached */
+    public int getSize() { return size; }
+
+    /** @return configured upper bound of entries */
+    public int getMaxSize() { return maxSize; }
+
+    /** @return lookups answered from the cache */
+    public long getHitCount() { return hitCount; }
+
+    /** @return lookups that went to the database */
+    public long getMissCount() { return missCount; }
+
+    /** @return entries dropped because the cache was full */
+    public long getEvictionCount() { return evictionCount; }
+
+    /** @return entries dropped because their TTL had passed */
+    public long getExpiredCount() { return expiredCount; }
+
+    /**
+     * @return share of lookups answered from the cache, between 0 and 1
+     */
+    public double getHitRatio() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : hitCount / (double) total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "CacheStats {size=%d, max=%d, hits=%d, misses=%d, hitRatio=%.1f%%, evictions=%d, expired=%d}",
+                size, maxSize, hitCount, missCount, getHitRatio() * 100, evictionCount, expiredCount);
+    }
+}
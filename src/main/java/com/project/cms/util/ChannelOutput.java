@@ -0,0 +1,134 @@
+package com.project.cms.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Buffered output to a {@link FileChannel}.
+ * <p>
+ * Bytes and text are collected in one direct buffer that is written to the
+ * channel when it is full, so the memory used does not depend on how much is
+ * written. Text is encoded as UTF-8 straight into the buffer.
+ * <p>
+ * Not thread-safe.
+ */
+public class ChannelOutput implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private long flushed;
+
+    /**
+     * Creates (or truncates) a file for writing.
+     *
+     * @param file the file
+     * @throws IOException if the file cannot be opened
+     */
+    public ChannelOutput(Path file) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param channel    the channel to write to; closed by {@link #close()}
+     * @param bufferSize size of the buffer in bytes
+     */
+    public ChannelOutput(FileChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, 16));
+    }
+
+    /**
+     * @return number of bytes written so far, including those still in the buffer
+     */
+    public long position() {
+        return flushed + buffer.position();
+    }
+
+    public void writeByte(int b) throws IOException {
+        ensure(1);
+        buffer.put((byte) b);
+    }
+
+    public void writeInt(int v) throws IOException {
+        ensure(4);
+        buffer.putInt(v);
+    }
+
+    public void writeLong(long v) throws IOException {
+        ensure(8);
+        buffer.putLong(v);
+    }
+
+    public void write(byte[] bytes) throws IOException {
+        write(bytes, 0, bytes.length);
+    }
+
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (!buffer.hasRemaining()) flush();
+            int n = Math.min(length, buffer.remaining());
+            buffer.put(bytes, offset, n);
+            offset += n;
+            length -= n;
+        }
+    }
+
+    /**
+     * Writes text as UTF-8, without a length prefix.
+     */
+    public void writeText(CharSequence text) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isUnderflow()) break;
+            if (result.isOverflow()) {
+                flush();
+            } else {
+                result.throwException();
+            }
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the buffered bytes to the channel.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            flushed += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Flushes and closes the channel.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) flush();
+    }
+}
@@ -0,0 +1,43 @@
+package com.project.cms.util;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Resolves column names to positions once per result set, so that row
+ * mappers can read values by index instead of by name.
+ */
+public final class ColumnIndexes {
+
+    private ColumnIndexes() {
+    }
+
+    /**
+     * Finds the 1-based position of each column by its label, ignoring case.
+     *
+     * @param meta    metadata of the result set
+     * @param columns column names, lower case
+     * @return the position of {@code columns[i]} at index {@code i}
+     * @throws SQLException if a column is not part of the result
+     */
+    public static int[] resolve(ResultSetMetaData meta, String[] columns) throws SQLException {
+        int[] index = new int[columns.length];
+        int count = meta.getColumnCount();
+
+        for (int i = 1; i <= count; i++) {
+            String label = meta.getColumnLabel(i).toLowerCase(Locale.ROOT);
+            for (int c = 0; c < columns.length; c++) {
+                if (index[c] == 0 && columns[c].equals(label)) {
+                    index[c] = i;
+                    break;
+                }
+            }
+        }
+
+        for (int c = 0; c < columns.length; c++) {
+            if (index[c] == 0) throw new SQLException("Column '" + columns[c] + "' not found.");
+        }
+        return index;
+    }
+}
@@ -0,0 +1,807 @@
+package com.project.cms.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded JDBC connection pool used behind {@link DbConnection}.
+ * <p>
+ * Physical connections are opened lazily through {@link DriverManager} up to
+ * {@link Config#getMaxSize()} and handed out wrapped in a proxy whose
+ * {@code close()} returns the connection to the pool instead of closing the
+ * socket. Callers therefore keep using the usual try-with-resources pattern.
+ * <p>
+ * The pool provides:
+ * <ul>
+ *   <li><b>Bounded size:</b> borrowers block until a connection is free or the
+ *       borrow timeout elapses.</li>
+ *   <li><b>Validation on borrow:</b> connections idle for longer than the
+ *       validation interval are checked with {@link Connection#isValid(int)}.</li>
+ *   <li><b>Idle eviction:</b> a background housekeeper closes connections that
+ *       stayed idle longer than the idle timeout (keeping {@code minIdle}).</li>
+ *   <li><b>Leak detection</b> (off by default): connections held longer than
+ *       the leak threshold are reported together with the stack trace of the
+ *       borrowing call. Recording that stack trace costs every borrow, and
+ *       streaming exports or imports hold a connection for long legitimately,
+ *       so it is meant to be switched on while debugging.</li>
+ *   <li><b>Statement cache:</b> every physical connection keeps the statements
+ *       prepared on it, keyed by their SQL text. Preparing the same SQL again
+ *       on a later lease returns the cached statement, so the database parses
+ *       each statement once per connection. Closing a cached statement only
+ *       clears its parameters and puts it back.</li>
+ *   <li><b>Metrics:</b> see {@link #getStats()}. Every statement execution, prepare,
+ *       commit and rollback is also counted for the calling thread in
+ *       {@link RoundTrips}.</li>
+ * </ul>
+ */
+public class ConnectionPool {
+
+    /**
+     * Tunable settings of a {@link ConnectionPool}.
+     * All durations are in milliseconds; a leak threshold of {@code 0} (the default) disables leak detection.
+     */
+    public static class Config {
+        private int maxSize = 10;
+        private int minIdle = 2;
+        private long borrowTimeoutMillis = 5_000;
+        private long idleTimeoutMillis = 300_000;
+        private long validationIntervalMillis = 5_000;
+        private int validationTimeoutSeconds = 2;
+        private long leakThresholdMillis = 0;
+        private long housekeepingIntervalMillis = 30_000;
+        private int statementCacheSize = 64;
+
+        /** @return maximum number of physical connections */
+        public int getMaxSize() { return maxSize; }
+        /** @param maxSize maximum number of physical connections (at least 1) */
+        public void setMaxSize(int maxSize) { this.maxSize = Math.max(1, maxSize); }
+
+        /** @return number of idle connections kept even when they time out */
+        public int getMinIdle() { return minIdle; }
+        /** @param minIdle number of idle connections kept even when they time out */
+        public void setMinIdle(int minIdle) { this.minIdle = Math.max(0, minIdle); }
+
+        /** @return how long a borrow may wait for a free connection */
+        public long getBorrowTimeoutMillis() { return borrowTimeoutMillis; }
+        /** @param borrowTimeoutMillis how long a borrow may wait for a free connection */
+        public void setBorrowTimeoutMillis(long borrowTimeoutMillis) { this.borrowTimeoutMillis = borrowTimeoutMillis; }
+
+        /** @return idle time after which a connection is evicted */
+        public long getIdleTimeoutMillis() { return idleTimeoutMillis; }
+        /** @param idleTimeoutMillis idle time after which a connection is evicted */
+        public void setIdleTimeoutMillis(long idleTimeoutMillis) { this.idleTimeoutMillis = idleTimeoutMillis; }
+
+        /** @return idle time after which a connection is validated before reuse */
+        public long getValidationIntervalMillis() { return validationIntervalMillis; }
+        /** @param validationIntervalMillis idle time after which a connection is validated before reuse */
+        public void setValidationIntervalMillis(long validationIntervalMillis) { this.validationIntervalMillis = validationIntervalMillis; }
+
+        /** @return timeout passed to {@link Connection#isValid(int)} */
+        public int getValidationTimeoutSeconds() { return validationTimeoutSeconds; }
+        /** @param validationTimeoutSeconds timeout passed to {@link Connection#isValid(int)} */
+        public void setValidationTimeoutSeconds(int validationTimeoutSeconds) { this.validationTimeoutSeconds = validationTimeoutSeconds; }
+
+        /** @return hold time after which a borrowed connection is reported as a leak */
+        public long getLeakThresholdMillis() { return leakThresholdMillis; }
+        /** @param leakThresholdMillis hold time after which a borrowed connection is reported ({@code 0} = off) */
+        public void setLeakThresholdMillis(long leakThresholdMillis) { this.leakThresholdMillis = leakThresholdMillis; }
+
+        /** @return period of the background eviction / leak check */
+        public long getHousekeepingIntervalMillis() { return housekeepingIntervalMillis; }
+        /** @param housekeepingIntervalMillis period of the background eviction / leak check */
+        public void setHousekeepingIntervalMillis(long housekeepingIntervalMillis) { this.housekeepingIntervalMillis = housekeepingIntervalMillis; }
+
+        /** @return prepared statements cached per connection */
+        public int getStatementCacheSize() { return statementCacheSize; }
+        /** @param statementCacheSize prepared statements cached per connection ({@code 0} = off) */
+        public void setStatementCacheSize(int statementCacheSize) { this.statementCacheSize = Math.max(0, statementCacheSize); }
+    }
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final Config config;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+
+    // guarded by lock
+    private final Deque<PooledEntry> idle = new ArrayDeque<>();
+    private int total;
+    private int waiting;
+    private boolean closed;
+
+    private final Set<PooledEntry> borrowed = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+    private final AtomicLong statementEvictions = new AtomicLong();
+
+    private final ScheduledExecutorService housekeeper;
+
+    /**
+     * Creates a new pool. No connection is opened until the first borrow.
+     *
+     * @param url      JDBC URL of the database
+     * @param user     database user name
+     * @param password database password
+     * @param config   pool settings
+     */
+    public ConnectionPool(String url, String user, String password, Config config) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.config = config;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cms-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = config.getHousekeepingIntervalMillis();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // ===========================================================
+    // BORROW
+    // ===========================================================
+
+    /**
+     * Borrows a connection from the pool, opening a new one if the pool
+     * has not yet reached its maximum size.
+     *
+     * @return a pooled connection; closing it returns it to the pool
+     * @throws SQLException if the pool is closed, the borrow timed out,
+     *                      or a new physical connection could not be opened
+     */
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(config.getBorrowTimeoutMillis());
+
+        while (true) {
+            PooledEntry entry = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (entry == null && !create) {
+                    if (closed)
+                        throw new SQLException("Connection pool is closed.");
+
+                    entry = idle.pollLast();          // LIFO: reuse the warmest connection
+                    if (entry == null) {
+                        if (total < config.getMaxSize()) {
+                            total++;
+                            create = true;
+                        } else {
+                            long remaining = deadline - System.nanoTime();
+                            if (remaining <= 0) {
+                                timeoutCount.incrementAndGet();
+                                throw new SQLTimeoutException("Timed out after "
+                                        + config.getBorrowTimeoutMillis() + " ms waiting for a database connection ("
+                                        + borrowed.size() + " active, max " + config.getMaxSize() + ").");
+                            }
+                            waiting++;
+                            try {
+                                available.awaitNanos(remaining);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new SQLException("Interrupted while waiting for a database connection.", e);
+                            } finally {
+                                waiting--;
+                            }
+                        }
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                entry = openEntry();
+            } else if (!validate(entry)) {
+                destroy(entry);
+                continue;                              // try again with the remaining budget
+            }
+
+            recordWait(System.nanoTime() - start);
+            return lease(entry);
+        }
+    }
+
+    /**
+     * Opens a new physical connection. The slot was already reserved in {@code total}.
+     */
+    private PooledEntry openEntry() throws SQLException {
+        try {
+            Connection physical = DriverManager.getConnection(url, user, password);
+            physical.setAutoCommit(true);
+            createdCount.incrementAndGet();
+            return new PooledEntry(physical, config.getStatementCacheSize());
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                total--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Checks a connection taken from the idle list before it is handed out.
+     * Connections used recently are trusted without a round trip.
+     */
+    private boolean validate(PooledEntry entry) {
+        long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - entry.lastReturnedNanos);
+        if (idleMillis < config.getValidationIntervalMillis()) {
+            return true;
+        }
+        try {
+            RoundTrips.record();
+            return entry.physical.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection lease(PooledEntry entry) {
+        entry.borrowedNanos = System.nanoTime();
+        entry.borrowSite = config.getLeakThresholdMillis() > 0
+                ? new Throwable("Connection borrowed here")
+                : null;
+        entry.leakReported = false;
+        borrowed.add(entry);
+        borrowCount.incrementAndGet();
+
+        LeaseHandler handler = new LeaseHandler(entry);
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                handler);
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    // ===========================================================
+    // RETURN / DESTROY
+    // ===========================================================
+
+    /**
+     * Returns a connection after its lease was closed. Open transactions are
+     * rolled back and auto-commit is restored so that the next borrower
+     * always receives a clean connection.
+     */
+    private void release(PooledEntry entry, List<Statement> openStatements) {
+        borrowed.remove(entry);
+
+        boolean reusable = !entry.broken;
+        for (Statement st : openStatements) {
+            try {
+                st.close();
+            } catch (SQLException ignored) {
+                // statement already unusable; the connection itself is checked below
+            }
+        }
+        if (reusable) {
+            try {
+                if (!entry.autoCommit) {
+                    RoundTrips.record();
+                    entry.physical.rollback();
+                    RoundTrips.record();
+                    entry.physical.setAutoCommit(true);
+                    entry.autoCommit = true;
+                }
+                entry.physical.clearWarnings();
+                reusable = !entry.physical.isClosed();
+            } catch (SQLException e) {
+                reusable = false;
+            }
+        }
+
+        if (!reusable) {
+            destroy(entry);
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (closed) {
+                total--;
+            } else {
+                entry.lastReturnedNanos = System.nanoTime();
+                idle.addLast(entry);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        closePhysical(entry);
+    }
+
+    private void destroy(PooledEntry entry) {
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        closePhysical(entry);
+    }
+
+    private void closePhysical(PooledEntry entry) {
+        destroyedCount.incrementAndGet();
+        entry.statements.clear();                      // closed together with the connection
+        try {
+            entry.physical.close();
+        } catch (SQLException ignored) {
+            // nothing useful to do, the socket is gone either way
+        }
+    }
+
+    // ===========================================================
+    // HOUSEKEEPING
+    // ===========================================================
+
+    /**
+     * Evicts connections idle for longer than the idle timeout and reports
+     * borrowed connections held longer than the leak threshold.
+     */
+    private void housekeep() {
+        List<PooledEntry> evicted = new ArrayList<>();
+        long now = System.nanoTime();
+
+        lock.lock();
+        try {
+            Iterator<PooledEntry> it = idle.iterator();   // oldest returned first
+            while (it.hasNext() && idle.size() > config.getMinIdle()) {
+                PooledEntry e = it.next();
+                if (TimeUnit.NANOSECONDS.toMillis(now - e.lastReturnedNanos) >= config.getIdleTimeoutMillis()) {
+                    it.remove();
+                    total--;
+                    evicted.add(e);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        evicted.forEach(this::closePhysical);
+
+        long threshold = config.getLeakThresholdMillis();
+        if (threshold <= 0) return;
+
+        for (PooledEntry e : borrowed) {
+            long heldMillis = TimeUnit.NANOSECONDS.toMillis(now - e.borrowedNanos);
+            if (!e.leakReported && heldMillis >= threshold) {
+                e.leakReported = true;
+                leakCount.incrementAndGet();
+                System.out.println("⚠ Possible connection leak: connection held for " + heldMillis + " ms.");
+                if (e.borrowSite != null) {
+                    e.borrowSite.printStackTrace(System.out);
+                }
+            }
+        }
+    }
+
+    // ===========================================================
+    // METRICS / SHUTDOWN
+    // ===========================================================
+
+    /**
+     * @return a snapshot of the current pool metrics
+     */
+    public PoolStats getStats() {
+        lock.lock();
+        try {
+            return new PoolStats(
+                    config.getMaxSize(), borrowed.size(), idle.size(), waiting,
+                    borrowCount.get(), timeoutCount.get(),
+                    createdCount.get(), destroyedCount.get(), leakCount.get(),
+                    totalWaitNanos.get(), maxWaitNanos.get(),
+                    statementHits.get(), statementMisses.get(), statementEvictions.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the settings this pool was created with
+     */
+    public Config getConfig() {
+        return config;
+    }
+
+    /**
+     * Closes all idle connections and stops the housekeeper. Connections that
+     * are still borrowed are closed as soon as they are returned.
+     */
+    public void shutdown() {
+        List<PooledEntry> toClose;
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            total -= idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        toClose.forEach(this::closePhysical);
+    }
+
+    // ===========================================================
+    // INTERNALS
+    // ===========================================================
+
+    /**
+     * A physical connection together with its pool bookkeeping.
+     */
+    private final class PooledEntry {
+        final Connection physical;
+        volatile long lastReturnedNanos = System.nanoTime();
+        volatile long borrowedNanos;
+        volatile Throwable borrowSite;
+        volatile boolean leakReported;
+        volatile boolean broken;
+        boolean autoCommit = true;
+
+        /**
+         * Statements prepared on this connection, least recently used first.
+         * Only touched by the thread holding the lease.
+         */
+        final Map<String, CachedStatement> statements;
+
+        PooledEntry(Connection physical, int statementCacheSize) {
+            this.physical = physical;
+            this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                    if (size() <= statementCacheSize) return false;
+                    statementEvictions.incrementAndGet();
+                    eldest.getValue().evict();
+                    return true;
+                }
+            };
+        }
+    }
+
+    /**
+     * A prepared statement kept open on its connection between leases.
+     */
+    private final class CachedStatement {
+        final PreparedStatement physical;
+        final PooledEntry entry;
+        final int fetchSize;
+        final int maxRows;
+        final int queryTimeout;
+        boolean inUse;
+        boolean evicted;
+
+        CachedStatement(PreparedStatement physical, PooledEntry entry) throws SQLException {
+            this.physical = physical;
+            this.entry = entry;
+            this.fetchSize = physical.getFetchSize();
+            this.maxRows = physical.getMaxRows();
+            this.queryTimeout = physical.getQueryTimeout();
+        }
+
+        /** Dropped from the cache: closed now, or when its current user is done. */
+        void evict() {
+            evicted = true;
+            if (!inUse) closeQuietly(physical);
+        }
+
+        /**
+         * Ends one use of the statement. It goes back to the cache with its
+         * parameters cleared and its settings restored, unless it was
+         * evicted meanwhile or cannot be reset.
+         */
+        void giveBack(List<ResultSet> results, boolean reset) {
+            inUse = false;
+            for (ResultSet rs : results) {
+                closeQuietly(rs);
+            }
+            if (evicted) {
+                closeQuietly(physical);
+                return;
+            }
+            try {
+                if (!reset) throw new SQLException("Statement settings changed.");
+                physical.clearParameters();
+                physical.clearWarnings();
+                if (physical.getFetchSize() != fetchSize) physical.setFetchSize(fetchSize);
+                if (physical.getMaxRows() != maxRows) physical.setMaxRows(maxRows);
+                if (physical.getQueryTimeout() != queryTimeout) physical.setQueryTimeout(queryTimeout);
+            } catch (SQLException e) {
+                entry.statements.values().remove(this);
+                closeQuietly(physical);
+            }
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        try {
+            resource.close();
+        } catch (Exception ignored) {
+            // statement already unusable
+        }
+    }
+
+    /**
+     * Cache key of a {@code prepareStatement} call, or null for the variants
+     * that are not cached (column lists, holdability).
+     */
+    private static String statementKey(Method method, Object[] args) {
+        if (!"prepareStatement".equals(method.getName())) return null;
+
+        Class<?>[] types = method.getParameterTypes();
+        if (types.length == 1) {
+            return (String) args[0];
+        }
+        if (types.length == 2 && types[1] == int.class) {
+            return args[1] + "|" + args[0];
+        }
+        if (types.length == 3) {
+            return args[1] + "," + args[2] + "|" + args[0];
+        }
+        return null;
+    }
+
+    /**
+     * Proxy handler for one use of a {@link CachedStatement}. Closing it
+     * returns the statement to the cache; afterwards the handle is dead,
+     * even though the statement itself may be serving the next lease.
+     */
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final CachedStatement cached;
+        private final List<ResultSet> results = new ArrayList<>(1);
+        private boolean closed;
+        private boolean reset = true;
+
+        StatementHandler(CachedStatement cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            switch (name) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        cached.giveBack(results, reset);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || cached.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "CachedStatement[" + cached.physical + (closed ? ", closed" : "") + "]";
+                }
+                case "setFetchSize", "setMaxRows", "setQueryTimeout" -> { }      // restored on return
+                case "closeOnCompletion" -> reset = false;
+                default -> {
+                    // parameter setters take an index and a value; the one-argument
+                    // setters change the statement itself and cannot be undone
+                    if (name.startsWith("set") && method.getParameterCount() == 1) reset = false;
+                }
+            }
+
+            if (closed)
+                throw new SQLException("Statement is closed.");
+            if (name.startsWith("execute")) RoundTrips.record();
+
+            try {
+                Object result = method.invoke(cached.physical, args);
+                if (result instanceof ResultSet rs) {
+                    results.add(rs);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sql
+                        && sql.getSQLState() != null
+                        && sql.getSQLState().startsWith("08")) {
+                    cached.entry.broken = true;
+                }
+                throw cause;
+            }
+        }
+    }
+
+    /**
+     * Wraps a statement that is not cached so that its executions are
+     * counted in {@link RoundTrips}.
+     *
+     * @param type the interface the statement is handed out as
+     */
+    private static Statement counting(Statement physical, Class<?> type) {
+        return (Statement) Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        default -> {
+                            if (method.getName().startsWith("execute")) RoundTrips.record();
+                        }
+                    }
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /**
+     * Proxy handler for one lease of a pooled connection. After {@code close()}
+     * the lease is dead: further calls fail even though the physical connection
+     * may already be serving another borrower.
+     */
+    private final class LeaseHandler implements InvocationHandler {
+
+        private final PooledEntry entry;
+        private final List<Statement> statements = new ArrayList<>();
+        private boolean leaseClosed;
+
+        LeaseHandler(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            switch (name) {
+                case "close" -> {
+                    if (!leaseClosed) {
+                        leaseClosed = true;
+                        release(entry, statements);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return leaseClosed || entry.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection[" + entry.physical + (leaseClosed ? ", closed" : "") + "]";
+                }
+                default -> { }
+            }
+
+            if (leaseClosed)
+                throw new SQLException("Connection is closed.");
+
+            try {
+                String key = config.getStatementCacheSize() > 0 ? statementKey(method, args) : null;
+                if (key != null) {
+                    PreparedStatement cached = prepareCached(key, method, args);
+                    statements.add(cached);
+                    return cached;
+                }
+
+                switch (name) {
+                    case "prepareStatement", "prepareCall", "commit", "rollback" -> RoundTrips.record();
+                    case "setAutoCommit" -> {
+                        if (entry.autoCommit != (Boolean) args[0]) RoundTrips.record();
+                    }
+                    default -> { }
+                }
+
+                Object result = method.invoke(entry.physical, args);
+
+                if (result instanceof Statement st) {
+                    statements.add(st);
+                    return counting(st, method.getReturnType());
+                } else if ("setAutoCommit".equals(name)) {
+                    entry.autoCommit = (Boolean) args[0];
+                }
+                return result;
+
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sql
+                        && sql.getSQLState() != null
+                        && sql.getSQLState().startsWith("08")) {
+                    entry.broken = true;                   // connection-level failure: never reuse
+                }
+                throw cause;
+            }
+        }
+
+        /**
+         * Hands out the cached statement for {@code key}, preparing it on a
+         * miss. A statement that is still open in this lease (the same SQL
+         * prepared twice) cannot be shared, so a second, uncached one is used.
+         */
+        private PreparedStatement prepareCached(String key, Method method, Object[] args) throws Throwable {
+            CachedStatement cached = entry.statements.get(key);
+            if (cached != null && !cached.inUse && cached.physical.isClosed()) {
+                entry.statements.remove(key);              // closed behind our back, e.g. via ResultSet.getStatement()
+                cached = null;
+            }
+            if (cached != null && cached.inUse) {
+                statementMisses.incrementAndGet();
+                RoundTrips.record();
+                PreparedStatement uncached = (PreparedStatement) method.invoke(entry.physical, args);
+                return (PreparedStatement) counting(uncached, PreparedStatement.class);
+            }
+            if (cached == null) {
+                statementMisses.incrementAndGet();
+                RoundTrips.record();
+                cached = new CachedStatement((PreparedStatement) method.invoke(entry.physical, args), entry);
+                entry.statements.put(key, cached);
+            } else {
+                statementHits.incrementAndGet();
+            }
+
+            cached.inUse = true;
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new StatementHandler(cached));
+        }
+    }
+}
@@ -1,56 +1,87 @@
 package com.project.cms.util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
- * Utility class responsible for creating and providing
- * a connection to the application's MySQL database.
+ * Utility class responsible for providing connections
+ * to the application's MySQL database.
  * <p>
- * This class loads the MySQL JDBC driver and returns
- * a {@link java.sql.Connection} object using the predefined
- * database URL, username, and password.
+ * Connections are served by a bounded {@link ConnectionPool}, so the TCP and
+ * authentication handshake is only paid when the pool grows. Callers keep
+ * using {@link #getConnection()} with try-with-resources: closing the returned
+ * connection hands it back to the pool.
  * <br><br>
- * If the connection attempt fails, the method prints an
+ * If no connection can be obtained, the method prints an
  * error message and returns {@code null}.
  * </p>
  *
+ * <p>The connection settings can be overridden with system properties:
+ * {@code cms.db.url}, {@code cms.db.user}, {@code cms.db.password},
+ * {@code cms.db.pool.maxSize}, {@code cms.db.pool.minIdle},
+ * {@code cms.db.pool.borrowTimeoutMs}, {@code cms.db.pool.idleTimeoutMs},
+ * {@code cms.db.pool.validationIntervalMs}, {@code cms.db.pool.leakThresholdMs}
+ * and {@code cms.db.pool.statementCacheSize}.</p>
+ *
+ * <p>The default URL asks the driver for server-side prepared statements, so
+ * that a statement kept in the pool's statement cache is also parsed only
+ * once by MySQL.</p>
+ *
  * <p><b>Database:</b> contact_app_db<br>
  * <b>User:</b> myuser<br>
  * <b>Password:</b> 1234</p>
  *
  * @author Nezihat Kılıç
- * @version 1.0
+ * @version 1.1
  */
 public class DbConnection {
 
     /** JDBC URL pointing to the MySQL database. */
-    private static final String URL =
-            "jdbc:mysql://localhost:3306/contact_app_db?useUnicode=true&characterEncoding=utf8&useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
+    private static final String URL = System.getProperty("cms.db.url",
+            "jdbc:mysql://localhost:3306/contact_app_db?useUnicode=true&characterEncoding=utf8&useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&useServerPrepStmts=true");
 
     /** Username for database authentication. */
-    private static final String USER = "myuser";
+    private static final String USER = System.getProperty("cms.db.user", "myuser");
 
     /** Password for database authentication. */
-    private static final String PASSWORD = "1234";
+    private static final String PASSWORD = System.getProperty("cms.db.password", "1234");
+
+    /** Shared pool behind every DAO call. */
+    private static final ConnectionPool POOL = new ConnectionPool(URL, USER, PASSWORD, poolConfig());
+
+    /**
+     * Builds the pool settings from the defaults and any system property overrides.
+     *
+     * @return the pool configuration
+     */
+    private static ConnectionPool.Config poolConfig() {
+        ConnectionPool.Config config = new ConnectionPool.Config();
+        config.setMaxSize(Integer.getInteger("cms.db.pool.maxSize", config.getMaxSize()));
+        config.setMinIdle(Integer.getInteger("cms.db.pool.minIdle", config.getMinIdle()));
+        config.setBorrowTimeoutMillis(Long.getLong("cms.db.pool.borrowTimeoutMs", config.getBorrowTimeoutMillis()));
+        config.setIdleTimeoutMillis(Long.getLong("cms.db.pool.idleTimeoutMs", config.getIdleTimeoutMillis()));
+        config.setValidationIntervalMillis(Long.getLong("cms.db.pool.validationIntervalMs", config.getValidationIntervalMillis()));
+        config.setLeakThresholdMillis(Long.getLong("cms.db.pool.leakThresholdMs", config.getLeakThresholdMillis()));
+        config.setStatementCacheSize(Integer.getInteger("cms.db.pool.statementCacheSize", config.getStatementCacheSize()));
+        return config;
+    }
 
     /**
-     * Establishes a new connection to the application's MySQL database.
+     * Borrows a connection to the application's MySQL database from the pool.
      *
-     * <p>The method attempts to load the MySQL JDBC driver and
-     * then creates a connection using the {@link DriverManager}.
-     * In case of failure, it prints a descriptive error message
-     * and returns {@code null}.</p>
+     * <p>A new physical connection is only opened when no idle one is
+     * available and the pool is below its maximum size. Inside a
+     * {@link UnitOfWork} the unit's connection is returned instead. In case of failure
+     * (database unreachable, borrow timeout) it prints a descriptive error
+     * message and returns {@code null}.</p>
      *
-     * @return a valid {@link Connection} object if successful,
+     * @return a valid {@link Connection} object in auto-commit mode (outside a unit of work) if successful,
      *         otherwise {@code null}
      */
       public static Connection getConnection() {
         try {
-            Connection conn = DriverManager.getConnection(URL, USER, PASSWORD);
-            conn.setAutoCommit(true); // Ensure auto-commit is on
-            return conn;
+            Connection bound = UnitOfWork.currentConnection(POOL);
+            return bound != null ? bound : POOL.borrow();
         } catch (SQLException e) {
             System.out.println("❌ Database connection error: " + e.getMessage());
             return null; 
@@ -65,6 +96,25 @@ public class DbConnection {
         return conn;
     }
 
-}
+    /**
+     * @return a snapshot of the connection pool metrics
+     */
+    public static PoolStats getPoolStats() {
+        return POOL.getStats();
+    }
+
+    /**
+     * @return the maximum number of connections the pool will open
+     */
+    public static int getPoolMaxSize() {
+        return POOL.getConfig().getMaxSize();
+    }
 
+    /**
+     * Closes all pooled connections. Called once when the application exits.
+     */
+    public static void shutdown() {
+        POOL.shutdown();
+    }
 
+}
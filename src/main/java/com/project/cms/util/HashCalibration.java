@@ -0,0 +1,51 @@
+package com.project.cms.util;
+
+/**
+ * Result of calibrating the password hash cost with {@link PasswordHasher#calibrate()}.
+ * <p>
+ * A login costs one hash verification, so {@link #getLoginsPerSecond()} is
+ * the login throughput the node can sustain when every core does nothing
+ * else.
+ */
+public class HashCalibration {
+
+    private final int iterations;
+    private final double millisPerHash;
+    private final int processors;
+
+    /**
+     * Creates a new calibration result.
+     *
+     * @param iterations    cost factor chosen for new hashes
+     * @param millisPerHash measured time of one hash with that cost
+     * @param processors    cores available to the JVM
+     */
+    public HashCalibration(int iterations, double millisPerHash, int processors) {
+        this.iterations = iterations;
+        this.millisPerHash = millisPerHash;
+        this.processors = processors;
+    }
+
+    /** @return cost factor chosen for new hashes */
+    public int getIterations() { return iterations; }
+
+    /** @return measured time of one hash (one login) on one core */
+    public double getMillisPerHash() { return millisPerHash; }
+
+    /** @return cores available to the JVM */
+    public int getProcessors() { return processors; }
+
+    /**
+     * @return logins per second with all cores hashing
+     */
+    public double getLoginsPerSecond() {
+        return millisPerHash <= 0 ? 0 : processors * 1000 / millisPerHash;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "HashCalibration {iterations=%d, msPerHash=%.1f, processors=%d, loginsPerSecond=%.0f}",
+                iterations, millisPerHash, processors, getLoginsPerSecond());
+    }
+}
@@ -0,0 +1,223 @@
+package com.project.cms.util;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Hash map from primitive {@code int} keys to non-null values.
+ * <p>
+ * Keys are stored in an {@code int[]} and probed linearly, so a lookup
+ * neither boxes the key nor follows a chain of entry objects, which is what
+ * {@code HashMap<Integer, V>} does. Removal shifts the following entries
+ * back instead of leaving tombstones, so the table never degrades.
+ * <p>
+ * Not thread-safe; callers synchronize externally.
+ *
+ * @param <V> the value type
+ */
+public class IntHashMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private Object[] values;     // null marks a free slot
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    /**
+     * Creates an empty map.
+     */
+    public IntHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Creates an empty map able to hold {@code expected} entries without resizing.
+     *
+     * @param expected expected number of entries
+     */
+    public IntHashMap(int expected) {
+        allocate(tableSizeFor(Math.max(expected, MIN_CAPACITY)));
+    }
+
+    /**
+     * @return number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the map has no entries
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param key the key
+     * @return the value, or null if the key is absent
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) return (V) values[i];
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * @param key the key
+     * @return true if the key is present
+     */
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Associates {@code value} with {@code key}.
+     *
+     * @param key   the key
+     * @param value the value (must not be null)
+     * @return the previous value, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) throw new IllegalArgumentException("Null values are not supported.");
+
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        if (++size > resizeAt) rehash(keys.length * 2);
+        return null;
+    }
+
+    /**
+     * Removes the entry of {@code key}.
+     *
+     * @param key the key
+     * @return the removed value, or null if the key was absent
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                V old = (V) values[i];
+                shiftBack(i);
+                size--;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Removes all entries and shrinks the table.
+     */
+    public void clear() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Passes every value to {@code action}, in no particular order.
+     *
+     * @param action receives the values
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        for (Object v : values) {
+            if (v != null) action.accept((V) v);
+        }
+    }
+
+    // ===========================================================
+    // INTERNALS
+    // ===========================================================
+
+    private int slot(int key) {
+        // spread the bits so sequential IDs do not form one long probe run
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Closes the gap at {@code free} by moving back entries of the same
+     * probe run that would otherwise become unreachable.
+     */
+    private void shiftBack(int free) {
+        int i = free;
+        while (true) {
+            i = (i + 1) & mask;
+            if (values[i] == null) break;
+
+            int home = slot(keys[i]);
+            // entry at i may move to free only if free lies cyclically in [home, i)
+            boolean movable = free <= i ? (home <= free || home > i) : (home <= free && home > i);
+            if (movable) {
+                keys[free] = keys[i];
+                values[free] = values[i];
+                free = i;
+            }
+        }
+        values[free] = null;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] == null) continue;
+            int i = slot(oldKeys[j]);
+            while (values[i] != null) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+            size++;
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = capacity / 4 * 3;
+        size = 0;
+    }
+
+    private static int tableSizeFor(int expected) {
+        int n = Integer.highestOneBit(Math.max(1, expected * 4 / 3) - 1) << 1;
+        return Math.max(n, MIN_CAPACITY);
+    }
+
+    @Override
+    public String toString() {
+        return "IntHashMap{size=" + size + ", capacity=" + keys.length + "}";
+    }
+
+    /**
+     * @return the keys currently in the map, in no particular order
+     */
+    public int[] keys() {
+        int[] out = new int[size];
+        int n = 0;
+        for (int j = 0; j < values.length; j++) {
+            if (values[j] != null) out[n++] = keys[j];
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+}
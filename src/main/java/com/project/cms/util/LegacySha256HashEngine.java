@@ -0,0 +1,65 @@
+package com.project.cms.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * The original format of {@link PasswordHasher}: one salted SHA-256 pass,
+ * stored as {@code Base64(hash):Base64(salt)}.
+ * <p>
+ * It has no cost factor, so {@link PasswordHasher} only uses it to verify
+ * existing hashes; every one of them is due for a rehash.
+ */
+final class LegacySha256HashEngine implements PasswordHashEngine {
+
+    private static final int SALT_LENGTH = 16;
+    private static final String DELIMITER = ":";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    });
+
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_LENGTH];
+        RANDOM.get().nextBytes(salt);
+
+        return Base64.getEncoder().encodeToString(sha256(password, salt))
+                + DELIMITER + Base64.getEncoder().encodeToString(salt);
+    }
+
+    @Override
+    public boolean supports(String stored) {
+        return !stored.startsWith("$") && stored.contains(DELIMITER);
+    }
+
+    @Override
+    public boolean verify(String password, String stored) {
+        String[] parts = stored.split(DELIMITER);
+        if (parts.length != 2) return false;
+
+        byte[] expected = Base64.getDecoder().decode(parts[0]);
+        byte[] salt = Base64.getDecoder().decode(parts[1]);
+        return MessageDigest.isEqual(expected, sha256(password, salt));
+    }
+
+    @Override
+    public boolean needsRehash(String stored) {
+        return true;
+    }
+
+    private static byte[] sha256(String password, byte[] salt) {
+        MessageDigest md = SHA_256.get();
+        md.update(salt);
+        return md.digest(password.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,123 @@
+package com.project.cms.util;
+
+/**
+ * Set of primitive {@code long} values.
+ * <p>
+ * Values are stored in one {@code long[]} and probed linearly, which takes
+ * about a sixth of the memory of a {@code HashSet<Long>}. Used where
+ * millions of fingerprints have to be remembered, e.g. to detect duplicate
+ * rows during an import. Elements cannot be removed.
+ * <p>
+ * Not thread-safe; callers synchronize externally.
+ */
+public class LongHashSet {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] table;        // 0 marks a free slot; the value 0 itself is kept in hasZero
+    private boolean hasZero;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    /**
+     * Creates an empty set.
+     */
+    public LongHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Creates an empty set able to hold {@code expected} values without resizing.
+     *
+     * @param expected expected number of values
+     */
+    public LongHashSet(int expected) {
+        allocate(tableSizeFor(Math.max(expected, MIN_CAPACITY)));
+    }
+
+    /**
+     * @return number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param value the value
+     * @return true if the value is present
+     */
+    public boolean contains(long value) {
+        if (value == 0) return hasZero;
+
+        int i = slot(value);
+        while (table[i] != 0) {
+            if (table[i] == value) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value
+     * @return true if it was not present before
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (hasZero) return false;
+            hasZero = true;
+            size++;
+            return true;
+        }
+
+        int i = slot(value);
+        while (table[i] != 0) {
+            if (table[i] == value) return false;
+            i = (i + 1) & mask;
+        }
+
+        table[i] = value;
+        if (++size > resizeAt) rehash(table.length * 2);
+        return true;
+    }
+
+    // ===========================================================
+    // INTERNALS
+    // ===========================================================
+
+    private int slot(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = table;
+        boolean zero = hasZero;
+        allocate(capacity);
+        hasZero = zero;
+        size = zero ? 1 : 0;
+
+        for (long v : old) {
+            if (v == 0) continue;
+            int i = slot(v);
+            while (table[i] != 0) i = (i + 1) & mask;
+            table[i] = v;
+            size++;
+        }
+    }
+
+    private void allocate(int capacity) {
+        table = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = capacity / 4 * 3;
+        hasZero = false;
+        size = 0;
+    }
+
+    private static int tableSizeFor(int expected) {
+        int n = Integer.highestOneBit(Math.max(1, expected * 4 / 3) - 1) << 1;
+        return Math.max(n, MIN_CAPACITY);
+    }
+}
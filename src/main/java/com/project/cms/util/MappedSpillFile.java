@@ -0,0 +1,205 @@
+package com.project.cms.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Scratch file for byte records that do not need to stay on the heap.
+ * <p>
+ * The file is mapped into memory in segments of {@link #SEGMENT_BYTES}
+ * (a larger record gets a segment of its own size). Records are appended to
+ * the current segment; a segment whose records have all been freed is reused
+ * for new records, so the file only grows when every segment is still in use.
+ * The operating system decides which pages stay in RAM, which keeps rarely
+ * read data out of the Java heap without a serialization round trip through
+ * a stream.
+ * <p>
+ * The contents are not meant to survive a restart; the file is deleted on close.
+ * All methods are thread-safe.
+ */
+public class MappedSpillFile implements Closeable {
+
+    /** Size of a regular segment. */
+    public static final int SEGMENT_BYTES = 1 << 20;
+
+    /**
+     * Location of a record in the file.
+     */
+    public static final class Handle {
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+
+        private Handle(Segment segment, int offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        /**
+         * @return size of the record in bytes
+         */
+        public int getLength() {
+            return length;
+        }
+    }
+
+    private static final class Segment {
+        final MappedByteBuffer buffer;
+        final int size;
+        int writePos;
+        int live;
+
+        Segment(MappedByteBuffer buffer, int size) {
+            this.buffer = buffer;
+            this.size = size;
+        }
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+
+    // guarded by this
+    private final List<Segment> free = new ArrayList<>();
+    private Segment current;
+    private long fileSize;
+    private long liveBytes;
+    private boolean closed;
+
+    /**
+     * Creates the spill file.
+     *
+     * @param file the file to use (replaced if it exists)
+     * @throws IOException if the file cannot be created
+     */
+    public MappedSpillFile(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Creates a spill file with a unique name in {@code dir}.
+     *
+     * @param dir    the directory
+     * @param prefix start of the file name
+     * @return the spill file
+     * @throws IOException if the file cannot be created
+     */
+    public static MappedSpillFile createTemp(Path dir, String prefix) throws IOException {
+        Files.createDirectories(dir);
+        Path file = Files.createTempFile(dir, prefix, ".spill");
+        file.toFile().deleteOnExit();
+        return new MappedSpillFile(file);
+    }
+
+    /**
+     * Copies a record into the file.
+     *
+     * @param data the record
+     * @return where the record was stored
+     * @throws IOException if the file cannot be extended
+     */
+    public synchronized Handle write(byte[] data) throws IOException {
+        if (closed) throw new IOException("Spill file is closed.");
+
+        Segment seg = current;
+        if (seg == null || seg.size - seg.writePos < data.length) {
+            seg = reusableSegment(data.length);
+            if (seg == null) seg = newSegment(Math.max(SEGMENT_BYTES, data.length));
+            if (current != null && current.live == 0) free.add(current);
+            current = seg;
+        }
+
+        int offset = seg.writePos;
+        seg.buffer.put(offset, data);
+        seg.writePos += data.length;
+        seg.live++;
+        liveBytes += data.length;
+        return new Handle(seg, offset, data.length);
+    }
+
+    /**
+     * Copies a record back onto the heap.
+     *
+     * @param handle a handle returned by {@link #write} and not yet freed
+     * @return the record
+     */
+    public synchronized byte[] read(Handle handle) {
+        byte[] data = new byte[handle.length];
+        handle.segment.buffer.get(handle.offset, data);
+        return data;
+    }
+
+    /**
+     * Releases the space of a record. Its segment becomes reusable once all
+     * records in it are freed.
+     *
+     * @param handle a handle returned by {@link #write}
+     */
+    public synchronized void free(Handle handle) {
+        Segment seg = handle.segment;
+        seg.live--;
+        liveBytes -= handle.length;
+        if (seg.live == 0) {
+            if (seg == current) {
+                seg.writePos = 0;
+            } else {
+                free.add(seg);
+            }
+        }
+    }
+
+    /**
+     * @return bytes held by records that were not freed
+     */
+    public synchronized long getLiveBytes() {
+        return liveBytes;
+    }
+
+    /**
+     * @return current size of the file
+     */
+    public synchronized long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * Closes and deletes the file. Handles become invalid.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        free.clear();
+        current = null;
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    private Segment reusableSegment(int length) {
+        for (Iterator<Segment> it = free.iterator(); it.hasNext(); ) {
+            Segment seg = it.next();
+            if (seg.size >= length) {
+                it.remove();
+                seg.writePos = 0;
+                return seg;
+            }
+        }
+        return null;
+    }
+
+    private Segment newSegment(int size) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, fileSize, size);
+        fileSize += size;
+        return new Segment(buffer, size);
+    }
+}
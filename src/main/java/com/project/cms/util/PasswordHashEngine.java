@@ -0,0 +1,38 @@
+package com.project.cms.util;
+
+/**
+ * A password hashing scheme used by {@link PasswordHasher}.
+ * <p>
+ * Every scheme writes hashes in its own recognizable format, so that
+ * {@link PasswordHasher} can tell which engine verifies a stored value and
+ * whether it should be replaced by a hash of the current engine.
+ */
+public interface PasswordHashEngine {
+
+    /**
+     * Hashes a password with a new random salt.
+     *
+     * @param password the plaintext password (not null)
+     * @return the stored form, including everything needed to verify it
+     */
+    String hash(String password);
+
+    /**
+     * @param stored a stored hash
+     * @return true if the value is in this engine's format
+     */
+    boolean supports(String stored);
+
+    /**
+     * Checks a password against a stored hash in this engine's format.
+     *
+     * @return true if the password matches
+     */
+    boolean verify(String password, String stored);
+
+    /**
+     * @param stored a stored hash in this engine's format
+     * @return true if it was made with weaker settings than the engine uses now
+     */
+    boolean needsRehash(String stored);
+}
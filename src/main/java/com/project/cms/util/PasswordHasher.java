@@ -1,119 +1,212 @@
 package com.project.cms.util;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.SecureRandom;
-import java.util.Base64;
+import java.util.Arrays;
 
 /**
- * Utility class providing secure password hashing and verification
- * using SHA-256 with a randomly generated salt. The hashed password
- * is stored in the format: Base64(hash) : Base64(salt).
+ * Utility class providing secure password hashing and verification.
+ * <p>
+ * New passwords are hashed by the current {@link PasswordHashEngine}, by
+ * default PBKDF2-HMAC-SHA256 ({@link Pbkdf2HashEngine}) with a cost factor
+ * chosen by {@link #calibrate()}. Stored values carry their format, so
+ * hashes of the original salted SHA-256 scheme ({@code hash:salt}) and
+ * PBKDF2 hashes with an older cost factor still verify;
+ * {@link #needsRehash(String)} tells the caller to replace them after a
+ * successful login. A PBKDF2 hash is only outdated once its cost factor is
+ * below the minimum or below half of the calibrated one, so the small
+ * difference between two calibrations does not rehash every password.
+ * <p>
+ * {@link #calibrateAsync()} measures in a background thread so that startup
+ * does not wait for it; a hash or verification requested before it is done
+ * waits for the result.
+ * <p>
+ * Calibration settings (system properties):
+ * <ul>
+ *   <li>{@code cms.password.targetMillis} – time one hash should take (default 100)</li>
+ *   <li>{@code cms.password.minIterations} – lower bound of the cost factor (default 10000)</li>
+ *   <li>{@code cms.password.iterations} – fixed cost factor, skips the search</li>
+ * </ul>
  * @author Zeynep Sıla Şimşek
  */
 
 public class PasswordHasher {
 
-    private static final int SALT_LENGTH = 16;
-    private static final String DELIMITER = ":";
+    private static final PasswordHashEngine LEGACY = new LegacySha256HashEngine();
+
+    /** Verifies PBKDF2 hashes (their cost factor is stored) when another engine is plugged in. */
+    private static final PasswordHashEngine PBKDF2 = new Pbkdf2HashEngine(1);
+
+    /** Iterations timed per probe when calibrating. */
+    private static final int PROBE_ITERATIONS = 10_000;
+    /** Last probes whose fastest is taken as the cost of an iteration. */
+    private static final int MEASURED_PROBES = 10;
+    /** Time without a clearly faster probe after which the JIT counts as done. */
+    private static final long STABLE_NANOS = 500_000_000L;
+    /** A probe must be this much (relative) faster than the best to count as faster. */
+    private static final double IMPROVEMENT = 0.05;
+    /** Upper bound of the time spent calibrating. */
+    private static final long MAX_CALIBRATION_NANOS = 3_000_000_000L;
+
+    private static volatile PasswordHashEngine engine;
+    private static volatile HashCalibration calibration;
 
     /**
-     * Generates a salted SHA-256 hash for the given password.
-     * <p>
-     * A new random salt is produced for every call, and both the hash
-     * and the salt are encoded using Base64. If the password is null,
-     * the method returns null.
+     * Hashes a password with the current engine and a new random salt.
+     * If the password is null, the method returns null.
      *
      * @param password the plaintext password to hash
-     * @return a combined hash string in the format "hash:salt",
-     *         or null if the password is null
+     * @return the stored form of the hash, or null if the password is null
      */
 
     public static String hashPassword(String password) {
 
-        
         if (password == null) {
             return null;
         }
 
         try {
-            byte[] salt = generateSalt();
-            byte[] hashBytes = sha256(password, salt);
-
-            String hashStr = Base64.getEncoder().encodeToString(hashBytes);
-            String saltStr = Base64.getEncoder().encodeToString(salt);
-
-            return hashStr + DELIMITER + saltStr;
-
-        } catch (Exception e) {
+            return getEngine().hash(password);
+        } catch (RuntimeException e) {
             throw new RuntimeException("Password hashing failed.", e);
         }
     }
 
      /**
      * Verifies whether the provided plaintext password matches
-     * the previously stored salted hash.
-     * <p>
-     * The stored value must be in the format "hash:salt". The method
-     * recomputes the hash using the extracted salt and compares it
-     * to the stored hash.
+     * the previously stored hash, in any of the supported formats.
      *
      * @param password the password entered by the user
-     * @param stored   the stored hash string in "hash:salt" format
+     * @param stored   the stored hash string
      * @return true if the password is correct, false otherwise
      */
 
     public static boolean verifyPassword(String password, String stored) {
 
-        if (password == null || stored == null || !stored.contains(DELIMITER)) {
+        if (password == null || stored == null) {
             return false;
         }
 
         try {
-            String[] parts = stored.split(DELIMITER);
-            if (parts.length != 2) return false;
-
-            String storedHash = parts[0];
-            byte[] salt = Base64.getDecoder().decode(parts[1]);
-
-            byte[] enteredHash = sha256(password, salt);
-            String enteredHashStr = Base64.getEncoder().encodeToString(enteredHash);
-
-            return enteredHashStr.equals(storedHash);
+            PasswordHashEngine current = getEngine();
+            if (current.supports(stored)) return current.verify(password, stored);
+            if (PBKDF2.supports(stored)) return PBKDF2.verify(password, stored);
+            if (LEGACY.supports(stored)) return LEGACY.verify(password, stored);
+            return false;
 
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
             return false;
         }
     }
 
     /**
-     * Generates a cryptographically secure random salt.
+     * Tells whether a stored hash should be replaced by a hash of the current
+     * engine, e.g. right after the password was verified on login.
      *
-     * @return a byte array containing the generated salt
+     * @param stored the stored hash string
+     * @return true for hashes of an older format or a lower cost factor
      */
-
-    private static byte[] generateSalt() {
-        byte[] salt = new byte[SALT_LENGTH];
-        new SecureRandom().nextBytes(salt);
-        return salt;
+    public static boolean needsRehash(String stored) {
+        if (stored == null) return false;
+        PasswordHashEngine current = getEngine();
+        return !current.supports(stored) || current.needsRehash(stored);
     }
 
     /**
-     * Computes the SHA-256 hash of the password combined with the given salt.
+     * Measures this machine and switches to a PBKDF2 engine whose hashes take
+     * about {@code cms.password.targetMillis}. The first hash or verification
+     * calibrates if this was not done before.
      *
-     * @param password the plaintext password
-     * @param salt     the salt to apply before hashing
-     * @return the resulting SHA-256 hash as a byte array
-     * @throws Exception if SHA-256 algorithm is unavailable
+     * @return the chosen cost factor and the login throughput it allows
      */
+    public static synchronized HashCalibration calibrate() {
+        long targetMillis = Long.getLong("cms.password.targetMillis", 100);
+        int minIterations = Integer.getInteger("cms.password.minIterations", 10_000);
+        int fixedIterations = Integer.getInteger("cms.password.iterations", 0);
+
+        // Probe until the JIT is done with the loop: no probe clearly faster
+        // than the best one for a fixed stretch of time. Interference from
+        // other threads or the compiler only ever adds time, so the fastest
+        // of the last probes is what the loop costs.
+        byte[] salt = new byte[16];
+        long[] recent = new long[MEASURED_PROBES];
+        long best = Long.MAX_VALUE;
+        long began = System.nanoTime();
+        long bestAt = began;
+        for (int probe = 0; ; probe++) {
+            long start = System.nanoTime();
+            Pbkdf2HashEngine.derive("calibration", salt, PROBE_ITERATIONS);
+            long end = System.nanoTime();
+
+            recent[probe % MEASURED_PROBES] = end - start;
+            if (end - start < best * (1 - IMPROVEMENT)) {
+                best = end - start;
+                bestAt = end;
+            }
+            if (probe < MEASURED_PROBES) continue;
+
+            if (end - bestAt >= STABLE_NANOS) break;
+            if (end - began >= MAX_CALIBRATION_NANOS) break;
+        }
+        double nanosPerIteration = Arrays.stream(recent).min().getAsLong() / (double) PROBE_ITERATIONS;
+
+        int iterations;
+        if (fixedIterations > 0) {
+            iterations = fixedIterations;
+        } else {
+            long fitting = Math.round(targetMillis * 1_000_000 / nanosPerIteration / 1_000) * 1_000;
+            iterations = (int) Math.min(Math.max(fitting, minIterations), 10_000_000);
+        }
 
-    private static byte[] sha256(String password, byte[] salt) throws Exception {
-        MessageDigest md = MessageDigest.getInstance("SHA-256");
-        md.update(salt);
-        return md.digest(password.getBytes(StandardCharsets.UTF_8));
+        engine = new Pbkdf2HashEngine(iterations, Math.min(iterations, Math.max(minIterations, iterations / 2)));
+        calibration = new HashCalibration(iterations, iterations * nanosPerIteration / 1_000_000,
+                Runtime.getRuntime().availableProcessors());
+        return calibration;
     }
-}
 
+    /**
+     * Starts {@link #calibrate()} in a daemon thread and returns at once.
+     * Called once at startup.
+     */
+    public static void calibrateAsync() {
+        Thread calibrator = new Thread(() -> {
+            try {
+                calibrate();
+            } catch (RuntimeException e) {
+                System.out.println("⚠ Password hashing could not be calibrated: " + e.getMessage());
+            }
+        }, "cms-password-calibration");
+        calibrator.setDaemon(true);
+        calibrator.start();
+    }
 
+    /**
+     * @return the result of the last {@link #calibrate()}, or null if there was none
+     */
+    public static HashCalibration getCalibration() {
+        return calibration;
+    }
 
+    /**
+     * @return the engine hashing new passwords (calibrated on first use)
+     */
+    public static PasswordHashEngine getEngine() {
+        PasswordHashEngine current = engine;
+        if (current == null) {
+            synchronized (PasswordHasher.class) {
+                if (engine == null) calibrate();
+                current = engine;
+            }
+        }
+        return current;
+    }
 
+    /**
+     * Replaces the engine hashing new passwords, e.g. with a fixed cost factor
+     * in tests. Hashes of the previous engine then count as outdated unless
+     * the new engine supports them.
+     *
+     * @param newEngine the engine to use
+     */
+    public static synchronized void setEngine(PasswordHashEngine newEngine) {
+        engine = newEngine;
+    }
+}
@@ -0,0 +1,162 @@
+package com.project.cms.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * PBKDF2 with HMAC-SHA256 (RFC 8018), stored as
+ * {@code $pbkdf2-sha256$v=1$i=<iterations>$<salt>$<hash>} with Base64 salt
+ * and hash. The iteration count is the cost factor; it is part of the
+ * stored value, so hashes made with another count still verify.
+ * <p>
+ * A stored hash is only reported by {@link #needsRehash(String)} once its
+ * cost factor falls below a threshold, by default half of the current one.
+ * Calibration picks a slightly different count on every start, and a strict
+ * comparison would rehash every password after each restart.
+ * <p>
+ * The derivation is written out on top of a {@link Mac} kept per thread,
+ * instead of going through {@code SecretKeyFactory}, which creates a new
+ * {@code Mac} for every password. The 32-byte hash is a single PBKDF2 block.
+ */
+public final class Pbkdf2HashEngine implements PasswordHashEngine {
+
+    /** Format identifier and version of the stored values. */
+    static final String PREFIX = "$pbkdf2-sha256$v=1$i=";
+
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+
+    /** Upper bound accepted from a stored value, so a corrupt row cannot stall a login. */
+    private static final int MAX_ITERATIONS = 50_000_000;
+
+    private static final ThreadLocal<Mac> HMAC_SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance("HmacSHA256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("HmacSHA256 is not available.", e);
+        }
+    });
+
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+
+    private final int iterations;
+    private final int rehashBelow;
+
+    /**
+     * Creates an engine that asks for a rehash of hashes with less than half
+     * of its cost factor.
+     *
+     * @param iterations the cost factor of new hashes (at least 1)
+     */
+    public Pbkdf2HashEngine(int iterations) {
+        this(iterations, Math.max(1, iterations / 2));
+    }
+
+    /**
+     * @param iterations  the cost factor of new hashes (at least 1)
+     * @param rehashBelow stored hashes with a lower cost factor need a rehash
+     *                    (at most {@code iterations})
+     */
+    public Pbkdf2HashEngine(int iterations, int rehashBelow) {
+        if (iterations < 1 || iterations > MAX_ITERATIONS)
+            throw new IllegalArgumentException("Iterations must be between 1 and " + MAX_ITERATIONS + ".");
+        if (rehashBelow > iterations)
+            throw new IllegalArgumentException("The rehash threshold cannot exceed the iterations.");
+        this.iterations = iterations;
+        this.rehashBelow = rehashBelow;
+    }
+
+    /**
+     * @return the cost factor of new hashes
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @return the cost factor below which a stored hash needs a rehash
+     */
+    public int getRehashBelow() {
+        return rehashBelow;
+    }
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_LENGTH];
+        RANDOM.get().nextBytes(salt);
+
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations
+                + "$" + base64.encodeToString(salt)
+                + "$" + base64.encodeToString(derive(password, salt, iterations));
+    }
+
+    @Override
+    public boolean supports(String stored) {
+        return stored.startsWith(PREFIX);
+    }
+
+    @Override
+    public boolean verify(String password, String stored) {
+        String[] parts = stored.substring(PREFIX.length()).split("\\$");
+        if (parts.length != 3) return false;
+
+        int storedIterations = Integer.parseInt(parts[0]);
+        if (storedIterations < 1 || storedIterations > MAX_ITERATIONS) return false;
+
+        byte[] salt = Base64.getDecoder().decode(parts[1]);
+        byte[] expected = Base64.getDecoder().decode(parts[2]);
+        return MessageDigest.isEqual(expected, derive(password, salt, storedIterations));
+    }
+
+    @Override
+    public boolean needsRehash(String stored) {
+        int end = stored.indexOf('$', PREFIX.length());
+        try {
+            return end < 0 || Integer.parseInt(stored.substring(PREFIX.length(), end)) < rehashBelow;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * PBKDF2 for one output block:
+     * {@code U1 = HMAC(password, salt || 1)}, {@code Ui = HMAC(password, Ui-1)},
+     * result {@code U1 ^ U2 ^ ... ^ Un}.
+     */
+    static byte[] derive(String password, byte[] salt, int iterations) {
+        byte[] key = password.getBytes(StandardCharsets.UTF_8);
+        // HMAC pads the key with zeros, so an empty key equals a single zero byte
+        // (SecretKeySpec refuses empty keys)
+        if (key.length == 0) key = new byte[1];
+
+        Mac mac = HMAC_SHA256.get();
+        try {
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+
+            byte[] u = new byte[HASH_LENGTH];
+            mac.update(salt);
+            mac.update(new byte[]{0, 0, 0, 1});
+            mac.doFinal(u, 0);
+
+            byte[] result = u.clone();
+            for (int i = 1; i < iterations; i++) {
+                mac.update(u);
+                mac.doFinal(u, 0);
+                for (int j = 0; j < HASH_LENGTH; j++) {
+                    result[j] ^= u[j];
+                }
+            }
+            return result;
+        } catch (InvalidKeyException | ShortBufferException e) {
+            throw new IllegalStateException("Password hashing failed.", e);
+        }
+    }
+}
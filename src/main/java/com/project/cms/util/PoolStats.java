@@ -0,0 +1,134 @@
+package com.project.cms.util;
+
+/**
+ * Immutable snapshot of the runtime metrics of a {@link ConnectionPool}.
+ * <p>
+ * A snapshot is taken with {@link ConnectionPool#getStats()} and can be
+ * printed or compared freely; it never changes after creation.
+ */
+public class PoolStats {
+
+    private final int maxSize;
+    private final int active;
+    private final int idle;
+    private final int waiting;
+    private final long borrowCount;
+    private final long timeoutCount;
+    private final long createdCount;
+    private final long destroyedCount;
+    private final long leakCount;
+    private final long totalBorrowWaitNanos;
+    private final long maxBorrowWaitNanos;
+    private final long statementHitCount;
+    private final long statementMissCount;
+    private final long statementEvictionCount;
+
+    /**
+     * Creates a new statistics snapshot.
+     *
+     * @param maxSize              configured upper bound of physical connections
+     * @param active               connections currently borrowed
+     * @param idle                 connections currently waiting in the pool
+     * @param waiting              threads currently blocked in borrow
+     * @param borrowCount          successful borrows since startup
+     * @param timeoutCount         borrows that gave up after the borrow timeout
+     * @param createdCount         physical connections opened since startup
+     * @param destroyedCount       physical connections closed since startup
+     * @param leakCount            borrows reported as possible leaks
+     * @param totalBorrowWaitNanos accumulated time spent waiting in borrow
+     * @param maxBorrowWaitNanos   longest single wait in borrow
+     * @param statementHitCount   prepares answered from a connection's statement cache
+     * @param statementMissCount  prepares that went to the database
+     * @param statementEvictionCount cached statements closed because a cache was full
+     */
+    public PoolStats(int maxSize, int active, int idle, int waiting,
+                     long borrowCount, long timeoutCount,
+                     long createdCount, long destroyedCount, long leakCount,
+                     long totalBorrowWaitNanos, long maxBorrowWaitNanos,
+                     long statementHitCount, long statementMissCount, long statementEvictionCount) {
+        this.maxSize = maxSize;
+        this.active = active;
+        this.idle = idle;
+        this.waiting = waiting;
+        this.borrowCount = borrowCount;
+        this.timeoutCount = timeoutCount;
+        this.createdCount = createdCount;
+        this.destroyedCount = destroyedCount;
+        this.leakCount = leakCount;
+        this.totalBorrowWaitNanos = totalBorrowWaitNanos;
+        this.maxBorrowWaitNanos = maxBorrowWaitNanos;
+        this.statementHitCount = statementHitCount;
+        this.statementMissCount = statementMissCount;
+        this.statementEvictionCount = statementEvictionCount;
+    }
+
+    /** @return configured upper bound of physical connections */
+    public int getMaxSize() { return maxSize; }
+
+    /** @return connections currently borrowed by callers */
+    public int getActive() { return active; }
+
+    /** @return connections currently idle in the pool */
+    public int getIdle() { return idle; }
+
+    /** @return threads currently blocked waiting for a connection */
+    public int getWaiting() { return waiting; }
+
+    /** @return number of successful borrows since startup */
+    public long getBorrowCount() { return borrowCount; }
+
+    /** @return number of borrows that timed out */
+    public long getTimeoutCount() { return timeoutCount; }
+
+    /** @return number of physical connections opened since startup */
+    public long getCreatedCount() { return createdCount; }
+
+    /** @return number of physical connections closed since startup */
+    public long getDestroyedCount() { return destroyedCount; }
+
+    /** @return number of borrows reported as possible connection leaks */
+    public long getLeakCount() { return leakCount; }
+
+    /**
+     * @return average time a successful borrow spent waiting, in milliseconds
+     */
+    public double getAverageBorrowWaitMillis() {
+        return borrowCount == 0 ? 0 : totalBorrowWaitNanos / (double) borrowCount / 1_000_000.0;
+    }
+
+    /**
+     * @return longest time a single borrow spent waiting, in milliseconds
+     */
+    public double getMaxBorrowWaitMillis() {
+        return maxBorrowWaitNanos / 1_000_000.0;
+    }
+
+    /** @return prepares answered from a connection's statement cache */
+    public long getStatementHitCount() { return statementHitCount; }
+
+    /** @return prepares that went to the database */
+    public long getStatementMissCount() { return statementMissCount; }
+
+    /** @return cached statements closed because a connection's cache was full */
+    public long getStatementEvictionCount() { return statementEvictionCount; }
+
+    /**
+     * @return share of prepares answered from the statement caches, between 0 and 1
+     */
+    public double getStatementHitRatio() {
+        long total = statementHitCount + statementMissCount;
+        return total == 0 ? 0 : statementHitCount / (double) total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "PoolStats {active=%d, idle=%d, max=%d, waiting=%d, borrows=%d, timeouts=%d, "
+                        + "created=%d, destroyed=%d, leaks=%d, avgWait=%.3fms, maxWait=%.3fms, "
+                        + "stmtHits=%d, stmtMisses=%d, stmtHitRatio=%.1f%%, stmtEvictions=%d}",
+                active, idle, maxSize, waiting, borrowCount, timeoutCount,
+                createdCount, destroyedCount, leakCount,
+                getAverageBorrowWaitMillis(), getMaxBorrowWaitMillis(),
+                statementHitCount, statementMissCount, getStatementHitRatio() * 100, statementEvictionCount);
+    }
+}
@@ -0,0 +1,354 @@
+package com.project.cms.util;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of PUT and DELETE records, used to persist an in-memory store.
+ * <p>
+ * Every change is appended as one frame {@code [length][crc32][op][payload]}
+ * before it is applied in memory. A bulk change ({@link #putAll},
+ * {@link #deleteAll}) is a single BATCH frame holding all of its records, so
+ * the checksum covers the whole batch: after a crash it is replayed either
+ * completely or not at all. On startup {@link #replay} feeds the frames
+ * back in order, which rebuilds the state the store had when it stopped.
+ * A frame that is cut short or fails its checksum (a crash in the middle of a
+ * write) ends the replay; the file is truncated there so later appends follow
+ * the last good frame.
+ * <p>
+ * An overwritten or deleted record keeps occupying space until
+ * {@link #rewrite} replaces the file with one PUT per live record.
+ *
+ * @param <T> the record type
+ */
+public class RecordLog<T> implements Closeable {
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final byte OP_BATCH = 3;
+
+    /**
+     * Frames larger than this are treated as corruption during replay. A batch
+     * is one frame, so this also bounds the size of a single bulk change.
+     */
+    private static final int MAX_FRAME_BYTES = 1 << 28;
+
+    /**
+     * Converts records to and from their binary form.
+     *
+     * @param <T> the record type
+     */
+    public interface Codec<T> {
+        void write(DataOutput out, T value) throws IOException;
+
+        T read(DataInput in) throws IOException;
+    }
+
+    /**
+     * Receives the records of the log during {@link #replay}.
+     *
+     * @param <T> the record type
+     */
+    public interface Replayer<T> {
+        void put(T value);
+
+        void delete(int id);
+    }
+
+    private final Path file;
+    private final Codec<T> codec;
+    private final boolean sync;
+
+    private FileChannel channel;
+    private long records;
+
+    /**
+     * Opens (or creates) a log file.
+     *
+     * @param file  the log file
+     * @param codec converts the records
+     * @param sync  true to force every append to the disk before returning
+     * @throws IOException if the file cannot be opened
+     */
+    public RecordLog(Path file, Codec<T> codec, boolean sync) throws IOException {
+        this.file = file;
+        this.codec = codec;
+        this.sync = sync;
+
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Reads all frames from the start of the file and hands them to {@code target}.
+     * A damaged tail is cut off; the records of a damaged batch are not handed out.
+     *
+     * @param target receives the records in log order
+     * @return number of records replayed
+     * @throws IOException if the file cannot be read
+     */
+    public synchronized long replay(Replayer<T> target) throws IOException {
+        long good = 0;
+        long count = 0;
+
+        channel.position(0);
+        InputStream raw = new BufferedInputStream(Channels.newInputStream(channel), 1 << 16);
+        DataInputStream in = new DataInputStream(raw);
+
+        while (true) {
+            byte[] frame;
+            try {
+                int length = in.readInt();
+                int crc = in.readInt();
+                if (length <= 0 || length > MAX_FRAME_BYTES) break;
+
+                frame = new byte[length];
+                in.readFully(frame);
+                if (crc32(frame) != crc) break;
+            } catch (EOFException e) {
+                break;
+            }
+
+            DataInputStream record = new DataInputStream(new ByteArrayInputStream(frame));
+            byte op = record.readByte();
+            if (op == OP_BATCH) {
+                // decode the whole batch before applying any of it
+                List<Object> batch;
+                try {
+                    int size = record.readInt();
+                    batch = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        batch.add(readRecord(record, record.readByte()));
+                    }
+                } catch (IOException e) {
+                    break;
+                }
+                for (Object value : batch) {
+                    apply(target, value);
+                }
+                count += batch.size();
+            } else if (op == OP_PUT || op == OP_DELETE) {
+                apply(target, readRecord(record, op));
+                count++;
+            } else {
+                break;
+            }
+
+            good += 8 + frame.length;
+        }
+
+        if (good < channel.size()) {
+            System.out.println("⚠ " + file.getFileName() + ": discarding " + (channel.size() - good)
+                    + " damaged bytes at the end of the log.");
+            channel.truncate(good);
+        }
+        channel.position(good);
+        records = count;
+        return count;
+    }
+
+    /**
+     * Appends a PUT record.
+     *
+     * @param value the record as it should be after the change
+     * @throws IOException if the frame cannot be written
+     */
+    public void put(T value) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(256);
+        appendPut(buf, value);
+        write(buf, 1);
+    }
+
+    /**
+     * Appends one PUT record per value as a single BATCH frame, which replay
+     * applies completely or not at all.
+     *
+     * @param values the records
+     * @throws IOException if the frame cannot be written or exceeds the frame size limit
+     */
+    public void putAll(Collection<? extends T> values) throws IOException {
+        if (values.isEmpty()) return;
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(256 * values.size());
+        DataOutputStream out = new DataOutputStream(payload);
+        out.writeByte(OP_BATCH);
+        out.writeInt(values.size());
+        for (T value : values) {
+            out.writeByte(OP_PUT);
+            codec.write(out, value);
+        }
+        writeBatch(payload, values.size());
+    }
+
+    /**
+     * Appends a DELETE record.
+     *
+     * @param id the ID of the removed record
+     * @throws IOException if the frame cannot be written
+     */
+    public void delete(int id) throws IOException {
+        deleteAll(new int[]{id});
+    }
+
+    /**
+     * Appends one DELETE record per ID as a single BATCH frame, which replay
+     * applies completely or not at all.
+     *
+     * @param ids the IDs of the removed records
+     * @throws IOException if the frame cannot be written or exceeds the frame size limit
+     */
+    public void deleteAll(int[] ids) throws IOException {
+        if (ids.length == 0) return;
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(5 + 5 * ids.length);
+        DataOutputStream out = new DataOutputStream(payload);
+        out.writeByte(OP_BATCH);
+        out.writeInt(ids.length);
+        for (int id : ids) {
+            out.writeByte(OP_DELETE);
+            out.writeInt(id);
+        }
+        writeBatch(payload, ids.length);
+    }
+
+    /**
+     * @return number of records in the file, live or superseded
+     */
+    public synchronized long getRecordCount() {
+        return records;
+    }
+
+    /**
+     * Replaces the log with one PUT per live record. The new file is written
+     * next to the old one and moved over it, so a crash leaves either the old
+     * or the new log, never a mix.
+     *
+     * @param live every record currently in the store
+     * @throws IOException if the new file cannot be written
+     */
+    public synchronized void rewrite(Collection<? extends T> live) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream(1 << 16);
+            for (T value : live) {
+                appendPut(buf, value);
+                if (buf.size() >= 1 << 16) {
+                    writeFully(out, buf.toByteArray());
+                    buf.reset();
+                }
+            }
+            writeFully(out, buf.toByteArray());
+            out.force(true);
+        }
+
+        channel.close();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        records = live.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    // ===========================================================
+    // INTERNALS
+    // ===========================================================
+
+    private void appendPut(ByteArrayOutputStream buf, T value) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(payload);
+        out.writeByte(OP_PUT);
+        codec.write(out, value);
+        frame(buf, payload.toByteArray());
+    }
+
+    private void writeBatch(ByteArrayOutputStream payload, int count) throws IOException {
+        if (payload.size() > MAX_FRAME_BYTES) {
+            throw new IOException("Batch of " + count + " records exceeds " + MAX_FRAME_BYTES + " bytes.");
+        }
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(8 + payload.size());
+        frame(buf, payload.toByteArray());
+        write(buf, count);
+    }
+
+    /**
+     * Reads the body of a PUT or DELETE record: the value, or the deleted ID
+     * as an {@link Integer}.
+     */
+    private Object readRecord(DataInputStream in, byte op) throws IOException {
+        if (op == OP_PUT) return codec.read(in);
+        if (op == OP_DELETE) return in.readInt();
+        throw new IOException("Unknown record type " + op + ".");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void apply(Replayer<T> target, Object value) {
+        if (value instanceof Integer id) {
+            target.delete(id);
+        } else {
+            target.put((T) value);
+        }
+    }
+
+    private static void frame(ByteArrayOutputStream buf, byte[] payload) throws IOException {
+        DataOutputStream out = new DataOutputStream(buf);
+        out.writeInt(payload.length);
+        out.writeInt(crc32(payload));
+        out.write(payload);
+    }
+
+    private synchronized void write(ByteArrayOutputStream buf, int count) throws IOException {
+        long start = channel.position();
+        try {
+            writeFully(channel, buf.toByteArray());
+            if (sync) channel.force(false);
+        } catch (IOException e) {
+            // drop a half-written frame so the next append does not follow garbage
+            try {
+                channel.truncate(start);
+                channel.position(start);
+            } catch (IOException ignored) {
+                // replay will cut the damaged tail instead
+            }
+            throw e;
+        }
+        records += count;
+    }
+
+    private static void writeFully(FileChannel ch, byte[] bytes) throws IOException {
+        ByteBuffer bb = ByteBuffer.wrap(bytes);
+        while (bb.hasRemaining()) {
+            ch.write(bb);
+        }
+    }
+
+    private static int crc32(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,45 @@
+package com.project.cms.util;
+
+/**
+ * Counts the database round trips made by the current thread, so that a
+ * test can check what one service call costs:
+ * <pre>
+ * RoundTrips.reset();
+ * contactService.createContact(contact, user);
+ * long trips = RoundTrips.count();     // 1
+ * </pre>
+ * The count is kept per thread and fed by {@link ConnectionPool}. Counted as
+ * one round trip each: executing a statement, preparing one on the
+ * connection (the statement cache makes repeats free; with
+ * {@code useServerPrepStmts} a prepare is a request to the server),
+ * {@code commit()}, {@code rollback()}, a {@code setAutoCommit()} that
+ * changes the mode, and the validation of a connection that was idle.
+ * <p>
+ * Not counted: opening a physical connection, and further fetches of a
+ * result set read with cursor fetching.
+ */
+public final class RoundTrips {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private RoundTrips() {
+    }
+
+    /**
+     * Starts counting from zero on the current thread.
+     */
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    /**
+     * @return round trips made by the current thread since the last {@link #reset()}
+     */
+    public static long count() {
+        return COUNT.get()[0];
+    }
+
+    static void record() {
+        COUNT.get()[0]++;
+    }
+}
@@ -0,0 +1,68 @@
+package com.project.cms.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded registry of SQL texts built at runtime (search conditions, sort
+ * orders, seek predicates).
+ * <p>
+ * Callers describe the shape of a query with a short key, e.g. the set of
+ * searched columns, and only build the SQL on the first request for that
+ * shape. Because every request for the same shape then returns the very
+ * same text, the statement cache of the {@link ConnectionPool} can reuse
+ * the statement it prepared for it. The least recently used text is dropped
+ * when the registry is full.
+ */
+public class SqlTemplateCache {
+
+    private final int maxSize;
+    private final Map<String, String> templates;
+
+    // guarded by this
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * @param maxSize maximum number of SQL texts kept
+     */
+    public SqlTemplateCache(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        this.templates = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                if (size() <= SqlTemplateCache.this.maxSize) return false;
+                evictionCount++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the SQL registered for a query shape, building it on first use.
+     *
+     * @param key   identifies the query shape; equal keys must produce equal SQL
+     * @param build builds the SQL text for the key
+     * @return the SQL text
+     */
+    public synchronized String get(String key, Supplier<String> build) {
+        String sql = templates.get(key);
+        if (sql != null) {
+            hitCount++;
+            return sql;
+        }
+        missCount++;
+        sql = build.get();
+        templates.put(key, sql);
+        return sql;
+    }
+
+    /**
+     * @return a snapshot of the registry counters (nothing ever expires)
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(templates.size(), maxSize, hitCount, missCount, evictionCount, 0);
+    }
+}
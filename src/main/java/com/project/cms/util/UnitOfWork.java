@@ -0,0 +1,229 @@
+package com.project.cms.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binds one database transaction to the current thread for the length of a
+ * service call, so that the DAO calls made inside it share one connection
+ * and commit together.
+ * <pre>
+ * try (UnitOfWork work = UnitOfWork.begin()) {
+ *     Contact old = contactDao.findById(id);
+ *     contactDao.updateContact(changed);
+ *     work.commit();
+ * }
+ * </pre>
+ * While a unit is open, {@link DbConnection#getConnection()} returns the
+ * unit's connection instead of borrowing a new one. The connection is only
+ * borrowed on the first DAO call (a unit that never reaches the database,
+ * e.g. with in-memory storage, costs nothing) and runs with auto-commit off.
+ * Inside the unit, {@code close()}, {@code commit()} and
+ * {@code setAutoCommit()} on that connection do nothing, and a DAO's
+ * {@code rollback()} marks the whole unit for rollback.
+ * <p>
+ * Closing the unit without {@link #commit()} (e.g. because an exception
+ * was thrown) rolls it back. Units opened while another one is active join
+ * it: their {@code commit()} does nothing, and closing them without commit
+ * makes the outer unit roll back.
+ */
+public final class UnitOfWork implements AutoCloseable {
+
+    /** Told when a unit has ended, e.g. to refresh caches filled inside it. */
+    @FunctionalInterface
+    public interface CompletionListener {
+        /**
+         * @param committed true if the transaction was committed, false if it was rolled back
+         */
+        void completed(boolean committed);
+    }
+
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    /** The outermost unit; {@code this} for the outermost unit itself. */
+    private final UnitOfWork root;
+    private boolean committed;
+    private boolean closed;
+
+    // root only
+    private Connection connection;
+    private Connection shared;
+    private boolean rollbackOnly;
+    private List<CompletionListener> listeners;
+
+    private UnitOfWork(UnitOfWork outer) {
+        this.root = outer == null ? this : outer;
+    }
+
+    /**
+     * Opens a unit of work on the current thread, or joins the one already open.
+     *
+     * @return the unit; close it with try-with-resources
+     */
+    public static UnitOfWork begin() {
+        UnitOfWork current = CURRENT.get();
+        if (current != null) {
+            return new UnitOfWork(current);
+        }
+        UnitOfWork work = new UnitOfWork(null);
+        CURRENT.set(work);
+        return work;
+    }
+
+    /**
+     * @return true if a unit of work is open on the current thread
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Registers a listener for the end of the unit open on the current thread.
+     * Listeners run after the connection was given back, outside the unit.
+     *
+     * @param listener the listener
+     * @return false (and nothing is registered) if no unit is open
+     */
+    public static boolean afterCompletion(CompletionListener listener) {
+        UnitOfWork current = CURRENT.get();
+        if (current == null) return false;
+
+        if (current.listeners == null) current.listeners = new ArrayList<>();
+        current.listeners.add(listener);
+        return true;
+    }
+
+    /**
+     * Returns the connection of the unit open on the current thread,
+     * borrowing it from {@code pool} on first use.
+     *
+     * @return the unit's connection, or null if no unit is open
+     */
+    static Connection currentConnection(ConnectionPool pool) throws SQLException {
+        UnitOfWork current = CURRENT.get();
+        if (current == null) return null;
+
+        if (current.connection == null) {
+            Connection borrowed = pool.borrow();
+            try {
+                borrowed.setAutoCommit(false);
+            } catch (SQLException e) {
+                borrowed.close();
+                throw e;
+            }
+            current.connection = borrowed;
+            current.shared = share(current, borrowed);
+        }
+        return current.shared;
+    }
+
+    /**
+     * Commits the unit. For a unit that joined an outer one, this only
+     * records that it completed; the outer unit commits.
+     *
+     * @throws RuntimeException if a DAO call inside the unit rolled back
+     *                          or the commit failed; the unit is then rolled back
+     */
+    public void commit() {
+        if (closed || committed)
+            throw new IllegalStateException("Unit of work already " + (closed ? "closed." : "committed."));
+
+        if (root != this) {
+            committed = true;
+            return;
+        }
+        if (rollbackOnly) {
+            throw new RuntimeException("Database error: The transaction was rolled back.");
+        }
+        if (connection != null) {
+            try {
+                connection.commit();
+            } catch (SQLException e) {
+                throw new RuntimeException("Database error: Failed to commit: " + e.getMessage(), e);
+            }
+        }
+        committed = true;
+    }
+
+    /**
+     * Ends the unit: rolls it back unless it was committed, returns the
+     * connection to the pool and notifies the listeners.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+
+        if (root != this) {
+            if (!committed) root.rollbackOnly = true;
+            return;
+        }
+
+        CURRENT.remove();
+        if (connection != null) {
+            try {
+                if (!committed) connection.rollback();
+                connection.setAutoCommit(true);        // spares the pool its own rollback
+            } catch (SQLException e) {
+                System.out.println("⚠ Rollback failed: " + e.getMessage());
+            }
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+                // the pool discards a broken connection on its own
+            }
+        }
+
+        if (listeners != null) {
+            for (CompletionListener listener : listeners) {
+                try {
+                    listener.completed(committed);
+                } catch (RuntimeException e) {
+                    System.out.println("⚠ Error after transaction end: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Wraps the unit's connection for the DAOs: transaction control is left
+     * to the unit.
+     */
+    private static Connection share(UnitOfWork unit, Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close", "commit", "setAutoCommit" -> {
+                            return null;
+                        }
+                        case "getAutoCommit" -> {
+                            return false;
+                        }
+                        case "rollback" -> {
+                            if (args == null) {
+                                unit.rollbackOnly = true;
+                                return null;
+                            }
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        default -> { }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
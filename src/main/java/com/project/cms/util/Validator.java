@@ -5,9 +5,14 @@ import com.project.cms.exception.AppExceptions.ValidationException;
 import com.project.cms.model.Contact;
 import com.project.cms.model.User;
 import java.time.LocalDate;
+import java.util.regex.Pattern;
 
 public class Validator {
 
+    // compiled once; imports validate every row
+    private static final Pattern PHONE_SEPARATORS = Pattern.compile("[\\s-]");
+    private static final Pattern PHONE = Pattern.compile("^\\+90[0-9]{10}$");
+
     /* ------------------------------------------------------
        CONTACT VALIDATION  
        ------------------------------------------------------ */
@@ -113,17 +118,30 @@ public class Validator {
         if (phone == null || phone.trim().isEmpty())
             throw new ValidationException("Phone number is required.");
 
-        String p = phone.replaceAll("[\\s-]", "");
+        String p = PHONE_SEPARATORS.matcher(phone).replaceAll("");
 
         // Only allow +90 followed by 10 digits
         // +90 5xxxxxxxxx -> 13 chars total
-        if (p.startsWith("+90") && p.length() == 13 && p.matches("^\\+90[0-9]{10}$")) {
+        if (p.startsWith("+90") && p.length() == 13 && PHONE.matcher(p).matches()) {
              return;
         }
 
         throw new ValidationException("Invalid phone number format. Must start with +90 and be 13 characters long.");
     }
 
+    /**
+     * Removes the spaces and dashes {@link #validatePhone} accepts, so that
+     * "+90 555 123 45 67" is stored as "+905551234567". Every write path
+     * stores phones in this form, which lets lookups compare them with a
+     * plain equality that the phone index can answer.
+     *
+     * @param phone a phone number as entered, or null
+     * @return the number without separators, or null
+     */
+    public static String normalizePhone(String phone) {
+        return phone == null ? null : PHONE_SEPARATORS.matcher(phone).replaceAll("");
+    }
+
     /* ------------------------------------------------------
        HELPER
        ------------------------------------------------------ */
@@ -16,7 +16,9 @@ CREATE TABLE users (
     phone VARCHAR(20),
     birth_date DATE,
     role ENUM('MANAGER', 'SENIOR_DEVELOPER', 'JUNIOR_DEVELOPER', 'TESTER') NOT NULL,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- increased by every update; updates are made WHERE user_id = ? AND version = ?
+    version INT NOT NULL DEFAULT 0
 );
 
 INSERT INTO users (username, password_hash, name, surname, phone, birth_date, role)
@@ -40,7 +42,18 @@ CREATE TABLE contacts (
     linkedin_url VARCHAR(255),
     birth_date DATE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP NULL DEFAULT NULL
+    updated_at TIMESTAMP NULL DEFAULT NULL,
+    -- increased by every update; updates are made WHERE contact_id = ? AND version = ?
+    version INT NOT NULL DEFAULT 0,
+    -- (sort column, contact_id) indexes back the keyset pagination of the list/sort views
+    INDEX idx_contacts_first_name (first_name, contact_id),
+    INDEX idx_contacts_last_name (last_name, contact_id),
+    INDEX idx_contacts_nickname (nickname, contact_id),
+    INDEX idx_contacts_city (city, contact_id),
+    INDEX idx_contacts_phone_primary (phone_primary, contact_id),
+    INDEX idx_contacts_email (email, contact_id),
+    INDEX idx_contacts_birth_date (birth_date, contact_id),
+    INDEX idx_contacts_created_at (created_at, contact_id)
 );
 
 INSERT INTO contacts 
@@ -0,0 +1,9 @@
+-- Migration for databases created from an earlier Group18.sql:
+-- adds the row version used for optimistic locking of updates.
+USE contact_app_db;
+
+ALTER TABLE users
+    ADD COLUMN version INT NOT NULL DEFAULT 0;
+
+ALTER TABLE contacts
+    ADD COLUMN version INT NOT NULL DEFAULT 0 AFTER updated_at;
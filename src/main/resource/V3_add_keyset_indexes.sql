@@ -0,0 +1,13 @@
+-- Migration for databases created from an earlier Group18.sql:
+-- adds the (sort column, contact_id) indexes behind the keyset pagination
+-- of the list/sort views. Without them every page is sorted with a filesort.
+USE contact_app_db;
+
+CREATE INDEX idx_contacts_first_name ON contacts (first_name, contact_id);
+CREATE INDEX idx_contacts_last_name ON contacts (last_name, contact_id);
+CREATE INDEX idx_contacts_nickname ON contacts (nickname, contact_id);
+CREATE INDEX idx_contacts_city ON contacts (city, contact_id);
+CREATE INDEX idx_contacts_phone_primary ON contacts (phone_primary, contact_id);
+CREATE INDEX idx_contacts_email ON contacts (email, contact_id);
+CREATE INDEX idx_contacts_birth_date ON contacts (birth_date, contact_id);
+CREATE INDEX idx_contacts_created_at ON contacts (created_at, contact_id);
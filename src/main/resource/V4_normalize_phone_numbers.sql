@@ -0,0 +1,14 @@
+-- Migration for databases created from an earlier Group18.sql:
+-- removes the spaces and dashes the application used to store in phone
+-- numbers ("+90 555 123 45 67" becomes "+905551234567"). Every write now
+-- stores this form, and the import matches existing contacts by it.
+-- The row version is left alone: the numbers themselves do not change.
+USE contact_app_db;
+
+UPDATE contacts
+SET phone_primary = REPLACE(REPLACE(REPLACE(phone_primary, ' ', ''), '-', ''), '\t', '')
+WHERE phone_primary REGEXP '[[:space:]-]';
+
+UPDATE contacts
+SET phone_secondary = REPLACE(REPLACE(REPLACE(phone_secondary, ' ', ''), '-', ''), '\t', '')
+WHERE phone_secondary REGEXP '[[:space:]-]';